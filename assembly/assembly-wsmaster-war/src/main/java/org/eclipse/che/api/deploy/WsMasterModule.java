@@ -30,6 +30,7 @@ public class WsMasterModule extends AbstractModule {
         bind(org.eclipse.che.api.project.server.template.ProjectTemplateService.class);
         bind(org.eclipse.che.api.ssh.server.SshService.class);
         bind(org.eclipse.che.api.machine.server.recipe.RecipeService.class);
+        bind(org.eclipse.che.api.machine.server.wsagent.WsAgentService.class);
         bind(org.eclipse.che.api.user.server.UserService.class);
         bind(org.eclipse.che.api.user.server.ProfileService.class);
         bind(org.eclipse.che.api.user.server.PreferencesService.class);
@@ -107,8 +107,9 @@ public final class WSocketEventBusClient {
                     }
                 }
                 if (!cfg.isEmpty()) {
-                    executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("WSocketEventBusClient-%d")
-                                                                                       .setDaemon(true).build());
+                    // there is at most one connect task per server at the same time
+                    executor = Executors.newFixedThreadPool(cfg.size(), new ThreadFactoryBuilder().setNameFormat("WSocketEventBusClient-%d")
+                                                                                                  .setDaemon(true).build());
                     for (Map.Entry<URI, Set<String>> entry : cfg.entrySet()) {
                         executor.execute(new ConnectTask(entry.getKey(), entry.getValue()));
                     }
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import com.google.inject.Inject;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Keeps executors of the long operations, e.g. start of the workspaces, so size of the executors
+ * may be configured in one place and their statistic is available through JMX
+ * as {@code org.eclipse.che:type=Executor,name=<name>}.
+ * <p/>
+ * Default size of the executor is defined by component which uses it, it may be overridden with
+ * {@value #CONFIGURATION} property in format {@code <name>=<max threads>:<queue capacity>[,...]},
+ * e.g. {@code workspace_start=20:500,workspace_stop=10:500}.
+ *
+ * @author andrew00x
+ */
+@Singleton
+public class ExecutorRegistry {
+    public static final String CONFIGURATION = "che.executors";
+
+    public static final String WORKSPACE_START    = "workspace_start";
+    public static final String WORKSPACE_STOP     = "workspace_stop";
+    public static final String WORKSPACE_SNAPSHOT = "workspace_snapshot";
+    public static final String MACHINE_LOGS       = "machine_logs";
+    public static final String MACHINE_START      = "machine_start";
+    public static final String MACHINE_STOP       = "machine_stop";
+
+    private final ConcurrentMap<String, InstrumentedThreadPoolExecutor> executors;
+    private final Map<String, int[]>                                    configuration;
+
+    public ExecutorRegistry() {
+        this.executors = new ConcurrentHashMap<>();
+        this.configuration = new HashMap<>();
+    }
+
+    @Inject(optional = true)
+    public void setConfiguration(@Named(CONFIGURATION) String configuration) {
+        for (String entry : configuration.split(",")) {
+            entry = entry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            final int eq = entry.indexOf('=');
+            final int colon = entry.indexOf(':', eq + 1);
+            if (eq < 1 || colon < 0) {
+                throw new IllegalArgumentException(String.format("Invalid configuration of executor '%s'", entry));
+            }
+            try {
+                this.configuration.put(entry.substring(0, eq).trim(),
+                                       new int[] {Integer.parseInt(entry.substring(eq + 1, colon).trim()),
+                                                  Integer.parseInt(entry.substring(colon + 1).trim())});
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format("Invalid configuration of executor '%s'", entry));
+            }
+        }
+    }
+
+    /**
+     * Returns executor with given name, creates it at the first call.
+     *
+     * @param name
+     *         name of the executor
+     * @param maxThreads
+     *         maximum number of threads if it isn't configured with {@value #CONFIGURATION} property
+     * @param queueCapacity
+     *         capacity of queue if it isn't configured with {@value #CONFIGURATION} property
+     */
+    public ExecutorService getExecutor(String name, int maxThreads, int queueCapacity) {
+        return executors.computeIfAbsent(name, n -> {
+            final int[] configured = configuration.get(n);
+            final InstrumentedThreadPoolExecutor executor = configured == null
+                                                            ? new InstrumentedThreadPoolExecutor(n, maxThreads, queueCapacity)
+                                                            : new InstrumentedThreadPoolExecutor(n, configured[0], configured[1]);
+            MBeanRegistrations.register(executor, "Executor", n);
+            return executor;
+        });
+    }
+
+    /** Returns statistic of all the executors. */
+    public List<InstrumentedExecutorMXBean> getStatistic() {
+        return new ArrayList<>(executors.values());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (InstrumentedThreadPoolExecutor executor : executors.values()) {
+            executor.shutdownNow();
+            MBeanRegistrations.unregister("Executor", executor.getName());
+        }
+        executors.clear();
+    }
+}
@@ -10,39 +10,173 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.util;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
+import java.lang.ref.WeakReference;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Writes lines to the file. Lines are buffered and flushed to the file periodically, with interval that is
+ * set in constructor, and when consumer is closed, so many lines are written to disk with single write operation.
+ * <p/>
+ * Periodic flush task doesn't keep consumer reachable, if consumer is garbage collected without being closed
+ * the task flushes the rest of the lines, closes the file and stops.
+ *
  * @author andrew00x
  */
 public class FileLineConsumer implements LineConsumer {
-    private final File   file;
-    private final Writer writer;
+    private static final Logger LOG = LoggerFactory.getLogger(FileLineConsumer.class);
+
+    /** Default interval of flushing of the buffered lines to the file. */
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 200;
+
+    private static final ScheduledExecutorService FLUSHER =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("FileLineConsumerFlusher")
+                                                                                 .setDaemon(true)
+                                                                                 .build());
+
+    private final File         file;
+    private final BufferedFile output;
+    private final FlushTask    flushTask;
 
     public FileLineConsumer(File file) throws IOException {
+        this(file, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    /**
+     * @param file
+     *         file to write lines to
+     * @param flushIntervalMs
+     *         interval of flushing of the buffered lines to the file, if it is 0 then each line is flushed immediately
+     */
+    public FileLineConsumer(File file, long flushIntervalMs) throws IOException {
         this.file = file;
-        writer = Files.newBufferedWriter(file.toPath(), Charset.defaultCharset());
+        output = new BufferedFile(file, Files.newBufferedWriter(file.toPath(), Charset.defaultCharset()), flushIntervalMs == 0);
+        if (flushIntervalMs > 0) {
+            flushTask = new FlushTask(this, output);
+            flushTask.future = FLUSHER.scheduleWithFixedDelay(flushTask, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            flushTask = null;
+        }
     }
 
     public File getFile() {
         return file;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IOException
+     *         if consumer is already closed or line can't be written
+     */
     @Override
     public void writeLine(String line) throws IOException {
-        if (line != null) {
-            writer.write(line);
-        }
-        writer.write('\n');
-        writer.flush();
+        output.write(line);
+    }
+
+    /** Writes buffered lines to the file. */
+    public void flush() throws IOException {
+        output.flush();
     }
 
     @Override
     public void close() throws IOException {
-        writer.close();
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        output.close();
+    }
+
+    /** File with buffered lines, it is shared by consumer and its flush task. */
+    private static class BufferedFile {
+        final File    file;
+        final Writer  writer;
+        final boolean autoFlush;
+
+        boolean dirty;
+        boolean closed;
+
+        BufferedFile(File file, Writer writer, boolean autoFlush) {
+            this.file = file;
+            this.writer = writer;
+            this.autoFlush = autoFlush;
+        }
+
+        synchronized void write(String line) throws IOException {
+            if (closed) {
+                throw new IOException(String.format("Unable write line to file %s, consumer is closed", file));
+            }
+            if (line != null) {
+                writer.write(line);
+            }
+            writer.write('\n');
+            if (autoFlush) {
+                writer.flush();
+            } else {
+                dirty = true;
+            }
+        }
+
+        synchronized void flush() throws IOException {
+            if (dirty && !closed) {
+                dirty = false;
+                writer.flush();
+            }
+        }
+
+        synchronized void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            writer.close();
+        }
+    }
+
+    /** Flushes lines periodically, holds consumer weakly so consumer which is not closed may still be collected. */
+    private static class FlushTask implements Runnable {
+        final WeakReference<FileLineConsumer> consumer;
+        final BufferedFile                    output;
+
+        volatile ScheduledFuture<?> future;
+
+        FlushTask(FileLineConsumer consumer, BufferedFile output) {
+            this.consumer = new WeakReference<>(consumer);
+            this.output = output;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (consumer.get() == null) {
+                    LOG.warn("Consumer of file {} was not closed, closing file", output.file);
+                    cancel();
+                    output.close();
+                } else {
+                    output.flush();
+                }
+            } catch (IOException e) {
+                LOG.error(String.format("Unable flush lines to file %s. %s", output.file, e.getMessage()));
+            }
+        }
+
+        void cancel() {
+            final ScheduledFuture<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+            }
+        }
     }
 }
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Opens readers for the part of the files written by {@link FileLineConsumer}, so clients may get
+ * the tail of large log or continue reading from the position they stopped without reading the whole file.
+ *
+ * @author andrew00x
+ */
+public final class FileLineReaders {
+    private static final int BLOCK_SIZE = 8192;
+
+    /**
+     * Opens reader for the part of the file.
+     *
+     * @param file
+     *         file to read
+     * @param offset
+     *         position in the file (in bytes) to read from
+     * @param tail
+     *         if greater than 0 then reader returns at most {@code tail} last lines of the file after {@code offset}
+     * @return reader which is positioned to the requested start of the file
+     * @throws IOException
+     *         if any i/o error occurs
+     */
+    public static Reader newReader(File file, long offset, int tail) throws IOException {
+        if (offset < 0) {
+            throw new IllegalArgumentException(String.format("Invalid offset: %d", offset));
+        }
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long start = Math.min(offset, channel.size());
+            if (tail > 0) {
+                start = Math.max(start, tailStart(channel, tail));
+            }
+            channel.position(start);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), Charset.defaultCharset()));
+    }
+
+    /** Finds position of the first byte of the {@code lines} last lines, file is read backward block by block. */
+    static long tailStart(FileChannel channel, int lines) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        long end = size;
+        int found = 0;
+        while (end > 0) {
+            final long blockStart = Math.max(0, end - BLOCK_SIZE);
+            block.clear();
+            block.limit((int)(end - blockStart));
+            while (block.hasRemaining()) {
+                if (channel.read(block, blockStart + block.position()) < 0) {
+                    break;
+                }
+            }
+            for (int i = block.position() - 1; i >= 0; i--) {
+                // line separator at the end of file doesn't start new line
+                if (block.get(i) == '\n' && blockStart + i != size - 1) {
+                    if (++found == lines) {
+                        return blockStart + i + 1;
+                    }
+                }
+            }
+            end = blockStart;
+        }
+        return 0;
+    }
+
+    private FileLineReaders() {
+    }
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+/**
+ * Statistic of the {@link InstrumentedThreadPoolExecutor}, it is available through JMX
+ * for all the executors created with {@link ExecutorRegistry}.
+ *
+ * @author andrew00x
+ */
+public interface InstrumentedExecutorMXBean {
+    /** Returns name of the executor. */
+    String getName();
+
+    /** Returns number of threads which execute tasks now. */
+    int getActiveCount();
+
+    /** Returns current number of threads in the pool. */
+    int getPoolSize();
+
+    /** Returns maximum number of threads in the pool. */
+    int getMaximumPoolSize();
+
+    /** Returns number of tasks which wait for free thread. */
+    int getQueueSize();
+
+    /** Returns maximum number of tasks which may wait for free thread, next tasks are rejected. */
+    int getQueueCapacity();
+
+    /** Returns number of finished tasks. */
+    long getCompletedTaskCount();
+
+    /** Returns number of tasks rejected because pool and queue are full. */
+    long getRejectedTaskCount();
+
+    /** Returns average time in milliseconds spent by task in queue. */
+    double getAverageWaitTime();
+
+    /** Returns maximum time in milliseconds spent by task in queue. */
+    long getMaxWaitTime();
+
+    /** Returns average execution time of the task in milliseconds. */
+    double getAverageExecutionTime();
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread pool with bounded number of threads and bounded queue which collects statistic of the executed tasks.
+ * <p/>
+ * Pool creates new threads until it has {@code maxThreads} threads, after that tasks wait in queue.
+ * When queue is full, tasks are rejected with {@link RejectedExecutionException}, so callers
+ * get error instead of overloading of the system. Idle threads are stopped after one minute.
+ *
+ * @author andrew00x
+ */
+public class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor implements InstrumentedExecutorMXBean {
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final String     name;
+    private final int        queueCapacity;
+    private final LongAdder  rejected;
+    private final LongAdder  executed;
+    private final LongAdder  waitTime;
+    private final LongAdder  executionTime;
+    private final AtomicLong maxWaitTime;
+
+    /**
+     * Creates executor.
+     *
+     * @param name
+     *         name of the executor, it is used as prefix of the names of the threads
+     * @param maxThreads
+     *         maximum number of threads
+     * @param queueCapacity
+     *         maximum number of tasks which wait for free thread, {@code 0} means that tasks are rejected
+     *         when all the threads are busy
+     */
+    public InstrumentedThreadPoolExecutor(String name, int maxThreads, int queueCapacity) {
+        super(maxThreads,
+              maxThreads,
+              KEEP_ALIVE_SECONDS,
+              TimeUnit.SECONDS,
+              queueCapacity == 0 ? new SynchronousQueue<>() : new LinkedBlockingQueue<>(queueCapacity),
+              new ThreadFactoryBuilder().setNameFormat(name + "-%d")
+                                        .setDaemon(true)
+                                        .build());
+        allowCoreThreadTimeOut(true);
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.rejected = new LongAdder();
+        this.executed = new LongAdder();
+        this.waitTime = new LongAdder();
+        this.executionTime = new LongAdder();
+        this.maxWaitTime = new AtomicLong();
+        setRejectedExecutionHandler((task, executor) -> {
+            if (isShutdown()) {
+                throw new RejectedExecutionException(String.format("Executor %s is shut down", name));
+            }
+            rejected.increment();
+            throw new RejectedExecutionException(String.format("Too many tasks in executor %s, %d are running and %d are waiting",
+                                                               name, getActiveCount(), getQueue().size()));
+        });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new TimedTask(command));
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable task) {
+        super.beforeExecute(thread, task);
+        if (task instanceof TimedTask) {
+            final TimedTask timed = (TimedTask)task;
+            timed.started = System.nanoTime();
+            final long wait = timed.started - timed.submitted;
+            waitTime.add(wait);
+            maxWaitTime.accumulateAndGet(wait, Math::max);
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable task, Throwable error) {
+        super.afterExecute(task, error);
+        if (task instanceof TimedTask) {
+            executionTime.add(System.nanoTime() - ((TimedTask)task).started);
+            executed.increment();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getQueueSize() {
+        return getQueue().size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public long getRejectedTaskCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public double getAverageWaitTime() {
+        final long count = executed.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitTime.sum()) / 1000.0 / count;
+    }
+
+    @Override
+    public long getMaxWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitTime.get());
+    }
+
+    @Override
+    public double getAverageExecutionTime() {
+        final long count = executed.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(executionTime.sum()) / 1000.0 / count;
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedThreadPoolExecutor{" +
+               "name='" + name + '\'' +
+               ", activeCount=" + getActiveCount() +
+               ", poolSize=" + getPoolSize() +
+               ", queueSize=" + getQueueSize() +
+               ", completedTaskCount=" + getCompletedTaskCount() +
+               ", rejectedTaskCount=" + getRejectedTaskCount() +
+               ", averageWaitTime=" + getAverageWaitTime() +
+               ", averageExecutionTime=" + getAverageExecutionTime() +
+               '}';
+    }
+
+    private static class TimedTask implements Runnable {
+        final Runnable delegate;
+        final long     submitted;
+
+        long started;
+
+        TimedTask(Runnable delegate) {
+            this.delegate = delegate;
+            this.submitted = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Bounded buffer of lines with multiple consumers. Each consumer has own position in the buffer
+ * and gets lines asynchronously with given {@code Executor}, so slow consumer doesn't delay other consumers
+ * and producer of the lines. Lines are delivered to each consumer in order they were added,
+ * single consumer never gets lines concurrently.
+ * <p/>
+ * When the slowest consumer is behind on {@code capacity} lines the buffer is full and next line is handled
+ * according to the {@link OverflowPolicy}.
+ *
+ * @author andrew00x
+ * @see ProcessOutputPump
+ */
+public class LineRingBuffer {
+    private static final Logger LOG = LoggerFactory.getLogger(LineRingBuffer.class);
+
+    public enum OverflowPolicy {
+        /** Line is not added when buffer is full, producer has to try again later. Lines are never lost. */
+        BACKPRESSURE,
+        /** The oldest line is dropped for consumers which didn't get it yet, so producer is never delayed. */
+        DROP_OLDEST
+    }
+
+    private final String[]         lines;
+    private final OverflowPolicy   overflowPolicy;
+    private final Executor         executor;
+    private final List<Subscriber> subscribers;
+
+    private long        head;
+    private boolean     closed;
+    private boolean     refused;
+    private IOException error;
+    private Runnable    spaceListener;
+
+    public LineRingBuffer(int capacity, OverflowPolicy overflowPolicy, Executor executor) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("Invalid capacity: %d", capacity));
+        }
+        this.lines = new String[capacity];
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+        this.subscribers = new ArrayList<>();
+    }
+
+    /** Sets listener which is notified when consumers got lines from the buffer after line was refused because of overflow. */
+    void setSpaceListener(Runnable spaceListener) {
+        this.spaceListener = spaceListener;
+    }
+
+    /** Adds consumer which gets all lines added to this buffer after subscription. */
+    public synchronized void subscribe(LineConsumer consumer) {
+        subscribers.add(new Subscriber(consumer, head));
+    }
+
+    /**
+     * Adds line to this buffer.
+     *
+     * @return {@code false} if buffer is full and overflow policy is {@link OverflowPolicy#BACKPRESSURE}, {@code true} otherwise
+     * @throws IllegalStateException
+     *         if buffer is closed
+     */
+    public synchronized boolean offer(String line) {
+        if (closed) {
+            throw new IllegalStateException("Buffer is closed");
+        }
+        if (isFull()) {
+            if (overflowPolicy == OverflowPolicy.BACKPRESSURE) {
+                refused = true;
+                return false;
+            }
+            final long oldest = head - lines.length + 1;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.cursor < oldest) {
+                    subscriber.dropped += oldest - subscriber.cursor;
+                    subscriber.cursor = oldest;
+                }
+            }
+        }
+        lines[index(head++)] = line;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.schedule();
+        }
+        return true;
+    }
+
+    /** Returns {@code true} if the slowest consumer is behind on {@code capacity} lines. */
+    public synchronized boolean isFull() {
+        for (Subscriber subscriber : subscribers) {
+            if (head - subscriber.cursor >= lines.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns number of lines which were dropped for all consumers. */
+    public synchronized long getDroppedLines() {
+        long dropped = 0;
+        for (Subscriber subscriber : subscribers) {
+            dropped += subscriber.dropped;
+        }
+        return dropped;
+    }
+
+    /**
+     * Closes buffer, no more lines may be added after that.
+     *
+     * @param error
+     *         error occurred while producing of the lines, it is rethrown by {@link #await()}, may be {@code null}
+     */
+    public synchronized void close(IOException error) {
+        closed = true;
+        this.error = error;
+        notifyAll();
+    }
+
+    /** Returns {@code true} if buffer is closed and all the lines are delivered to all consumers. */
+    public synchronized boolean isDone() {
+        if (!closed) {
+            return false;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cursor < head || subscriber.scheduled) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Waits until buffer is closed and all the lines are delivered to all consumers.
+     *
+     * @throws IOException
+     *         if buffer was closed with error
+     */
+    public synchronized void await() throws InterruptedException, IOException {
+        while (!isDone()) {
+            wait();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private int index(long sequence) {
+        return (int)(sequence % lines.length);
+    }
+
+    private class Subscriber implements Runnable {
+        final LineConsumer consumer;
+
+        long    cursor;
+        long    dropped;
+        boolean scheduled;
+
+        Subscriber(LineConsumer consumer, long cursor) {
+            this.consumer = consumer;
+            this.cursor = cursor;
+        }
+
+        /** Must be called with lock of the buffer. */
+        void schedule() {
+            if (!scheduled) {
+                scheduled = true;
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (; ; ) {
+                final String line;
+                synchronized (LineRingBuffer.this) {
+                    if (cursor == head) {
+                        scheduled = false;
+                        LineRingBuffer.this.notifyAll();
+                        if (!refused || spaceListener == null) {
+                            return;
+                        }
+                        refused = false;
+                        break;
+                    }
+                    line = lines[index(cursor++)];
+                }
+                try {
+                    consumer.writeLine(line);
+                } catch (Exception e) {
+                    LOG.error(String.format("An error occurred while writing line to the line consumer %s", consumer), e);
+                }
+            }
+            spaceListener.run();
+        }
+    }
+}
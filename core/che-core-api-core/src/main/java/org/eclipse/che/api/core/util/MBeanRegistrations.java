@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registers components of Che in the platform MBean server as {@code org.eclipse.che:type=<type>[,name=<name>]}.
+ * Failures are logged and not propagated, statistic in JMX must not prevent component from working.
+ *
+ * @author andrew00x
+ */
+public final class MBeanRegistrations {
+    private static final Logger LOG = LoggerFactory.getLogger(MBeanRegistrations.class);
+
+    /** Registers MBean as {@code org.eclipse.che:type=<type>}. */
+    public static void register(Object mbean, String type) {
+        register(mbean, type, null);
+    }
+
+    /** Registers MBean as {@code org.eclipse.che:type=<type>,name=<name>}, name is omitted if it is {@code null}. */
+    public static void register(Object mbean, String type, String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, objectName(type, name));
+        } catch (JMException e) {
+            LOG.warn("Unable to register {} in JMX. {}", name == null ? type : type + ' ' + name, e.getMessage());
+        }
+    }
+
+    /** Unregisters MBean registered with {@link #register(Object, String)}. */
+    public static void unregister(String type) {
+        unregister(type, null);
+    }
+
+    /** Unregisters MBean registered with {@link #register(Object, String, String)}. */
+    public static void unregister(String type, String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(type, name));
+        } catch (JMException ignored) {
+        }
+    }
+
+    /** Returns object name of the MBean with given type and optional name. */
+    public static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName("org.eclipse.che:type=" + type + (name == null ? "" : ",name=" + ObjectName.quote(name)));
+    }
+
+    private MBeanRegistrations() {}
+}
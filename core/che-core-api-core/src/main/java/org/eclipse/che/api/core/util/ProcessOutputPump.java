@@ -0,0 +1,345 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads output of many processes with single thread and writes it line by line to {@link LineRingBuffer}s.
+ * <p/>
+ * Output streams of the processes are not selectable, so pump doesn't block on reading but polls registered streams
+ * and reads only bytes which are available without blocking. When buffer of the stream is full, pump stops reading
+ * of the stream until consumers get lines from the buffer, so slow consumers slow down the process but not
+ * output of the other processes. Lines of the buffers created with {@link #newBuffer(int, LineRingBuffer.OverflowPolicy)}
+ * are delivered to consumers with bounded shared pool of threads, consumer that blocks occupies one of the threads
+ * and delays delivery to the consumers which are queued after it. Callers which wait for the output anyway may deliver
+ * lines themselves with {@link #newBuffer(int, LineRingBuffer.OverflowPolicy, Executor)}, see {@link ProcessUtil}.
+ * <p/>
+ * {@code available()} can't tell end of stream, so once process is terminated the rest of its output is read
+ * with blocking reads which are performed off the pump thread, with separate bounded pool, until the stream ends.
+ *
+ * @author andrew00x
+ */
+public final class ProcessOutputPump {
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessOutputPump.class);
+
+    /** Default capacity (in lines) of the buffer created for each stream. */
+    public static final int DEFAULT_BUFFER_CAPACITY = 1024;
+
+    private static final int  READ_BUFFER_SIZE      = 8192;
+    private static final long IDLE_DELAY_MS         = 10;
+    private static final int  MAX_DELIVERY_THREADS  = 16;
+    private static final int  MAX_DRAIN_THREADS     = 16;
+    private static final long THREAD_KEEP_ALIVE_SEC = 60;
+
+    private static final ProcessOutputPump INSTANCE = new ProcessOutputPump();
+
+    /** Returns pump shared by all processes. */
+    public static ProcessOutputPump getInstance() {
+        return INSTANCE;
+    }
+
+    private final List<PumpedStream> streams;
+    private final ExecutorService    deliveryExecutor;
+    private final ExecutorService    drainExecutor;
+    private final byte[]             readBuffer;
+
+    private Thread  pumpThread;
+    private boolean wakeUp;
+
+    private ProcessOutputPump() {
+        streams = new CopyOnWriteArrayList<>();
+        deliveryExecutor = newExecutor(MAX_DELIVERY_THREADS, "ProcessOutputDelivery-%d");
+        drainExecutor = newExecutor(MAX_DRAIN_THREADS, "ProcessOutputDrain-%d");
+        readBuffer = new byte[READ_BUFFER_SIZE];
+    }
+
+    /**
+     * Creates buffer of lines that is delivered with the thread pool of this pump.
+     *
+     * @param capacity
+     *         capacity of buffer in lines
+     * @param overflowPolicy
+     *         defines what to do when consumers are too slow
+     */
+    public LineRingBuffer newBuffer(int capacity, LineRingBuffer.OverflowPolicy overflowPolicy) {
+        return newBuffer(capacity, overflowPolicy, deliveryExecutor);
+    }
+
+    /**
+     * Creates buffer of lines that is delivered with given executor.
+     *
+     * @param capacity
+     *         capacity of buffer in lines
+     * @param overflowPolicy
+     *         defines what to do when consumers are too slow
+     * @param executor
+     *         executor which delivers lines to consumers, e.g. one that runs delivery in thread which waits for the output
+     */
+    public LineRingBuffer newBuffer(int capacity, LineRingBuffer.OverflowPolicy overflowPolicy, Executor executor) {
+        final LineRingBuffer buffer = new LineRingBuffer(capacity, overflowPolicy, executor);
+        buffer.setSpaceListener(this::wakeUp);
+        return buffer;
+    }
+
+    /**
+     * Starts reading of the output of the process. Stream is read until end of stream, after that {@code buffer} is closed.
+     *
+     * @param stream
+     *         output or error stream of the process
+     * @param process
+     *         process which output is read
+     * @param buffer
+     *         buffer created with one of the {@code newBuffer} methods
+     * @return {@code Cancellable} that stops reading and closes the stream
+     */
+    public Cancellable pump(InputStream stream, Process process, LineRingBuffer buffer) {
+        final PumpedStream pumped = new PumpedStream(stream, process, buffer, drainExecutor);
+        synchronized (this) {
+            streams.add(pumped);
+            if (pumpThread == null) {
+                pumpThread = new Thread(this::run, "ProcessOutputPump");
+                pumpThread.setDaemon(true);
+                pumpThread.start();
+            }
+            notifyAll();
+        }
+        return pumped;
+    }
+
+    private void run() {
+        try {
+            for (; ; ) {
+                synchronized (this) {
+                    while (streams.isEmpty()) {
+                        wait();
+                    }
+                }
+                boolean progress = false;
+                for (PumpedStream stream : streams) {
+                    try {
+                        progress |= stream.pump(readBuffer);
+                    } catch (IOException e) {
+                        stream.finish(e);
+                    } catch (RuntimeException e) {
+                        LOG.error(e.getMessage(), e);
+                        stream.finish(null);
+                    }
+                    if (stream.done) {
+                        streams.remove(stream);
+                    }
+                }
+                if (!progress) {
+                    synchronized (this) {
+                        if (!wakeUp) {
+                            wait(IDLE_DELAY_MS);
+                        }
+                        wakeUp = false;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                pumpThread = null;
+            }
+        }
+    }
+
+    private static ExecutorService newExecutor(int maxThreads, String nameFormat) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads,
+                                                                   maxThreads,
+                                                                   THREAD_KEEP_ALIVE_SEC,
+                                                                   TimeUnit.SECONDS,
+                                                                   new LinkedBlockingQueue<>(),
+                                                                   new ThreadFactoryBuilder().setNameFormat(nameFormat)
+                                                                                             .setDaemon(true)
+                                                                                             .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private synchronized void wakeUp() {
+        wakeUp = true;
+        notifyAll();
+    }
+
+    private static class PumpedStream implements Cancellable {
+        final InputStream     stream;
+        final Process         process;
+        final LineRingBuffer  buffer;
+        final Deque<String>   pending;
+        final Charset         charset;
+        final ExecutorService drainExecutor;
+
+        byte[]          line;
+        int             lineLength;
+        boolean         skipLF;
+        boolean         endOfStream;
+        byte[]          drainBuffer;
+        Future<Integer> drainRead;
+
+        volatile boolean cancelled;
+        volatile boolean done;
+
+        PumpedStream(InputStream stream, Process process, LineRingBuffer buffer, ExecutorService drainExecutor) {
+            this.stream = stream;
+            this.drainExecutor = drainExecutor;
+            this.process = process;
+            this.buffer = buffer;
+            this.pending = new ArrayDeque<>();
+            this.charset = Charset.defaultCharset();
+            this.line = new byte[256];
+        }
+
+        /** Reads available part of the stream, returns {@code true} if anything was read or passed to the buffer. */
+        boolean pump(byte[] readBuffer) throws IOException {
+            if (cancelled) {
+                finish(null);
+                return false;
+            }
+            boolean progress = false;
+            while (!pending.isEmpty()) {
+                if (!buffer.offer(pending.peek())) {
+                    return progress;
+                }
+                pending.poll();
+                progress = true;
+            }
+            if (endOfStream) {
+                finish(null);
+                return progress;
+            }
+            if (drainRead != null) {
+                if (!drainRead.isDone()) {
+                    return progress;
+                }
+                final int n = getDrainResult();
+                drainRead = null;
+                if (n < 0) {
+                    endOfStream();
+                } else {
+                    split(drainBuffer, n);
+                }
+                return true;
+            }
+            final int available = stream.available();
+            if (available > 0) {
+                final int n = stream.read(readBuffer, 0, Math.min(available, readBuffer.length));
+                if (n < 0) {
+                    endOfStream();
+                } else {
+                    split(readBuffer, n);
+                }
+                return true;
+            }
+            if (!process.isAlive()) {
+                // nothing is available but the pipe may still hold output of the terminated process,
+                // read it until end of stream without blocking the pump thread
+                if (drainBuffer == null) {
+                    drainBuffer = new byte[READ_BUFFER_SIZE];
+                }
+                drainRead = drainExecutor.submit(() -> stream.read(drainBuffer, 0, drainBuffer.length));
+            }
+            return progress;
+        }
+
+        private int getDrainResult() throws IOException {
+            try {
+                return drainRead.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException)e.getCause();
+                }
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading process output");
+            }
+        }
+
+        /** Splits bytes into lines in the same way as {@link java.io.BufferedReader#readLine()} does. */
+        void split(byte[] bytes, int length) {
+            for (int i = 0; i < length; i++) {
+                final byte b = bytes[i];
+                if (b == '\n' || b == '\r') {
+                    if (b == '\n' && skipLF) {
+                        skipLF = false;
+                        continue;
+                    }
+                    skipLF = b == '\r';
+                    addLine();
+                } else {
+                    skipLF = false;
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[lineLength++] = b;
+                }
+            }
+        }
+
+        void addLine() {
+            final String text = new String(line, 0, lineLength, charset);
+            lineLength = 0;
+            if (!pending.isEmpty() || !buffer.offer(text)) {
+                pending.add(text);
+            }
+        }
+
+        void endOfStream() {
+            endOfStream = true;
+            if (lineLength > 0) {
+                addLine();
+            }
+            // lines which are not accepted by buffer yet will be added on next attempts
+            if (pending.isEmpty()) {
+                finish(null);
+            }
+        }
+
+        void finish(IOException error) {
+            if (!done) {
+                done = true;
+                try {
+                    stream.close();
+                } catch (IOException ignored) {
+                }
+                buffer.close(error);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -10,9 +10,13 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Helpers to manage system processes.
@@ -21,11 +25,16 @@ import java.io.InputStreamReader;
  * @author Alexander Garagatyi
  */
 public final class ProcessUtil {
-    private static final ProcessManager PROCESS_MANAGER = ProcessManager.newInstance();
+    private static final ProcessManager    PROCESS_MANAGER  = ProcessManager.newInstance();
+    private static final ProcessOutputPump OUTPUT_PUMP      = ProcessOutputPump.getInstance();
+    private static final long              DELIVERY_POLL_MS = 10;
 
     /**
      * Writes stdout and stderr of the process to consumers.<br>
-     * Supposes that stderr of the process is redirected to stdout.
+     * Stdout and stderr are read concurrently with shared {@link ProcessOutputPump}, but consumers get lines
+     * in the calling thread and never concurrently: lines of stdout and stderr are interleaved in order they were read.
+     * This method returns when all the output is delivered to consumers. If calling thread is interrupted
+     * reading of the output is stopped and {@link InterruptedIOException} is thrown.
      *
      * @param p
      *         process to read output from
@@ -36,21 +45,15 @@ public final class ProcessUtil {
      * @throws IOException
      */
     public static void process(Process p, LineConsumer stdout, LineConsumer stderr) throws IOException {
-        try (BufferedReader inputReader = new BufferedReader(new InputStreamReader(p.getInputStream()));
-             BufferedReader errorReader = new BufferedReader(new InputStreamReader(p.getErrorStream()))) {
-            String line;
-            while ((line = inputReader.readLine()) != null) {
-                stdout.writeLine(line);
-            }
-            while ((line = errorReader.readLine()) != null) {
-                stderr.writeLine(line);
-            }
-        }
+        final CallerDelivery delivery = new CallerDelivery();
+        delivery.pump(p, p.getInputStream(), stdout);
+        delivery.pump(p, p.getErrorStream(), stderr);
+        delivery.run();
     }
 
     /**
      * Writes stdout of the process to consumer.<br>
-     * Supposes that stderr of the process is redirected to stdout.
+     * Supposes that stderr of the process is redirected to stdout. Consumer gets lines in the calling thread.
      *
      * @param p
      *         process to read output from
@@ -59,12 +62,9 @@ public final class ProcessUtil {
      * @throws IOException
      */
     public static void process(Process p, LineConsumer stdout) throws IOException {
-        try (BufferedReader inputReader = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
-            String line;
-            while ((line = inputReader.readLine()) != null) {
-                stdout.writeLine(line);
-            }
-        }
+        final CallerDelivery delivery = new CallerDelivery();
+        delivery.pump(p, p.getInputStream(), stdout);
+        delivery.run();
     }
 
     /**
@@ -101,4 +101,63 @@ public final class ProcessUtil {
 
     private ProcessUtil() {
     }
+
+    /**
+     * Delivers lines of the pumped streams in the thread that calls {@link #run()}. All the streams share single queue
+     * of delivery tasks, so consumers are called one by one and only pump thread is used besides the calling thread.
+     */
+    private static class CallerDelivery implements Executor {
+        final BlockingQueue<Runnable> tasks   = new LinkedBlockingQueue<>();
+        final LineRingBuffer[]        buffers = new LineRingBuffer[2];
+        final Cancellable[]           pumping = new Cancellable[2];
+
+        int streams;
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void pump(Process p, InputStream stream, LineConsumer consumer) {
+            final LineRingBuffer buffer = OUTPUT_PUMP.newBuffer(ProcessOutputPump.DEFAULT_BUFFER_CAPACITY,
+                                                                LineRingBuffer.OverflowPolicy.BACKPRESSURE,
+                                                                this);
+            buffer.subscribe(consumer);
+            buffers[streams] = buffer;
+            pumping[streams++] = OUTPUT_PUMP.pump(stream, p, buffer);
+        }
+
+        void run() throws IOException {
+            try {
+                while (!isDone()) {
+                    // buffer may become done without delivery task when it's closed, so don't wait for tasks forever
+                    final Runnable task = tasks.poll(DELIVERY_POLL_MS, TimeUnit.MILLISECONDS);
+                    if (task != null) {
+                        task.run();
+                    }
+                }
+                for (int i = 0; i < streams; i++) {
+                    buffers[i].await();
+                }
+            } catch (InterruptedException e) {
+                for (int i = 0; i < streams; i++) {
+                    try {
+                        pumping[i].cancel();
+                    } catch (Exception ignored) {
+                    }
+                }
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading output of the process");
+            }
+        }
+
+        boolean isDone() {
+            for (int i = 0; i < streams; i++) {
+                if (!buffers[i].isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
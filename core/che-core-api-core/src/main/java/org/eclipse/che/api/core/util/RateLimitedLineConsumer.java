@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passes lines to the delegate consumer until number of lines exceeds the limit during one second.
+ * Lines that exceed the limit are not passed to the delegate, instead delegate gets single line
+ * with number of skipped lines when the next second starts or when this consumer is closed.
+ * <p/>
+ * Usually it is used to protect output channels that are read by clients, e.g. websocket,
+ * while full output is written to the file with a separate consumer.
+ *
+ * @author andrew00x
+ */
+public class RateLimitedLineConsumer implements LineConsumer {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LineConsumer delegate;
+    private final int          linesPerSecond;
+    private final String       skippedMessage;
+
+    private long windowStart;
+    private int  windowCount;
+    private long skipped;
+    private long totalSkipped;
+
+    /**
+     * @param delegate
+     *         consumer which gets lines
+     * @param linesPerSecond
+     *         max number of lines that are passed to {@code delegate} per second
+     * @param skippedMessage
+     *         format of the line which is sent instead of skipped lines, number of skipped lines is passed as argument
+     */
+    public RateLimitedLineConsumer(LineConsumer delegate, int linesPerSecond, String skippedMessage) {
+        if (linesPerSecond < 1) {
+            throw new IllegalArgumentException(String.format("Invalid rate: %d", linesPerSecond));
+        }
+        this.delegate = delegate;
+        this.linesPerSecond = linesPerSecond;
+        this.skippedMessage = skippedMessage;
+        this.windowStart = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void writeLine(String line) throws IOException {
+        final long now = System.nanoTime();
+        if (now - windowStart >= WINDOW_NANOS) {
+            windowStart = now;
+            windowCount = 0;
+            writeSkipped();
+        }
+        if (windowCount < linesPerSecond) {
+            windowCount++;
+            delegate.writeLine(line);
+        } else {
+            skipped++;
+        }
+    }
+
+    /** Returns number of lines that were skipped since this consumer was created. */
+    public synchronized long getSkippedLines() {
+        return totalSkipped + skipped;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            writeSkipped();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    private void writeSkipped() throws IOException {
+        if (skipped > 0) {
+            final long n = skipped;
+            totalSkipped += n;
+            skipped = 0;
+            delegate.writeLine(String.format(skippedMessage, n));
+        }
+    }
+}
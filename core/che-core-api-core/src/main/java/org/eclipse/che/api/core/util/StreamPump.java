@@ -10,67 +10,59 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 
-/** @author andrew00x */
-public final class StreamPump implements Runnable {
+/**
+ * Reads output of the process and writes it to {@link LineConsumer} asynchronously with shared {@link ProcessOutputPump}.
+ *
+ * @author andrew00x
+ */
+public final class StreamPump {
 
-    private BufferedReader bufferedReader;
-    private LineConsumer   lineConsumer;
+    private LineRingBuffer buffer;
+    private Cancellable    pumping;
 
     private Exception exception;
     private boolean   done;
 
     public synchronized void start(Process process, LineConsumer lineConsumer) {
-        this.lineConsumer = lineConsumer;
-        bufferedReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        final Thread t = new Thread(this, "StreamPump");
-        t.setDaemon(true);
-        t.start();
+        final ProcessOutputPump pump = ProcessOutputPump.getInstance();
+        buffer = pump.newBuffer(ProcessOutputPump.DEFAULT_BUFFER_CAPACITY, LineRingBuffer.OverflowPolicy.BACKPRESSURE);
+        buffer.subscribe(lineConsumer);
+        pumping = pump.pump(process.getInputStream(), process, buffer);
     }
 
     public synchronized void stop() {
-        // Not clear do we need close original stream, but since it was wrapped by BufferedReader close it anyway.
-        try {
-            bufferedReader.close();
-        } catch (IOException ignored) {
+        if (pumping != null) {
+            try {
+                pumping.cancel();
+            } catch (Exception ignored) {
+            }
         }
     }
 
-    public synchronized void await() throws InterruptedException {
-        while (!done) {
-            wait();
+    public void await() throws InterruptedException {
+        try {
+            buffer.await();
+        } catch (IOException e) {
+            synchronized (this) {
+                exception = e;
+            }
+        }
+        synchronized (this) {
+            done = true;
         }
     }
 
     public synchronized boolean isDone() {
-        return done;
+        return done || buffer.isDone();
     }
 
-    public boolean hasError() {
+    public synchronized boolean hasError() {
         return null != exception;
     }
 
-    public Exception getException() {
+    public synchronized Exception getException() {
         return exception;
     }
-
-    @Override
-    public void run() {
-        String line;
-        try {
-            while ((line = bufferedReader.readLine()) != null) {
-                lineConsumer.writeLine(line);
-            }
-        } catch (IOException e) {
-            exception = e;
-        } finally {
-            synchronized (this) {
-                done = true;
-                notifyAll();
-            }
-        }
-    }
 }
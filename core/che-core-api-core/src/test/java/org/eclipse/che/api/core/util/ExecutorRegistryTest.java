@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author andrew00x
+ */
+public class ExecutorRegistryTest {
+    private ExecutorRegistry registry;
+    private CountDownLatch   release;
+
+    @BeforeMethod
+    public void setUp() {
+        registry = new ExecutorRegistry();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        release.countDown();
+        registry.shutdown();
+    }
+
+    @Test
+    public void testRejectTasksWhenThreadsAndQueueAreBusy() throws Exception {
+        ExecutorService executor = registry.getExecutor("test", 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(this::awaitRelease);
+
+        try {
+            executor.execute(this::awaitRelease);
+            Assert.fail("RejectedExecutionException expected");
+        } catch (RejectedExecutionException expected) {
+        }
+
+        InstrumentedExecutorMXBean statistic = registry.getStatistic().get(0);
+        Assert.assertEquals(statistic.getActiveCount(), 1);
+        Assert.assertEquals(statistic.getQueueSize(), 1);
+        Assert.assertEquals(statistic.getRejectedTaskCount(), 1L);
+    }
+
+    @Test
+    public void testCollectStatisticOfExecutedTasks() throws Exception {
+        ExecutorService executor = registry.getExecutor("test", 2, 10);
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> {
+                sleep(20);
+                done.countDown();
+            });
+        }
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        InstrumentedExecutorMXBean statistic = registry.getStatistic().get(0);
+        Assert.assertEquals(statistic.getCompletedTaskCount(), 3L);
+        Assert.assertTrue(statistic.getAverageExecutionTime() >= 20);
+        // the third task waits until one of the first two is finished
+        Assert.assertTrue(statistic.getMaxWaitTime() >= 15);
+    }
+
+    @Test
+    public void testOverrideSizeOfExecutorWithConfiguration() throws Exception {
+        registry.setConfiguration("other=1:1, test=3:7");
+
+        registry.getExecutor("test", 1, 1);
+
+        InstrumentedExecutorMXBean statistic = registry.getStatistic().get(0);
+        Assert.assertEquals(statistic.getMaximumPoolSize(), 3);
+        Assert.assertEquals(statistic.getQueueCapacity(), 7);
+    }
+
+    @Test
+    public void testOverrideSizeOfKnownExecutorWithConfiguration() throws Exception {
+        registry.setConfiguration("workspace_start=20:500,machine_logs=1000:0");
+
+        registry.getExecutor(ExecutorRegistry.MACHINE_LOGS, 500, 0);
+
+        InstrumentedExecutorMXBean statistic = registry.getStatistic().get(0);
+        Assert.assertEquals(statistic.getMaximumPoolSize(), 1000);
+        Assert.assertEquals(statistic.getQueueCapacity(), 0);
+    }
+
+    @Test
+    public void testReturnSameExecutorForSameName() throws Exception {
+        Assert.assertSame(registry.getExecutor("test", 1, 1), registry.getExecutor("test", 5, 5));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testFailOnInvalidConfiguration() throws Exception {
+        registry.setConfiguration("test=3");
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * @author andrew00x
+ */
+public class FileLineConsumerTest {
+    private File file;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        file = File.createTempFile("lines", ".log");
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Test
+    public void testFlushBufferedLinesOnClose() throws Exception {
+        final FileLineConsumer consumer = new FileLineConsumer(file, 60_000);
+        consumer.writeLine("first");
+        consumer.writeLine("second");
+
+        consumer.close();
+
+        Assert.assertEquals(Files.readAllLines(file.toPath(), Charset.defaultCharset()), Arrays.asList("first", "second"));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testRefuseLineAfterClose() throws Exception {
+        final FileLineConsumer consumer = new FileLineConsumer(file);
+        consumer.close();
+
+        consumer.writeLine("line");
+    }
+
+    @Test
+    public void testCollectConsumerWhichIsNotClosed() throws Exception {
+        FileLineConsumer consumer = new FileLineConsumer(file, 10);
+        consumer.writeLine("line");
+        final WeakReference<FileLineConsumer> reference = new WeakReference<>(consumer);
+        consumer = null;
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        Assert.assertNull(reference.get());
+        Assert.assertEquals(Files.readAllLines(file.toPath(), Charset.defaultCharset()), Arrays.asList("line"));
+    }
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import com.google.common.io.CharStreams;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.Reader;
+import java.nio.file.Files;
+
+/**
+ * @author andrew00x
+ */
+public class FileLineReadersTest {
+    private File file;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        file = File.createTempFile("lines", ".log");
+        try (FileLineConsumer consumer = new FileLineConsumer(file)) {
+            for (int i = 0; i < 10000; i++) {
+                consumer.writeLine("line" + i);
+            }
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Test
+    public void testReadTail() throws Exception {
+        try (Reader reader = FileLineReaders.newReader(file, 0, 3)) {
+            Assert.assertEquals(CharStreams.toString(reader), "line9997\nline9998\nline9999\n");
+        }
+    }
+
+    @Test
+    public void testReadFromOffset() throws Exception {
+        long offset = file.length() - "line9999\n".length();
+        try (Reader reader = FileLineReaders.newReader(file, offset, 0)) {
+            Assert.assertEquals(CharStreams.toString(reader), "line9999\n");
+        }
+    }
+
+    @Test
+    public void testReadWholeFileWhenTailIsLargerThanFile() throws Exception {
+        try (Reader reader = FileLineReaders.newReader(file, 0, 20000)) {
+            Assert.assertEquals(CharStreams.readLines(reader).size(), 10000);
+        }
+    }
+}
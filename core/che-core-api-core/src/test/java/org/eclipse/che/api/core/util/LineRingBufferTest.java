@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * @author andrew00x
+ */
+public class LineRingBufferTest {
+    @Test
+    public void testDeliverLinesToAllConsumers() throws Exception {
+        LineRingBuffer buffer = new LineRingBuffer(2, LineRingBuffer.OverflowPolicy.BACKPRESSURE, Runnable::run);
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        buffer.subscribe(new CollectingConsumer(first));
+        buffer.subscribe(new CollectingConsumer(second));
+
+        Assert.assertTrue(buffer.offer("a"));
+        Assert.assertTrue(buffer.offer("b"));
+        Assert.assertTrue(buffer.offer("c"));
+        buffer.close(null);
+        buffer.await();
+
+        Assert.assertEquals(first, Arrays.asList("a", "b", "c"));
+        Assert.assertEquals(second, Arrays.asList("a", "b", "c"));
+    }
+
+    @Test
+    public void testRefuseLineWhenConsumerIsSlow() throws Exception {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        LineRingBuffer buffer = new LineRingBuffer(2, LineRingBuffer.OverflowPolicy.BACKPRESSURE, tasks::add);
+        List<String> lines = new ArrayList<>();
+        buffer.subscribe(new CollectingConsumer(lines));
+
+        Assert.assertTrue(buffer.offer("a"));
+        Assert.assertTrue(buffer.offer("b"));
+        Assert.assertFalse(buffer.offer("c"));
+        Assert.assertTrue(buffer.isFull());
+
+        tasks.poll().run();
+        Assert.assertTrue(buffer.offer("c"));
+        tasks.poll().run();
+
+        Assert.assertEquals(lines, Arrays.asList("a", "b", "c"));
+        Assert.assertEquals(buffer.getDroppedLines(), 0);
+    }
+
+    @Test
+    public void testDropOldestLinesWhenConsumerIsSlow() throws Exception {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        LineRingBuffer buffer = new LineRingBuffer(2, LineRingBuffer.OverflowPolicy.DROP_OLDEST, tasks::add);
+        List<String> lines = new ArrayList<>();
+        buffer.subscribe(new CollectingConsumer(lines));
+
+        Assert.assertTrue(buffer.offer("a"));
+        Assert.assertTrue(buffer.offer("b"));
+        Assert.assertTrue(buffer.offer("c"));
+        Assert.assertTrue(buffer.offer("d"));
+        tasks.poll().run();
+
+        Assert.assertEquals(lines, Arrays.asList("c", "d"));
+        Assert.assertEquals(buffer.getDroppedLines(), 2);
+    }
+
+    private static class CollectingConsumer implements LineConsumer {
+        final List<String> lines;
+
+        CollectingConsumer(List<String> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public void writeLine(String line) {
+            lines.add(line);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
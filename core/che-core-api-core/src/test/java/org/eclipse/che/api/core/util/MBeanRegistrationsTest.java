@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author andrew00x
+ */
+public class MBeanRegistrationsTest {
+
+    @AfterMethod
+    public void tearDown() {
+        MBeanRegistrations.unregister("Test");
+        MBeanRegistrations.unregister("Test", "first");
+    }
+
+    @Test
+    public void shouldRegisterAndUnregisterMBeanByType() throws Exception {
+        MBeanRegistrations.register(new Counter(), "Test");
+
+        assertEquals(ManagementFactory.getPlatformMBeanServer()
+                                      .getAttribute(MBeanRegistrations.objectName("Test", null), "Count"), 7);
+
+        MBeanRegistrations.unregister("Test");
+
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(MBeanRegistrations.objectName("Test", null)));
+    }
+
+    @Test
+    public void shouldRegisterMBeanByTypeAndQuotedName() throws Exception {
+        MBeanRegistrations.register(new Counter(), "Test", "first");
+
+        assertTrue(ManagementFactory.getPlatformMBeanServer()
+                                    .isRegistered(MBeanRegistrations.objectName("Test", "first")));
+        assertEquals(MBeanRegistrations.objectName("Test", "first").toString(), "org.eclipse.che:type=Test,name=\"first\"");
+    }
+
+    @Test
+    public void shouldNotFailWhenMBeanIsAlreadyRegistered() throws Exception {
+        MBeanRegistrations.register(new Counter(), "Test");
+        MBeanRegistrations.register(new Counter(), "Test");
+
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(MBeanRegistrations.objectName("Test", null)));
+    }
+
+    @Test
+    public void shouldNotFailWhenMBeanIsNotRegistered() throws Exception {
+        MBeanRegistrations.unregister("Test", "unknown");
+    }
+
+    public interface CounterMXBean {
+        int getCount();
+    }
+
+    public static class Counter implements CounterMXBean {
+        @Override
+        public int getCount() {
+            return 7;
+        }
+    }
+}
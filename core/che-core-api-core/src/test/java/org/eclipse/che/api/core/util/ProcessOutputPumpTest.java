@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author andrew00x
+ */
+public class ProcessOutputPumpTest {
+    private final ProcessOutputPump pump = ProcessOutputPump.getInstance();
+
+    @Test
+    public void testReadOutputWhichIsLeftInPipeAfterProcessExit() throws Exception {
+        // pipe of the terminated process doesn't report the rest of the output as available
+        final InputStream pipe = new ByteArrayInputStream("first\nsecond\n".getBytes()) {
+            @Override
+            public synchronized int available() {
+                return 0;
+            }
+        };
+        final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        final LineRingBuffer buffer = pump.newBuffer(16, LineRingBuffer.OverflowPolicy.BACKPRESSURE);
+        buffer.subscribe(new CollectingConsumer(lines));
+
+        pump.pump(pipe, new TerminatedProcess(), buffer);
+        buffer.await();
+
+        Assert.assertEquals(lines, Arrays.asList("first", "second"));
+    }
+
+    @Test(timeOut = 10_000)
+    public void testBlockedConsumersDoNotStallReadingOfOtherProcesses() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<LineRingBuffer> blocked = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            final LineRingBuffer buffer = pump.newBuffer(16, LineRingBuffer.OverflowPolicy.BACKPRESSURE);
+            buffer.subscribe(new BlockingConsumer(release));
+            pump.pump(new ByteArrayInputStream("line\n".getBytes()), new TerminatedProcess(), buffer);
+            blocked.add(buffer);
+        }
+        // all the threads of shared delivery pool are occupied, output which is delivered with own executor still passes
+        final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        final LineRingBuffer buffer = pump.newBuffer(16, LineRingBuffer.OverflowPolicy.BACKPRESSURE, Runnable::run);
+        buffer.subscribe(new CollectingConsumer(lines));
+
+        pump.pump(new ByteArrayInputStream("output\n".getBytes()), new TerminatedProcess(), buffer);
+        buffer.await();
+
+        Assert.assertEquals(lines, Collections.singletonList("output"));
+        release.countDown();
+        for (LineRingBuffer blockedBuffer : blocked) {
+            blockedBuffer.await();
+        }
+    }
+
+    private static class CollectingConsumer implements LineConsumer {
+        final List<String> lines;
+
+        CollectingConsumer(List<String> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public void writeLine(String line) {
+            lines.add(line);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class BlockingConsumer implements LineConsumer {
+        final CountDownLatch release;
+
+        BlockingConsumer(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void writeLine(String line) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class TerminatedProcess extends Process {
+        @Override
+        public OutputStream getOutputStream() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public boolean waitFor(long timeout, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public boolean isAlive() {
+            return false;
+        }
+    }
+}
@@ -15,7 +15,9 @@ import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -80,4 +82,44 @@ public class ProcessUtilTest {
         System.out.println(stdout);
         System.out.println(stderr);
     }
+
+    @Test
+    public void shouldDeliverStdoutAndStderrInCallingThread() throws Exception {
+        final Process p = new ProcessBuilder("sh", "-c", "i=0; while [ $i -lt 500 ]; do echo out$i; echo err$i >&2; i=$((i+1)); done")
+                .start();
+        final List<String> stdout = new ArrayList<>();
+        final List<String> stderr = new ArrayList<>();
+        final Set<Thread> threads = new HashSet<>();
+
+        ProcessUtil.process(p,
+                            new LineConsumer() {
+                                @Override
+                                public void writeLine(String line) throws IOException {
+                                    threads.add(Thread.currentThread());
+                                    stdout.add(line);
+                                }
+
+                                @Override
+                                public void close() throws IOException {
+                                }
+                            },
+                            new LineConsumer() {
+                                @Override
+                                public void writeLine(String line) throws IOException {
+                                    threads.add(Thread.currentThread());
+                                    stderr.add(line);
+                                }
+
+                                @Override
+                                public void close() throws IOException {
+                                }
+                            });
+
+        Assert.assertEquals(threads.size(), 1);
+        Assert.assertTrue(threads.contains(Thread.currentThread()));
+        Assert.assertEquals(stdout.size(), 500);
+        Assert.assertEquals(stderr.size(), 500);
+        Assert.assertEquals(stdout.get(499), "out499");
+        Assert.assertEquals(stderr.get(499), "err499");
+    }
 }
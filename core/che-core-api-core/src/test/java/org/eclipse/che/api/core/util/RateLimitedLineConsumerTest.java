@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author andrew00x
+ */
+public class RateLimitedLineConsumerTest {
+    @Test
+    public void testReplaceExceededLinesWithMessage() throws Exception {
+        ListLineConsumer lines = new ListLineConsumer();
+        RateLimitedLineConsumer consumer = new RateLimitedLineConsumer(lines, 2, "skipped %d");
+        for (int i = 0; i < 5; i++) {
+            consumer.writeLine("line" + i);
+        }
+        Thread.sleep(1100);
+        consumer.writeLine("line5");
+        consumer.close();
+
+        Assert.assertEquals(lines.getLines(), Arrays.asList("line0", "line1", "skipped 3", "line5"));
+        Assert.assertEquals(consumer.getSkippedLines(), 3L);
+    }
+
+    @Test
+    public void testWriteSkippedMessageOnClose() throws Exception {
+        ListLineConsumer lines = new ListLineConsumer();
+        RateLimitedLineConsumer consumer = new RateLimitedLineConsumer(lines, 1, "skipped %d");
+        consumer.writeLine("line0");
+        consumer.writeLine("line1");
+        consumer.close();
+
+        Assert.assertEquals(lines.getLines(), Arrays.asList("line0", "skipped 1"));
+    }
+}
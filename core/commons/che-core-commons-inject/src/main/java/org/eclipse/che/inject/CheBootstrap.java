@@ -22,6 +22,8 @@ import org.eclipse.che.inject.lifecycle.DestroyErrorHandler;
 import org.eclipse.che.inject.lifecycle.DestroyModule;
 import org.eclipse.che.inject.lifecycle.Destroyer;
 import org.eclipse.che.inject.lifecycle.InitModule;
+import org.eclipse.che.inject.lifecycle.ProvisionTimingModule;
+import org.eclipse.che.inject.lifecycle.StartupReport;
 import org.everrest.guice.servlet.EverrestGuiceContextListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,7 +49,9 @@ import java.util.regex.Pattern;
  * CheBootstrap is entry point of Che application implemented as ServletContextListener.
  * <ul>
  * <li>Initializes Guice Injector</li>
- * <li>Automatically binds all the subclasses of com.google.inject.Module annotated with &#064DynaModule</li>
+ * <li>Automatically binds all the subclasses of com.google.inject.Module annotated with &#064DynaModule,
+ * modules are found through the index generated at compile time by {@link DynaModuleIndexProcessor}</li>
+ * <li>Logs the slowest bindings and &#064PostConstruct methods if system property <i>che.startup.report</i> is set to true</li>
  * <li>Loads configuration from .properties and .xml files located in <i>/WEB-INF/classes/che</i> directory</li>
  * <li>Overrides it with external configuration located in directory pointed by <i>CHE_LOCAL_CONF_DIR</i> env variable (if any)</li>
  * <li>Binds all environment variables (visible as prefixed with "env.") and system properties (visible as prefixed with "sys.")</li>
@@ -103,9 +107,28 @@ public class CheBootstrap extends EverrestGuiceContextListener {
      */
     public static final String CHE_LOCAL_CONF_DIR = "CHE_LOCAL_CONF_DIR";
 
+    /**
+     * System property that enables logging of the slowest bindings and &#064PostConstruct methods
+     * when the injector is created.
+     */
+    public static final String STARTUP_REPORT = "che.startup.report";
+
+    private static final int STARTUP_REPORT_LIMIT = 20;
 
     private final List<Module> modules = new ArrayList<>();
 
+    private StartupReport startupReport;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        final long start = System.currentTimeMillis();
+        super.contextInitialized(sce);
+        if (startupReport != null) {
+            LOG.info("Injector created in {} ms\n{}", System.currentTimeMillis() - start, startupReport.close(STARTUP_REPORT_LIMIT));
+            startupReport = null;
+        }
+    }
+
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
         final ServletContext ctx = sce.getServletContext();
@@ -119,7 +142,11 @@ public class CheBootstrap extends EverrestGuiceContextListener {
     @Override
     protected List<Module> getModules() {
         // based on logic that getServletModule() is called BEFORE getModules() in the EverrestGuiceContextListener
-        modules.add(new InitModule(PostConstruct.class));
+        if (Boolean.getBoolean(STARTUP_REPORT)) {
+            startupReport = new StartupReport();
+            modules.add(new ProvisionTimingModule(startupReport));
+        }
+        modules.add(new InitModule(PostConstruct.class, startupReport));
         modules.add(new DestroyModule(PreDestroy.class, DestroyErrorHandler.DUMMY));
         modules.add(new URIConverter());
         modules.add(new URLConverter());
@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject;
+
+import javax.servlet.annotation.HandlesTypes;
+
+/**
+ * {@link ModuleScanner} which also loads &#064DynaModule classes found by the servlet container scan.
+ * It is fallback for jars which were built without {@link DynaModuleIndexProcessor}, such modules are reported with warning.
+ * <p>
+ * Container scan is switched off by default. To switch it on list this class in
+ * {@code META-INF/services/javax.servlet.ServletContainerInitializer} of the web application.
+ */
+@HandlesTypes({DynaModule.class})
+public class ContainerModuleScanner extends ModuleScanner {
+}
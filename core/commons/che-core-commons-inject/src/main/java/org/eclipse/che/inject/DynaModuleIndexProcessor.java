@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor which writes names of all classes annotated with &#064DynaModule
+ * to the {@link #INDEX_RESOURCE} resource of the compiled module.
+ * <p>
+ * Processor is registered as service so it is picked up by compiler for each module
+ * that has che-core-commons-inject in classpath, the index is used by {@link ModuleScanner}
+ * instead of scanning of the classes in runtime.
+ * <p>
+ * Index is rebuilt from scratch by each compilation, so it lists only the modules of the last compilation
+ * and the modules which were removed from sources don't stay in it.
+ *
+ * @author gazarenkov
+ */
+// all the compilations are processed to rewrite index when the last annotated class is removed
+@SupportedAnnotationTypes("*")
+public class DynaModuleIndexProcessor extends AbstractProcessor {
+    /** Location of the index of &#064DynaModule classes in jar. */
+    public static final String INDEX_RESOURCE = "META-INF/che/dynamodules";
+
+    private final Set<String> modules = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            // don't add empty index to each module, but overwrite index that is left from previous compilation
+            if (!modules.isEmpty() || indexExists()) {
+                writeIndex();
+            }
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(DynaModule.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                modules.add(processingEnv.getElementUtils().getBinaryName((TypeElement)element).toString());
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                                                         "Ignored non class element annotated with @DynaModule",
+                                                         element);
+            }
+        }
+        return false;
+    }
+
+    private boolean indexExists() {
+        try {
+            final FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            existing.openInputStream().close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = index.openWriter()) {
+                for (String module : modules) {
+                    writer.write(module);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                                     "Unable to write " + INDEX_RESOURCE + ": " + e.getMessage());
+        }
+    }
+
+    /** Reads names of the classes from the index, one name per line, blank lines and lines started with '#' are skipped. */
+    static List<String> readIndex(BufferedReader reader) throws IOException {
+        final List<String> names = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                names.add(line);
+            }
+        }
+        return names;
+    }
+}
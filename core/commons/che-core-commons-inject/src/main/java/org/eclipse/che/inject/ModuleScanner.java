@@ -18,26 +18,70 @@ import org.slf4j.LoggerFactory;
 import javax.servlet.ServletContainerInitializer;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
-import javax.servlet.annotation.HandlesTypes;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
-/** Utility for finding Guice modules annotated with &#064DynaModule. */
-@HandlesTypes({DynaModule.class})
+/**
+ * Utility for finding Guice modules annotated with &#064DynaModule.
+ * <p>
+ * Names of the modules are read from the {@link DynaModuleIndexProcessor#INDEX_RESOURCE} resources which are
+ * generated at compile time by {@link DynaModuleIndexProcessor}, so servlet container doesn't scan classes
+ * of the application for this initializer. Applications with jars which were built without the processor
+ * may opt in for the container scan with {@link ContainerModuleScanner}.
+ */
 public class ModuleScanner implements ServletContainerInitializer {
     private static final Logger LOG = LoggerFactory.getLogger(ModuleScanner.class);
 
-    private static final List<Module> modules = new ArrayList<>();
+    private static final List<Module>   modules = new ArrayList<>();
+    private static final Set<Class<?>> loaded  = new HashSet<>();
 
     public static List<Module> findModules() {
-        return new ArrayList<>(modules);
+        synchronized (modules) {
+            return new ArrayList<>(modules);
+        }
     }
 
     @Override
     public void onStartup(Set<Class<?>> c, ServletContext ctx) throws ServletException {
+        final ClassLoader classLoader = ctx.getClassLoader();
+        final Set<Class<?>> classes = new LinkedHashSet<>();
+        final Set<String> indexed = findModuleNames(classLoader);
+        if (indexed.isEmpty()) {
+            LOG.warn("No {} index found, only modules found by the servlet container scan are loaded",
+                     DynaModuleIndexProcessor.INDEX_RESOURCE);
+        }
+        for (String className : indexed) {
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                LOG.error("Module {} listed in {} is not found", className, DynaModuleIndexProcessor.INDEX_RESOURCE);
+            }
+        }
         if (c != null) {
             for (Class<?> clazz : c) {
+                if (classes.add(clazz)) {
+                    LOG.warn("Module {} is not listed in {}, its jar should be built with {}",
+                             clazz.getName(),
+                             DynaModuleIndexProcessor.INDEX_RESOURCE,
+                             DynaModuleIndexProcessor.class.getName());
+                }
+            }
+        }
+        synchronized (modules) {
+            for (Class<?> clazz : classes) {
+                // both scanners may be registered in the application
+                if (!loaded.add(clazz)) {
+                    continue;
+                }
                 if (Module.class.isAssignableFrom(clazz)) {
                     try {
                         modules.add((Module)clazz.newInstance());
@@ -50,4 +94,21 @@ public class ModuleScanner implements ServletContainerInitializer {
             }
         }
     }
+
+    /** Returns names of the classes listed in all {@link DynaModuleIndexProcessor#INDEX_RESOURCE} resources visible to the given class loader. */
+    static Set<String> findModuleNames(ClassLoader classLoader) throws ServletException {
+        final Set<String> names = new LinkedHashSet<>();
+        try {
+            final Enumeration<URL> indexes = classLoader.getResources(DynaModuleIndexProcessor.INDEX_RESOURCE);
+            while (indexes.hasMoreElements()) {
+                final URL index = indexes.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                    names.addAll(DynaModuleIndexProcessor.readIndex(reader));
+                }
+            }
+        } catch (IOException e) {
+            throw new ServletException("Unable to read " + DynaModuleIndexProcessor.INDEX_RESOURCE + ": " + e.getMessage(), e);
+        }
+        return names;
+    }
 }
@@ -24,9 +24,18 @@ import java.lang.reflect.Method;
 /** @author andrew00x */
 public final class InitModule extends LifecycleModule {
     private final Class<? extends Annotation> annotationType;
+    private final StartupReport               report;
 
     public InitModule(Class<? extends Annotation> annotationType) {
+        this(annotationType, null);
+    }
+
+    /**
+     * Creates module which also adds invocation time of each init method to the given {@code report}.
+     */
+    public InitModule(Class<? extends Annotation> annotationType, StartupReport report) {
         this.annotationType = annotationType;
+        this.report = report;
     }
 
     @Override
@@ -40,8 +49,13 @@ public final class InitModule extends LifecycleModule {
                         final Method[] methods = get(injectee.getClass(), annotationType);
                         if (methods.length > 0) {
                             for (Method method : methods) {
+                                final long start = System.nanoTime();
                                 try {
                                     method.invoke(injectee);
+                                    if (report != null) {
+                                        report.initMethodInvoked(method.getDeclaringClass().getName() + '#' + method.getName(),
+                                                                 System.nanoTime() - start);
+                                    }
                                 } catch (IllegalArgumentException e) {
                                     // method MUST NOT have any parameters
                                     throw new ProvisionException(e.getMessage(), e);
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject.lifecycle;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.spi.ProvisionListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Measures provisioning time of each binding and adds it to the {@link StartupReport}.
+ * Time spent on provisioning of dependencies is not counted in time of the dependent binding.
+ *
+ * @author andrew00x
+ */
+public final class ProvisionTimingModule extends AbstractModule {
+    private final StartupReport report;
+
+    public ProvisionTimingModule(StartupReport report) {
+        this.report = report;
+    }
+
+    @Override
+    protected void configure() {
+        final ThreadLocal<Deque<long[]>> dependencies = ThreadLocal.withInitial(ArrayDeque::new);
+        bindListener(Matchers.any(), new ProvisionListener() {
+            @Override
+            public <T> void onProvision(ProvisionInvocation<T> provision) {
+                final Deque<long[]> stack = dependencies.get();
+                final long[] dependenciesTime = new long[1];
+                stack.push(dependenciesTime);
+                final long start = System.nanoTime();
+                try {
+                    provision.provision();
+                } finally {
+                    final long time = System.nanoTime() - start;
+                    stack.pop();
+                    if (!stack.isEmpty()) {
+                        stack.peek()[0] += time;
+                    }
+                    report.bindingProvisioned(provision.getBinding().getKey().toString(), time - dependenciesTime[0]);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject.lifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects time spent on provisioning of bindings and invocation of init methods
+ * while application starts and formats the slowest of them as a report.
+ *
+ * @author andrew00x
+ * @see ProvisionTimingModule
+ * @see InitModule#InitModule(Class, StartupReport)
+ */
+public final class StartupReport {
+    private final Map<String, Long> bindings    = new ConcurrentHashMap<>();
+    private final Map<String, Long> initMethods = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    /**
+     * Adds time spent on provisioning of the binding excluding time spent on provisioning of its dependencies.
+     */
+    void bindingProvisioned(String binding, long nanos) {
+        if (!closed) {
+            bindings.merge(binding, nanos, Long::sum);
+        }
+    }
+
+    /** Adds time spent on invocation of the init method. */
+    void initMethodInvoked(String method, long nanos) {
+        if (!closed) {
+            initMethods.merge(method, nanos, Long::sum);
+        }
+    }
+
+    /**
+     * Stops collecting of timings and returns report which contains at most {@code limit}
+     * the slowest bindings and the slowest init methods.
+     */
+    public String close(int limit) {
+        closed = true;
+        final StringBuilder report = new StringBuilder();
+        report.append("Slowest bindings:");
+        appendTop(report, bindings, limit);
+        report.append("\nSlowest init methods:");
+        appendTop(report, initMethods, limit);
+        return report.toString();
+    }
+
+    private static void appendTop(StringBuilder report, Map<String, Long> timings, int limit) {
+        final List<Map.Entry<String, Long>> entries = new ArrayList<>(timings.entrySet());
+        entries.sort((e1, e2) -> Long.compare(e2.getValue(), e1.getValue()));
+        for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            report.append(String.format("%n%8d ms  %s", TimeUnit.NANOSECONDS.toMillis(entry.getValue()), entry.getKey()));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link DynaModuleIndexProcessor}.
+ *
+ * @author andrew00x
+ */
+public class DynaModuleIndexProcessorTest {
+    private Path root;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("dynamodules");
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void shouldWriteIndexOfAnnotatedClasses() throws Exception {
+        final Path classes = compile(source("test.FirstModule", "package test;\n" +
+                                                                "@org.eclipse.che.inject.DynaModule\n" +
+                                                                "public class FirstModule {\n" +
+                                                                "    @org.eclipse.che.inject.DynaModule\n" +
+                                                                "    public static class Nested {}\n" +
+                                                                "}\n"),
+                                     source("test.NotModule", "package test;\n" +
+                                                              "public class NotModule {}\n"));
+
+        final List<String> index = Files.readAllLines(classes.resolve(DynaModuleIndexProcessor.INDEX_RESOURCE),
+                                                      StandardCharsets.UTF_8);
+
+        assertEquals(index, Arrays.asList("test.FirstModule", "test.FirstModule$Nested"));
+    }
+
+    @Test
+    public void shouldNotWriteIndexWhenThereAreNoAnnotatedClasses() throws Exception {
+        final Path classes = compile(source("test.NotModule", "package test;\n" +
+                                                              "public class NotModule {}\n"));
+
+        assertFalse(Files.exists(classes.resolve(DynaModuleIndexProcessor.INDEX_RESOURCE)));
+    }
+
+    @Test
+    public void shouldRebuildIndexOnRecompilation() throws Exception {
+        final Path first = source("test.FirstModule", "package test;\n" +
+                                                       "@org.eclipse.che.inject.DynaModule\n" +
+                                                       "public class FirstModule {}\n");
+        final Path second = source("test.SecondModule", "package test;\n" +
+                                                         "@org.eclipse.che.inject.DynaModule\n" +
+                                                         "public class SecondModule {}\n");
+        compile(first, second);
+        source("test.SecondModule", "package test;\n" +
+                                    "public class SecondModule {}\n");
+        final Path classes = compile(first, second);
+
+        assertEquals(Files.readAllLines(classes.resolve(DynaModuleIndexProcessor.INDEX_RESOURCE), StandardCharsets.UTF_8),
+                     singletonList("test.FirstModule"));
+    }
+
+    @Test
+    public void shouldClearIndexWhenAllAnnotatedClassesAreRemoved() throws Exception {
+        compile(source("test.FirstModule", "package test;\n" +
+                                           "@org.eclipse.che.inject.DynaModule\n" +
+                                           "public class FirstModule {}\n"));
+        final Path classes = compile(source("test.FirstModule", "package test;\n" +
+                                                                "public class FirstModule {}\n"));
+
+        assertTrue(Files.readAllLines(classes.resolve(DynaModuleIndexProcessor.INDEX_RESOURCE), StandardCharsets.UTF_8)
+                        .isEmpty());
+    }
+
+    @Test
+    public void shouldSkipBlankLinesAndCommentsWhenReadingIndex() throws Exception {
+        final List<String> names = DynaModuleIndexProcessor.readIndex(new BufferedReader(new StringReader("# modules\n" +
+                                                                                                            "\n" +
+                                                                                                            "  test.FirstModule  \n")));
+
+        assertEquals(names, singletonList("test.FirstModule"));
+    }
+
+    private Path source(String className, String content) throws Exception {
+        final Path source = root.resolve("src").resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, content.getBytes(StandardCharsets.UTF_8));
+        return source;
+    }
+
+    private Path compile(Path... sources) throws Exception {
+        final Path classes = Files.createDirectories(root.resolve("classes"));
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            final Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(sources);
+            final JavaCompiler.CompilationTask task = compiler.getTask(null,
+                                                                       fileManager,
+                                                                       null,
+                                                                       Arrays.asList("-d", classes.toString(),
+                                                                                     "-classpath", System.getProperty("java.class.path")),
+                                                                       null,
+                                                                       units);
+            task.setProcessors(singletonList(new DynaModuleIndexProcessor()));
+            assertTrue(task.call());
+        }
+        return classes;
+    }
+}
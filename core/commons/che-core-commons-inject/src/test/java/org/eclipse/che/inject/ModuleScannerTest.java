@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Module;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.servlet.ServletContext;
+import javax.servlet.annotation.HandlesTypes;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Collections.singleton;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link ModuleScanner}.
+ *
+ * @author andrew00x
+ */
+public class ModuleScannerTest {
+    private Path firstJar;
+    private Path secondJar;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        firstJar = Files.createTempDirectory("first");
+        secondJar = Files.createTempDirectory("second");
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        for (Path dir : Arrays.asList(firstJar, secondJar)) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void shouldReadModuleNamesFromAllIndexes() throws Exception {
+        index(firstJar, "# first\n" + IndexedModule.class.getName() + '\n');
+        index(secondJar, AnotherIndexedModule.class.getName() + '\n');
+
+        assertEquals(ModuleScanner.findModuleNames(classLoader()),
+                     new HashSet<>(Arrays.asList(IndexedModule.class.getName(), AnotherIndexedModule.class.getName())));
+    }
+
+    @Test
+    public void shouldFindIndexedModulesAndModulesFoundByContainerScan() throws Exception {
+        index(firstJar, IndexedModule.class.getName() + '\n' + "org.eclipse.che.inject.MissingModule\n");
+
+        new ContainerModuleScanner().onStartup(singleton(ScannedModule.class), servletContext(classLoader()));
+
+        final List<Class<?>> found = ModuleScanner.findModules()
+                                                  .stream()
+                                                  .map(Module::getClass)
+                                                  .collect(Collectors.toList());
+        assertTrue(found.contains(IndexedModule.class), found.toString());
+        assertTrue(found.contains(ScannedModule.class), found.toString());
+    }
+
+    @Test
+    public void shouldFindModulesFoundByContainerScanWhenThereIsNoIndex() throws Exception {
+        new ContainerModuleScanner().onStartup(singleton(NotIndexedModule.class), servletContext(classLoader()));
+
+        assertTrue(ModuleScanner.findModules().stream().anyMatch(module -> module instanceof NotIndexedModule));
+    }
+
+    @Test
+    public void shouldRequestContainerScanOnlyByContainerModuleScanner() throws Exception {
+        assertNull(ModuleScanner.class.getAnnotation(HandlesTypes.class));
+        assertEquals(ContainerModuleScanner.class.getAnnotation(HandlesTypes.class).value(), new Class<?>[] {DynaModule.class});
+    }
+
+    @Test
+    public void shouldNotLoadModuleTwiceWhenBothScannersAreRegistered() throws Exception {
+        index(firstJar, TwiceRegisteredModule.class.getName() + '\n');
+
+        new ModuleScanner().onStartup(null, servletContext(classLoader()));
+        new ContainerModuleScanner().onStartup(singleton(TwiceRegisteredModule.class), servletContext(classLoader()));
+
+        assertEquals(ModuleScanner.findModules().stream().filter(module -> module instanceof TwiceRegisteredModule).count(), 1);
+    }
+
+    private ClassLoader classLoader() throws Exception {
+        return new URLClassLoader(new URL[] {firstJar.toUri().toURL(), secondJar.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private static void index(Path jar, String content) throws Exception {
+        final Path index = jar.resolve(DynaModuleIndexProcessor.INDEX_RESOURCE);
+        Files.createDirectories(index.getParent());
+        Files.write(index, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ServletContext servletContext(ClassLoader classLoader) {
+        return (ServletContext)Proxy.newProxyInstance(ServletContext.class.getClassLoader(),
+                                                      new Class<?>[] {ServletContext.class},
+                                                      (proxy, method, args) -> {
+                                                          if ("getClassLoader".equals(method.getName())) {
+                                                              return classLoader;
+                                                          }
+                                                          throw new UnsupportedOperationException(method.getName());
+                                                      });
+    }
+
+    @DynaModule
+    public static class IndexedModule extends AbstractModule {
+        @Override
+        protected void configure() {
+        }
+    }
+
+    @DynaModule
+    public static class AnotherIndexedModule extends AbstractModule {
+        @Override
+        protected void configure() {
+        }
+    }
+
+    @DynaModule
+    public static class ScannedModule extends AbstractModule {
+        @Override
+        protected void configure() {
+        }
+    }
+
+    @DynaModule
+    public static class NotIndexedModule extends AbstractModule {
+        @Override
+        protected void configure() {
+        }
+    }
+
+    @DynaModule
+    public static class TwiceRegisteredModule extends AbstractModule {
+        @Override
+        protected void configure() {
+        }
+    }
+}
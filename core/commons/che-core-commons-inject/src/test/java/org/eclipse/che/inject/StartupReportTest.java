@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject;
+
+import org.eclipse.che.inject.lifecycle.InitModule;
+import org.eclipse.che.inject.lifecycle.ProvisionTimingModule;
+import org.eclipse.che.inject.lifecycle.StartupReport;
+import com.google.inject.Guice;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/** @author andrew00x */
+public class StartupReportTest {
+
+    @Test
+    public void shouldReportBindingsAndInitMethods() {
+        final StartupReport report = new StartupReport();
+        Guice.createInjector(new ProvisionTimingModule(report),
+                             new InitModule(PostConstruct.class, report),
+                             binder -> binder.bind(SlowComponent.class).asEagerSingleton());
+
+        final String text = report.close(10);
+
+        Assert.assertTrue(text.contains(SlowComponent.class.getName()), text);
+        Assert.assertTrue(text.contains(SlowComponent.class.getName() + "#init"), text);
+        Assert.assertTrue(text.contains(Dependency.class.getName()), text);
+    }
+
+    @Singleton
+    public static class SlowComponent {
+        @Inject
+        public SlowComponent(Dependency dependency) {
+        }
+
+        @PostConstruct
+        public void init() throws InterruptedException {
+            Thread.sleep(10);
+        }
+    }
+
+    public static class Dependency {
+    }
+}
@@ -22,6 +22,7 @@ import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.LinkedList;
 
 /**
@@ -80,7 +81,15 @@ public class TarUtils {
     }
 
     public static void tarFiles(File tar, long modTime, File... files) throws IOException {
-        try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(new BufferedOutputStream(new FileOutputStream(tar)))) {
+        tarFiles(new BufferedOutputStream(new FileOutputStream(tar)), modTime, files);
+    }
+
+    /**
+     * Writes tar archive of the files to the stream, stream is closed when archive is written.
+     * Archive isn't stored anywhere, so it may be sent while it is being created.
+     */
+    public static void tarFiles(OutputStream out, long modTime, File... files) throws IOException {
+        try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(out)) {
             tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
             for (File f : files) {
                 if (f.isDirectory()) {
@@ -19,9 +19,19 @@ import java.util.concurrent.ScheduledExecutorService;
 public interface CronExecutorService extends ScheduledExecutorService {
     /**
      * Schedules the specified task to execute according to the specified cron expression.
+     * Missed fire times of the task are skipped, see {@link MisfirePolicy#SKIP}.
      *
      * @param task       the Runnable task to schedule
      * @param expression a cron expression
      */
     Future<?> schedule(Runnable task, CronExpression expression);
+
+    /**
+     * Schedules the specified task to execute according to the specified cron expression.
+     *
+     * @param task          the Runnable task to schedule
+     * @param expression    a cron expression
+     * @param misfirePolicy defines what to do when fire time of the task was missed
+     */
+    Future<?> schedule(Runnable task, CronExpression expression, MisfirePolicy misfirePolicy);
 }
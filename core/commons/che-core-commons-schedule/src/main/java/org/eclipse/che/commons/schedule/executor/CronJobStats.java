@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution statistic of the single cron job scheduled in {@link CronThreadPoolExecutor}.
+ *
+ * @author Sergii Kabashniuk
+ */
+public class CronJobStats {
+    private final String     expression;
+    private final AtomicLong executionCount;
+    private final AtomicLong failureCount;
+    private final AtomicLong misfireCount;
+    private final AtomicLong totalExecutionTime;
+
+    private volatile long lastExecutionTime;
+    private volatile long lastExecutionDuration;
+    private volatile long nextFireTime;
+
+    CronJobStats(String expression) {
+        this.expression = expression;
+        this.executionCount = new AtomicLong();
+        this.failureCount = new AtomicLong();
+        this.misfireCount = new AtomicLong();
+        this.totalExecutionTime = new AtomicLong();
+    }
+
+    /** Returns cron expression of the job. */
+    public String getExpression() {
+        return expression;
+    }
+
+    /** Returns number of finished executions, including failed ones. */
+    public long getExecutionCount() {
+        return executionCount.get();
+    }
+
+    /** Returns number of executions finished with exception. */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /** Returns how many times the job missed its fire time. */
+    public long getMisfireCount() {
+        return misfireCount.get();
+    }
+
+    /** Returns summary execution time of the job in milliseconds. */
+    public long getTotalExecutionTime() {
+        return totalExecutionTime.get();
+    }
+
+    /** Returns start time of the last execution in milliseconds or 0 if job wasn't executed yet. */
+    public long getLastExecutionTime() {
+        return lastExecutionTime;
+    }
+
+    /** Returns duration of the last execution in milliseconds. */
+    public long getLastExecutionDuration() {
+        return lastExecutionDuration;
+    }
+
+    /** Returns next fire time of the job in milliseconds or 0 if job won't be executed anymore. */
+    public long getNextFireTime() {
+        return nextFireTime;
+    }
+
+    void executed(long startTime, long duration, boolean failed) {
+        lastExecutionTime = startTime;
+        lastExecutionDuration = duration;
+        totalExecutionTime.addAndGet(duration);
+        executionCount.incrementAndGet();
+        if (failed) {
+            failureCount.incrementAndGet();
+        }
+    }
+
+    void misfired() {
+        misfireCount.incrementAndGet();
+    }
+
+    void setNextFireTime(long nextFireTime) {
+        this.nextFireTime = nextFireTime;
+    }
+
+    @Override
+    public String toString() {
+        return "CronJobStats{" +
+               "expression='" + expression + '\'' +
+               ", executionCount=" + executionCount +
+               ", failureCount=" + failureCount +
+               ", misfireCount=" + misfireCount +
+               ", totalExecutionTime=" + totalExecutionTime +
+               ", lastExecutionTime=" + lastExecutionTime +
+               ", lastExecutionDuration=" + lastExecutionDuration +
+               ", nextFireTime=" + nextFireTime +
+               '}';
+    }
+}
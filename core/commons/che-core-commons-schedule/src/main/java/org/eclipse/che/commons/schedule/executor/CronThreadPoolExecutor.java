@@ -16,24 +16,32 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Scheduled thread-pool executor implementation that leverages a CronExpression
  * to calculate future execution times for scheduled tasks.
+ * <p>
+ * Cron jobs don't hold own threads, they are kept in the delay queue of this executor
+ * together with other delayed tasks and executed by the workers of the pool.
  */
 public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implements CronExecutorService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CronThreadPoolExecutor.class);
 
-    private final List<CountDownLatch> cronJobWatchDogs;
+    private final Set<CronJob> cronJobs;
 
     /**
      * Constructs a new CronThreadPoolExecutor.
@@ -43,7 +51,7 @@ public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implemen
      */
     public CronThreadPoolExecutor(int corePoolSize) {
         super(corePoolSize);
-        this.cronJobWatchDogs = new ArrayList<>();
+        this.cronJobs = ConcurrentHashMap.newKeySet();
         this.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
     }
 
@@ -57,7 +65,7 @@ public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implemen
      */
     public CronThreadPoolExecutor(int corePoolSize, ThreadFactory threadFactory) {
         super(corePoolSize, threadFactory);
-        this.cronJobWatchDogs = new ArrayList<>();
+        this.cronJobs = ConcurrentHashMap.newKeySet();
         this.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
     }
 
@@ -71,7 +79,7 @@ public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implemen
      */
     public CronThreadPoolExecutor(int corePoolSize, RejectedExecutionHandler handler) {
         super(corePoolSize, handler);
-        this.cronJobWatchDogs = new ArrayList<>();
+        this.cronJobs = ConcurrentHashMap.newKeySet();
         this.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
     }
 
@@ -87,53 +95,43 @@ public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implemen
      */
     public CronThreadPoolExecutor(int corePoolSize, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
         super(corePoolSize, threadFactory, handler);
-        this.cronJobWatchDogs = new ArrayList<>();
+        this.cronJobs = ConcurrentHashMap.newKeySet();
     }
 
     @Override
-    public Future<?> schedule(final Runnable task, final CronExpression expression) {
-        if (task == null) {
+    public Future<?> schedule(Runnable task, CronExpression expression) {
+        return schedule(task, expression, MisfirePolicy.SKIP);
+    }
+
+    @Override
+    public Future<?> schedule(Runnable task, CronExpression expression, MisfirePolicy misfirePolicy) {
+        if (task == null || expression == null || misfirePolicy == null) {
             throw new NullPointerException();
         }
-        setCorePoolSize(getCorePoolSize() + 1);
-        Runnable scheduleTask = new Runnable() {
-            @Override
-            public void run() {
-                CountDownLatch countDownLatch = new CountDownLatch(1);
-                cronJobWatchDogs.add(countDownLatch);
-                Date now = new Date();
-                Date time = expression.getNextValidTimeAfter(now);
-                try {
-                    while (time != null) {
-                        CronThreadPoolExecutor.this
-                                .schedule(task, time.getTime() - now.getTime(), TimeUnit.MILLISECONDS);
-                        while (now.before(time)) {
-                            LOG.debug("Cron watch dog wait {} ", time.getTime() - now.getTime());
-                            if (countDownLatch.await(time.getTime() - now.getTime(), TimeUnit.MILLISECONDS)) {
-                                LOG.debug("Stopping cron watch dog.");
-                                return;
-                            }
-                            now = new Date();
-                        }
-                        time = expression.getNextValidTimeAfter(now);
-                    }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } catch (RejectedExecutionException | CancellationException e) {
-                    LOG.error(e.getMessage(), e);
-                }
-            }
-        };
-        return this.submit(scheduleTask);
+        if (isShutdown()) {
+            throw new RejectedExecutionException("Executor is shut down");
+        }
+        final CronJob job = new CronJob(task, expression, misfirePolicy);
+        cronJobs.add(job);
+        job.start();
+        return job;
+    }
+
+    /**
+     * Returns execution statistic of all cron jobs which are currently scheduled in this executor.
+     */
+    public List<CronJobStats> getCronJobStats() {
+        final List<CronJobStats> result = new ArrayList<>(cronJobs.size());
+        for (CronJob cronJob : cronJobs) {
+            result.add(cronJob.stats);
+        }
+        return result;
     }
 
     @Override
     public void shutdown() {
 
-        for (CountDownLatch cronJobWatchDog : cronJobWatchDogs) {
-            cronJobWatchDog.countDown();
-        }
-        cronJobWatchDogs.clear();
+        cancelCronJobs();
         super.shutdown();
         LOG.debug("Active {} Pool {}, CEPTAS {} ,  EEDTAS {} , Task count {} , queue size {}",
                   getActiveCount(),
@@ -148,10 +146,7 @@ public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implemen
 
     @Override
     public List<Runnable> shutdownNow() {
-        for (CountDownLatch cronJobWatchDog : cronJobWatchDogs) {
-            cronJobWatchDog.countDown();
-        }
-        cronJobWatchDogs.clear();
+        cancelCronJobs();
         LOG.debug("Active {} Pool {}, CEPTAS {} ,  EEDTAS {} , Task count {} , queue size {}",
                   getActiveCount(),
                   getPoolSize(),
@@ -162,4 +157,149 @@ public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implemen
                  );
         return super.shutdownNow();
     }
+
+    private void cancelCronJobs() {
+        for (CronJob cronJob : cronJobs) {
+            cronJob.cancel(false);
+        }
+        cronJobs.clear();
+    }
+
+    /**
+     * Cron job which is scheduled as one-shot delayed task in the queue of this executor and
+     * reschedules itself to the next fire time after each execution. So all cron jobs share
+     * the single delay queue and workers of the pool and no thread is parked for the job
+     * between fire times.
+     */
+    private class CronJob implements Runnable, Future<Object> {
+        private final Runnable       task;
+        private final CronExpression expression;
+        private final MisfirePolicy  misfirePolicy;
+        private final CronJobStats   stats;
+        private final CountDownLatch done;
+
+        private ScheduledFuture<?> current;
+        private long               fireTime;
+        private volatile boolean   cancelled;
+        private volatile Throwable failure;
+
+        CronJob(Runnable task, CronExpression expression, MisfirePolicy misfirePolicy) {
+            this.task = task;
+            this.expression = expression;
+            this.misfirePolicy = misfirePolicy;
+            this.stats = new CronJobStats(expression.getCronExpression());
+            this.done = new CountDownLatch(1);
+        }
+
+        void start() {
+            final long now = System.currentTimeMillis();
+            scheduleAt(expression.getNextValidTimeAfter(new Date(now)), now);
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            final long startTime = System.currentTimeMillis();
+            boolean failed = false;
+            try {
+                task.run();
+            } catch (Exception e) {
+                failed = true;
+                LOG.error(e.getLocalizedMessage(), e);
+            } catch (Throwable e) {
+                // errors are not recoverable, stop the job and let callers which wait for it know why
+                LOG.error(e.getLocalizedMessage(), e);
+                stats.executed(startTime, System.currentTimeMillis() - startTime, true);
+                failure = e;
+                synchronized (this) {
+                    finish();
+                }
+                return;
+            }
+            final long now = System.currentTimeMillis();
+            stats.executed(startTime, now - startTime, failed);
+
+            Date next = expression.getNextValidTimeAfter(new Date(fireTime));
+            if (next != null && next.getTime() <= now) {
+                stats.misfired();
+                LOG.debug("Cron job {} missed fire time {}", expression.getCronExpression(), next);
+                if (misfirePolicy == MisfirePolicy.SKIP) {
+                    next = expression.getNextValidTimeAfter(new Date(now));
+                } else {
+                    next = new Date(now);
+                }
+            }
+            scheduleAt(next, now);
+        }
+
+        private synchronized void scheduleAt(Date next, long now) {
+            if (next == null || cancelled || isShutdown()) {
+                finish();
+                return;
+            }
+            fireTime = next.getTime();
+            stats.setNextFireTime(fireTime);
+            try {
+                current = CronThreadPoolExecutor.this.schedule(this, fireTime - now, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                LOG.error(e.getMessage(), e);
+                finish();
+            }
+        }
+
+        private void finish() {
+            stats.setNextFireTime(0);
+            cronJobs.remove(this);
+            done.countDown();
+        }
+
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            if (isDone()) {
+                return false;
+            }
+            cancelled = true;
+            if (current != null) {
+                current.cancel(mayInterruptIfRunning);
+            }
+            finish();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            done.await();
+            return result();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (!done.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            return result();
+        }
+
+        private Object result() throws ExecutionException {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+            return null;
+        }
+    }
 }
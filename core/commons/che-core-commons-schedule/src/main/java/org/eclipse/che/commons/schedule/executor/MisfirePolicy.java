@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+/**
+ * Defines what happens to a cron job when one or more of its fire times were missed,
+ * e.g. because previous execution took longer than the interval between fire times
+ * or all workers of the pool were busy.
+ *
+ * @author Sergii Kabashniuk
+ */
+public enum MisfirePolicy {
+    /**
+     * Execute job once immediately, no matter how many fire times were missed,
+     * and continue with the next fire time after that execution.
+     */
+    FIRE_ONCE_NOW,
+    /**
+     * Skip all missed fire times and wait for the next valid fire time.
+     */
+    SKIP
+}
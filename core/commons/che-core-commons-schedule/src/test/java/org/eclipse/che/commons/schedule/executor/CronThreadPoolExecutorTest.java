@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Sergii Kabashniuk
+ */
+public class CronThreadPoolExecutorTest {
+    private CronThreadPoolExecutor executor;
+
+    @BeforeMethod
+    public void setUp() {
+        executor = new CronThreadPoolExecutor(1);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldExecuteManyCronJobsWithoutAdditionalThreads() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(10);
+
+        for (int i = 0; i < 10; i++) {
+            executor.schedule(latch::countDown, new CronExpression("* * * * * ?"));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(executor.getCorePoolSize(), 1);
+        assertEquals(executor.getPoolSize(), 1);
+    }
+
+    @Test
+    public void shouldContinueExecutionAfterFailure() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        executor.schedule(() -> {
+            latch.countDown();
+            throw new IllegalStateException("expected");
+        }, new CronExpression("* * * * * ?"));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        final CronJobStats stats = executor.getCronJobStats().get(0);
+        assertTrue(stats.getFailureCount() >= 1);
+        assertTrue(stats.getNextFireTime() > 0);
+    }
+
+    @Test
+    public void shouldSkipMissedFireTimes() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        executor.schedule(() -> {
+            counter.incrementAndGet();
+            latch.countDown();
+            try {
+                Thread.sleep(1500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, new CronExpression("* * * * * ?"));
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        final CronJobStats stats = executor.getCronJobStats().get(0);
+        assertTrue(stats.getMisfireCount() >= 1);
+        assertTrue(stats.getExecutionCount() >= 1);
+    }
+
+    @Test
+    public void shouldFailFutureOfJobWhichThrowsError() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final Future<?> future = executor.schedule(() -> {
+            counter.incrementAndGet();
+            throw new AssertionError("expected");
+        }, new CronExpression("* * * * * ?"));
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Future of the failed job must not complete normally");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AssertionError);
+        }
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+        assertTrue(executor.getCronJobStats().isEmpty());
+        assertEquals(counter.get(), 1);
+    }
+
+    @Test
+    public void shouldStopExecutionWhenJobIsCancelled() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Future<?> future = executor.schedule(latch::countDown, new CronExpression("* * * * * ?"));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        assertTrue(future.cancel(false));
+
+        assertTrue(future.isCancelled());
+        assertTrue(future.isDone());
+        assertTrue(executor.getCronJobStats().isEmpty());
+    }
+}
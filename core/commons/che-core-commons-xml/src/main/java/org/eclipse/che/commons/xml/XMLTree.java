@@ -34,9 +34,11 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING;
 import static javax.xml.stream.XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES;
@@ -52,8 +54,6 @@ import static org.eclipse.che.commons.xml.XMLTreeUtil.replaceAll;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.rootStart;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.single;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.level;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.insertBetween;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.insertInto;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.lastIndexOf;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.openTagLength;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.tabulate;
@@ -201,20 +201,27 @@ public final class XMLTree {
 
     private Document            document;
     private Map<String, String> namespaces;
-    private List<Element>       elements;
+    private Set<Element>        elements;
+    /** Source bytes, only first {@link #length} bytes are content, the rest is reserved for updates. */
     private byte[]              xml;
+    private int                 length;
 
+    /**
+     * Creates tree which owns given bytes, so they are
+     * normalized and updated in place without copying.
+     */
     private XMLTree(byte[] xml) {
         if (xml.length == 0) {
             throw new XMLTreeException("Source content is empty");
         }
-        elements = new LinkedList<>();
+        elements = new LinkedHashSet<>();
         namespaces = newHashMapWithExpectedSize(EXPECTED_NAMESPACES_SIZE);
-        this.xml = normalizeLineEndings(xml);
+        this.xml = xml;
+        this.length = normalizeLineEndings(xml);
         //reason: parser is going to replace all '\r\n' sequences with single '\n'
         //which will affect elements position in source xml and produce incorrect XMLTree behaviour
         //it comes from spec http://www.w3.org/TR/2004/REC-xml11-20040204/
-        document = parseQuietly(this.xml);
+        document = parseQuietly();
         constructTreeQuietly();
     }
 
@@ -381,31 +388,37 @@ public final class XMLTree {
     public byte[] getBytes() {
         final String separator = System.getProperty("line.separator");
         if (!"\n".equals(separator)) {
-            return replaceAll(xml, "\n".getBytes(), separator.getBytes());
+            return replaceAll(Arrays.copyOf(xml, length), "\n".getBytes(), separator.getBytes());
         }
-        return Arrays.copyOf(xml, xml.length);
+        return Arrays.copyOf(xml, length);
     }
 
     /**
-     * Writes copy of source bytes to output stream.
+     * Writes source bytes to output stream.
      * Doesn't close the stream
      */
     public void writeTo(OutputStream outputStream) throws IOException {
-        outputStream.write(getBytes());
+        if ("\n".equals(System.getProperty("line.separator"))) {
+            outputStream.write(xml, 0, length);
+        } else {
+            outputStream.write(getBytes());
+        }
     }
 
     /**
      * Writes source bytes to path
      */
     public void writeTo(Path path) throws IOException {
-        Files.write(path, getBytes());
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            writeTo(outputStream);
+        }
     }
 
     /**
      * Writes source bytes to file
      */
     public void writeTo(java.io.File file) throws IOException {
-        Files.write(file.toPath(), getBytes());
+        writeTo(file.toPath());
     }
 
     /**
@@ -426,10 +439,10 @@ public final class XMLTree {
      * Parses document using {@link DocumentBuilder}
      * Rethrows all exceptions as {@link XMLTreeException}
      */
-    private Document parseQuietly(byte[] xml) {
+    private Document parseQuietly() {
         try {
             final DocumentBuilder db = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
-            return db.parse(new ByteArrayInputStream(xml));
+            return db.parse(new ByteArrayInputStream(xml, 0, length));
         } catch (Exception ex) {
             throw XMLTreeException.wrap(ex);
         }
@@ -637,7 +650,7 @@ public final class XMLTree {
      */
     private XMLStreamReader newXMLStreamReader() {
         try {
-            return XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml), "UTF-8");
+            return XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml, 0, length), "UTF-8");
         } catch (Exception xmlEx) {
             throw XMLTreeException.wrap(xmlEx);
         }
@@ -679,14 +692,12 @@ public final class XMLTree {
      */
     void appendChild(NewElement newElement, Element relatedToNew, Element parent) {
         final int level = level(parent) + 1;
-        final int lengthBefore = xml.length;
+        final int lengthBefore = length;
         final int insertHere = lastIndexOf(xml, '>', parent.end.left) + 1;
         //inserting new element bytes to tree bytes
-        xml = insertInto(xml,
-                         insertHere,
-                         '\n' + tabulate(newElement.asString(), level));
+        insertInto(insertHere, '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(insertHere, xml.length - lengthBefore);
+        shiftSegments(insertHere, length - lengthBefore);
         //create and set up start, end, text segments to created element
         applySegments(newElement, relatedToNew, insertHere - 1, level);
         //let tree know about added element
@@ -698,13 +709,11 @@ public final class XMLTree {
      */
     void insertAfter(NewElement newElement, Element relatedToNew, Element refElement) {
         final int level = level(refElement);
-        final int lengthBefore = xml.length;
+        final int lengthBefore = length;
         //inserting new element bytes to tree bytes
-        xml = insertInto(xml,
-                         refElement.end.right + 1,
-                         '\n' + tabulate(newElement.asString(), level));
+        insertInto(refElement.end.right + 1, '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(refElement.end.right, xml.length - lengthBefore);
+        shiftSegments(refElement.end.right, length - lengthBefore);
         //create and set up start, end, text segments to created element
         //+1 because of \n
         applySegments(newElement, relatedToNew, refElement.end.right, level);
@@ -722,13 +731,11 @@ public final class XMLTree {
      */
     void insertAfterParent(NewElement newElement, Element relatedToNew, Element parent) {
         final int level = level(parent) + 1;
-        final int lengthBefore = xml.length;
+        final int lengthBefore = length;
         //inserting after parent
-        xml = insertInto(xml,
-                         parent.start.right + 1,
-                         '\n' + tabulate(newElement.asString(), level));
+        insertInto(parent.start.right + 1, '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(parent.start.right, xml.length - lengthBefore);
+        shiftSegments(parent.start.right, length - lengthBefore);
         //create and set up start, end, text segments to created element
         applySegments(newElement, relatedToNew, parent.start.right, level);
         //let tree know about inserted element
@@ -761,19 +768,16 @@ public final class XMLTree {
      */
     void removeElement(Element element) {
         final int leftBound = lastIndexOf(xml, '>', element.start.left) + 1;
-        final int lengthBefore = xml.length;
+        final int lengthBefore = length;
         //if text segment before removal element
         //exists it should go to hell with removal
         if (leftBound != element.start.left - 1) {
             removeSegmentFromElement(element.getParent(), leftBound);
         }
         //replacing content with nothing
-        xml = insertBetween(xml,
-                            leftBound,
-                            element.end.right,
-                            "");
+        insertBetween(leftBound, element.end.right, "");
         //shift all elements which are right from removed element
-        shiftSegments(element.end.right, xml.length - lengthBefore);
+        shiftSegments(element.end.right, length - lengthBefore);
         //let tree know that element is not a family member
         unregisterElement(element);
     }
@@ -782,13 +786,11 @@ public final class XMLTree {
      * Inserts new attribute value content to tree bytes
      */
     void insertAttribute(NewAttribute attribute, Element owner) {
-        final int len = xml.length;
+        final int len = length;
         //inserting new attribute content
-        xml = insertInto(xml,
-                         owner.start.right,
-                         ' ' + attribute.asString());
+        insertInto(owner.start.right, ' ' + attribute.asString());
         //shift all elements which are right from removed element
-        shiftSegments(owner.start.left - 1, xml.length - len);
+        shiftSegments(owner.start.left - 1, length - len);
     }
 
     /**
@@ -796,15 +798,12 @@ public final class XMLTree {
      */
     void removeAttribute(Attribute attribute) {
         final Element element = attribute.getElement();
-        final int lengthBefore = xml.length;
+        final int lengthBefore = length;
         final Segment segment = attributeSegment(attribute);
         //replacing attribute segment with nothing
-        xml = insertBetween(xml,
-                            segment.left - 1,
-                            segment.right,
-                            "");
+        insertBetween(segment.left - 1, segment.right, "");
         //shift all elements which are left from owner left
-        shiftSegments(element.start.left, xml.length - lengthBefore);
+        shiftSegments(element.start.left, length - lengthBefore);
     }
 
     //TODO should it be public?
@@ -869,9 +868,9 @@ public final class XMLTree {
      * on offset equal to removal segment length
      */
     private void removeSegment(Segment segment) {
-        final int lengthBefore = xml.length;
-        xml = insertBetween(xml, segment.left, segment.right, "");
-        shiftSegments(segment.left, xml.length - lengthBefore);
+        final int lengthBefore = length;
+        insertBetween(segment.left, segment.right, "");
+        shiftSegments(segment.left, length - lengthBefore);
     }
 
     /**
@@ -880,9 +879,9 @@ public final class XMLTree {
      * source bytes length
      */
     private void updateSegmentContent(Segment segment, String content) {
-        final int lengthBefore = xml.length;
-        xml = insertBetween(xml, segment.left, segment.right, content);
-        shiftSegments(segment.left, xml.length - lengthBefore);
+        final int lengthBefore = length;
+        insertBetween(segment.left, segment.right, content);
+        shiftSegments(segment.left, length - lengthBefore);
         segment.right = segment.left + content.length() - 1;
     }
 
@@ -915,8 +914,8 @@ public final class XMLTree {
         final byte[] name = attribute.getName().getBytes();
         final byte[] value = attribute.getValue().getBytes();
 
-        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
-        final int valueLeft = indexOf(xml, value, attrLeft + name.length);
+        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length(), length);
+        final int valueLeft = indexOf(xml, value, attrLeft + name.length, length);
 
         return new Segment(attrLeft, valueLeft + value.length);
     }
@@ -930,8 +929,8 @@ public final class XMLTree {
         final byte[] name = attribute.getName().getBytes();
         final byte[] value = oldValue.getBytes();
 
-        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
-        final int valueLeft = indexOf(xml, value, attrLeft + name.length);
+        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length(), length);
+        final int valueLeft = indexOf(xml, value, attrLeft + name.length, length);
 
         return new Segment(valueLeft, valueLeft + value.length - 1);
     }
@@ -1010,15 +1009,49 @@ public final class XMLTree {
         return relatedToNew.end.right;
     }
 
-    private byte[] normalizeLineEndings(byte[] src) {
-        final String separator = System.getProperty("line.separator");
-        //replacing all \r\n with \n
-        if (separator.equals("\r\n")) {
-            src = replaceAll(src, "\r\n".getBytes(), "\n".getBytes());
+    /**
+     * Normalizes line endings in place and returns new length of the content.
+     * If system line separator is \r\n then each \r\n is replaced with \n,
+     * after that each \r is replaced with \n, i.e. content \r\r\n is going to be \n\n.
+     */
+    private int normalizeLineEndings(byte[] src) {
+        final boolean crlf = "\r\n".equals(System.getProperty("line.separator"));
+        int write = 0;
+        for (int read = 0; read < src.length; read++) {
+            if (src[read] == '\r') {
+                if (crlf && read + 1 < src.length && src[read + 1] == '\n') {
+                    read++;
+                }
+                src[write++] = '\n';
+            } else {
+                src[write++] = src[read];
+            }
         }
-        //replacing all \r with \n to prevent combination of \r\n which was created after
-        //\r\n replacement, i.e. content \r\r\n after first replacement will be \r\n which is not okay
-        return replaceAll(src, "\r".getBytes(), "\n".getBytes());
+        return write;
+    }
+
+    /**
+     * Replaces source bytes between left and right (both included) with content bytes.
+     * Bytes are moved inside of the source array, new array is allocated
+     * only if there is not enough reserved space.
+     */
+    private void insertBetween(int left, int right, String content) {
+        final byte[] contentSrc = content.getBytes(UTF_8);
+        final int tail = length - right - 1;
+        final int newLength = left + contentSrc.length + tail;
+        if (newLength > xml.length) {
+            xml = Arrays.copyOf(xml, Math.max(newLength, xml.length + (xml.length >> 1)));
+        }
+        System.arraycopy(xml, right + 1, xml, left + contentSrc.length, tail);
+        System.arraycopy(contentSrc, 0, xml, left, contentSrc.length);
+        length = newLength;
+    }
+
+    /**
+     * Inserts content bytes into source bytes starting from given position.
+     */
+    private void insertInto(int pos, String content) {
+        insertBetween(pos, pos - 1, content);
     }
 
     /**
@@ -1702,6 +1702,40 @@ public class XMLTreeTest {
         assertEquals(tree.toString(), "<parent \r\n\r\n\r\n attr1=\"v\"><child>new text</child></parent>");
     }
 
+    @Test
+    public void shouldUpdateLargeTreeManyTimes() {
+        final StringBuilder modules = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            modules.append("\n        <module>module-").append(i).append("</module>");
+        }
+        final XMLTree tree = XMLTree.from("<project>\n" +
+                                          "    <modules>" + modules + "\n    </modules>\n" +
+                                          "</project>");
+        final Element modulesElement = tree.getSingleElement("/project/modules");
+
+        for (Element module : tree.getElements("/project/modules/module")) {
+            module.setText(module.getText().toUpperCase());
+        }
+        for (int i = 0; i < 1000; i++) {
+            modulesElement.appendChild(NewElement.createElement("module", "new-" + i));
+        }
+        for (Element module : tree.getElements("/project/modules/module")) {
+            if (module.getText().startsWith("MODULE-")) {
+                module.remove();
+            }
+        }
+
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            expected.append("\n        <module>new-").append(i).append("</module>");
+        }
+        assertEquals(tree.toString(), "<project>\n" +
+                                      "    <modules>" + expected + "\n    </modules>\n" +
+                                      "</project>");
+        assertEquals(modulesElement.getChildren().size(), 1000);
+        assertEquals(tree.getElements("/project/modules/module").size(), 1000);
+    }
+
     @Test(dataProvider = "custom-xml-files")
     public void shouldBeAbleToCreateTreeFromCustomXML(File xml) throws IOException {
         //should be able to parse file
@@ -71,6 +71,18 @@ public interface CLibrary extends Library {
 
     int open(String path, int mode);
 
+    /**
+     * Waits for events on file descriptors, see http://man7.org/linux/man-pages/man2/poll.2.html
+     *
+     * <p>Each {@code struct pollfd} takes two elements of {@code fds}: file descriptor
+     * and requested events with returned events packed in the native byte order.
+     */
+    int poll(int[] fds, int nfds, int timeout);
+
     int O_RDONLY = 0x00;
     int O_WRONLY = 0x01;
+
+    int POLLIN = 0x001; // Defined in 'poll.h'
+
+    int EINTR = 4; // Defined in 'errno.h'
 }
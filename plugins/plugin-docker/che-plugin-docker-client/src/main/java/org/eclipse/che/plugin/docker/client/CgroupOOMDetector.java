@@ -11,7 +11,7 @@
 package org.eclipse.che.plugin.docker.client;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import com.sun.jna.ptr.LongByReference;
+import com.sun.jna.Native;
 
 import org.eclipse.che.api.core.util.SystemInfo;
 import org.eclipse.che.commons.lang.Size;
@@ -22,28 +22,39 @@ import javax.inject.Inject;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
 
 /**
  * Docker container OOM detector based on cgroup usage
  *
+ * <p>OOM notifications of all containers are awaited by one thread which polls
+ * event file descriptors of all containers at once, so number of threads doesn't
+ * depend on number of containers.
+ *
  * @author Alexander Garagatyi
  */
 public class CgroupOOMDetector implements DockerOOMDetector {
     private static final Logger LOG = LoggerFactory.getLogger(CgroupOOMDetector.class);
 
     private final Map<String, OOMDetector> oomDetectors;
+    private final Queue<OOMDetector>       stoppedDetectors;
     private final URI                      dockerDaemonUri;
     private final DockerConnector          dockerConnector;
-    private final ExecutorService          executor;
+
+    private int    wakeUpFd = -1;
+    private Thread pollingThread;
 
     @Inject
     public CgroupOOMDetector(DockerConnectorConfiguration connectorConfiguration, DockerConnector dockerConnector) {
@@ -54,32 +65,38 @@ public class CgroupOOMDetector implements DockerOOMDetector {
         this.dockerDaemonUri = dockerDaemonUri;
         this.dockerConnector = dockerConnector;
         this.oomDetectors = new ConcurrentHashMap<>();
-        this.executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("CgroupOOMDetector-%d")
-                                                                                .setDaemon(true)
-                                                                                .build());
+        this.stoppedDetectors = new ConcurrentLinkedQueue<>();
     }
 
     @Override
     public void stopDetection(String container) {
         final OOMDetector oomDetector = oomDetectors.remove(container);
         if (oomDetector != null) {
-            oomDetector.stop();
+            // descriptors may be polled right now, so they are closed by polling thread
+            stoppedDetectors.add(oomDetector);
+            wakeUp();
         }
     }
 
     @Override
     public void startDetection(String container, MessageProcessor<LogMessage> containerLogProcessor) {
         if (needStartOOMDetector(container)) {
-            if (cgroupMount == null) {
+            if (!Cgroups.isSupported()) {
                 LOG.warn("System doesn't support OOM events");
                 return;
             }
             try {
                 final long memory = dockerConnector.inspectContainer(container).getConfig().getHostConfig().getMemory();
-                OOMDetector oomDetector = new OOMDetector(container, containerLogProcessor, memory);
-                oomDetectors.putIfAbsent(container, oomDetector);
-                oomDetector = oomDetectors.get(container);
-                oomDetector.start();
+                final OOMDetector oomDetector = new OOMDetector(container, containerLogProcessor, memory);
+                if (!ensurePollingThreadStarted() || !oomDetector.register()) {
+                    oomDetector.close();
+                    return;
+                }
+                if (oomDetectors.putIfAbsent(container, oomDetector) != null) {
+                    oomDetector.close();
+                    return;
+                }
+                wakeUp();
             } catch (IOException e) {
                 LOG.error(e.getLocalizedMessage(), e);
             }
@@ -101,6 +118,96 @@ public class CgroupOOMDetector implements DockerOOMDetector {
         return false;
     }
 
+    private synchronized boolean ensurePollingThreadStarted() {
+        if (pollingThread == null) {
+            if ((wakeUpFd = getCLibrary().eventfd(0, 0)) == -1) {
+                LOG.error("Unable create a file descriptor for event notification");
+                return false;
+            }
+            pollingThread = new ThreadFactoryBuilder().setNameFormat("CgroupOOMDetector")
+                                                      .setDaemon(true)
+                                                      .build()
+                                                      .newThread(this::pollEvents);
+            pollingThread.start();
+        }
+        return true;
+    }
+
+    /** Interrupts waiting of polling thread, so it picks up changed set of containers. */
+    private synchronized void wakeUp() {
+        // descriptor is closed under the same lock when polling is stopped
+        if (wakeUpFd != -1) {
+            final byte[] one = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder()).putLong(1).array();
+            if (getCLibrary().write(wakeUpFd, one, one.length) != one.length) {
+                LOG.error("Unable wake up OOM events polling thread");
+            }
+        }
+    }
+
+    /**
+     * Releases resources of the polling thread which can't wait for events anymore, so the next
+     * {@link #startDetection(String, MessageProcessor)} starts new thread which picks up detectors of all the containers.
+     */
+    private synchronized void pollingStopped() {
+        getCLibrary().close(wakeUpFd);
+        wakeUpFd = -1;
+        pollingThread = null;
+        OOMDetector stopped;
+        while ((stopped = stoppedDetectors.poll()) != null) {
+            stopped.close();
+        }
+    }
+
+    private void pollEvents() {
+        final CLibrary cLib = getCLibrary();
+        final byte[] counter = new byte[8];
+        for (; ; ) {
+            final List<OOMDetector> detectors = new ArrayList<>(oomDetectors.values());
+            final int[] fds = new int[(detectors.size() + 1) * 2];
+            fds[0] = wakeUpFd;
+            fds[1] = requestedEvents(CLibrary.POLLIN);
+            for (int i = 0; i < detectors.size(); i++) {
+                fds[(i + 1) * 2] = detectors.get(i).efd;
+                fds[(i + 1) * 2 + 1] = requestedEvents(CLibrary.POLLIN);
+            }
+            if (cLib.poll(fds, detectors.size() + 1, -1) == -1) {
+                final int errno = Native.getLastError();
+                if (errno == CLibrary.EINTR) {
+                    continue;
+                }
+                LOG.error("Unable wait for OOM events, OOM detection is stopped until the next container start. Error: {}",
+                          cLib.strerror(errno));
+                pollingStopped();
+                return;
+            }
+            if (returnedEvents(fds[1]) != 0) {
+                cLib.read(wakeUpFd, counter, counter.length);
+            }
+            for (int i = 0; i < detectors.size(); i++) {
+                if (returnedEvents(fds[(i + 1) * 2 + 1]) != 0) {
+                    final OOMDetector detector = detectors.get(i);
+                    if (oomDetectors.remove(detector.container, detector)) {
+                        detector.onOOM();
+                        detector.close();
+                    }
+                }
+            }
+            OOMDetector stopped;
+            while ((stopped = stoppedDetectors.poll()) != null) {
+                stopped.close();
+            }
+        }
+    }
+
+    // struct pollfd { int fd; short events; short revents; }, events and revents share one int
+    private static int requestedEvents(int events) {
+        return ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? events : events << 16;
+    }
+
+    private static int returnedEvents(int packedEvents) {
+        return ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? packedEvents >>> 16 : packedEvents & 0xFFFF;
+    }
+
     /*
      * Need detect OOM errors and notify users about them. Without such notification if application is killed by oom-killer client often can
      * see message "Killed" and there is no any why to see why. Unfortunately for now docker doesn't provide clear mechanism how to control
@@ -129,123 +236,82 @@ public class CgroupOOMDetector implements DockerOOMDetector {
      *     2. Usage of cgroup notification mechanism.
      * Good article about this: https://access.redhat.com/documentation/en-US/Red_Hat_Enterprise_Linux/6/html/Resource_Management_Guide/sec-Using_the_Notification_API.html
      */
-    private static String  cgroupMount;
-    private static boolean systemd;
-
-    static {
-        if (SystemInfo.isLinux()) {
-            final String mounts = "/proc/mounts";
-            try (BufferedReader reader = Files.newBufferedReader(Paths.get(mounts), Charset.forName("UTF-8"))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] a = line.split("\\s+");
-                    // line has format: "DEVICE PATH FILESYSTEM FLAGS_DELIMITED_BY_COMMAS ??? ???"
-                    String filesystem = a[2];
-                    if ("cgroup".equals(filesystem)) {
-                        String path = a[1];
-                        if (path.endsWith("cpu")
-                            || path.endsWith("cpuacct")
-                            || path.endsWith("cpuset")
-                            || path.endsWith("memory")
-                            || path.endsWith("devices")
-                            || path.endsWith("freezer")) {
-                            cgroupMount = Paths.get(path).getParent().toString();
-                        } else if (path.endsWith("systemd")) {
-                            systemd = true;
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                LOG.error(e.getMessage(), e);
-            }
-        }
-    }
-
     /**
      * Detects OOM with cgroup notification mechanism.
      * <p/>
      * https://access.redhat.com/documentation/en-US/Red_Hat_Enterprise_Linux/6/html/Resource_Management_Guide/sec-Using_the_Notification_API.html
      */
-    private class OOMDetector implements Runnable {
+    private static class OOMDetector {
         private final String                       container;
         private final MessageProcessor<LogMessage> containerLogProcessor;
         private final long                         memory;
         private final CLibrary                     cLib;
         private final String                       containerCgroup;
 
-        private volatile boolean stopped = false;
-        private boolean started = false;
+        private int efd   = -1;
+        private int oomfd = -1;
 
         OOMDetector(String container, MessageProcessor<LogMessage> containerLogProcessor, long memory) {
             this.container = container;
             this.containerLogProcessor = containerLogProcessor;
             this.memory = memory;
             cLib = getCLibrary();
-
-            if (systemd) {
-                containerCgroup = cgroupMount + "/memory/system.slice/docker-" + container + ".scope/";
-            } else {
-                containerCgroup = cgroupMount + "/memory/docker/" + container + "/";
-            }
+            containerCgroup = Cgroups.getContainerCgroup("memory", container);
         }
 
-        @Override
-        public void run() {
+        /** Subscribes event file descriptor to OOM notifications of container, returns {@code false} if that failed. */
+        boolean register() {
             final String cf = containerCgroup + "cgroup.event_control";
             final String oomf = containerCgroup + "memory.oom_control";
-            int efd = -1;
-            int oomfd = -1;
-            try {
-                if ((efd = cLib.eventfd(0, 1)) == -1) {
-                    LOG.error("Unable create a file descriptor for event notification");
-                    return;
-                }
-                int cfd;
-                if ((cfd = cLib.open(cf, CLibrary.O_WRONLY)) == -1) {
-                    LOG.error("Unable open event control file '{}' for write", cf);
-                    return;
-                }
-                if ((oomfd = cLib.open(oomf, CLibrary.O_RDONLY)) == -1) {
-                    LOG.error("Unable open OOM event file '{}' for read", oomf);
-                    return;
-                }
-                final byte[] data = String.format("%d %d", efd, oomfd).getBytes();
-                if (cLib.write(cfd, data, data.length) != data.length) {
-                    LOG.error("Unable write event control data to file '{}'", cf);
-                    return;
-                }
-                if (cLib.close(cfd) == -1) {
-                    LOG.error("Error closing of event control file '{}'", cf);
-                    return;
-                }
-                final LongByReference eventHolder = new LongByReference();
-                if (cLib.eventfd_read(efd, eventHolder) == 0) {
-                    if (stopped) {
-                        return;
-                    }
-                    LOG.warn("OOM event received for container '{}'", container);
-                    if (readCgroupValue("memory.failcnt") > 0) {
-                        try {
-                            containerLogProcessor.process(new LogMessage(LogMessage.Type.DOCKER,
-                                                                         "[ERROR] The processes in this machine need more RAM. This machine started with " +
-                                                                         Size.toHumanSize(memory)));
-                            containerLogProcessor.process(new LogMessage(LogMessage.Type.DOCKER,
-                                                                         "[ERROR] Create a new machine configuration that allocates additional RAM or increase" +
-                                                                         " the workspace RAM limit in the user dashboard."));
-                        } catch (/*IOException*/ Exception e) {
-                            LOG.warn(e.getMessage(), e);
-                        }
-                    }
-                }
-            } finally {
-                if (!stopped) {
-                    stopDetection(container);
+            if ((efd = cLib.eventfd(0, 1)) == -1) {
+                LOG.error("Unable create a file descriptor for event notification");
+                return false;
+            }
+            int cfd;
+            if ((cfd = cLib.open(cf, CLibrary.O_WRONLY)) == -1) {
+                LOG.error("Unable open event control file '{}' for write", cf);
+                return false;
+            }
+            if ((oomfd = cLib.open(oomf, CLibrary.O_RDONLY)) == -1) {
+                LOG.error("Unable open OOM event file '{}' for read", oomf);
+                cLib.close(cfd);
+                return false;
+            }
+            final byte[] data = String.format("%d %d", efd, oomfd).getBytes();
+            if (cLib.write(cfd, data, data.length) != data.length) {
+                LOG.error("Unable write event control data to file '{}'", cf);
+                cLib.close(cfd);
+                return false;
+            }
+            if (cLib.close(cfd) == -1) {
+                LOG.error("Error closing of event control file '{}'", cf);
+                return false;
+            }
+            return true;
+        }
+
+        void onOOM() {
+            LOG.warn("OOM event received for container '{}'", container);
+            if (readCgroupValue("memory.failcnt") > 0) {
+                try {
+                    containerLogProcessor.process(new LogMessage(LogMessage.Type.DOCKER,
+                                                                 "[ERROR] The processes in this machine need more RAM. This machine started with " +
+                                                                 Size.toHumanSize(memory)));
+                    containerLogProcessor.process(new LogMessage(LogMessage.Type.DOCKER,
+                                                                 "[ERROR] Create a new machine configuration that allocates additional RAM or increase" +
+                                                                 " the workspace RAM limit in the user dashboard."));
+                } catch (/*IOException*/ Exception e) {
+                    LOG.warn(e.getMessage(), e);
                 }
-                close(oomfd);
-                close(efd);
             }
         }
 
+        void close() {
+            close(oomfd);
+            close(efd);
+            oomfd = efd = -1;
+        }
+
         private void close(int fd) {
             if (fd != -1) {
                 cLib.close(fd);
@@ -263,16 +329,5 @@ public class CgroupOOMDetector implements DockerOOMDetector {
             }
             return 0;
         }
-
-        synchronized void start() {
-            if (!started) {
-                started = true;
-                executor.execute(this);
-            }
-        }
-
-        void stop() {
-            stopped = true;
-        }
     }
 }
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.eclipse.che.api.core.util.SystemInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Locates cgroups of docker containers which run on this host.
+ *
+ * @author Alexander Garagatyi
+ */
+public final class Cgroups {
+    private static final Logger LOG = LoggerFactory.getLogger(Cgroups.class);
+
+    private static String  cgroupMount;
+    private static boolean systemd;
+
+    static {
+        if (SystemInfo.isLinux()) {
+            final String mounts = "/proc/mounts";
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(mounts), Charset.forName("UTF-8"))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] a = line.split("\\s+");
+                    // line has format: "DEVICE PATH FILESYSTEM FLAGS_DELIMITED_BY_COMMAS ??? ???"
+                    String filesystem = a[2];
+                    if ("cgroup".equals(filesystem)) {
+                        String path = a[1];
+                        if (path.endsWith("cpu")
+                            || path.endsWith("cpuacct")
+                            || path.endsWith("cpuset")
+                            || path.endsWith("memory")
+                            || path.endsWith("devices")
+                            || path.endsWith("freezer")) {
+                            cgroupMount = Paths.get(path).getParent().toString();
+                        } else if (path.endsWith("systemd")) {
+                            systemd = true;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                LOG.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Returns {@code true} if cgroup file system is mounted on this host. */
+    public static boolean isSupported() {
+        return cgroupMount != null;
+    }
+
+    /**
+     * Returns path to the cgroup directory of container, path ends with '/'.
+     *
+     * @param subsystem
+     *         cgroup subsystem, e.g. memory or cpuacct
+     * @param container
+     *         full id of container
+     */
+    public static String getContainerCgroup(String subsystem, String container) {
+        if (systemd) {
+            return cgroupMount + '/' + subsystem + "/system.slice/docker-" + container + ".scope/";
+        }
+        return cgroupMount + '/' + subsystem + "/docker/" + container + '/';
+    }
+
+    private Cgroups() {
+    }
+}
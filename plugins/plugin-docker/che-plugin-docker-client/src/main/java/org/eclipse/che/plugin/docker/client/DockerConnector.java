@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client;
 
+import com.google.common.hash.Hashing;
 import com.google.common.io.CharStreams;
 import com.google.common.reflect.TypeToken;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -18,7 +19,6 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
 
-import org.eclipse.che.api.core.util.FileCleaner;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.lang.TarUtils;
 import org.eclipse.che.commons.lang.ws.rs.ExtMediaType;
@@ -43,6 +43,7 @@ import org.eclipse.che.plugin.docker.client.json.ExecInfo;
 import org.eclipse.che.plugin.docker.client.json.ExecStart;
 import org.eclipse.che.plugin.docker.client.json.Filters;
 import org.eclipse.che.plugin.docker.client.json.Image;
+import org.eclipse.che.plugin.docker.client.json.ImageHistoryEntry;
 import org.eclipse.che.plugin.docker.client.json.ImageInfo;
 import org.eclipse.che.plugin.docker.client.json.NetworkCreated;
 import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
@@ -56,10 +57,13 @@ import org.eclipse.che.plugin.docker.client.params.BuildImageParams;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.ExportContainerParams;
 import org.eclipse.che.plugin.docker.client.params.GetContainerLogsParams;
 import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
 import org.eclipse.che.plugin.docker.client.params.GetExecInfoParams;
+import org.eclipse.che.plugin.docker.client.params.GetImageHistoryParams;
 import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
+import org.eclipse.che.plugin.docker.client.params.ImportImageParams;
 import org.eclipse.che.plugin.docker.client.params.InspectContainerParams;
 import org.eclipse.che.plugin.docker.client.params.InspectImageParams;
 import org.eclipse.che.plugin.docker.client.params.KillContainerParams;
@@ -87,23 +91,26 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.core.MediaType;
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.net.UrlEscapers.urlPathSegmentEscaper;
@@ -130,10 +137,14 @@ public class DockerConnector {
                                                         .setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE)
                                                         .create();
 
-    private final URI                        dockerDaemonUri;
-    private final DockerRegistryAuthResolver authResolver;
-    private final ExecutorService            executor;
-    private final DockerConnectionFactory    connectionFactory;
+    private static final int BUILD_CONTEXT_PIPE_SIZE = 64 * 1024;
+    private static final int PULL_ATTEMPTS           = 3;
+
+    private final URI                              dockerDaemonUri;
+    private final DockerRegistryAuthResolver       authResolver;
+    private final ExecutorService                  executor;
+    private final DockerConnectionFactory          connectionFactory;
+    private final ConcurrentMap<String, ImagePull> pulls;
 
     protected final String apiVersionPathPrefix;
 
@@ -146,6 +157,7 @@ public class DockerConnector {
         this.connectionFactory = connectionFactory;
         this.authResolver = authResolver;
         this.apiVersionPathPrefix = dockerApiVersionPathPrefixProvider.get();
+        this.pulls = new ConcurrentHashMap<>();
         executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
                                                          .setNameFormat("DockerApiConnector-%d")
                                                          .setDaemon(true)
@@ -279,6 +291,37 @@ public class DockerConnector {
         }
     }
 
+    /**
+     * Gets history of docker image.
+     *
+     * @param image
+     *         id or full repository name of docker image
+     * @return entries of the history, the image itself goes first and its base layer goes last
+     * @throws IOException
+     */
+    public List<ImageHistoryEntry> getImageHistory(String image) throws IOException {
+        return getImageHistory(GetImageHistoryParams.create(image));
+    }
+
+    /**
+     * Gets history of docker image.
+     *
+     * @return entries of the history, the image itself goes first and its base layer goes last
+     * @throws IOException
+     *          when a problem occurs with docker api calls
+     */
+    public List<ImageHistoryEntry> getImageHistory(GetImageHistoryParams params) throws IOException {
+        try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .method("GET")
+                                                            .path(apiVersionPathPrefix + "/images/" + params.getImage() + "/history")) {
+            final DockerResponse response = connection.request();
+            if (OK.getStatusCode() != response.getStatus()) {
+                throw getDockerException(response);
+            }
+            return parseResponseStreamAndClose(response.getInputStream(), new TypeToken<List<ImageHistoryEntry>>() {});
+        }
+    }
+
     /**
      * Stops container.
      *
@@ -638,6 +681,31 @@ public class DockerConnector {
         }
     }
 
+    /**
+     * Exports file system of the container as tar archive.
+     *
+     * @return tar stream of the container file system, with retention connection
+     * @throws IOException
+     *          when a problem occurs with docker api calls
+     */
+    public InputStream exportContainer(final ExportContainerParams params) throws IOException {
+        DockerConnection connection = null;
+        try {
+            connection = connectionFactory.openConnection(dockerDaemonUri)
+                                          .method("GET")
+                                          .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/export");
+
+            final DockerResponse response = connection.request();
+            if (response.getStatus() != OK.getStatusCode()) {
+                throw getDockerException(response);
+            }
+            return new CloseConnectionInputStream(response.getInputStream(), connection);
+        } catch (IOException io) {
+            connection.close();
+            throw io;
+        }
+    }
+
     /**
      * Puts files into specified container.
      *
@@ -646,35 +714,20 @@ public class DockerConnector {
      * @apiNote this method implements 1.20 docker API and requires docker not less than 1.8 version
      */
     public void putResource(final PutResourceParams params) throws IOException {
-        File tarFile;
-        long length;
-        try (InputStream sourceData = params.getSourceStream()) {
-            // TODO according to http spec http://www.w3.org/Protocols/rfc2616/rfc2616-sec4.html#sec4.4,
-            // it is possible to send request without specifying content length if chunked encoding header is set
-            // Investigate is it possible to write the stream to request directly
-
-            // we save stream to file, because we have to know its length
-            Path tarFilePath = Files.createTempFile("compressed-resources", ".tar");
-            tarFile = tarFilePath.toFile();
-            length = Files.copy(sourceData, tarFilePath, StandardCopyOption.REPLACE_EXISTING);
-        }
-
-        try (InputStream tarStream = new BufferedInputStream(new FileInputStream(tarFile));
+        // content length is not known, so stream is sent with chunked transfer encoding
+        try (InputStream tarStream = params.getSourceStream();
              DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
                                                             .method("PUT")
                                                             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() +
                                                                   "/archive")
                                                             .query("path", params.getTargetPath())
                                                             .header("Content-Type", ExtMediaType.APPLICATION_X_TAR)
-                                                            .header("Content-Length", length)
                                                             .entity(tarStream)) {
             addQueryParamIfNotNull(connection, "noOverwriteDirNonDir", params.isNoOverwriteDirNonDir());
             final DockerResponse response = connection.request();
             if (response.getStatus() != OK.getStatusCode()) {
                 throw getDockerException(response);
             }
-        } finally {
-            FileCleaner.addFile(tarFile);
         }
     }
 
@@ -735,23 +788,72 @@ public class DockerConnector {
                               progressMonitor);
         }
 
-        // build context is set of files
-        final File tar = Files.createTempFile(null, ".tar").toFile();
-        try {
-            File[] files = new File[params.getFiles().size()];
-            files = params.getFiles().toArray(files);
-            createTarArchive(tar, files);
-            try (InputStream tarInput = new FileInputStream(tar)) {
-                DockerConnection dockerConnection = connectionFactory.openConnection(dockerDaemonUri)
-                                                                     .header("Content-Type", "application/x-compressed-tar")
-                                                                     .header("Content-Length", tar.length())
-                                                                     .entity(tarInput);
-                return buildImage(dockerConnection,
-                                  params,
-                                  progressMonitor);
+        // build context is set of files, tar is streamed to the request body while it is created
+        final File[] files = params.getFiles().toArray(new File[params.getFiles().size()]);
+        // compression is worth only when context is sent over the network
+        final boolean compress = !DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri);
+        final PipedInputStream tarInput = new PipedInputStream(BUILD_CONTEXT_PIPE_SIZE);
+        final OutputStream tarOutput = new PipedOutputStream(tarInput);
+        final Future<Void> tarFuture = executor.submit(() -> {
+            try {
+                TarUtils.tarFiles(compress ? new GZIPOutputStream(tarOutput, BUILD_CONTEXT_PIPE_SIZE) : tarOutput, 0, files);
+            } finally {
+                tarOutput.close();
+            }
+            return null;
+        });
+        // end of the pipe is reported only when tar is created successfully, otherwise request body is aborted,
+        // so docker never gets incomplete build context which looks like a complete one
+        final InputStream buildContext = new FilterInputStream(tarInput) {
+            @Override
+            public int read() throws IOException {
+                final int b = super.read();
+                if (b == -1) {
+                    getBuildContext(tarFuture);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                final int n = super.read(b, off, len);
+                if (n == -1) {
+                    getBuildContext(tarFuture);
+                }
+                return n;
             }
+        };
+        try (InputStream input = buildContext) {
+            DockerConnection dockerConnection = connectionFactory.openConnection(dockerDaemonUri)
+                                                                 .header("Content-Type", "application/x-compressed-tar")
+                                                                 .entity(input);
+            final String imageId = buildImage(dockerConnection,
+                                              params,
+                                              progressMonitor);
+            // whole body is sent before response is read, so tar is finished here and this doesn't block
+            getBuildContext(tarFuture);
+            return imageId;
+        } catch (IOException e) {
+            // docker fails on incomplete build context, so the cause of tar failure is more informative
+            if (tarFuture.isDone() && !tarFuture.isCancelled()) {
+                getBuildContext(tarFuture);
+            }
+            throw e;
         } finally {
-            FileCleaner.addFile(tar);
+            // closed pipe stops the tar writer if docker didn't read the whole context
+            tarFuture.cancel(true);
+        }
+    }
+
+    /** Waits until build context is created and rethrows failure of its creation. */
+    private static void getBuildContext(Future<Void> tarFuture) throws IOException {
+        try {
+            tarFuture.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to create build context. " + e.getCause().getLocalizedMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Creation of build context was interrupted");
         }
     }
 
@@ -968,6 +1070,45 @@ public class DockerConnector {
         }
     }
 
+    /**
+     * Creates a new single layer image from tar archive of the file system, e.g. exported container.
+     *
+     * @param progressMonitor
+     *         ProgressMonitor for images creation process
+     * @throws IOException
+     *          when a problem occurs with docker api calls or docker fails to import the image
+     */
+    public void importImage(final ImportImageParams params, final ProgressMonitor progressMonitor) throws IOException {
+        try (InputStream tarStream = params.getSourceStream();
+             DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .method("POST")
+                                                            .path(apiVersionPathPrefix + "/images/create")
+                                                            .query("fromSrc", "-")
+                                                            .query("repo", params.getRepository())
+                                                            .header("Content-Type", ExtMediaType.APPLICATION_X_TAR)
+                                                            .entity(tarStream)) {
+            addQueryParamIfNotNull(connection, "tag", params.getTag());
+            for (String change : params.getChanges()) {
+                connection.query("changes", URLEncoder.encode(change, "UTF-8"));
+            }
+            final DockerResponse response = connection.request();
+            if (OK.getStatusCode() != response.getStatus()) {
+                throw getDockerException(response);
+            }
+
+            try (InputStream responseStream = response.getInputStream()) {
+                final JsonMessageReader<ProgressStatus> progressReader = new JsonMessageReader<>(responseStream, ProgressStatus.class);
+                ProgressStatus progressStatus;
+                while ((progressStatus = progressReader.next()) != null) {
+                    if (progressStatus.getError() != null) {
+                        throw new DockerException("Docker image import failed. " + progressStatus.getError(), 500);
+                    }
+                    progressMonitor.updateProgress(progressStatus);
+                }
+            }
+        }
+    }
+
     /**
      * Pulls docker image from registry.
      *
@@ -984,6 +1125,12 @@ public class DockerConnector {
      * Pull an image from registry.
      * To pull from private registry use registry.address:port/image as image.
      *
+     * <p>Concurrent pulls of the same image from the same docker service with the same credentials are
+     * performed once, callers which come while image is being pulled wait for the running pull and receive its progress.
+     * Pull which failed after some layers were downloaded is retried, docker doesn't download
+     * layers which were pulled completely by the failed attempt. Interrupted pull is not retried,
+     * it fails right away and leaves the interrupted status of the calling thread set.
+     *
      * @param progressMonitor
      *         ProgressMonitor for images creation process
      * @param dockerDaemonUri
@@ -994,14 +1141,61 @@ public class DockerConnector {
     protected void pull(final PullParams params,
                         final ProgressMonitor progressMonitor,
                         final URI dockerDaemonUri) throws IOException {
+        final String registryAuth = authResolver.getXRegistryAuthHeaderValue(params.getRegistry(), params.getAuthConfigs());
+        // caller must not get result of the pull performed with credentials of another caller
+        final String pullKey = dockerDaemonUri + " " + params.getFullRepo() + ':' + firstNonNull(params.getTag(), "") + ' ' +
+                               Hashing.sha256().hashString(String.valueOf(registryAuth), StandardCharsets.UTF_8);
+        final ImagePull newPull = new ImagePull();
+        final ImagePull runningPull = pulls.putIfAbsent(pullKey, newPull);
+        if (runningPull != null) {
+            runningPull.attach(progressMonitor);
+            try {
+                runningPull.await();
+            } finally {
+                runningPull.detach(progressMonitor);
+            }
+            return;
+        }
+
+        newPull.attach(progressMonitor);
+        IOException failure = null;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                newPull.startAttempt();
+                try {
+                    doPull(params, registryAuth, newPull, dockerDaemonUri);
+                    // error which happened before download of layers, e.g. unknown image, won't be fixed by retry
+                    if (newPull.getError() == null || !newPull.isLayerProgressed() || attempt == PULL_ATTEMPTS) {
+                        return;
+                    }
+                    LOG.warn("Pull of image {} failed, retrying. Error: {}", params.getFullRepo(), newPull.getError());
+                } catch (IOException e) {
+                    // interrupted caller doesn't want the image anymore
+                    if (Thread.currentThread().isInterrupted() || !newPull.isLayerProgressed() || attempt == PULL_ATTEMPTS) {
+                        throw e;
+                    }
+                    LOG.warn("Pull of image {} failed, retrying. Error: {}", params.getFullRepo(), e.getLocalizedMessage());
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        } finally {
+            // callers which come after the failure start a new pull instead of getting the failure
+            pulls.remove(pullKey, newPull);
+            newPull.finish(failure);
+        }
+    }
+
+    private void doPull(final PullParams params,
+                        final String registryAuth,
+                        final ProgressMonitor progressMonitor,
+                        final URI dockerDaemonUri) throws IOException {
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
                                                             .method("POST")
                                                             .path(apiVersionPathPrefix + "/images/create")
                                                             .query("fromImage", params.getFullRepo())
-                                                            .header("X-Registry-Auth",
-                                                                    authResolver.getXRegistryAuthHeaderValue(
-                                                                            params.getRegistry(),
-                                                                            params.getAuthConfigs()))) {
+                                                            .header("X-Registry-Auth", registryAuth)) {
             addQueryParamIfNotNull(connection, "tag", params.getTag());
             final DockerResponse response = connection.request();
             if (OK.getStatusCode() != response.getStatus()) {
@@ -1032,6 +1226,7 @@ public class DockerConnector {
                 // unwrap exception thrown by task with .getCause()
                 throw new DockerException(e.getCause().getLocalizedMessage(), 500);
             } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 throw new DockerException("Docker image pulling was interrupted", 500);
             }
         }
@@ -1278,7 +1473,7 @@ public class DockerConnector {
     }
 
     protected <T> T parseResponseStreamAndClose(InputStream inputStream, Class<T> clazz) throws IOException {
-        try (InputStreamReader reader = new InputStreamReader(inputStream)) {
+        try (InputStreamReader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
             return GSON.fromJson(reader, clazz);
         } catch (JsonParseException e) {
             throw new IOException(e.getLocalizedMessage(), e);
@@ -1286,7 +1481,7 @@ public class DockerConnector {
     }
 
     protected <T> T parseResponseStreamAndClose(InputStream inputStream, TypeToken<T> tt) throws IOException {
-        try (InputStreamReader reader = new InputStreamReader(inputStream)) {
+        try (InputStreamReader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
             return GSON.fromJson(reader, tt.getType());
         } catch (JsonParseException e) {
             throw new IOException(e.getLocalizedMessage(), e);
@@ -1303,10 +1498,6 @@ public class DockerConnector {
         }
     }
 
-    private void createTarArchive(File tar, File... files) throws IOException {
-        TarUtils.tarFiles(tar, 0, files);
-    }
-
     /**
      * Adds given parameter to query if it set (not null).
      *
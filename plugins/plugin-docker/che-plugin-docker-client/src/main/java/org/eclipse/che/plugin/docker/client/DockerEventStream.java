@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single subscription to the events of docker daemon which is shared by all the components interested in events.
+ *
+ * <p>Events are delivered to the registered listeners in the order of their appearance, by the single thread,
+ * so listeners must not block. When connection to the daemon is lost subscription is restored
+ * from the time of the last received event, so events which happened meanwhile are not missed
+ * as long as docker still keeps them.
+ *
+ * @author Alexander Garagatyi
+ */
+@Singleton
+public class DockerEventStream {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerEventStream.class);
+
+    /** Minimal interval between attempts to connect to the daemon which doesn't respond. */
+    private static final long RECONNECT_DELAY_MS = 1000;
+
+    private final DockerConnector               docker;
+    private final List<MessageProcessor<Event>> listeners;
+    private final ExecutorService               executor;
+
+    private volatile boolean running;
+    private          long    lastEventTime;
+    private          long    lastEventTimeNano;
+
+    @Inject
+    public DockerEventStream(DockerConnector docker) {
+        this.docker = docker;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("DockerEventStream-%d")
+                                                                                    .setDaemon(true)
+                                                                                    .build());
+    }
+
+    /** Registers listener which is notified about all the events of docker daemon. */
+    public void addListener(MessageProcessor<Event> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MessageProcessor<Event> listener) {
+        listeners.remove(listener);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        // events which happen while subscription is being established are not missed
+        lastEventTime = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        executor.execute(this::stream);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+    }
+
+    private void stream() {
+        while (running) {
+            final long connected = System.currentTimeMillis();
+            try {
+                docker.getEvents(GetEventsParams.create().withSinceSecond(lastEventTime), this::dispatch);
+            } catch (IOException e) {
+                // usually connection timeout
+                LOG.debug(e.getLocalizedMessage(), e);
+            }
+            final long delay = RECONNECT_DELAY_MS - (System.currentTimeMillis() - connected);
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Notifies listeners about event, skips events which were already delivered before reconnection. */
+    void dispatch(Event event) {
+        if (event.getTimeNano() != 0) {
+            if (event.getTimeNano() <= lastEventTimeNano) {
+                return;
+            }
+            lastEventTimeNano = event.getTimeNano();
+        }
+        lastEventTime = event.getTime();
+        for (MessageProcessor<Event> listener : listeners) {
+            try {
+                listener.process(event);
+            } catch (RuntimeException e) {
+                LOG.error(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import com.google.common.collect.ImmutableSet;
+
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
+import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.json.ImageInfo;
+import org.eclipse.che.plugin.docker.client.json.network.Network;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Answers inspect and list requests from memory, so components which query state of docker
+ * repeatedly don't load docker daemon.
+ *
+ * <p>Cached state is invalidated by the events received through {@link DockerEventStream}:
+ * any event which changes containers invalidates all the cached containers, the same is true
+ * for images and networks. Events which don't change state, such as exec or top, are ignored.
+ * State which was requested while an invalidating event arrived is not cached, so results
+ * of the requests which raced with the change are not kept. Cached state also expires after
+ * {@link #MAX_AGE_MS}, so events which were lost by the stream don't make cache stale forever.
+ *
+ * <p>Returned objects are shared between callers and must not be modified.
+ *
+ * @author Alexander Garagatyi
+ */
+@Singleton
+public class DockerStateCache {
+    static final long MAX_AGE_MS = TimeUnit.MINUTES.toMillis(1);
+
+    /** Statuses of images events, old versions of docker don't send type of event. */
+    private static final Set<String> IMAGE_EVENTS = ImmutableSet.of("delete", "import", "load", "pull", "push", "save", "tag", "untag");
+
+    /** Statuses of containers events which don't change results of inspect or list of containers. */
+    private static final Set<String> READ_ONLY_CONTAINER_EVENTS = ImmutableSet.of("attach", "copy", "export", "resize", "top");
+
+    private final DockerConnector                    docker;
+    private final DockerEventStream                  eventStream;
+    private final Map<String, Cached<ContainerInfo>> containers;
+    private final Map<String, Cached<ImageInfo>>     images;
+    private final AtomicLong                         containersVersion;
+    private final AtomicLong                         imagesVersion;
+    private final AtomicLong                         networksVersion;
+
+    private volatile Cached<List<ContainerListEntry>> containersList;
+    private volatile Cached<List<Network>>            networks;
+
+    @Inject
+    public DockerStateCache(DockerConnector docker, DockerEventStream eventStream) {
+        this.docker = docker;
+        this.eventStream = eventStream;
+        this.containers = new ConcurrentHashMap<>();
+        this.images = new ConcurrentHashMap<>();
+        this.containersVersion = new AtomicLong();
+        this.imagesVersion = new AtomicLong();
+        this.networksVersion = new AtomicLong();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        eventStream.addListener(this::invalidate);
+    }
+
+    /**
+     * Returns information about container.
+     *
+     * @see DockerConnector#inspectContainer(String)
+     */
+    public ContainerInfo inspectContainer(String container) throws IOException {
+        final Cached<ContainerInfo> cached = containers.get(container);
+        if (isValid(cached, containersVersion)) {
+            return cached.value;
+        }
+        final long version = containersVersion.get();
+        final ContainerInfo info = docker.inspectContainer(container);
+        containers.put(container, new Cached<>(info, version));
+        return info;
+    }
+
+    /**
+     * Returns all the containers including stopped ones.
+     *
+     * @see DockerConnector#listContainers()
+     */
+    public List<ContainerListEntry> listContainers() throws IOException {
+        final Cached<List<ContainerListEntry>> cached = containersList;
+        if (isValid(cached, containersVersion)) {
+            return cached.value;
+        }
+        final long version = containersVersion.get();
+        final List<ContainerListEntry> list = unmodifiableList(docker.listContainers());
+        containersList = new Cached<>(list, version);
+        return list;
+    }
+
+    /**
+     * Returns information about image.
+     *
+     * @see DockerConnector#inspectImage(String)
+     */
+    public ImageInfo inspectImage(String image) throws IOException {
+        final Cached<ImageInfo> cached = images.get(image);
+        if (isValid(cached, imagesVersion)) {
+            return cached.value;
+        }
+        final long version = imagesVersion.get();
+        final ImageInfo info = docker.inspectImage(image);
+        images.put(image, new Cached<>(info, version));
+        return info;
+    }
+
+    /**
+     * Returns all the networks.
+     *
+     * @see DockerConnector#getNetworks()
+     */
+    public List<Network> getNetworks() throws IOException {
+        final Cached<List<Network>> cached = networks;
+        if (isValid(cached, networksVersion)) {
+            return cached.value;
+        }
+        final long version = networksVersion.get();
+        final List<Network> list = unmodifiableList(docker.getNetworks());
+        networks = new Cached<>(list, version);
+        return list;
+    }
+
+    void invalidate(Event event) {
+        final String status = event.getAction() != null ? event.getAction() : event.getStatus();
+        if (status == null) {
+            return;
+        }
+        String type = event.getType();
+        if (type == null) {
+            type = IMAGE_EVENTS.contains(status) ? "image" : "container";
+        }
+        switch (type) {
+            case "container":
+                if (!status.startsWith("exec_") && !READ_ONLY_CONTAINER_EVENTS.contains(status)) {
+                    invalidateContainers();
+                }
+                if ("commit".equals(status)) {
+                    invalidateImages();
+                }
+                break;
+            case "image":
+                invalidateImages();
+                break;
+            case "network":
+                // connection of container to network changes network settings of container
+                invalidateContainers();
+                networksVersion.incrementAndGet();
+                networks = null;
+                break;
+            default:
+                // other objects are not cached
+        }
+    }
+
+    private void invalidateContainers() {
+        containersVersion.incrementAndGet();
+        containers.clear();
+        containersList = null;
+    }
+
+    private void invalidateImages() {
+        imagesVersion.incrementAndGet();
+        images.clear();
+    }
+
+    private static boolean isValid(Cached<?> cached, AtomicLong version) {
+        return cached != null
+               && cached.version == version.get()
+               && System.currentTimeMillis() - cached.created < MAX_AGE_MS;
+    }
+
+    private static class Cached<T> {
+        final T    value;
+        final long version;
+        final long created;
+
+        Cached(T value, long version) {
+            this.value = value;
+            this.version = version;
+            this.created = System.currentTimeMillis();
+        }
+    }
+}
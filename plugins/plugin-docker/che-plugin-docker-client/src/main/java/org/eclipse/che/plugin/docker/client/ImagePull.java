@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Pull of docker image which is shared by all the callers that pull the same image at the same time.
+ *
+ * <p>Progress of the pull is sent to all the attached monitors. Monitor which is attached
+ * to the running pull receives the latest status of each layer first, so it sees the same
+ * progress as the monitors which were attached from the beginning.
+ *
+ * @author Alexander Garagatyi
+ */
+class ImagePull implements ProgressMonitor {
+    private static final Logger LOG = LoggerFactory.getLogger(ImagePull.class);
+
+    private final Map<String, ProgressStatus> layers;
+    private final List<ProgressMonitor>       monitors;
+    private final CountDownLatch              finished;
+
+    private volatile IOException failure;
+    private          boolean     layerProgressed;
+    private          String      error;
+
+    ImagePull() {
+        this.layers = new LinkedHashMap<>();
+        this.monitors = new ArrayList<>();
+        this.finished = new CountDownLatch(1);
+    }
+
+    /** Sends the latest status of each layer to the monitor and attaches it to the further progress. */
+    synchronized void attach(ProgressMonitor monitor) {
+        for (ProgressStatus layerStatus : layers.values()) {
+            sendProgress(monitor, layerStatus);
+        }
+        monitors.add(monitor);
+    }
+
+    synchronized void detach(ProgressMonitor monitor) {
+        monitors.remove(monitor);
+    }
+
+    @Override
+    public synchronized void updateProgress(ProgressStatus status) {
+        if (status.getError() != null) {
+            error = status.getError();
+        } else if (status.getId() != null) {
+            layers.put(status.getId(), status);
+            final String layerStatus = status.getStatus();
+            if (layerStatus != null && (layerStatus.startsWith("Download")
+                                        || layerStatus.startsWith("Verifying")
+                                        || layerStatus.startsWith("Extracting")
+                                        || layerStatus.startsWith("Pull complete"))) {
+                layerProgressed = true;
+            }
+        }
+        for (ProgressMonitor monitor : monitors) {
+            sendProgress(monitor, status);
+        }
+    }
+
+    /** Prepares pull for the next attempt, layers which are already pulled are reported by docker again. */
+    synchronized void startAttempt() {
+        layerProgressed = false;
+        error = null;
+    }
+
+    /** Returns {@code true} if any layer was downloaded or extracted during the current attempt. */
+    synchronized boolean isLayerProgressed() {
+        return layerProgressed;
+    }
+
+    /** Returns error reported by docker in the progress of the current attempt or {@code null}. */
+    synchronized String getError() {
+        return error;
+    }
+
+    /**
+     * Marks pull as finished and releases the callers which wait for it.
+     *
+     * @param failure
+     *         cause of the pull failure or {@code null} if pull succeeded
+     */
+    void finish(IOException failure) {
+        this.failure = failure;
+        finished.countDown();
+    }
+
+    /**
+     * Waits until pull is finished.
+     *
+     * @throws IOException
+     *         when pull failed, exception has the same message as the cause of the failure
+     */
+    void await() throws IOException {
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            throw new DockerException("Docker image pulling was interrupted", 500);
+        }
+        final IOException cause = failure;
+        if (cause instanceof DockerException) {
+            final DockerException dockerCause = (DockerException)cause;
+            throw new DockerException(dockerCause.getLocalizedMessage(), dockerCause.getOriginError(), dockerCause.getStatus());
+        }
+        if (cause != null) {
+            throw new IOException(cause.getLocalizedMessage(), cause);
+        }
+    }
+
+    private static void sendProgress(ProgressMonitor monitor, ProgressStatus status) {
+        try {
+            monitor.updateProgress(status);
+        } catch (RuntimeException e) {
+            // broken monitor of one caller must not break the pull for others
+            LOG.error(e.getLocalizedMessage(), e);
+        }
+    }
+}
@@ -11,30 +11,32 @@
 package org.eclipse.che.plugin.docker.client;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonIOException;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonStreamParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PushbackReader;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Docker daemon sends chunked data in response. One chunk isn't always one JSON object so need to read full chunk at once to be able
  * restore JSON object. This reader merges (if needs) few chunks until get full JSON object that we can parse.
  * Parameter of this class is class where JSON message should be parsed.
  *
+ * <p>Messages are bound to the message class straight from the stream, without building intermediate JSON tree.
+ *
  * @author Alexander Garagatyi
  */
 public class JsonMessageReader<T> {
     private static final Gson GSON = new Gson();
 
-    private final JsonStreamParser streamParser;
-    private final Class<T>         messageClass;
-    private final PushbackReader   reader;
-
-    private boolean firstRead = true;
+    private final JsonReader     reader;
+    private final TypeAdapter<T> adapter;
 
     /**
      * @param source source of messages in JSON format
@@ -43,39 +45,32 @@ public class JsonMessageReader<T> {
      *                     we can't get parameter class of current class.
      */
     public JsonMessageReader(InputStream source, Class<T> messageClass) {
-        // we need to push back only 1 char, read more further
-        this.reader = new PushbackReader(new InputStreamReader(source), 1);
-        this.streamParser = new JsonStreamParser(reader);
-        this.messageClass = messageClass;
+        this.reader = new JsonReader(new InputStreamReader(source, UTF_8));
+        // docker sends messages one after another without any separator except whitespaces
+        this.reader.setLenient(true);
+        this.adapter = GSON.getAdapter(messageClass);
     }
 
     /**
      * Returns message parsed from JSON stream.
      *
-     * @return object of class passed as parameter of constructor or null if stream is empty
-     * @throws IOException if error occurs on reading stream
+     * @return object of class passed as parameter of constructor or null if end of stream is reached
+     * @throws IOException if error occurs on reading stream, stream ends in the middle of message
+     *                     or contains something which is not a message
      */
     public T next() throws IOException {
-        // on first read we check if this stream is empty with reading of the first byte of stream
-        // if so we do not call JsonStreamParser.hasNext() because it will throw exception
-        // if not we return read byte to stream using PushbackInputStream
-        if (firstRead) {
-            int firstChar = reader.read();
-            if (firstChar == -1) {
+        try {
+            if (reader.peek() == JsonToken.END_DOCUMENT) {
                 return null;
-            } else {
-                reader.unread(firstChar);
-                firstRead = false;
             }
+        } catch (EOFException e) {
+            // stream is empty, reader reports the end of document only after the first message
+            return null;
         }
         try {
-            if (streamParser.hasNext()) {
-                return GSON.fromJson(streamParser.next(), messageClass);
-            }
-        } catch (JsonIOException e) {
-            throw new IOException(e);
-        } catch (JsonParseException ignore) {
+            return adapter.read(reader);
+        } catch (JsonParseException | IllegalStateException | NumberFormatException e) {
+            throw new IOException("Unable to parse message from docker. " + e.getLocalizedMessage(), e);
         }
-        return null;
     }
 }
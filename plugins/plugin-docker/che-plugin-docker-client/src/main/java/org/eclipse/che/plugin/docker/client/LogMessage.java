@@ -10,7 +10,14 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
+ * Line of container output or docker message.
+ *
+ * <p>Lines read from container output keep raw bytes and are decoded on
+ * the first call of {@link #getContent()}, so lines which nobody reads are never decoded.
+ *
  * @author andrew00x
  */
 public class LogMessage {
@@ -22,26 +29,39 @@ public class LogMessage {
     }
 
     private final Type   type;
-    private final String content;
+    private final byte[] raw;
+
+    private String content;
 
     LogMessage(Type type, String content) {
         this.type = type;
+        this.raw = null;
         this.content = content;
     }
 
+    /** Creates message from UTF-8 encoded content, array is not copied so caller must not modify it. */
+    LogMessage(Type type, byte[] raw) {
+        this.type = type;
+        this.raw = raw;
+    }
+
     public Type getType() {
         return type;
     }
 
     public String getContent() {
-        return content;
+        String decoded = content;
+        if (decoded == null && raw != null) {
+            content = decoded = new String(raw, UTF_8);
+        }
+        return decoded;
     }
 
     @Override
     public String toString() {
         return "LogMessage{" +
                "type=" + type +
-               ", content='" + content + '\'' +
+               ", content='" + getContent() + '\'' +
                '}';
     }
 }
@@ -17,8 +17,17 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 /**
+ * Splits multiplexed output of container into lines.
+ *
+ * <p>Frames are read into one buffer which is reused for the whole stream, line is
+ * copied out of it only once when its end is found. Lines are not decoded here,
+ * {@link LogMessage} decodes content when somebody asks for it.
+ * Line which is longer than {@code MAX_LINE_LENGTH} bytes is split into several messages
+ * but never in the middle of a multi-byte character.
+ *
  * @author andrew00x
  */
 class LogMessagePumper extends MessagePumper<LogMessage> {
@@ -26,77 +35,112 @@ class LogMessagePumper extends MessagePumper<LogMessage> {
 
     private static final int STREAM_HEADER_LENGTH = 8;
     private static final int MAX_LINE_LENGTH      = 1024;
+    private static final int READ_BUFFER_SIZE     = 8192;
 
     private final InputStream                  source;
     private final MessageProcessor<LogMessage> target;
+    private final byte[]                       header;
+    private final byte[]                       readBuf;
+    private final byte[]                       lineBuf;
+
+    private int             lineLength;
+    private boolean         carriageReturn;
+    private LogMessage.Type logMessageType;
 
     LogMessagePumper(InputStream source, MessageProcessor<LogMessage> target) {
         super(null, null);
         this.source = source;
         this.target = target;
+        this.header = new byte[STREAM_HEADER_LENGTH];
+        this.readBuf = new byte[READ_BUFFER_SIZE];
+        this.lineBuf = new byte[MAX_LINE_LENGTH];
+        this.logMessageType = LogMessage.Type.DOCKER;
     }
 
     @Override
     void start() throws IOException {
-        final byte[] buf = new byte[MAX_LINE_LENGTH];
-        StringBuilder lineBuf = null;
-        boolean endOfLine = false;
-        LogMessage.Type logMessageType = LogMessage.Type.DOCKER;
         for (; ; ) {
-            int r = ByteStreams.read(source, buf, 0, STREAM_HEADER_LENGTH);
-            if (r != 8) {
-                if (r != -1) {
+            int r = ByteStreams.read(source, header, 0, STREAM_HEADER_LENGTH);
+            if (r != STREAM_HEADER_LENGTH) {
+                if (r != 0) {
                     LOG.debug("Invalid stream, can't read header. Header of each frame must contain 8 bytes but got {}", r);
                 }
-                if (lineBuf != null && lineBuf.length() > 0) {
-                    target.process(new LogMessage(logMessageType, lineBuf.toString()));
-                    lineBuf.setLength(0);
-                }
                 break;
             }
-            logMessageType = getLogMessageType(buf);
-            int remaining = getPayloadLength(buf);
+            logMessageType = getLogMessageType(header);
+            int remaining = getPayloadLength(header);
             while (remaining > 0) {
-                r = source.read(buf, 0, Math.min(remaining, buf.length));
-                int offset = 0;
-                int lineLength = lineBuf != null ? lineBuf.length() : 0;
-                for (int i = 0; i < r; i++, lineLength++) {
-                    endOfLine = false;
-                    if (buf[i] == '\n' || buf[i] == '\r' || lineLength > MAX_LINE_LENGTH) {
-                        int length = i - offset;
-                        boolean isLineFeedFollowed = false;
-                        if (buf[i] == '\r') {
-                            int nextIndex = i + 1;
-                            isLineFeedFollowed = nextIndex < MAX_LINE_LENGTH && nextIndex < r && buf[nextIndex] == '\n';
-                            if (!isLineFeedFollowed) {
-                                length += 1; // include <CR> char in log message
-                            }
-                        }
-                        if (lineBuf != null && lineBuf.length() > 0) {
-                            lineBuf.append(new String(buf, offset, length));
-                            target.process(new LogMessage(logMessageType, lineBuf.toString()));
-                            lineBuf.setLength(0);
-                        } else {
-                            target.process(new LogMessage(logMessageType, new String(buf, offset, length)));
-                        }
-
-                        if (isLineFeedFollowed) {
-                            i++;
-                        }
-                        offset = i + 1;
-                        lineLength = 0;
-                        endOfLine = true;
-                    }
-                }
-                if (!endOfLine) {
-                    if (lineBuf == null) {
-                        lineBuf = new StringBuilder(MAX_LINE_LENGTH);
-                    }
-                    lineBuf.append(new String(buf, offset, r - offset));
+                r = source.read(readBuf, 0, Math.min(remaining, readBuf.length));
+                if (r == -1) {
+                    LOG.debug("Invalid stream, frame is {} bytes shorter than declared in its header", remaining);
+                    break;
                 }
+                process(readBuf, r);
                 remaining -= r;
             }
         }
+        if (carriageReturn) {
+            append((byte)'\r');
+        }
+        if (lineLength > 0 || carriageReturn) {
+            flushLine(lineLength);
+        }
+    }
+
+    private void process(byte[] buf, int length) {
+        for (int i = 0; i < length; i++) {
+            final byte b = buf[i];
+            if (carriageReturn) {
+                carriageReturn = false;
+                if (b == '\n') {
+                    // <CR><LF> ends line, none of them is included in log message
+                    flushLine(lineLength);
+                    continue;
+                }
+                // single <CR> ends line and is included in log message
+                append((byte)'\r');
+                flushLine(lineLength);
+            }
+            if (b == '\n') {
+                flushLine(lineLength);
+            } else if (b == '\r') {
+                carriageReturn = true;
+            } else {
+                append(b);
+            }
+        }
+    }
+
+    private void append(byte b) {
+        if (lineLength == MAX_LINE_LENGTH) {
+            flushLine(findCharacterBoundary());
+        }
+        lineBuf[lineLength++] = b;
+    }
+
+    /** Sends first {@code length} bytes of the line buffer to the target, the rest of the buffer starts the next line. */
+    private void flushLine(int length) {
+        target.process(new LogMessage(logMessageType, Arrays.copyOf(lineBuf, length)));
+        System.arraycopy(lineBuf, length, lineBuf, 0, lineLength - length);
+        lineLength -= length;
+    }
+
+    /** Returns length of the line buffer without trailing incomplete UTF-8 character. */
+    private int findCharacterBoundary() {
+        int i = lineLength;
+        // skip continuation bytes of the last character, these bytes look like 10xxxxxx
+        while (i > 0 && lineLength - i < 3 && (lineBuf[i - 1] & 0xC0) == 0x80) {
+            i--;
+        }
+        if (i > 0 && (lineBuf[i - 1] & 0xC0) == 0xC0) {
+            // first byte of multi-byte character, check whether all its continuation bytes are already in the buffer
+            final int lead = lineBuf[i - 1] & 0xFF;
+            final int charLength = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : 2;
+            if (lineLength - (i - 1) < charLength) {
+                return i - 1;
+            }
+        }
+        return lineLength;
     }
 
     private int getPayloadLength(byte[] header) {
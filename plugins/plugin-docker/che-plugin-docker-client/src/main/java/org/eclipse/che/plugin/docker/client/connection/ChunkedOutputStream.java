@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Writes request body with chunked transfer encoding, so body can be sent while its length is not known yet.
+ *
+ * <p>Data is buffered and sent by chunks of buffer size. {@link #finish()} sends the last chunk,
+ * underlying stream is not closed since connection may be used for reading of response.
+ * Closing doesn't finish the body, so body which failed to be written is never taken by docker for a complete one.
+ *
+ * @author Alexander Garagatyi
+ */
+class ChunkedOutputStream extends OutputStream {
+    private static final int    CHUNK_SIZE = 8192;
+    private static final byte[] CRLF       = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = {'0', '\r', '\n', '\r', '\n'};
+
+    private final OutputStream output;
+    private final byte[]       buf;
+
+    private int     count;
+    private boolean finished;
+
+    ChunkedOutputStream(OutputStream output) {
+        this.output = output;
+        this.buf = new byte[CHUNK_SIZE];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == buf.length) {
+            writeChunk();
+        }
+        buf[count++] = (byte)b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count == buf.length) {
+                writeChunk();
+            }
+            final int n = Math.min(len, buf.length - count);
+            System.arraycopy(b, off, buf, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeChunk();
+        output.flush();
+    }
+
+    /** Sends buffered data and the last chunk which marks end of the body. */
+    void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            writeChunk();
+            output.write(LAST_CHUNK);
+            output.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        // body is finished explicitly only when it is written completely
+    }
+
+    private void writeChunk() throws IOException {
+        // empty chunk means end of the body, so it is never sent here
+        if (count > 0) {
+            output.write(Integer.toHexString(count).getBytes(US_ASCII));
+            output.write(CRLF);
+            output.write(buf, 0, count);
+            output.write(CRLF);
+            count = 0;
+        }
+    }
+}
@@ -103,6 +103,21 @@ public abstract class DockerConnection implements Closeable {
 
     public abstract void close();
 
+    /** Returns value of the first header with given name or {@code null} if there is no such header. */
+    static Object getHeader(List<Pair<String, ?>> headers, String name) {
+        for (Pair<String, ?> header : headers) {
+            if (name.equalsIgnoreCase(header.first)) {
+                return header.second;
+            }
+        }
+        return null;
+    }
+
+    /** Returns {@code true} if entity is a stream of unknown length, which is sent with chunked transfer encoding. */
+    static boolean isChunked(List<Pair<String, ?>> headers, Entity<?> entity) {
+        return entity instanceof StreamEntity && getHeader(headers, "Content-Length") == null;
+    }
+
     static abstract class Entity<T> {
         final T entity;
 
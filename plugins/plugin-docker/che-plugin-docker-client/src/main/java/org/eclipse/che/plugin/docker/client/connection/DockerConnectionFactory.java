@@ -18,17 +18,22 @@ import org.eclipse.che.plugin.docker.client.DockerConnectorConfiguration;
 
 import javax.inject.Named;
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Factory for connections to docker API.
  *
  * <p>Detects connection implementation by checking docker daemon URI.
+ * Connections to unix socket are kept open between requests, see {@link UnixSocketPool}.
  *
  * @author Alexander Garagatyi
  */
 public class DockerConnectionFactory {
     public static final String CONNECTION_TIMEOUT_MS_PROPERTY      = "docker.connection.tcp.connection_timeout_ms";
     public static final String CONNECTION_READ_TIMEOUT_MS_PROPERTY = "docker.connection.tcp.read_timeout_ms";
+    public static final String MAX_IDLE_CONNECTIONS_PROPERTY       = "docker.connection.unix_socket.max_idle";
+    public static final String KEEP_ALIVE_MS_PROPERTY              = "docker.connection.unix_socket.keep_alive_ms";
 
     @Inject(optional = true)
     @Named(CONNECTION_TIMEOUT_MS_PROPERTY)
@@ -38,16 +43,29 @@ public class DockerConnectionFactory {
     @Named(CONNECTION_READ_TIMEOUT_MS_PROPERTY)
     private int connectionReadTimeoutMs = 60000;
 
-    private final DockerCertificates dockerCertificates;
+    @Inject(optional = true)
+    @Named(MAX_IDLE_CONNECTIONS_PROPERTY)
+    private int maxIdleConnections = 20;
+
+    @Inject(optional = true)
+    @Named(KEEP_ALIVE_MS_PROPERTY)
+    private long keepAliveMs = 30000;
+
+    private final DockerCertificates          dockerCertificates;
+    private final Map<String, UnixSocketPool> unixSocketPools;
 
     @Inject
     public DockerConnectionFactory(DockerConnectorConfiguration connectorConfiguration) {
         this.dockerCertificates = connectorConfiguration.getDockerCertificates();
+        this.unixSocketPools = new ConcurrentHashMap<>();
     }
 
     public DockerConnection openConnection(URI dockerDaemonUri) {
         if (DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri)) {
-            return new UnixSocketConnection(dockerDaemonUri.getPath());
+            return new UnixSocketConnection(unixSocketPools.computeIfAbsent(dockerDaemonUri.getPath(),
+                                                                            path -> new UnixSocketPool(path,
+                                                                                                       maxIdleConnections,
+                                                                                                       keepAliveMs)));
         } else {
             return new TcpConnection(dockerDaemonUri, dockerCertificates, connectionTimeoutMs, connectionReadTimeoutMs);
         }
@@ -73,11 +73,26 @@ public class TcpConnection extends DockerConnection {
         }
         // Host header is mandatory in HTTP 1.1
         connection.setRequestProperty("Host", host);
+        if (entity instanceof StreamEntity) {
+            // otherwise whole stream is buffered in memory to find out its length
+            final Object contentLength = getHeader(headers, "Content-Length");
+            if (contentLength != null) {
+                connection.setFixedLengthStreamingMode(Long.parseLong(contentLength.toString()));
+            } else {
+                connection.setChunkedStreamingMode(0);
+            }
+        }
         if (entity != null) {
             connection.setDoOutput(true);
-            try (OutputStream output = connection.getOutputStream()) {
+            final OutputStream output = connection.getOutputStream();
+            try {
                 entity.writeTo(output);
+            } catch (IOException e) {
+                // closing of the stream completes chunked body, so connection is dropped to abort the request
+                connection.disconnect();
+                throw e;
             }
+            output.close();
         }
         return new TcpDockerResponse(connection);
     }
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
+
+/**
+ * Connected unix socket with buffered streams.
+ *
+ * <p>Streams are created once per socket, so bytes buffered by the previous
+ * response are not lost when socket is reused for the next request.
+ *
+ * @author Alexander Garagatyi
+ */
+class UnixSocket {
+    final int          fd;
+    final InputStream  input;
+    final OutputStream output;
+
+    /** {@code true} if socket was already used for a request, so it may be closed by docker meanwhile. */
+    boolean reused;
+    long    lastUsed;
+
+    UnixSocket(int fd) {
+        this.fd = fd;
+        this.input = new BufferedInputStream(new UnixSocketInputStream(fd));
+        this.output = new BufferedOutputStream(new UnixSocketOutputStream(fd));
+    }
+
+    void close() {
+        getCLibrary().close(fd);
+    }
+}
@@ -13,72 +13,95 @@ package org.eclipse.che.plugin.docker.client.connection;
 import com.google.common.base.Strings;
 
 import org.eclipse.che.commons.lang.Pair;
-import org.eclipse.che.plugin.docker.client.CLibrary;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.net.ConnectException;
 import java.util.List;
 
-import static org.eclipse.che.plugin.docker.client.CLibrary.AF_UNIX;
-import static org.eclipse.che.plugin.docker.client.CLibrary.SOCK_STREAM;
-import static org.eclipse.che.plugin.docker.client.CLibrary.SockAddrUn;
-import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
-
 /**
  * @author andrew00x
  * @author Alexander Garagatyi
  */
 public class UnixSocketConnection extends DockerConnection {
-    private final String dockerSocketPath;
+    private final UnixSocketPool pool;
 
-    private int fd = -1;
+    private UnixSocket               socket;
+    private UnixSocketDockerResponse response;
 
+    /** Creates connection which isn't reused for other requests. */
     public UnixSocketConnection(String dockerSocketPath) {
-        this.dockerSocketPath = dockerSocketPath;
+        this(new UnixSocketPool(dockerSocketPath, 0, 0));
+    }
+
+    public UnixSocketConnection(UnixSocketPool pool) {
+        this.pool = pool;
     }
 
     @Override
     protected DockerResponse request(String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
             throws IOException {
-        fd = connect();
-        final OutputStream output = new BufferedOutputStream(openOutputStream(fd));
-        writeHttpHeaders(output, method, path, query, headers);
-        if (entity != null) {
-            entity.writeTo(output);
+        // stream can't be sent again if it turns out that docker closed idle connection
+        socket = entity instanceof StreamEntity ? pool.connect() : pool.acquire();
+        if (socket.reused) {
+            try {
+                writeRequest(socket.output, method, path, query, headers, entity);
+                response = new UnixSocketDockerResponse(socket.input);
+                // status line is absent if docker closed connection while it was idle
+                response.getStatus();
+                return response;
+            } catch (IOException e) {
+                if (response != null && !(e instanceof EOFException)) {
+                    throw e;
+                }
+                // request wasn't processed by docker, so it is safe to send it again
+                socket.close();
+                response = null;
+                socket = pool.connect();
+            }
         }
-        return new UnixSocketDockerResponse(new BufferedInputStream(openInputStream(fd)));
+        writeRequest(socket.output, method, path, query, headers, entity);
+        return response = new UnixSocketDockerResponse(socket.input);
     }
 
 
     @Override
     public void close() {
-        if (fd != -1) {
-            getCLibrary().close(fd);
+        if (socket != null) {
+            if (response != null && response.isReusable()) {
+                pool.release(socket);
+            } else {
+                socket.close();
+            }
+            socket = null;
         }
     }
 
-    private int connect() throws IOException {
-        final CLibrary cLib = getCLibrary();
-        int fd = cLib.socket(AF_UNIX, SOCK_STREAM, 0);
-        if (fd == -1) {
-            throw new ConnectException(String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
-        }
-        final SockAddrUn sockAddr = new SockAddrUn(dockerSocketPath);
-        int c = cLib.connect(fd, sockAddr, sockAddr.size());
-        if (c == -1) {
-            throw new ConnectException(String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
+    private void writeRequest(OutputStream output,
+                              String method,
+                              String path,
+                              String query,
+                              List<Pair<String, ?>> headers,
+                              Entity<?> entity) throws IOException {
+        final boolean chunked = isChunked(headers, entity);
+        writeHttpHeaders(output, method, path, query, headers, chunked);
+        if (chunked) {
+            final ChunkedOutputStream chunkedOutput = new ChunkedOutputStream(output);
+            entity.writeTo(chunkedOutput);
+            chunkedOutput.finish();
+        } else if (entity != null) {
+            entity.writeTo(output);
         }
-        return fd;
     }
 
-    private void writeHttpHeaders(OutputStream output, String method, String path, String query, List<Pair<String, ?>> headers)
-            throws IOException {
+    private void writeHttpHeaders(OutputStream output,
+                                  String method,
+                                  String path,
+                                  String query,
+                                  List<Pair<String, ?>> headers,
+                                  boolean chunked) throws IOException {
         final Writer writer = new OutputStreamWriter(output);
         writer.write(method);
         writer.write(' ');
@@ -94,16 +117,11 @@ public class UnixSocketConnection extends DockerConnection {
             writer.write(String.valueOf(header.second));
             writer.write("\r\n");
         }
+        if (chunked) {
+            writer.write("Transfer-Encoding: chunked\r\n");
+        }
         // Host header is mandatory in HTTP 1.1
         writer.write("Host: \r\n\r\n");
         writer.flush();
     }
-
-    private InputStream openInputStream(int fd) {
-        return new UnixSocketInputStream(fd);
-    }
-
-    private OutputStream openOutputStream(int fd) {
-        return new UnixSocketOutputStream(fd);
-    }
 }
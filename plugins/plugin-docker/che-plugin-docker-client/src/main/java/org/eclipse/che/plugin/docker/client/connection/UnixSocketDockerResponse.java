@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client.connection;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -124,6 +125,9 @@ public class UnixSocketDockerResponse implements DockerResponse {
             }
             lineBuf.append((char)c);
         }
+        if (lineBuf.length() == 0) {
+            throw new EOFException("Connection is closed by docker API");
+        }
         if (!lineBuf.toString().startsWith("HTTP/1.")) {
             throw new IOException("Invalid status line of HTTP response from docker API");
         }
@@ -143,8 +147,9 @@ public class UnixSocketDockerResponse implements DockerResponse {
             }
         }
         this.headersFields = headerFields.toArray(new String[headerFields.size()]);
+        final int status = getStatus();
         final int contentLength = getContentLength();
-        if (contentLength == 0) {
+        if (contentLength == 0 || status == 204 || status == 304) {
             return data = EMPTY;
         }
         if (contentLength > 0) {
@@ -152,4 +157,33 @@ public class UnixSocketDockerResponse implements DockerResponse {
         }
         return data = "chunked".equals(getHeader("Transfer-Encoding")) ? new ChunkedInputStream(rawData) : rawData;
     }
+
+    /**
+     * Returns {@code true} if response was read completely and docker keeps connection open,
+     * so connection can be used for the next request.
+     */
+    synchronized boolean isReusable() {
+        if (data == null || !headersFields[0].startsWith("HTTP/1.1") || "close".equalsIgnoreCase(findHeader("Connection"))) {
+            return false;
+        }
+        if (data == EMPTY) {
+            return true;
+        }
+        if (data instanceof LimitedInputStream) {
+            return ((LimitedInputStream)data).isFinished();
+        }
+        if (data instanceof ChunkedInputStream) {
+            return ((ChunkedInputStream)data).isFinished();
+        }
+        // body is delimited by the end of connection
+        return false;
+    }
+
+    private String findHeader(String name) {
+        try {
+            return getHeader(name);
+        } catch (IOException e) {
+            return null;
+        }
+    }
 }
@@ -32,10 +32,10 @@ public class UnixSocketInputStream extends InputStream {
     @Override
     public int read() throws IOException {
         final byte[] bytes = new byte[1];
-        if (read(bytes) == 0) {
+        if (read(bytes) == -1) {
             return -1;
         }
-        return bytes[0];
+        return bytes[0] & 0xFF;
     }
 
     @Override
@@ -54,15 +54,20 @@ public class UnixSocketInputStream extends InputStream {
         if (len == 0) {
             return 0;
         }
+        // native call can't write to the middle of array
+        final byte[] buf = off == 0 ? b : new byte[len];
         int n;
         try {
-            n = cLib.recv(fd, b, len, 0);
+            n = cLib.recv(fd, buf, len, 0);
         } catch (LastErrorException e) {
             throw new IOException("error: " + cLib.strerror(e.getErrorCode()));
         }
-        if (n == 0) {
+        if (n <= 0) {
             return -1;
         }
+        if (buf != b) {
+            System.arraycopy(buf, 0, b, off, n);
+        }
         return n;
     }
 }
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import org.eclipse.che.plugin.docker.client.CLibrary;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.eclipse.che.plugin.docker.client.CLibrary.AF_UNIX;
+import static org.eclipse.che.plugin.docker.client.CLibrary.SOCK_STREAM;
+import static org.eclipse.che.plugin.docker.client.CLibrary.SockAddrUn;
+import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
+
+/**
+ * Keeps connections to the docker unix socket open between requests, so requests don't pay for connection setup.
+ *
+ * <p>Connection is returned to the pool only when response was read completely and docker
+ * didn't ask to close it. Connections which were idle longer than keep alive time are closed
+ * instead of reuse, the most recently used connection is reused first.
+ *
+ * @author Alexander Garagatyi
+ */
+public class UnixSocketPool {
+    private final String            dockerSocketPath;
+    private final int               maxIdleConnections;
+    private final long              keepAliveMs;
+    private final Deque<UnixSocket> idle;
+    private final AtomicLong        created;
+    private final AtomicLong        reused;
+
+    /**
+     * @param dockerSocketPath
+     *         path to the docker unix socket
+     * @param maxIdleConnections
+     *         max number of connections kept open between requests, 0 disables reuse of connections
+     * @param keepAliveMs
+     *         time in milliseconds for which idle connection is kept open
+     */
+    public UnixSocketPool(String dockerSocketPath, int maxIdleConnections, long keepAliveMs) {
+        this.dockerSocketPath = dockerSocketPath;
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveMs = keepAliveMs;
+        this.idle = new ArrayDeque<>();
+        this.created = new AtomicLong();
+        this.reused = new AtomicLong();
+    }
+
+    /** Returns number of connections opened by the pool. */
+    public long getCreatedConnections() {
+        return created.get();
+    }
+
+    /** Returns number of requests which were sent over already open connection. */
+    public long getReusedConnections() {
+        return reused.get();
+    }
+
+    /** Returns idle connection or opens new one if there is no idle connection. */
+    UnixSocket acquire() throws IOException {
+        final long now = System.currentTimeMillis();
+        UnixSocket socket;
+        synchronized (this) {
+            while ((socket = idle.pollFirst()) != null && now - socket.lastUsed > keepAliveMs) {
+                socket.close();
+            }
+        }
+        if (socket != null) {
+            reused.incrementAndGet();
+            return socket;
+        }
+        return connect();
+    }
+
+    /** Returns connection which can be used for the next request to the pool. */
+    void release(UnixSocket socket) {
+        socket.reused = true;
+        socket.lastUsed = System.currentTimeMillis();
+        synchronized (this) {
+            if (idle.size() < maxIdleConnections) {
+                idle.addFirst(socket);
+                return;
+            }
+        }
+        socket.close();
+    }
+
+    /** Opens new connection bypassing the idle ones. */
+    UnixSocket connect() throws IOException {
+        final CLibrary cLib = getCLibrary();
+        int fd = cLib.socket(AF_UNIX, SOCK_STREAM, 0);
+        if (fd == -1) {
+            throw new ConnectException(String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
+        }
+        final SockAddrUn sockAddr = new SockAddrUn(dockerSocketPath);
+        int c = cLib.connect(fd, sockAddr, sockAddr.size());
+        if (c == -1) {
+            cLib.close(fd);
+            throw new ConnectException(String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
+        }
+        created.incrementAndGet();
+        return new UnixSocket(fd);
+    }
+}
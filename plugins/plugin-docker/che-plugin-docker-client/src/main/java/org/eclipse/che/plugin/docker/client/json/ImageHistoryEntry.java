@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.json;
+
+import java.util.Arrays;
+
+/**
+ * Entry of the history of docker image, each entry is a parent layer of the image or the image itself.
+ */
+public class ImageHistoryEntry {
+    private String   id;
+    private long     created;
+    private String   createdBy;
+    private String[] tags;
+    private long     size;
+    private String   comment;
+
+    /**
+     * Returns id of the layer, it is {@code <missing>} for the layers which were built on another host.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns time of the layer creation in seconds since epoch.
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    /**
+     * Returns command which created the layer.
+     */
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public String[] getTags() {
+        return tags;
+    }
+
+    public void setTags(String[] tags) {
+        this.tags = tags;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    @Override
+    public String toString() {
+        return "ImageHistoryEntry{" +
+               "id='" + id + '\'' +
+               ", created=" + created +
+               ", createdBy='" + createdBy + '\'' +
+               ", tags=" + Arrays.toString(tags) +
+               ", size=" + size +
+               ", comment='" + comment + '\'' +
+               '}';
+    }
+}
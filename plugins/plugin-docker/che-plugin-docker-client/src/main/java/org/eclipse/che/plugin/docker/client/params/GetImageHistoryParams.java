@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.params;
+
+import javax.validation.constraints.NotNull;
+
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Arguments holder for {@link org.eclipse.che.plugin.docker.client.DockerConnector#getImageHistory(GetImageHistoryParams)}.
+ */
+public class GetImageHistoryParams {
+
+    private String image;
+
+    /**
+     * Creates arguments holder with required parameters.
+     *
+     * @param image
+     *         id or full repository name of docker image
+     * @return arguments holder with required parameters
+     * @throws NullPointerException
+     *         if {@code image} is null
+     */
+    public static GetImageHistoryParams create(@NotNull String image) {
+        return new GetImageHistoryParams().withImage(image);
+    }
+
+    private GetImageHistoryParams() {}
+
+    /**
+     * Adds image to this parameters.
+     *
+     * @param image
+     *         id or full repository name of docker image
+     * @return this params instance
+     * @throws NullPointerException
+     *         if {@code image} is null
+     */
+    public GetImageHistoryParams withImage(@NotNull String image) {
+        requireNonNull(image);
+        this.image = image;
+        return this;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GetImageHistoryParams that = (GetImageHistoryParams)o;
+        return Objects.equals(image, that.image);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(image);
+    }
+
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.params;
+
+import javax.validation.constraints.NotNull;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Arguments holder for {@link org.eclipse.che.plugin.docker.client.DockerConnector#importImage(ImportImageParams,
+ * org.eclipse.che.plugin.docker.client.ProgressMonitor)}.
+ */
+public class ImportImageParams {
+
+    private InputStream  sourceStream;
+    private String       repository;
+    private String       tag;
+    private List<String> changes;
+
+    /**
+     * Creates arguments holder with required parameters.
+     *
+     * @param sourceStream
+     *         info about this parameter see {@link #withSourceStream(InputStream)}
+     * @param repository
+     *         repository of the imported image
+     * @return arguments holder with required parameters
+     * @throws NullPointerException
+     *         if {@code sourceStream} or {@code repository} is null
+     */
+    public static ImportImageParams create(@NotNull InputStream sourceStream, @NotNull String repository) {
+        return new ImportImageParams().withSourceStream(sourceStream)
+                                      .withRepository(repository);
+    }
+
+    private ImportImageParams() {}
+
+    /**
+     * Adds stream of the file system to this parameters.
+     *
+     * @param sourceStream
+     *         tar archive of the file system of the image, e.g. obtained with
+     *         {@link org.eclipse.che.plugin.docker.client.DockerConnector#exportContainer(ExportContainerParams)}
+     * @return this params instance
+     * @throws NullPointerException
+     *         if {@code sourceStream} is null
+     */
+    public ImportImageParams withSourceStream(@NotNull InputStream sourceStream) {
+        requireNonNull(sourceStream);
+        this.sourceStream = sourceStream;
+        return this;
+    }
+
+    /**
+     * Adds repository to this parameters.
+     *
+     * @param repository
+     *         repository of the imported image
+     * @return this params instance
+     * @throws NullPointerException
+     *         if {@code repository} is null
+     */
+    public ImportImageParams withRepository(@NotNull String repository) {
+        requireNonNull(repository);
+        this.repository = repository;
+        return this;
+    }
+
+    /**
+     * Adds tag to this parameters.
+     *
+     * @param tag
+     *         tag of the imported image
+     * @return this params instance
+     */
+    public ImportImageParams withTag(String tag) {
+        this.tag = tag;
+        return this;
+    }
+
+    /**
+     * Adds Dockerfile instructions to apply to the imported image to this parameters.
+     *
+     * @param changes
+     *         instructions like {@code ENV}, {@code CMD}, {@code EXPOSE}, imported file system has no configuration
+     *         so this is the way to keep configuration of the image the file system was taken from
+     * @return this params instance
+     */
+    public ImportImageParams withChanges(List<String> changes) {
+        this.changes = changes == null ? null : new ArrayList<>(changes);
+        return this;
+    }
+
+    public InputStream getSourceStream() {
+        return sourceStream;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public List<String> getChanges() {
+        return changes == null ? Collections.emptyList() : Collections.unmodifiableList(changes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ImportImageParams)) {
+            return false;
+        }
+        final ImportImageParams that = (ImportImageParams)obj;
+        return Objects.equals(sourceStream, that.sourceStream)
+               && Objects.equals(repository, that.repository)
+               && Objects.equals(tag, that.tag)
+               && Objects.equals(getChanges(), that.getChanges());
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 31 * hash + Objects.hashCode(sourceStream);
+        hash = 31 * hash + Objects.hashCode(repository);
+        hash = 31 * hash + Objects.hashCode(tag);
+        hash = 31 * hash + getChanges().hashCode();
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportImageParams{" +
+               "sourceStream=" + sourceStream +
+               ", repository='" + repository + '\'' +
+               ", tag='" + tag + '\'' +
+               ", changes=" + changes +
+               '}';
+    }
+}
@@ -40,8 +40,10 @@ import org.eclipse.che.plugin.docker.client.json.ExecCreated;
 import org.eclipse.che.plugin.docker.client.json.ExecInfo;
 import org.eclipse.che.plugin.docker.client.json.Filters;
 import org.eclipse.che.plugin.docker.client.json.Image;
+import org.eclipse.che.plugin.docker.client.json.ImageHistoryEntry;
 import org.eclipse.che.plugin.docker.client.json.ImageInfo;
 import org.eclipse.che.plugin.docker.client.json.NetworkCreated;
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
 import org.eclipse.che.plugin.docker.client.json.SystemInfo;
 import org.eclipse.che.plugin.docker.client.json.Version;
 import org.eclipse.che.plugin.docker.client.json.network.ConnectContainer;
@@ -58,10 +60,13 @@ import org.eclipse.che.plugin.docker.client.params.BuildImageParams;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.ExportContainerParams;
 import org.eclipse.che.plugin.docker.client.params.GetContainerLogsParams;
 import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
 import org.eclipse.che.plugin.docker.client.params.GetExecInfoParams;
+import org.eclipse.che.plugin.docker.client.params.GetImageHistoryParams;
 import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
+import org.eclipse.che.plugin.docker.client.params.ImportImageParams;
 import org.eclipse.che.plugin.docker.client.params.InspectContainerParams;
 import org.eclipse.che.plugin.docker.client.params.InspectImageParams;
 import org.eclipse.che.plugin.docker.client.params.KillContainerParams;
@@ -98,12 +103,18 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
@@ -114,13 +125,19 @@ import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 
 /**
  * @author Anton Korneta
@@ -426,6 +443,25 @@ public class DockerConnectorTest {
         assertEquals(returnedImageInfo, imageInfo);
     }
 
+    @Test
+    public void shouldBeAbleToGetImageHistory() throws IOException, JsonParseException {
+        List<ImageHistoryEntry> history = singletonList(new ImageHistoryEntry());
+
+        doReturn(history).when(dockerConnector).parseResponseStreamAndClose(eq(inputStream),
+                                                                            Matchers.<TypeToken<List<ImageHistoryEntry>>>any());
+
+        List<ImageHistoryEntry> returnedHistory = dockerConnector.getImageHistory(GetImageHistoryParams.create(IMAGE));
+
+        verify(dockerConnectionFactory).openConnection(any(URI.class));
+        verify(dockerConnection).method(REQUEST_METHOD_GET);
+        verify(dockerConnection).path("/images/" + IMAGE + "/history");
+        verify(dockerConnection).request();
+        verify(dockerResponse).getStatus();
+        verify(dockerResponse).getInputStream();
+
+        assertEquals(returnedHistory, history);
+    }
+
     @Test(expectedExceptions = DockerException.class, expectedExceptionsMessageRegExp = EXCEPTION_ERROR_MESSAGE)
     public void shouldThrowDockerExceptionWhileGettingImageInfoIfResponseCodeIsNotSuccess() throws IOException {
         InspectImageParams inspectImageParams = InspectImageParams.create(IMAGE);
@@ -894,6 +930,52 @@ public class DockerConnectorTest {
         verify(dockerResponse).getStatus();
     }
 
+    @Test
+    public void shouldBeAbleToExportContainer() throws IOException {
+        when(dockerResponse.getInputStream())
+                .thenReturn(new CloseConnectionInputStream(new ByteArrayInputStream(STREAM_DATA_BYTES), dockerConnection));
+
+        String response = CharStreams.toString(new InputStreamReader(dockerConnector.exportContainer(ExportContainerParams.create(CONTAINER))));
+
+        verify(dockerConnectionFactory).openConnection(any(URI.class));
+        verify(dockerConnection).method(REQUEST_METHOD_GET);
+        verify(dockerConnection).path("/containers/" + CONTAINER + "/export");
+        verify(dockerConnection).request();
+        verify(dockerResponse).getStatus();
+
+        assertEquals(response, STREAM_DATA);
+    }
+
+    @Test
+    public void shouldBeAbleToImportImage() throws IOException {
+        ImportImageParams importImageParams = ImportImageParams.create(new ByteArrayInputStream(STREAM_DATA_BYTES), REPOSITORY)
+                                                               .withTag(TAG)
+                                                               .withChanges(singletonList("CMD [\"bash\"]"));
+        when(dockerResponse.getInputStream()).thenReturn(new ByteArrayInputStream("{\"status\":\"sha256:abc\"}".getBytes()));
+
+        dockerConnector.importImage(importImageParams, progressMonitor);
+
+        verify(dockerConnectionFactory).openConnection(any(URI.class));
+        verify(dockerConnection).method(REQUEST_METHOD_POST);
+        verify(dockerConnection).path("/images/create");
+        verify(dockerConnection).query("fromSrc", "-");
+        verify(dockerConnection).query("repo", REPOSITORY);
+        verify(dockerConnection).query("tag", TAG);
+        verify(dockerConnection).query("changes", "CMD+%5B%22bash%22%5D");
+        verify(dockerConnection).header("Content-Type", ExtMediaType.APPLICATION_X_TAR);
+        verify(dockerConnection).entity(any(InputStream.class));
+        verify(progressMonitor).updateProgress(any(ProgressStatus.class));
+    }
+
+    @Test(expectedExceptions = DockerException.class, expectedExceptionsMessageRegExp = "Docker image import failed. " + ERROR_MESSAGE)
+    public void shouldThrowDockerExceptionWhenImportOfImageFails() throws IOException {
+        ImportImageParams importImageParams = ImportImageParams.create(new ByteArrayInputStream(STREAM_DATA_BYTES), REPOSITORY);
+        when(dockerResponse.getInputStream())
+                .thenReturn(new ByteArrayInputStream(("{\"error\":\"" + ERROR_MESSAGE + "\"}").getBytes()));
+
+        dockerConnector.importImage(importImageParams, progressMonitor);
+    }
+
     @Test
     public void shouldBeAbleToPutResourcesIntoContainer() throws IOException {
         InputStream source = new CloseConnectionInputStream(new ByteArrayInputStream(STREAM_DATA_BYTES), dockerConnection);
@@ -906,7 +988,7 @@ public class DockerConnectorTest {
         verify(dockerConnection).path("/containers/" + putResourceParams.getContainer() + "/archive");
         verify(dockerConnection).query(eq("path"), eq(PATH_TO_FILE));
         verify(dockerConnection).header("Content-Type", ExtMediaType.APPLICATION_X_TAR);
-        verify(dockerConnection).header(eq("Content-Length"), anyInt());
+        verify(dockerConnection, never()).header(eq("Content-Length"), anyObject());
         verify(dockerConnection).entity(any(InputStream.class));
         verify(dockerConnection).request();
         verify(dockerResponse).getStatus();
@@ -977,7 +1059,7 @@ public class DockerConnectorTest {
         verify(dockerConnection).query("rm", 1);
         verify(dockerConnection).query("forcerm", 1);
         verify(dockerConnection).header("Content-Type", "application/x-compressed-tar");
-        verify(dockerConnection).header(eq("Content-Length"), anyInt());
+        verify(dockerConnection, never()).header(eq("Content-Length"), anyObject());
         verify(dockerConnection).header(eq("X-Registry-Config"), any(byte[].class));
         verify(dockerConnection).entity(any(InputStream.class));
         verify(dockerConnection).request();
@@ -1266,6 +1348,110 @@ public class DockerConnectorTest {
         verify(dockerResponse).getStatus();
     }
 
+    @Test
+    public void shouldRetryPullWhichFailedAfterLayersWereDownloaded() throws IOException {
+        PullParams pullParams = PullParams.create(IMAGE);
+
+        when(dockerResponse.getInputStream())
+                .thenReturn(new ByteArrayInputStream(("{\"id\":\"layer\",\"status\":\"Downloading\"}" +
+                                                      "{\"error\":\"unexpected EOF\"}").getBytes()))
+                .thenReturn(new ByteArrayInputStream("{\"id\":\"layer\",\"status\":\"Pull complete\"}".getBytes()));
+
+        dockerConnector.pull(pullParams, progressMonitor);
+
+        verify(dockerConnection, times(2)).request();
+        verify(progressMonitor, times(3)).updateProgress(any(ProgressStatus.class));
+    }
+
+    @Test
+    public void shouldNotRetryPullWhichFailedBeforeLayersWereDownloaded() throws IOException {
+        PullParams pullParams = PullParams.create(IMAGE);
+
+        when(dockerResponse.getInputStream())
+                .thenReturn(new ByteArrayInputStream("{\"error\":\"image not found\"}".getBytes()));
+
+        dockerConnector.pull(pullParams, progressMonitor);
+
+        verify(dockerConnection).request();
+    }
+
+    @Test
+    public void shouldNotRetryPullWhichWasInterruptedAfterLayersWereDownloaded() throws Exception {
+        CountDownLatch layerProgressed = new CountDownLatch(1);
+        CountDownLatch responseReleased = new CountDownLatch(1);
+        // docker sends progress of the layer and then hangs
+        InputStream hangingStream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                try {
+                    responseReleased.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+                return -1;
+            }
+        };
+        when(dockerResponse.getInputStream())
+                .thenReturn(new SequenceInputStream(new ByteArrayInputStream("{\"id\":\"layer\",\"status\":\"Downloading\"}".getBytes()),
+                                                    hangingStream));
+        doAnswer(invocation -> {
+            layerProgressed.countDown();
+            return null;
+        }).when(progressMonitor).updateProgress(any(ProgressStatus.class));
+        AtomicReference<IOException> pullFailure = new AtomicReference<>();
+        AtomicBoolean interruptedAfterPull = new AtomicBoolean();
+
+        Thread pullThread = new Thread(() -> {
+            try {
+                dockerConnector.pull(PullParams.create(IMAGE), progressMonitor);
+            } catch (IOException e) {
+                pullFailure.set(e);
+            }
+            interruptedAfterPull.set(Thread.currentThread().isInterrupted());
+        });
+        pullThread.start();
+        assertTrue(layerProgressed.await(5, TimeUnit.SECONDS));
+        pullThread.interrupt();
+        pullThread.join(5000);
+        responseReleased.countDown();
+
+        assertNotNull(pullFailure.get());
+        assertTrue(interruptedAfterPull.get());
+        verify(dockerConnection).request();
+    }
+
+    @Test
+    public void shouldNotSharePullOfImageBetweenCallersWithDifferentCredentials() throws Exception {
+        AuthConfigs otherAuthConfigs = mock(AuthConfigs.class);
+        when(authManager.getXRegistryAuthHeaderValue(any(), eq(authConfigs))).thenReturn("first");
+        when(authManager.getXRegistryAuthHeaderValue(any(), eq(otherAuthConfigs))).thenReturn("second");
+        CountDownLatch secondPullRequested = new CountDownLatch(1);
+        AtomicInteger requests = new AtomicInteger();
+        when(dockerResponse.getInputStream()).thenAnswer(invocation -> {
+            if (requests.incrementAndGet() == 1) {
+                // the first pull is still running when the second caller comes
+                secondPullRequested.await(5, TimeUnit.SECONDS);
+            } else {
+                secondPullRequested.countDown();
+            }
+            return new ByteArrayInputStream("{\"id\":\"layer\",\"status\":\"Pull complete\"}".getBytes());
+        });
+
+        Thread firstPull = new Thread(() -> {
+            try {
+                dockerConnector.pull(PullParams.create(IMAGE).withAuthConfigs(authConfigs), progressMonitor);
+            } catch (IOException ignored) {
+            }
+        });
+        firstPull.start();
+        verify(dockerConnection, timeout(5000)).request();
+        dockerConnector.pull(PullParams.create(IMAGE).withAuthConfigs(otherAuthConfigs), progressMonitor);
+        firstPull.join(5000);
+
+        assertEquals(secondPullRequested.getCount(), 0);
+        verify(dockerConnection).header("X-Registry-Auth", "first");
+        verify(dockerConnection).header("X-Registry-Auth", "second");
+    }
+
     @Test
     public void shouldBeAbleToCreateContainer() throws IOException, JsonParseException {
         CreateContainerParams createContainerParams = CreateContainerParams.create(new ContainerConfig());
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link DockerEventStream}.
+ *
+ * @author Alexander Garagatyi
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerEventStreamTest {
+    @Mock
+    private DockerConnector         docker;
+    @Mock
+    private MessageProcessor<Event> listener1;
+    @Mock
+    private MessageProcessor<Event> listener2;
+
+    private DockerEventStream eventStream;
+
+    @BeforeMethod
+    public void setUp() {
+        eventStream = new DockerEventStream(docker);
+        eventStream.addListener(listener1);
+        eventStream.addListener(listener2);
+    }
+
+    @Test
+    public void shouldNotifyAllListenersAboutEvent() {
+        final Event event = new Event().withType("container").withAction("die").withTimeNano(1);
+
+        eventStream.dispatch(event);
+
+        verify(listener1).process(event);
+        verify(listener2).process(event);
+    }
+
+    @Test
+    public void shouldNotifyListenersEvenIfOneOfThemFailed() {
+        final Event event = new Event().withType("container").withAction("die").withTimeNano(1);
+        doThrow(new RuntimeException("failed")).when(listener1).process(event);
+
+        eventStream.dispatch(event);
+
+        verify(listener2).process(event);
+    }
+
+    @Test
+    public void shouldNotDeliverTheSameEventTwiceAfterReconnection() {
+        eventStream.dispatch(new Event().withType("container").withAction("die").withTimeNano(2));
+
+        eventStream.removeListener(listener2);
+        eventStream.dispatch(new Event().withType("container").withAction("die").withTimeNano(1));
+        eventStream.dispatch(new Event().withType("container").withAction("die").withTimeNano(2));
+
+        verify(listener1).process(any(Event.class));
+        verify(listener2).process(any(Event.class));
+    }
+
+    @Test
+    public void shouldNotDeliverEventsToRemovedListener() {
+        eventStream.removeListener(listener1);
+
+        eventStream.dispatch(new Event().withType("container").withAction("die").withTimeNano(1));
+
+        verify(listener1, never()).process(any(Event.class));
+    }
+}
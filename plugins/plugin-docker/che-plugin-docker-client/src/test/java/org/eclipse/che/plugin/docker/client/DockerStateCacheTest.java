@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
+import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.json.ImageInfo;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link DockerStateCache}.
+ *
+ * @author Alexander Garagatyi
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerStateCacheTest {
+    @Mock
+    private DockerConnector    docker;
+    @Mock
+    private DockerEventStream  eventStream;
+    @Mock
+    private ContainerInfo      containerInfo;
+    @Mock
+    private ImageInfo          imageInfo;
+    @Mock
+    private ContainerListEntry containerListEntry;
+
+    private DockerStateCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        cache = new DockerStateCache(docker, eventStream);
+        when(docker.inspectContainer("container")).thenReturn(containerInfo);
+        when(docker.inspectImage("image")).thenReturn(imageInfo);
+        when(docker.listContainers()).thenReturn(singletonList(containerListEntry));
+    }
+
+    @Test
+    public void shouldAnswerRepeatedRequestsFromCache() throws Exception {
+        assertEquals(cache.inspectContainer("container"), containerInfo);
+        assertEquals(cache.inspectContainer("container"), containerInfo);
+        assertEquals(cache.inspectImage("image"), imageInfo);
+        assertEquals(cache.inspectImage("image"), imageInfo);
+        assertEquals(cache.listContainers(), singletonList(containerListEntry));
+        assertEquals(cache.listContainers(), singletonList(containerListEntry));
+
+        verify(docker).inspectContainer("container");
+        verify(docker).inspectImage("image");
+        verify(docker).listContainers();
+    }
+
+    @Test
+    public void shouldInvalidateContainersOnContainerEvent() throws Exception {
+        cache.inspectContainer("container");
+        cache.listContainers();
+
+        cache.invalidate(new Event().withType("container").withAction("die").withId("id"));
+        cache.inspectContainer("container");
+        cache.listContainers();
+        cache.inspectImage("image");
+        cache.inspectImage("image");
+
+        verify(docker, times(2)).inspectContainer("container");
+        verify(docker, times(2)).listContainers();
+        verify(docker).inspectImage("image");
+    }
+
+    @Test
+    public void shouldNotInvalidateContainersOnEventsWhichDoNotChangeThem() throws Exception {
+        cache.inspectContainer("container");
+
+        cache.invalidate(new Event().withType("container").withAction("exec_start: /bin/bash").withId("id"));
+        cache.invalidate(new Event().withType("container").withAction("top").withId("id"));
+        cache.inspectContainer("container");
+
+        verify(docker).inspectContainer("container");
+    }
+
+    @Test
+    public void shouldInvalidateImagesOnImageEventOfOldDockerVersion() throws Exception {
+        cache.inspectImage("image");
+        cache.inspectContainer("container");
+
+        cache.invalidate(new Event().withStatus("pull").withId("image"));
+        cache.inspectImage("image");
+        cache.inspectContainer("container");
+
+        verify(docker, times(2)).inspectImage("image");
+        verify(docker).inspectContainer("container");
+    }
+
+    @Test
+    public void shouldNotCacheStateWhichWasRequestedWhileItWasChanged() throws Exception {
+        when(docker.inspectContainer("container")).thenAnswer(invocation -> {
+            cache.invalidate(new Event().withType("container").withAction("start").withId("id"));
+            return containerInfo;
+        });
+
+        cache.inspectContainer("container");
+        cache.inspectContainer("container");
+
+        verify(docker, times(2)).inspectContainer("container");
+    }
+}
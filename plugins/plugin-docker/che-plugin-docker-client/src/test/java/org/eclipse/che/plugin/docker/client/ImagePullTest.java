@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests for {@link ImagePull}.
+ *
+ * @author Alexander Garagatyi
+ */
+public class ImagePullTest {
+
+    @Test
+    public void shouldSendLatestStatusOfEachLayerToAttachedMonitor() throws Exception {
+        final ImagePull pull = new ImagePull();
+        final ProgressStatus pulled = status("a", "Pull complete");
+        final ProgressStatus downloading = status("b", "Downloading");
+        pull.updateProgress(status("a", "Downloading"));
+        pull.updateProgress(pulled);
+        pull.updateProgress(status(null, "Pulling from library/ubuntu"));
+        pull.updateProgress(downloading);
+        final List<ProgressStatus> received = new ArrayList<>();
+
+        pull.attach(received::add);
+
+        assertEquals(received, asList(pulled, downloading));
+    }
+
+    @Test
+    public void shouldSendProgressToAllAttachedMonitorsUntilTheyAreDetached() throws Exception {
+        final ImagePull pull = new ImagePull();
+        final List<ProgressStatus> first = new ArrayList<>();
+        final List<ProgressStatus> second = new ArrayList<>();
+        final ProgressMonitor secondMonitor = second::add;
+        pull.attach(first::add);
+        pull.attach(secondMonitor);
+        final ProgressStatus status = status(null, "Digest: sha256:abc");
+
+        pull.updateProgress(status);
+        pull.detach(secondMonitor);
+        pull.updateProgress(status);
+
+        assertEquals(first.size(), 2);
+        assertEquals(second.size(), 1);
+    }
+
+    @Test
+    public void shouldNotSendProgressToOthersWhenMonitorFails() throws Exception {
+        final ImagePull pull = new ImagePull();
+        final List<ProgressStatus> received = new ArrayList<>();
+        pull.attach(status -> {
+            throw new IllegalStateException("monitor is broken");
+        });
+        pull.attach(received::add);
+
+        pull.updateProgress(status(null, "Status: Downloaded newer image"));
+
+        assertEquals(received.size(), 1);
+    }
+
+    @Test
+    public void shouldTrackLayerProgressAndErrorOfCurrentAttempt() throws Exception {
+        final ImagePull pull = new ImagePull();
+
+        pull.updateProgress(status("a", "Pulling fs layer"));
+        assertFalse(pull.isLayerProgressed());
+        pull.updateProgress(status("a", "Downloading"));
+        final ProgressStatus error = new ProgressStatus();
+        error.setError("unexpected EOF");
+        pull.updateProgress(error);
+        assertTrue(pull.isLayerProgressed());
+        assertEquals(pull.getError(), "unexpected EOF");
+
+        pull.startAttempt();
+
+        assertFalse(pull.isLayerProgressed());
+        assertEquals(pull.getError(), null);
+    }
+
+    @Test
+    public void shouldThrowFailureOfPullToWaitingCaller() throws Exception {
+        final ImagePull pull = new ImagePull();
+        pull.finish(new DockerException("pull failed", 500));
+
+        try {
+            pull.await();
+            fail("Failure of pull is expected");
+        } catch (DockerException e) {
+            assertEquals(e.getMessage(), "pull failed");
+            assertEquals(e.getStatus(), 500);
+        }
+    }
+
+    @Test
+    public void shouldReturnToWaitingCallerWhenPullSucceeded() throws Exception {
+        final ImagePull pull = new ImagePull();
+        final Thread waiter = new Thread(() -> {
+            try {
+                pull.await();
+            } catch (Exception ignored) {
+            }
+        });
+        waiter.start();
+
+        pull.finish(null);
+        waiter.join(5000);
+
+        assertFalse(waiter.isAlive());
+    }
+
+    private static ProgressStatus status(String id, String status) {
+        final ProgressStatus progressStatus = new ProgressStatus();
+        progressStatus.setId(id);
+        progressStatus.setStatus(status);
+        return progressStatus;
+    }
+}
@@ -42,13 +42,54 @@ public class JsonMessageReaderTest {
         assertNull(reader.next());
     }
 
-    @Test
-    public void shouldReturnNullIfJsonIsIncorrect() throws IOException {
+    @Test(expectedExceptions = IOException.class)
+    public void shouldThrowIOExceptionIfJsonIsIncorrect() throws IOException {
         final String src = "not json";
 
         final JsonMessageReader<ProgressStatus> reader = new JsonMessageReader<>(new ByteArrayInputStream(src.getBytes()),
                                                                                  ProgressStatus.class);
 
+        reader.next();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldThrowIOExceptionIfStreamEndsInTheMiddleOfMessage() throws IOException {
+        final String src = "{\"status\":\"Downloading\",\"id\":\"a\"}{\"status\":\"Extr";
+
+        final JsonMessageReader<ProgressStatus> reader = new JsonMessageReader<>(new ByteArrayInputStream(src.getBytes()),
+                                                                                 ProgressStatus.class);
+
+        assertEquals(reader.next().getStatus(), "Downloading");
+        reader.next();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldThrowIOExceptionIfMessageFieldHasUnexpectedType() throws IOException {
+        final String src = "{\"progressDetail\":{\"current\":\"many\"}}";
+
+        final JsonMessageReader<ProgressStatus> reader = new JsonMessageReader<>(new ByteArrayInputStream(src.getBytes()),
+                                                                                 ProgressStatus.class);
+
+        reader.next();
+    }
+
+    @Test
+    public void shouldParseObjectsWhichAreNotSeparatedByNewLine() throws IOException {
+        final String src = "{\"status\":\"Downloading\",\"id\":\"a\"}{\"status\":\"Extracting\",\"id\":\"b\"}";
+
+        final JsonMessageReader<ProgressStatus> reader = new JsonMessageReader<>(new ByteArrayInputStream(src.getBytes()),
+                                                                                 ProgressStatus.class);
+
+        assertEquals(reader.next().getStatus(), "Downloading");
+        assertEquals(reader.next().getStatus(), "Extracting");
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void shouldReturnNullIfStreamIsEmpty() throws IOException {
+        final JsonMessageReader<ProgressStatus> reader = new JsonMessageReader<>(new ByteArrayInputStream(new byte[0]),
+                                                                                 ProgressStatus.class);
+
         assertNull(reader.next());
     }
 }
@@ -10,12 +10,21 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client;
 
+import com.google.common.base.Strings;
+
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -61,6 +70,79 @@ public class LogMessagePumperTest {
         logMessagePumper.start();
     }
 
+    @Test
+    public void shouldJoinLineWhichIsSplitBetweenFrames() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        final byte[] content = "first line\nsecond line\n".getBytes(UTF_8);
+
+        new LogMessagePumper(new SequenceInputStream(frame(Arrays.copyOfRange(content, 0, 15)),
+                                                     frame(Arrays.copyOfRange(content, 15, content.length))),
+                             message -> lines.add(message.getContent())).start();
+
+        assertEquals(lines, Arrays.asList("first line", "second line"));
+    }
+
+    @Test
+    public void shouldNotBreakMultiByteCharacterWhichIsSplitBetweenFrames() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        final byte[] content = "\u0436\u0443\u043a\n".getBytes(UTF_8);
+
+        new LogMessagePumper(new SequenceInputStream(frame(Arrays.copyOfRange(content, 0, 3)),
+                                                     frame(Arrays.copyOfRange(content, 3, content.length))),
+                             message -> lines.add(message.getContent())).start();
+
+        assertEquals(lines, singletonList("\u0436\u0443\u043a"));
+    }
+
+    @Test
+    public void shouldNotIncludeCarriageReturnWhenLineFeedFollowsInNextFrame() throws Exception {
+        final List<String> lines = new ArrayList<>();
+
+        new LogMessagePumper(new SequenceInputStream(frame((CONTENT + CARRIAGE_RETURN).getBytes(UTF_8)),
+                                                     frame(LINE_FEED.getBytes(UTF_8))),
+                             message -> lines.add(message.getContent())).start();
+
+        assertEquals(lines, singletonList(CONTENT));
+    }
+
+    @Test
+    public void shouldSplitTooLongLineWithoutBreakingCharacters() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        final String line = "a" + Strings.repeat("\u0436", 1000);
+
+        new LogMessagePumper(frame((line + LINE_FEED).getBytes(UTF_8)), message -> lines.add(message.getContent())).start();
+
+        assertEquals(lines.size(), 2);
+        assertEquals(lines.get(0).length(), 512);
+        assertEquals(lines.get(0) + lines.get(1), line);
+    }
+
+    @Test
+    public void shouldSendMessagesWithTypeOfFrame() throws Exception {
+        final List<LogMessage> messages = new ArrayList<>();
+        final byte[] stderr = ("error" + LINE_FEED).getBytes(UTF_8);
+        final byte[] stderrFrame = new byte[8 + stderr.length];
+        stderrFrame[0] = 2;
+        stderrFrame[7] = (byte)stderr.length;
+        System.arraycopy(stderr, 0, stderrFrame, 8, stderr.length);
+
+        new LogMessagePumper(new SequenceInputStream(frame(("output" + LINE_FEED).getBytes(UTF_8)),
+                                                     new ByteArrayInputStream(stderrFrame)),
+                             messages::add).start();
+
+        assertEquals(messages.size(), 2);
+        assertEquals(messages.get(0).getType(), LogMessage.Type.STDOUT);
+        assertEquals(messages.get(0).getContent(), "output");
+        assertEquals(messages.get(1).getType(), LogMessage.Type.STDERR);
+        assertEquals(messages.get(1).getContent(), "error");
+    }
+
+    private InputStream frame(byte[] payload) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(8 + payload.length);
+        byteBuffer.put((byte)1).put(new byte[3]).putInt(payload.length).put(payload);
+        return new ByteArrayInputStream(byteBuffer.array());
+    }
+
     private InputStream getTestInputStream(String src) throws UnsupportedEncodingException {
         final byte remaining = (byte)src.getBytes("UTF-8").length;
         final byte[] stdoutHeader = {1, 0, 0, 0, 0, 0, 0, remaining};
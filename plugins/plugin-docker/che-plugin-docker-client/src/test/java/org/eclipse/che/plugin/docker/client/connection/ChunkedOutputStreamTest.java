@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.io.ByteStreams;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link ChunkedOutputStream}.
+ *
+ * @author Alexander Garagatyi
+ */
+public class ChunkedOutputStreamTest {
+
+    @Test
+    public void shouldWriteDataByChunksAndLastChunkOnFinish() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ChunkedOutputStream chunked = new ChunkedOutputStream(output);
+
+        chunked.write("hello".getBytes(UTF_8));
+        chunked.flush();
+        chunked.write(' ');
+        chunked.write("world".getBytes(UTF_8));
+        chunked.finish();
+
+        assertEquals(new String(output.toByteArray(), UTF_8), "5\r\nhello\r\n" +
+                                                              "6\r\n world\r\n" +
+                                                              "0\r\n\r\n");
+    }
+
+    @Test
+    public void shouldNotWriteLastChunkTwice() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ChunkedOutputStream chunked = new ChunkedOutputStream(output);
+
+        chunked.finish();
+        chunked.close();
+
+        assertEquals(new String(output.toByteArray(), UTF_8), "0\r\n\r\n");
+    }
+
+    @Test
+    public void shouldNotWriteLastChunkWhenClosedWithoutFinish() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ChunkedOutputStream chunked = new ChunkedOutputStream(output);
+
+        chunked.write("hello".getBytes(UTF_8));
+        chunked.flush();
+        chunked.close();
+
+        assertEquals(new String(output.toByteArray(), UTF_8), "5\r\nhello\r\n");
+    }
+
+    @Test
+    public void shouldWriteDataWhichIsLargerThanChunk() throws Exception {
+        final byte[] data = new byte[100_000];
+        new Random().nextBytes(data);
+
+        assertEquals(readChunkedBody(data), data);
+    }
+
+    private static byte[] readChunkedBody(byte[] data) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(("HTTP/1.1 200 OK\r\n" +
+                      "Transfer-Encoding: chunked\r\n" +
+                      "\r\n").getBytes(UTF_8));
+        final ChunkedOutputStream chunked = new ChunkedOutputStream(output);
+        chunked.write(data, 0, 10);
+        chunked.write(data, 10, data.length - 10);
+        chunked.finish();
+        final UnixSocketDockerResponse response = new UnixSocketDockerResponse(new ByteArrayInputStream(output.toByteArray()));
+        return ByteStreams.toByteArray(response.getInputStream());
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.io.ByteStreams;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link UnixSocketDockerResponse}.
+ *
+ * @author Alexander Garagatyi
+ */
+public class UnixSocketDockerResponseTest {
+
+    @Test
+    public void shouldBeReusableWhenContentIsReadCompletely() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Content-Length: 5\r\n" +
+                                                           "\r\n" +
+                                                           "hello");
+
+        assertEquals(response.getStatus(), 200);
+        assertFalse(response.isReusable());
+        assertEquals(new String(ByteStreams.toByteArray(response.getInputStream()), UTF_8), "hello");
+        assertTrue(response.isReusable());
+    }
+
+    @Test
+    public void shouldBeReusableWhenLastChunkIsRead() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Transfer-Encoding: chunked\r\n" +
+                                                           "\r\n" +
+                                                           "5\r\nhello\r\n" +
+                                                           "6\r\n world\r\n" +
+                                                           "0\r\n\r\n");
+
+        assertEquals(new String(ByteStreams.toByteArray(response.getInputStream()), UTF_8), "hello world");
+        assertTrue(response.isReusable());
+    }
+
+    @Test
+    public void shouldBeReusableWhenResponseHasNoContent() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 204 No Content\r\n" +
+                                                           "Server: Docker\r\n" +
+                                                           "\r\n");
+
+        assertEquals(response.getStatus(), 204);
+        assertEquals(response.getInputStream().read(), -1);
+        assertTrue(response.isReusable());
+    }
+
+    @Test
+    public void shouldNotBeReusableWhenDockerClosesConnection() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Connection: close\r\n" +
+                                                           "Content-Length: 0\r\n" +
+                                                           "\r\n");
+
+        response.getInputStream();
+
+        assertFalse(response.isReusable());
+    }
+
+    @Test
+    public void shouldNotBeReusableWhenContentIsDelimitedByEndOfConnection() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 101 UPGRADED\r\n" +
+                                                           "Upgrade: tcp\r\n" +
+                                                           "\r\n" +
+                                                           "raw stream");
+
+        ByteStreams.toByteArray(response.getInputStream());
+
+        assertFalse(response.isReusable());
+    }
+
+    @Test
+    public void shouldReadBytesAboveSignedRange() throws Exception {
+        final byte[] headers = ("HTTP/1.1 200 OK\r\n" +
+                                "Content-Length: 1\r\n" +
+                                "\r\n").getBytes(UTF_8);
+        final byte[] raw = Arrays.copyOf(headers, headers.length + 1);
+        raw[headers.length] = (byte)0xFF;
+        final InputStream content = new UnixSocketDockerResponse(new ByteArrayInputStream(raw)).getInputStream();
+
+        assertEquals(content.read(), 0xFF);
+        assertEquals(content.read(), -1);
+    }
+
+    @Test
+    public void shouldReadContentToTheGivenOffset() throws Exception {
+        final InputStream content = response("HTTP/1.1 200 OK\r\n" +
+                                             "Transfer-Encoding: chunked\r\n" +
+                                             "\r\n" +
+                                             "5\r\nhello\r\n" +
+                                             "0\r\n\r\n").getInputStream();
+        final byte[] buf = new byte[7];
+        buf[0] = '>';
+        buf[1] = ' ';
+
+        assertEquals(content.read(buf, 2, 5), 5);
+        assertEquals(new String(buf, UTF_8), "> hello");
+    }
+
+    @Test(expectedExceptions = EOFException.class)
+    public void shouldThrowEofExceptionWhenConnectionIsClosedBeforeResponse() throws Exception {
+        response("").getStatus();
+    }
+
+    private static UnixSocketDockerResponse response(String raw) {
+        return new UnixSocketDockerResponse(new ByteArrayInputStream(raw.getBytes(UTF_8)));
+    }
+}
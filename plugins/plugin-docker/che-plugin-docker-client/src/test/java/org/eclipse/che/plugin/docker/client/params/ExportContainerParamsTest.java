@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.params;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+public class ExportContainerParamsTest {
+
+    private static final String CONTAINER = "container";
+
+    private ExportContainerParams exportContainerParams;
+
+    @Test
+    public void shouldCreateParamsObjectWithRequiredParameters() {
+        exportContainerParams = ExportContainerParams.create(CONTAINER);
+
+        assertEquals(exportContainerParams.getContainer(), CONTAINER);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void shouldThrowNullPointerExceptionIfContainerRequiredParameterIsNull() {
+        exportContainerParams = ExportContainerParams.create(null);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void shouldThrowNullPointerExceptionIfContainerRequiredParameterResetWithNull() {
+        exportContainerParams = ExportContainerParams.create(CONTAINER)
+                                                     .withContainer(null);
+    }
+
+}
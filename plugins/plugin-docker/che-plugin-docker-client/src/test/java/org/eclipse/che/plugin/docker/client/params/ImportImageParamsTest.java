@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.params;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class ImportImageParamsTest {
+
+    private static final String REPOSITORY = "repository";
+    private static final String TAG        = "tag";
+
+    private InputStream       source;
+    private ImportImageParams importImageParams;
+
+    @BeforeMethod
+    public void prepare() {
+        source = new ByteArrayInputStream(new byte[0]);
+    }
+
+    @Test
+    public void shouldCreateParamsObjectWithRequiredParameters() {
+        importImageParams = ImportImageParams.create(source, REPOSITORY);
+
+        assertEquals(importImageParams.getSourceStream(), source);
+        assertEquals(importImageParams.getRepository(), REPOSITORY);
+
+        assertNull(importImageParams.getTag());
+        assertTrue(importImageParams.getChanges().isEmpty());
+    }
+
+    @Test
+    public void shouldCreateParamsObjectWithAllPossibleParameters() {
+        importImageParams = ImportImageParams.create(source, REPOSITORY)
+                                             .withTag(TAG)
+                                             .withChanges(Collections.singletonList("CMD [\"bash\"]"));
+
+        assertEquals(importImageParams.getSourceStream(), source);
+        assertEquals(importImageParams.getRepository(), REPOSITORY);
+        assertEquals(importImageParams.getTag(), TAG);
+        assertEquals(importImageParams.getChanges(), Collections.singletonList("CMD [\"bash\"]"));
+    }
+
+    @Test
+    public void shouldCopyChanges() {
+        final List<String> changes = new ArrayList<>(Collections.singletonList("CMD [\"bash\"]"));
+        importImageParams = ImportImageParams.create(source, REPOSITORY)
+                                             .withChanges(changes);
+
+        changes.clear();
+
+        assertEquals(importImageParams.getChanges().size(), 1);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void shouldThrowNullPointerExceptionIfSourceStreamRequiredParameterIsNull() {
+        importImageParams = ImportImageParams.create(null, REPOSITORY);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void shouldThrowNullPointerExceptionIfRepositoryRequiredParameterIsNull() {
+        importImageParams = ImportImageParams.create(source, null);
+    }
+
+}
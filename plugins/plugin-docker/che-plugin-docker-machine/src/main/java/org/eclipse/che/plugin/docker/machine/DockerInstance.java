@@ -27,13 +27,17 @@ import org.eclipse.che.api.machine.server.spi.impl.AbstractInstance;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerStateCache;
 import org.eclipse.che.plugin.docker.client.Exec;
 import org.eclipse.che.plugin.docker.client.LogMessage;
 import org.eclipse.che.plugin.docker.client.ProgressLineFormatterImpl;
 import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
+import org.eclipse.che.plugin.docker.client.json.ImageConfig;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.ExportContainerParams;
 import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
+import org.eclipse.che.plugin.docker.client.params.ImportImageParams;
 import org.eclipse.che.plugin.docker.client.params.PushParams;
 import org.eclipse.che.plugin.docker.client.params.PutResourceParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
@@ -46,16 +50,22 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.lang.String.format;
+import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.DOCKER_IMAGE_TYPE;
 import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.MACHINE_SNAPSHOT_PREFIX;
+import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.SNAPSHOT_LOCATION_PATTERN;
 
 /**
  * Docker implementation of {@link Instance}
@@ -68,6 +78,13 @@ import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.MACHI
 public class DockerInstance extends AbstractInstance {
     private static final Logger LOG = LoggerFactory.getLogger(DockerInstance.class);
 
+    /**
+     * Number of the entries in image history after which snapshot is flattened instead of being committed.
+     * Docker can't create container from image which has more than 125 layers.
+     */
+    @VisibleForTesting
+    static final int MAX_SNAPSHOT_LINEAGE_DEPTH = 100;
+
     /**
      * Name of the latest tag used in Docker image.
      */
@@ -99,6 +116,7 @@ public class DockerInstance extends AbstractInstance {
     private final DockerNode                                  node;
     private final DockerInstanceStopDetector                  dockerInstanceStopDetector;
     private final DockerInstanceProcessesCleaner              processesCleaner;
+    private final DockerStateCache                            dockerStateCache;
     private final ConcurrentHashMap<Integer, InstanceProcess> machineProcesses;
     private final boolean                                     snapshotUseRegistry;
 
@@ -116,6 +134,7 @@ public class DockerInstance extends AbstractInstance {
                           @Assisted LineConsumer outputConsumer,
                           DockerInstanceStopDetector dockerInstanceStopDetector,
                           DockerInstanceProcessesCleaner processesCleaner,
+                          DockerStateCache dockerStateCache,
                           @Named("machine.docker.snapshot_use_registry") boolean snapshotUseRegistry) {
         super(machine);
         this.dockerMachineFactory = dockerMachineFactory;
@@ -128,6 +147,7 @@ public class DockerInstance extends AbstractInstance {
         this.node = node;
         this.dockerInstanceStopDetector = dockerInstanceStopDetector;
         this.processesCleaner = processesCleaner;
+        this.dockerStateCache = dockerStateCache;
         this.machineProcesses = new ConcurrentHashMap<>();
         processesCleaner.trackProcesses(this);
         this.snapshotUseRegistry = snapshotUseRegistry;
@@ -143,7 +163,7 @@ public class DockerInstance extends AbstractInstance {
         // if runtime info is not evaluated yet
         if (machineRuntime == null) {
             try {
-                final ContainerInfo containerInfo = docker.inspectContainer(container);
+                final ContainerInfo containerInfo = dockerStateCache.inspectContainer(container);
                 machineRuntime = new MachineRuntimeInfoImpl(dockerMachineFactory.createMetadata(containerInfo,
                                                                                                 node.getHost(),
                                                                                                 getConfig()));
@@ -186,6 +206,9 @@ public class DockerInstance extends AbstractInstance {
                     final int virtualPid = Integer.parseInt(matcher.group(1));
                     final InstanceProcess dockerProcess = machineProcesses.get(virtualPid);
                     if (dockerProcess != null) {
+                        if (dockerProcess instanceof DockerProcess) {
+                            ((DockerProcess)dockerProcess).confirmAlive();
+                        }
                         processes.add(dockerProcess);
                     } else {
                         LOG.warn("Machine process {} exists in container but missing in processes map", virtualPid);
@@ -213,18 +236,27 @@ public class DockerInstance extends AbstractInstance {
     @Override
     public MachineSource saveToSnapshot(String owner) throws MachineException {
         try {
-            String image = generateRepository();
+            // container of the machine recovered from snapshot is based on the image of that snapshot,
+            // so commit adds only layer with changes made after recovering. New snapshot is stored
+            // in the same repository, so registry already has all the other layers and they are not pushed again.
+            // Each commit makes lineage of the snapshots one layer deeper, too deep lineage is flattened
+            // to single layer in new repository, otherwise docker fails to create containers from the snapshot
+            final DockerMachineSource recoveredFrom = getRecoveredSnapshot();
+            final boolean flatten = recoveredFrom != null && isLineageTooDeep();
+            final String image = recoveredFrom != null && !flatten ? recoveredFrom.getRepository() : generateRepository();
+            // each snapshot in repository has own tag, otherwise removal of the previous snapshot removes the new one
+            final String tag = NameGenerator.generate(null, 16);
             if(!snapshotUseRegistry) {
-                commitContainer(owner, image, LATEST_TAG);
-                return new DockerMachineSource(image).withTag(LATEST_TAG);
+                createSnapshotImage(owner, image, tag, flatten);
+                return new DockerMachineSource(image).withTag(tag);
             }
 
             PushParams pushParams = PushParams.create(image)
                                               .withRegistry(registry)
-                                              .withTag(LATEST_TAG);
+                                              .withTag(tag);
 
             final String fullRepo = pushParams.getFullRepo();
-            commitContainer(owner, fullRepo, LATEST_TAG);
+            createSnapshotImage(owner, fullRepo, tag, flatten);
             //TODO fix this workaround. Docker image is not visible after commit when using swarm
             Thread.sleep(2000);
             final ProgressLineFormatterImpl lineFormatter = new ProgressLineFormatterImpl();
@@ -235,8 +267,8 @@ public class DockerInstance extends AbstractInstance {
                                                   } catch (IOException ignored) {
                                                   }
                                               });
-            docker.removeImage(RemoveImageParams.create(fullRepo).withForce(false));
-            return new DockerMachineSource(image).withRegistry(registry).withDigest(digest).withTag(LATEST_TAG);
+            docker.removeImage(RemoveImageParams.create(fullRepo + ':' + tag).withForce(false));
+            return new DockerMachineSource(image).withRegistry(registry).withDigest(digest).withTag(tag);
         } catch (IOException ioEx) {
             throw new MachineException(ioEx);
         } catch (InterruptedException e) {
@@ -245,6 +277,92 @@ public class DockerInstance extends AbstractInstance {
         }
     }
 
+    private void createSnapshotImage(String owner, String repository, String tag, boolean flatten) throws IOException {
+        if (flatten) {
+            flattenContainer(repository, tag);
+        } else {
+            commitContainer(owner, repository, tag);
+        }
+    }
+
+    /** Returns {@code true} if image of the container has too many layers to be committed once again. */
+    private boolean isLineageTooDeep() {
+        try {
+            return docker.getImageHistory(image).size() >= MAX_SNAPSHOT_LINEAGE_DEPTH;
+        } catch (IOException e) {
+            LOG.warn("Unable to get history of image {} of machine {}. {}", image, getId(), e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Creates single layer image from file system of the container.
+     * Configuration of the container image is applied to new image, as import doesn't keep it.
+     */
+    @VisibleForTesting
+    void flattenContainer(String repository, String tag) throws IOException {
+        final List<String> changes = toDockerfileInstructions(docker.inspectImage(image).getConfig());
+        docker.importImage(ImportImageParams.create(docker.exportContainer(ExportContainerParams.create(container)), repository)
+                                            .withTag(tag)
+                                            .withChanges(changes),
+                           progressStatus -> {});
+    }
+
+    @VisibleForTesting
+    static List<String> toDockerfileInstructions(ImageConfig config) {
+        final List<String> instructions = new ArrayList<>();
+        if (config == null) {
+            return instructions;
+        }
+        if (config.getEnv() != null) {
+            for (String variable : config.getEnv()) {
+                final int eq = variable.indexOf('=');
+                if (eq > 0) {
+                    instructions.add("ENV " + variable.substring(0, eq) + '=' + quote(variable.substring(eq + 1)));
+                }
+            }
+        }
+        if (config.getLabels() != null) {
+            for (Map.Entry<String, String> label : config.getLabels().entrySet()) {
+                instructions.add("LABEL " + quote(label.getKey()) + '=' + quote(label.getValue()));
+            }
+        }
+        if (config.getExposedPorts() != null && !config.getExposedPorts().isEmpty()) {
+            instructions.add("EXPOSE " + String.join(" ", config.getExposedPorts().keySet()));
+        }
+        if (config.getVolumes() != null && !config.getVolumes().isEmpty()) {
+            instructions.add("VOLUME " + toJsonArray(config.getVolumes().keySet().toArray(new String[0])));
+        }
+        if (!isNullOrEmpty(config.getWorkingDir())) {
+            instructions.add("WORKDIR " + config.getWorkingDir());
+        }
+        if (!isNullOrEmpty(config.getUser())) {
+            instructions.add("USER " + config.getUser());
+        }
+        if (config.getEntrypoint() != null) {
+            instructions.add("ENTRYPOINT " + toJsonArray(config.getEntrypoint()));
+        }
+        if (config.getCmd() != null) {
+            instructions.add("CMD " + toJsonArray(config.getCmd()));
+        }
+        return instructions;
+    }
+
+    private static String toJsonArray(String[] values) {
+        final StringBuilder json = new StringBuilder("[");
+        for (String value : values) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(quote(value));
+        }
+        return json.append(']').toString();
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
     @VisibleForTesting
     void commitContainer(String owner, String repository, String tag) throws IOException {
         String comment = format("Suspended at %1$ta %1$tb %1$td %1$tT %1$tZ %1$tY",
@@ -259,6 +377,32 @@ public class DockerInstance extends AbstractInstance {
                                   .withComment(comment));
     }
 
+    /**
+     * Returns source of the snapshot this machine was recovered from or {@code null} if machine
+     * isn't recovered from snapshot or snapshot is stored in other place than new snapshots should be.
+     */
+    private DockerMachineSource getRecoveredSnapshot() {
+        final MachineSource source = getConfig().getSource();
+        if (source == null
+            || !DOCKER_IMAGE_TYPE.equals(source.getType())
+            || source.getLocation() == null
+            || !SNAPSHOT_LOCATION_PATTERN.matcher(source.getLocation()).matches()) {
+            return null;
+        }
+        final DockerMachineSource snapshot;
+        try {
+            snapshot = new DockerMachineSource(source);
+        } catch (MachineException e) {
+            return null;
+        }
+        // registry or namespace might be changed after snapshot was created
+        if (!Objects.equals(snapshotUseRegistry ? registry : null, snapshot.getRegistry())
+            || registryNamespace != null && !snapshot.getRepository().startsWith(registryNamespace + '/')) {
+            return null;
+        }
+        return snapshot;
+    }
+
     private String generateRepository() {
         if (registryNamespace != null) {
             return registryNamespace + '/' + MACHINE_SNAPSHOT_PREFIX + NameGenerator.generate(null, 16);
@@ -281,8 +425,7 @@ public class DockerInstance extends AbstractInstance {
                 node.unbindWorkspace();
             }
 
-            docker.killContainer(container);
-
+            // forced removal kills running container, so separate kill request isn't needed
             docker.removeContainer(RemoveContainerParams.create(container)
                                                         .withRemoveVolumes(true)
                                                         .withForce(true));
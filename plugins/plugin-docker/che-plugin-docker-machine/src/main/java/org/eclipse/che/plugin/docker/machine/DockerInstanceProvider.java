@@ -15,7 +15,6 @@ import com.google.common.base.Strings;
 import com.google.common.collect.Maps;
 import com.google.common.collect.ObjectArrays;
 import com.google.common.collect.Sets;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -25,6 +24,7 @@ import org.eclipse.che.api.core.model.machine.MachineConfig;
 import org.eclipse.che.api.core.model.machine.MachineSource;
 import org.eclipse.che.api.core.model.machine.Recipe;
 import org.eclipse.che.api.core.model.machine.ServerConf;
+import org.eclipse.che.api.core.util.ExecutorRegistry;
 import org.eclipse.che.api.core.util.FileCleaner;
 import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.core.util.SystemInfo;
@@ -58,6 +58,8 @@ import org.eclipse.che.plugin.docker.client.params.PullParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
 import org.eclipse.che.plugin.docker.client.params.StartContainerParams;
 import org.eclipse.che.plugin.docker.client.params.TagParams;
+import org.eclipse.che.plugin.docker.client.parser.DockerImageIdentifier;
+import org.eclipse.che.plugin.docker.client.parser.DockerImageIdentifierParser;
 import org.eclipse.che.plugin.docker.machine.node.DockerNode;
 import org.eclipse.che.plugin.docker.machine.node.WorkspaceFolderPathProvider;
 import org.slf4j.Logger;
@@ -80,7 +82,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -116,6 +118,9 @@ public class DockerInstanceProvider implements InstanceProvider {
 
     public static final Pattern SNAPSHOT_LOCATION_PATTERN = Pattern.compile("(.+/)?" + MACHINE_SNAPSHOT_PREFIX + ".+");
 
+    /** Default maximum number of containers which logs are streamed at the same time. */
+    private static final int MAX_LOG_STREAMS = 500;
+
     private final DockerConnector                               docker;
     private final UserSpecificDockerRegistryCredentialsProvider dockerCredentials;
     private final ExecutorService                               executor;
@@ -138,8 +143,14 @@ public class DockerInstanceProvider implements InstanceProvider {
     private final RecipeRetriever                               recipeRetriever;
     private final double                                        memorySwapMultiplier;
 
+    private WarmImagePool           warmImagePool;
+    private DockerfileBuildCache    buildCache;
+    private MachineResourcesMonitor resourcesMonitor;
+    private DockerNodeScheduler     nodeScheduler;
+
     @Inject
     public DockerInstanceProvider(DockerConnector docker,
+                                  ExecutorRegistry executorRegistry,
                                   DockerConnectorConfiguration dockerConnectorConfiguration,
                                   UserSpecificDockerRegistryCredentialsProvider dockerCredentials,
                                   DockerMachineFactory dockerMachineFactory,
@@ -222,9 +233,28 @@ public class DockerInstanceProvider implements InstanceProvider {
             this.allMachinesExtraHosts = ObjectArrays.concat(allMachinesExtraHosts.split(","), cheHostAlias);
         }
 
-        executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("MachineLogsStreamer-%d")
-                                                                           .setDaemon(true)
-                                                                           .build());
+        // each running container holds the thread, so logs are streamed only for limited number of containers
+        executor = executorRegistry.getExecutor(ExecutorRegistry.MACHINE_LOGS, MAX_LOG_STREAMS, 0);
+    }
+
+    @Inject(optional = true)
+    public void setWarmImagePool(WarmImagePool warmImagePool) {
+        this.warmImagePool = warmImagePool;
+    }
+
+    @Inject(optional = true)
+    public void setDockerfileBuildCache(DockerfileBuildCache buildCache) {
+        this.buildCache = buildCache;
+    }
+
+    @Inject(optional = true)
+    public void setMachineResourcesMonitor(MachineResourcesMonitor resourcesMonitor) {
+        this.resourcesMonitor = resourcesMonitor;
+    }
+
+    @Inject(optional = true)
+    public void setDockerNodeScheduler(DockerNodeScheduler nodeScheduler) {
+        this.nodeScheduler = nodeScheduler;
     }
 
     /**
@@ -353,20 +383,38 @@ public class DockerInstanceProvider implements InstanceProvider {
 
         try {
             boolean isSnapshot = SNAPSHOT_LOCATION_PATTERN.matcher(dockerMachineSource.getLocation()).matches();
-            if (!isSnapshot || snapshotUseRegistry) {
-                PullParams pullParams = PullParams.create(dockerMachineSource.getRepository())
-                                                  .withTag(MoreObjects.firstNonNull(dockerMachineSource.getTag(), LATEST_TAG))
-                                                  .withRegistry(dockerMachineSource.getRegistry())
-                                                  .withAuthConfigs(dockerCredentials.getCredentials());
-                docker.pull(pullParams, progressMonitor);
+            final String fullNameOfPulledImage = dockerMachineSource.getLocation(false);
+            final long pullStart = System.currentTimeMillis();
+            // warm images are already pulled and kept up to date by the pool
+            boolean warm = !isSnapshot && warmImagePool != null && warmImagePool.isWarm(fullNameOfPulledImage);
+            if (warm) {
+                try {
+                    docker.tag(TagParams.create(fullNameOfPulledImage, machineImageName));
+                } catch (ImageNotFoundException ignored) {
+                    // image is removed from the node after it was pulled by the pool
+                    warm = false;
+                }
             }
 
-            final String fullNameOfPulledImage = dockerMachineSource.getLocation(false);
-            try {
-                // tag image with generated name to allow sysadmin recognize it
-                docker.tag(TagParams.create(fullNameOfPulledImage, machineImageName));
-            } catch (ImageNotFoundException nfEx) {
-                throw new SourceNotFoundException(nfEx.getLocalizedMessage(), nfEx);
+            if (!warm) {
+                if (!isSnapshot || snapshotUseRegistry) {
+                    PullParams pullParams = PullParams.create(dockerMachineSource.getRepository())
+                                                      .withTag(MoreObjects.firstNonNull(dockerMachineSource.getTag(), LATEST_TAG))
+                                                      .withRegistry(dockerMachineSource.getRegistry())
+                                                      .withAuthConfigs(dockerCredentials.getCredentials());
+                    docker.pull(pullParams, progressMonitor);
+                }
+
+                try {
+                    // tag image with generated name to allow sysadmin recognize it
+                    docker.tag(TagParams.create(fullNameOfPulledImage, machineImageName));
+                } catch (ImageNotFoundException nfEx) {
+                    throw new SourceNotFoundException(nfEx.getLocalizedMessage(), nfEx);
+                }
+            }
+
+            if (!isSnapshot && warmImagePool != null) {
+                warmImagePool.imagePulled(fullNameOfPulledImage, warm, System.currentTimeMillis() - pullStart);
             }
 
             // remove unneeded tag if restoring snapshot from registry
@@ -388,22 +436,60 @@ public class DockerInstanceProvider implements InstanceProvider {
         Recipe recipe = recipeRetriever.getRecipe(machineConfig);
         Dockerfile dockerfile = parseRecipe(recipe);
         long memoryLimit = (long)machineConfig.getLimits().getRam() * 1024 * 1024;
+        // base image isn't pulled by build if it is warm
+        final String baseImage = dockerfile.getImages().get(0).getFrom();
+        final boolean warm = warmImagePool != null && warmImagePool.isWarm(baseImage);
+        final long buildStart = System.currentTimeMillis();
 
         File workDir = null;
         try {
+            String cacheKey = null;
+            boolean doForcePull = doForcePullOnBuild;
+            if (buildCache != null && buildCache.isEnabled()) {
+                if (doForcePull && !warm) {
+                    // base image is pulled before calculation of the key, so its update invalidates cached images
+                    final DockerImageIdentifier baseImageId = DockerImageIdentifierParser.parse(baseImage);
+                    docker.pull(PullParams.create(baseImageId.getRepository())
+                                          .withTag(MoreObjects.firstNonNull(baseImageId.getTag(), LATEST_TAG))
+                                          .withRegistry(baseImageId.getRegistry())
+                                          .withAuthConfigs(dockerCredentials.getCredentials()),
+                                progressMonitor);
+                    doForcePull = false;
+                }
+                cacheKey = buildCache.getKey(dockerfile);
+                if (cacheKey != null && buildCache.reuse(cacheKey, machineImageName)) {
+                    if (warmImagePool != null) {
+                        warmImagePool.imageBuilt(baseImage, warm, System.currentTimeMillis() - buildStart);
+                    }
+                    return;
+                }
+            }
+
             // build docker image
             workDir = Files.createTempDirectory(null).toFile();
             final File dockerfileFile = new File(workDir, "Dockerfile");
             dockerfile.writeDockerfile(dockerfileFile);
 
-            docker.buildImage(BuildImageParams.create(dockerfileFile)
-                                              .withRepository(machineImageName)
-                                              .withAuthConfigs(dockerCredentials.getCredentials())
-                                              .withDoForcePull(doForcePullOnBuild)
-                                              .withMemoryLimit(memoryLimit)
-                                              .withMemorySwapLimit(-1),
-                              progressMonitor);
-        } catch (IOException e) {
+            final String imageId = docker.buildImage(BuildImageParams.create(dockerfileFile)
+                                                                     .withRepository(machineImageName)
+                                                                     .withAuthConfigs(dockerCredentials.getCredentials())
+                                                                     .withDoForcePull(doForcePull)
+                                                                     .withMemoryLimit(memoryLimit)
+                                                                     .withMemorySwapLimit(-1),
+                                                     progressMonitor);
+            if (buildCache != null && buildCache.isEnabled()) {
+                if (cacheKey == null) {
+                    // base image is pulled by the build
+                    cacheKey = buildCache.getKey(dockerfile);
+                }
+                if (cacheKey != null) {
+                    buildCache.put(cacheKey, imageId);
+                }
+            }
+            if (warmImagePool != null) {
+                warmImagePool.imageBuilt(baseImage, warm, System.currentTimeMillis() - buildStart);
+            }
+        } catch (IOException | DockerFileException e) {
             throw new MachineException(e.getLocalizedMessage(), e);
         } finally {
             if (workDir != null) {
@@ -539,6 +625,16 @@ public class DockerInstanceProvider implements InstanceProvider {
                    .map(entry -> entry.getKey() + "=" + entry.getValue())
                    .forEach(env::add);
 
+            final String machineSource = machine.getConfig().getSource().getLocation();
+            // image is pulled to all the swarm nodes, while built image is available only on the node where it was built
+            if (nodeScheduler != null && DOCKER_IMAGE_TYPE.equals(machine.getConfig().getSource().getType())) {
+                final String node = nodeScheduler.selectNode(machine.getId(), machineSource, machineMemory);
+                if (node != null) {
+                    // soft constraint lets swarm use another node if the chosen one can't run container
+                    env.add("constraint:node==~" + node);
+                }
+            }
+
             final HostConfig hostConfig = new HostConfig().withBinds(volumes)
                                                           .withExtraHosts(allMachinesExtraHosts)
                                                           .withPublishAllPorts(true)
@@ -553,32 +649,25 @@ public class DockerInstanceProvider implements InstanceProvider {
             final String containerId = docker.createContainer(CreateContainerParams.create(config)
                                                                                    .withContainerName(containerName))
                                              .getId();
+            if (nodeScheduler != null) {
+                nodeScheduler.machineCreated(machine.getId(), containerId, machineSource, machineMemory);
+            }
 
             docker.startContainer(StartContainerParams.create(containerId));
 
-            executor.execute(() -> {
-                long lastProcessedLogDate = 0;
-                boolean isContainerRunning = true;
-                while (isContainerRunning) {
-                    try {
-                        docker.getContainerLogs(GetContainerLogsParams.create(containerId)
-                                                                      .withFollow(true)
-                                                                      .withSince(lastProcessedLogDate),
-                                                new LogMessagePrinter(outputConsumer));
-                        isContainerRunning = false;
-                    } catch (SocketTimeoutException ste) {
-                        lastProcessedLogDate = System.currentTimeMillis() / 1000L;
-                        // reconnect to container
-                    } catch (ContainerNotFoundException e) {
-                        isContainerRunning = false;
-                    } catch (IOException e) {
-                        LOG.error("Failed to get logs from machine {} backed by container {} with {} id",
-                                  machine,
-                                  containerName,
-                                  containerId);
-                    }
+            try {
+                executor.execute(() -> streamLogs(machine, containerName, containerId, outputConsumer));
+            } catch (RejectedExecutionException e) {
+                LOG.warn("Logs of machine {} backed by container {} are not streamed, limit of executor '{}' is reached. {}",
+                         machine.getId(),
+                         containerId,
+                         ExecutorRegistry.MACHINE_LOGS,
+                         e.getLocalizedMessage());
+                try {
+                    outputConsumer.writeLine("[DOCKER] Logs of the machine are not available, too many machines are running.");
+                } catch (IOException ignored) {
                 }
-            });
+            }
 
             final DockerNode node = dockerMachineFactory.createNode(machine.getWorkspaceId(), containerId);
             if (machine.getConfig().isDev()) {
@@ -588,6 +677,9 @@ public class DockerInstanceProvider implements InstanceProvider {
             }
 
             dockerInstanceStopDetector.startDetection(containerId, machine.getId());
+            if (resourcesMonitor != null) {
+                resourcesMonitor.startMonitoring(containerId, machine.getId());
+            }
 
             return dockerMachineFactory.createInstance(machine,
                                                        containerId,
@@ -599,6 +691,30 @@ public class DockerInstanceProvider implements InstanceProvider {
         }
     }
 
+    private void streamLogs(Machine machine, String containerName, String containerId, LineConsumer outputConsumer) {
+        long lastProcessedLogDate = 0;
+        boolean isContainerRunning = true;
+        while (isContainerRunning) {
+            try {
+                docker.getContainerLogs(GetContainerLogsParams.create(containerId)
+                                                              .withFollow(true)
+                                                              .withSince(lastProcessedLogDate),
+                                        new LogMessagePrinter(outputConsumer));
+                isContainerRunning = false;
+            } catch (SocketTimeoutException ste) {
+                lastProcessedLogDate = System.currentTimeMillis() / 1000L;
+                // reconnect to container
+            } catch (ContainerNotFoundException e) {
+                isContainerRunning = false;
+            } catch (IOException e) {
+                LOG.error("Failed to get logs from machine {} backed by container {} with {} id",
+                          machine,
+                          containerName,
+                          containerId);
+            }
+        }
+    }
+
     // workspaceId parameter is required, because in case of separate storage for tokens
     // you need to know exactly which workspace and which user to apply the token.
     protected String getUserToken(String wsId) {
@@ -25,6 +25,13 @@ public class DockerMachineModule extends AbstractModule {
     @Override
     protected void configure() {
         bind(org.eclipse.che.plugin.docker.machine.cleaner.DockerContainerCleaner.class);
+        bind(WarmImagePool.class);
+        bind(DockerfileBuildCache.class);
+        bind(MachineResourcesMonitor.class);
+        bind(org.eclipse.che.api.machine.server.spi.InstanceResourcesMonitor.class).to(MachineResourcesMonitor.class);
+        bind(DockerNodeScheduler.class);
+        bind(org.eclipse.che.plugin.docker.client.DockerEventStream.class);
+        bind(org.eclipse.che.plugin.docker.client.DockerStateCache.class);
 
         Multibinder<String> devMachineEnvVars = Multibinder.newSetBinder(binder(),
                                                                          String.class,
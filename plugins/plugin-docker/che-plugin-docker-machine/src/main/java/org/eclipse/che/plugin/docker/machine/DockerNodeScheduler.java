@@ -0,0 +1,353 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.core.util.MBeanRegistrations;
+import org.eclipse.che.api.machine.shared.dto.event.MachineStatusEvent;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
+import org.eclipse.che.plugin.docker.client.json.SystemInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses swarm node for a new machine, so machines are spread over the nodes according to their load.
+ *
+ * <p>Nodes and their reserved memory are read from the swarm info, memory of machines placed
+ * since the last refresh of nodes is added to the reported one. Node is chosen among the nodes
+ * which have enough free memory for the machine: a node which already ran machine with the same image
+ * is preferred, then the node with fewer machines, then the node with more free memory.
+ * When docker is not a swarm, or no node has enough memory, placement is left to docker.
+ *
+ * @author Alexander Garagatyi
+ */
+@Singleton
+public class DockerNodeScheduler implements DockerNodeSchedulerMXBean, EventSubscriber<MachineStatusEvent> {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerNodeScheduler.class);
+
+    /** Time in milliseconds for which nodes read from the swarm info are reused. */
+    private static final long NODES_REFRESH_MS = 10_000;
+
+    private final DockerConnector          docker;
+    private final EventService             eventService;
+    private final Map<String, Placement>   placements;
+    private final Map<String, Set<String>> nodesImages;
+    private final AtomicLong               placed;
+    private final AtomicLong               imageLocal;
+    private final AtomicLong               unplaced;
+
+    private volatile List<SwarmNode> nodes;
+    private volatile long            nodesRefreshedAt;
+
+    @Inject
+    public DockerNodeScheduler(DockerConnector docker, EventService eventService) {
+        this.docker = docker;
+        this.eventService = eventService;
+        this.placements = new HashMap<>();
+        this.nodesImages = new HashMap<>();
+        this.placed = new AtomicLong();
+        this.imageLocal = new AtomicLong();
+        this.unplaced = new AtomicLong();
+        this.nodes = Collections.emptyList();
+    }
+
+    /**
+     * Chooses node for machine and reserves memory of the machine on it.
+     *
+     * @param machineId
+     *         id of machine
+     * @param image
+     *         image of machine
+     * @param memory
+     *         memory limit of machine in bytes
+     * @return name of the chosen node or {@code null} if placement is left to docker
+     */
+    @Nullable
+    public String selectNode(String machineId, String image, long memory) {
+        refreshNodes();
+        synchronized (this) {
+            if (nodes.isEmpty()) {
+                return null;
+            }
+            SwarmNode best = null;
+            boolean bestLocal = false;
+            int bestMachines = 0;
+            long bestFree = 0;
+            for (SwarmNode node : nodes) {
+                final long free = node.memory - getReservedMemory(node);
+                if (!node.healthy || free < memory) {
+                    continue;
+                }
+                final boolean local = nodesImages.getOrDefault(node.name, Collections.emptySet()).contains(image);
+                final int machines = countMachines(node.name);
+                if (best == null
+                    || local && !bestLocal
+                    || local == bestLocal && (machines < bestMachines || machines == bestMachines && free > bestFree)) {
+                    best = node;
+                    bestLocal = local;
+                    bestMachines = machines;
+                    bestFree = free;
+                }
+            }
+            if (best == null) {
+                unplaced.incrementAndGet();
+                LOG.warn("No swarm node has {} bytes of free memory for machine {}, placement is left to swarm", memory, machineId);
+                return null;
+            }
+            addPlacement(machineId, best.name, image, memory);
+            placed.incrementAndGet();
+            if (bestLocal) {
+                imageLocal.incrementAndGet();
+            }
+            return best.name;
+        }
+    }
+
+    /**
+     * Records node where container of machine was created by docker.
+     *
+     * <p>Swarm may create container on another node than the chosen one,
+     * machines which weren't placed by the scheduler are counted as well.
+     *
+     * @param machineId
+     *         id of machine
+     * @param container
+     *         id of container of machine
+     * @param image
+     *         image of machine
+     * @param memory
+     *         memory limit of machine in bytes
+     */
+    public void machineCreated(String machineId, String container, String image, long memory) {
+        if (nodes.isEmpty()) {
+            return;
+        }
+        final String node;
+        try {
+            final ContainerInfo info = docker.inspectContainer(container);
+            if (info.getNode() == null) {
+                return;
+            }
+            node = info.getNode().getName();
+        } catch (IOException e) {
+            LOG.warn("Unable to find node of machine {}. {}", machineId, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            final Placement placement = placements.get(machineId);
+            if (placement == null || !placement.node.equals(node)) {
+                addPlacement(machineId, node, image, memory);
+            }
+        }
+    }
+
+    @Override
+    public long getPlacedMachines() {
+        return placed.get();
+    }
+
+    @Override
+    public long getImageLocalPlacements() {
+        return imageLocal.get();
+    }
+
+    @Override
+    public long getUnplacedMachines() {
+        return unplaced.get();
+    }
+
+    @Override
+    public synchronized List<NodeUtilization> getNodes() {
+        final List<NodeUtilization> utilization = new ArrayList<>(nodes.size());
+        for (SwarmNode node : nodes) {
+            utilization.add(new NodeUtilization(node.name, countMachines(node.name), getReservedMemory(node), node.memory));
+        }
+        return utilization;
+    }
+
+    @Override
+    public void onEvent(MachineStatusEvent event) {
+        if (event.getEventType() == MachineStatusEvent.EventType.DESTROYED ||
+            event.getEventType() == MachineStatusEvent.EventType.ERROR) {
+            synchronized (this) {
+                placements.remove(event.getMachineId());
+            }
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        eventService.subscribe(this);
+        MBeanRegistrations.register(this, "DockerNodeScheduler");
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        eventService.unsubscribe(this);
+        MBeanRegistrations.unregister("DockerNodeScheduler");
+    }
+
+    /** Reads nodes from the swarm info if they weren't read recently, request to docker is sent without lock. */
+    private void refreshNodes() {
+        final long now = System.currentTimeMillis();
+        if (now - nodesRefreshedAt < NODES_REFRESH_MS) {
+            return;
+        }
+        List<SwarmNode> refreshed;
+        try {
+            final SystemInfo info = docker.getSystemInfo();
+            // data was moved to system status from driver status in recent swarm versions
+            refreshed = parseNodes(info.getSystemStatus() != null ? info.getSystemStatus() : info.getDriverStatus());
+        } catch (IOException e) {
+            LOG.warn("Unable to read nodes of swarm. {}", e.getMessage());
+            refreshed = Collections.emptyList();
+        }
+        synchronized (this) {
+            nodes = refreshed;
+            nodesRefreshedAt = now;
+        }
+    }
+
+    private void addPlacement(String machineId, String node, String image, long memory) {
+        placements.put(machineId, new Placement(node, memory, System.currentTimeMillis()));
+        nodesImages.computeIfAbsent(node, name -> new HashSet<>()).add(image);
+    }
+
+    private int countMachines(String node) {
+        int machines = 0;
+        for (Placement placement : placements.values()) {
+            if (placement.node.equals(node)) {
+                machines++;
+            }
+        }
+        return machines;
+    }
+
+    /** Returns memory reported by swarm plus memory of machines placed on the node after the nodes were read. */
+    private long getReservedMemory(SwarmNode node) {
+        long reserved = node.reservedMemory;
+        for (Placement placement : placements.values()) {
+            if (placement.node.equals(node.name) && placement.placedAt >= nodesRefreshedAt) {
+                reserved += placement.memory;
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * Parses nodes from the status of swarm.
+     *
+     * <p>Status has format: node entry {@code [" NAME", "ADDRESS"]} is followed by its
+     * properties {@code ["  └ Reserved Memory", "512 MiB / 2.05 GiB"]}, other entries describe swarm itself.
+     */
+    static List<SwarmNode> parseNodes(String[][] status) {
+        final List<SwarmNode> nodes = new ArrayList<>();
+        if (status == null) {
+            return nodes;
+        }
+        SwarmNode node = null;
+        for (String[] entry : status) {
+            if (entry.length < 2 || entry[0] == null || entry[1] == null) {
+                continue;
+            }
+            final String key = entry[0];
+            final int propertyStart = key.indexOf('\u2514');
+            if (propertyStart != -1) {
+                if (node == null) {
+                    continue;
+                }
+                final String property = key.substring(propertyStart + 1).trim();
+                if ("Status".equals(property)) {
+                    node.healthy = "Healthy".equals(entry[1]);
+                } else if ("Reserved Memory".equals(property)) {
+                    final String[] memory = entry[1].split("/");
+                    try {
+                        node.reservedMemory = parseSize(memory[0]);
+                        node.memory = parseSize(memory[1]);
+                    } catch (RuntimeException e) {
+                        LOG.warn("Unable to parse memory of swarm node {}. {}", node.name, entry[1]);
+                    }
+                }
+            } else if (key.startsWith(" ")) {
+                node = new SwarmNode(key.trim());
+                nodes.add(node);
+            } else {
+                node = null;
+            }
+        }
+        return nodes;
+    }
+
+    /** Parses size like {@code 2.05 GiB} or {@code 512 MB} to bytes. */
+    static long parseSize(String size) {
+        final String[] parts = size.trim().split("\\s+");
+        final double value = Double.parseDouble(parts[0]);
+        if (parts.length == 1 || parts[1].isEmpty()) {
+            return (long)value;
+        }
+        final String unit = parts[1];
+        final long base = unit.length() > 1 && unit.charAt(1) == 'i' ? 1024 : 1000;
+        switch (Character.toUpperCase(unit.charAt(0))) {
+            case 'K':
+                return (long)(value * base);
+            case 'M':
+                return (long)(value * base * base);
+            case 'G':
+                return (long)(value * base * base * base);
+            case 'T':
+                return (long)(value * base * base * base * base);
+            default:
+                return (long)value;
+        }
+    }
+
+    static class SwarmNode {
+        final String name;
+
+        boolean healthy = true;
+        long    reservedMemory;
+        long    memory;
+
+        SwarmNode(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class Placement {
+        final String node;
+        final long   memory;
+        final long   placedAt;
+
+        Placement(String node, long memory, long placedAt) {
+            this.node = node;
+            this.memory = memory;
+            this.placedAt = placedAt;
+        }
+    }
+}
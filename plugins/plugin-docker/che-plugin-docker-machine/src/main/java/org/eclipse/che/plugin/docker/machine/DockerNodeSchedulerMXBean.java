@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import java.util.List;
+
+/**
+ * Placement decisions of {@link DockerNodeScheduler} available through JMX.
+ *
+ * @author Alexander Garagatyi
+ */
+public interface DockerNodeSchedulerMXBean {
+    /** Returns number of machines which were placed on the node chosen by the scheduler. */
+    long getPlacedMachines();
+
+    /** Returns number of machines which were placed on the node that already had image of the machine. */
+    long getImageLocalPlacements();
+
+    /** Returns number of machines which were left to swarm because no node had enough memory. */
+    long getUnplacedMachines();
+
+    /** Returns utilization of swarm nodes, empty list if docker is not a swarm. */
+    List<NodeUtilization> getNodes();
+}
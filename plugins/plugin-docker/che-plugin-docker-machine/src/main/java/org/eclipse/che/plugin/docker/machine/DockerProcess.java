@@ -43,12 +43,23 @@ import static java.lang.String.format;
  * @author Alexander Garagatyi
  */
 public class DockerProcess extends AbstractMachineProcess implements InstanceProcess {
+    /**
+     * Time in milliseconds during which confirmed liveness of the process is trusted by {@link #isAlive()}.
+     *
+     * <p>Each check runs command in the container, that costs several requests to docker.
+     * Processes are usually listed and then checked one by one, so without this
+     * listing of N processes would cost N more commands.
+     */
+    static final long ALIVE_STATE_TTL_MS = 1000;
+
     private final DockerConnector     docker;
     private final String              container;
     private final String              pidFilePath;
     private final String              commandLine;
 
     private volatile boolean started;
+    private volatile boolean killed;
+    private volatile long    aliveConfirmedAt;
 
     @Inject
     public DockerProcess(DockerConnector docker,
@@ -70,6 +81,10 @@ public class DockerProcess extends AbstractMachineProcess implements InstancePro
         if (!started) {
             return false;
         }
+        // liveness confirmed by listing which started before kill is outdated
+        if (!killed && System.currentTimeMillis() - aliveConfirmedAt < ALIVE_STATE_TTL_MS) {
+            return true;
+        }
         try {
             checkAlive();
             return true;
@@ -137,13 +152,28 @@ public class DockerProcess extends AbstractMachineProcess implements InstancePro
         }
         // 'kill -0 [pid]' is silent if process is running or print "No such process" message otherwise
         if (!output.getText().isEmpty()) {
+            aliveConfirmedAt = 0;
             throw new NotFoundException(format("Process with pid %s not found", getPid()));
         }
+        aliveConfirmedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Records that process was found alive by a command which checked several processes at once,
+     * so {@link #isAlive()} doesn't need to run own command right after that.
+     * Confirmation is ignored after the process is killed.
+     */
+    void confirmAlive() {
+        if (!killed) {
+            aliveConfirmedAt = System.currentTimeMillis();
+        }
     }
 
     @Override
     public void kill() throws MachineException {
         if (started) {
+            killed = true;
+            aliveConfirmedAt = 0;
             // Read pid from file and run 'kill [pid]' command.
             final String killCmd = format("[ -r %1$s ] && kill $(cat %1$s)", pidFilePath);
             final String[] command = {"/bin/bash", "-c", killCmd};
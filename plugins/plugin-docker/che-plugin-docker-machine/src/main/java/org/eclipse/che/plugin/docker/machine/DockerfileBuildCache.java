@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import org.eclipse.che.api.core.util.MBeanRegistrations;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.Dockerfile;
+import org.eclipse.che.plugin.docker.client.exception.ImageNotFoundException;
+import org.eclipse.che.plugin.docker.client.json.Image;
+import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
+import org.eclipse.che.plugin.docker.client.params.TagParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Keeps images built from Dockerfile recipes, so machines with the same recipe reuse the image instead of building it again.
+ *
+ * <p>Image is identified by the key which is calculated from the Dockerfile with resolved parameters,
+ * without comments, empty lines and leading or trailing whitespaces, and id of its base image.
+ * So recipes which differ only in formatting share the image, while update of the base image
+ * invalidates all the images built on top of it.
+ *
+ * <p>Cached images are tagged as {@value #CACHE_REPOSITORY}:&lt;key&gt;, so cache survives restart of the server.
+ * When number of cached images or their size exceeds the limit the least recently used images are removed.
+ * Size of the cache is estimated as sum of the sizes of its images, layers shared between them are counted
+ * for each image.
+ *
+ * @author Alexander Garagatyi
+ */
+@Singleton
+public class DockerfileBuildCache implements DockerfileBuildCacheMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerfileBuildCache.class);
+
+    static final String CACHE_REPOSITORY = "eclipse-che/build_cache";
+
+    private final DockerConnector   docker;
+    private final int               maxImages;
+    private final long              maxSize;
+    /** key -> size of the image in bytes, in order from the least to the most recently used */
+    private final Map<String, Long> images;
+    private final AtomicLong        hits;
+    private final AtomicLong        misses;
+    private final AtomicLong        evictions;
+
+    private long size;
+
+    @Inject
+    public DockerfileBuildCache(DockerConnector docker,
+                                @Named("machine.docker.build_cache.max_images") int maxImages,
+                                @Named("machine.docker.build_cache.max_size_mb") long maxSizeMb) {
+        this.docker = docker;
+        this.maxImages = maxImages;
+        this.maxSize = maxSizeMb * 1024 * 1024;
+        this.images = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /** Returns {@code true} if images should be cached. */
+    public boolean isEnabled() {
+        return maxImages > 0 && maxSize > 0;
+    }
+
+    /**
+     * Calculates key of the image built from the given Dockerfile.
+     *
+     * @return key of the image or {@code null} if base image isn't available locally yet
+     * @throws IOException
+     *         when Dockerfile can't be rendered or docker API call fails
+     */
+    public String getKey(Dockerfile dockerfile) throws IOException {
+        final String baseImageId;
+        try {
+            // not cached, base image may be just pulled and the cache may still hold the id of its previous version
+            baseImageId = docker.inspectImage(dockerfile.getImages().get(0).getFrom()).getId();
+        } catch (ImageNotFoundException e) {
+            return null;
+        }
+        final StringBuilder content = new StringBuilder();
+        dockerfile.writeDockerfile(content);
+        final Hasher hasher = Hashing.sha256().newHasher().putString(baseImageId, UTF_8);
+        for (String line : content.toString().split("\n")) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                hasher.putChar('\n').putString(line, UTF_8);
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Tags cached image with the given key as the given image.
+     *
+     * @return {@code true} if image was found in the cache, {@code false} if it has to be built
+     * @throws IOException
+     *         when docker API call fails
+     */
+    public boolean reuse(String key, String image) throws IOException {
+        synchronized (this) {
+            if (images.get(key) == null) {
+                misses.incrementAndGet();
+                return false;
+            }
+        }
+        try {
+            docker.tag(TagParams.create(CACHE_REPOSITORY + ':' + key, image).withForce(true));
+        } catch (ImageNotFoundException e) {
+            // image is removed from docker bypassing the cache
+            synchronized (this) {
+                final Long removed = images.remove(key);
+                if (removed != null) {
+                    size -= removed;
+                }
+            }
+            misses.incrementAndGet();
+            return false;
+        }
+        hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Adds built image to the cache and removes the least recently used images if cache exceeds its limits.
+     *
+     * @param key
+     *         key of the image
+     * @param builtImage
+     *         id or name of the built image
+     * @throws IOException
+     *         when docker API call fails
+     */
+    public void put(String key, String builtImage) throws IOException {
+        docker.tag(TagParams.create(builtImage, CACHE_REPOSITORY).withTag(key).withForce(true));
+        add(key, docker.inspectImage(builtImage).getSize());
+    }
+
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public double getHitRate() {
+        final long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double)hits.get() / total;
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public synchronized int getImages() {
+        return images.size();
+    }
+
+    @Override
+    public synchronized long getSizeMb() {
+        return size / 1024 / 1024;
+    }
+
+    /** Restores cache from the images tagged by it before restart of the server and registers it in JMX. */
+    @PostConstruct
+    public void init() {
+        if (isEnabled()) {
+            try {
+                final List<Image> cached = new ArrayList<>();
+                for (Image image : docker.listImages()) {
+                    if (image.getRepoTags() != null && getCacheKey(image) != null) {
+                        cached.add(image);
+                    }
+                }
+                cached.sort(Comparator.comparingLong(Image::getCreated));
+                for (Image image : cached) {
+                    add(getCacheKey(image), image.getSize());
+                }
+            } catch (IOException e) {
+                LOG.warn("Unable to restore Dockerfile build cache. {}", e.getMessage());
+            }
+        }
+        MBeanRegistrations.register(this, "DockerfileBuildCache");
+    }
+
+    @PreDestroy
+    public void unregisterMBean() {
+        MBeanRegistrations.unregister("DockerfileBuildCache");
+    }
+
+    private static String getCacheKey(Image image) {
+        for (String repoTag : image.getRepoTags()) {
+            if (repoTag.startsWith(CACHE_REPOSITORY + ':')) {
+                return repoTag.substring(CACHE_REPOSITORY.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    private void add(String key, long imageSize) {
+        final List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            final Long previous = images.put(key, imageSize);
+            size += imageSize - (previous == null ? 0 : previous);
+            final Iterator<Map.Entry<String, Long>> it = images.entrySet().iterator();
+            // the newest image is kept even if it doesn't fit into the size limit alone
+            while ((images.size() > maxImages || size > maxSize) && images.size() > 1) {
+                final Map.Entry<String, Long> eldest = it.next();
+                it.remove();
+                size -= eldest.getValue();
+                evicted.add(eldest.getKey());
+            }
+        }
+        for (String evictedKey : evicted) {
+            evictions.incrementAndGet();
+            try {
+                // images used by containers are not removed, docker removes only the tag in this case
+                docker.removeImage(RemoveImageParams.create(CACHE_REPOSITORY + ':' + evictedKey).withForce(false));
+            } catch (IOException e) {
+                LOG.warn("Unable to remove image {}:{} from Dockerfile build cache. {}", CACHE_REPOSITORY, evictedKey, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+/**
+ * Statistic of the {@link DockerfileBuildCache} available through JMX.
+ *
+ * @author Alexander Garagatyi
+ */
+public interface DockerfileBuildCacheMXBean {
+    /** Returns number of builds which reused cached image. */
+    long getHits();
+
+    /** Returns number of builds which weren't found in the cache. */
+    long getMisses();
+
+    /** Returns part of the builds which reused cached image, from 0 to 1. */
+    double getHitRate();
+
+    /** Returns number of images removed from the cache to fit into its limits. */
+    long getEvictions();
+
+    /** Returns number of images in the cache. */
+    int getImages();
+
+    /** Returns size of the images in the cache in megabytes. */
+    long getSizeMb();
+}
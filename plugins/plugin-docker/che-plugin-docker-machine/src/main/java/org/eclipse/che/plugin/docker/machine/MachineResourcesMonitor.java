@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.core.util.MBeanRegistrations;
+import org.eclipse.che.api.machine.server.spi.InstanceResourcesMonitor;
+import org.eclipse.che.api.machine.server.spi.MachineResourcesSample;
+import org.eclipse.che.api.machine.shared.dto.event.MachineStatusEvent;
+import org.eclipse.che.commons.schedule.ScheduleRate;
+import org.eclipse.che.plugin.docker.client.Cgroups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Collects usage of CPU, memory and block IO by containers of machines from their cgroups.
+ *
+ * <p>Containers of all the machines are sampled one after another by a single scheduled task,
+ * so number of threads doesn't depend on number of machines. Only the last samples are kept
+ * for each machine. Machine stops being monitored when it is destroyed.
+ * Containers of a remote docker host are not accessible, so they are skipped.
+ * Samples are available through JMX and REST API of machines.
+ *
+ * @author Alexander Garagatyi
+ */
+@Singleton
+public class MachineResourcesMonitor implements InstanceResourcesMonitor,
+                                                MachineResourcesMonitorMXBean,
+                                                EventSubscriber<MachineStatusEvent> {
+    private static final Logger LOG = LoggerFactory.getLogger(MachineResourcesMonitor.class);
+
+    private final EventService                  eventService;
+    private final int                           historySize;
+    private final Map<String, MonitoredMachine> machines;
+
+    @Inject
+    public MachineResourcesMonitor(EventService eventService,
+                                   @Named("machine.docker.resources_monitor.history_size") int historySize) {
+        this.eventService = eventService;
+        this.historySize = historySize;
+        this.machines = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts collecting usage of resources by machine.
+     *
+     * @param container
+     *         full id of container of machine
+     * @param machineId
+     *         id of machine
+     */
+    public void startMonitoring(String container, String machineId) {
+        if (historySize > 0) {
+            machines.put(machineId, new MonitoredMachine(container));
+        }
+    }
+
+    /** Stops collecting usage of resources by machine and forgets collected samples. */
+    public void stopMonitoring(String machineId) {
+        machines.remove(machineId);
+    }
+
+    @Override
+    public Set<String> getMonitoredMachines() {
+        return new HashSet<>(machines.keySet());
+    }
+
+    @Override
+    public List<MachineResourcesSample> getSamples(String machineId) {
+        final MonitoredMachine machine = machines.get(machineId);
+        if (machine == null) {
+            return Collections.emptyList();
+        }
+        synchronized (machine) {
+            return new ArrayList<>(machine.samples);
+        }
+    }
+
+    /** Takes sample of resources usage of each monitored machine. */
+    @ScheduleRate(periodParameterName = "machine.docker.resources_monitor.period_sec",
+                  initialDelayParameterName = "machine.docker.resources_monitor.period_sec",
+                  unit = TimeUnit.SECONDS)
+    public void collect() {
+        for (Map.Entry<String, MonitoredMachine> entry : machines.entrySet()) {
+            try {
+                sample(entry.getValue());
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Unable collect usage of resources by machine {}. {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onEvent(MachineStatusEvent event) {
+        if (event.getEventType() == MachineStatusEvent.EventType.DESTROYED ||
+            event.getEventType() == MachineStatusEvent.EventType.ERROR) {
+            stopMonitoring(event.getMachineId());
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        eventService.subscribe(this);
+        MBeanRegistrations.register(this, "MachineResourcesMonitor");
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        eventService.unsubscribe(this);
+        MBeanRegistrations.unregister("MachineResourcesMonitor");
+    }
+
+    private void sample(MonitoredMachine machine) throws IOException {
+        final String container = machine.container;
+        final long memoryUsage = Long.parseLong(readCgroupFile("memory", container, "memory.usage_in_bytes").get(0).trim());
+        final long memoryLimit = Long.parseLong(readCgroupFile("memory", container, "memory.limit_in_bytes").get(0).trim());
+        final long cpuTime = Long.parseLong(readCgroupFile("cpuacct", container, "cpuacct.usage").get(0).trim());
+        final long sampleTime = System.nanoTime();
+        long blockIoRead = 0;
+        long blockIoWrite = 0;
+        // lines have format "MAJOR:MINOR OPERATION BYTES", the last line is "Total BYTES"
+        for (String line : readCgroupFile("blkio", container, "blkio.throttle.io_service_bytes")) {
+            final String[] parts = line.trim().split("\\s+");
+            if (parts.length == 3) {
+                if ("Read".equals(parts[1])) {
+                    blockIoRead += Long.parseLong(parts[2]);
+                } else if ("Write".equals(parts[1])) {
+                    blockIoWrite += Long.parseLong(parts[2]);
+                }
+            }
+        }
+
+        synchronized (machine) {
+            double cpuUsage = 0;
+            if (machine.lastSampleTime != 0 && sampleTime > machine.lastSampleTime) {
+                cpuUsage = Math.max(0, cpuTime - machine.lastCpuTime) * 100D / (sampleTime - machine.lastSampleTime);
+            }
+            machine.lastCpuTime = cpuTime;
+            machine.lastSampleTime = sampleTime;
+            if (machine.samples.size() == historySize) {
+                machine.samples.removeFirst();
+            }
+            machine.samples.addLast(new MachineResourcesSample(System.currentTimeMillis(),
+                                                               cpuUsage,
+                                                               memoryUsage,
+                                                               memoryLimit,
+                                                               blockIoRead,
+                                                               blockIoWrite));
+        }
+    }
+
+    /** Returns lines of the file from the cgroup of container. */
+    List<String> readCgroupFile(String subsystem, String container, String file) throws IOException {
+        if (!Cgroups.isSupported()) {
+            throw new IOException("System doesn't support cgroups");
+        }
+        return Files.readAllLines(Paths.get(Cgroups.getContainerCgroup(subsystem, container) + file), UTF_8);
+    }
+
+    private static class MonitoredMachine {
+        final String                        container;
+        final Deque<MachineResourcesSample> samples;
+
+        long lastCpuTime;
+        long lastSampleTime;
+
+        MonitoredMachine(String container) {
+            this.container = container;
+            this.samples = new ArrayDeque<>();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.api.machine.server.spi.MachineResourcesSample;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Usage of resources by machines collected by {@link MachineResourcesMonitor} available through JMX.
+ *
+ * @author Alexander Garagatyi
+ */
+public interface MachineResourcesMonitorMXBean {
+    /** Returns ids of the machines which usage of resources is collected. */
+    Set<String> getMonitoredMachines();
+
+    /** Returns samples of usage of resources by machine, the oldest first, or empty list if machine is not monitored. */
+    List<MachineResourcesSample> getSamples(String machineId);
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+/**
+ * Utilization of swarm node as it is seen by {@link DockerNodeScheduler}.
+ *
+ * @author Alexander Garagatyi
+ */
+public class NodeUtilization {
+    private final String name;
+    private final int    machines;
+    private final long   reservedMemory;
+    private final long   totalMemory;
+
+    public NodeUtilization(String name, int machines, long reservedMemory, long totalMemory) {
+        this.name = name;
+        this.machines = machines;
+        this.reservedMemory = reservedMemory;
+        this.totalMemory = totalMemory;
+    }
+
+    /** Returns name of the node in swarm. */
+    public String getName() {
+        return name;
+    }
+
+    /** Returns number of machines which run on the node. */
+    public int getMachines() {
+        return machines;
+    }
+
+    /** Returns memory in bytes reserved by containers of the node including machines placed since the last refresh of nodes. */
+    public long getReservedMemory() {
+        return reservedMemory;
+    }
+
+    /** Returns memory of the node in bytes. */
+    public long getTotalMemory() {
+        return totalMemory;
+    }
+}
@@ -0,0 +1,377 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.model.machine.MachineConfig;
+import org.eclipse.che.api.core.model.machine.MachineSource;
+import org.eclipse.che.api.core.util.MBeanRegistrations;
+import org.eclipse.che.api.machine.server.exception.MachineException;
+import org.eclipse.che.api.machine.server.util.RecipeRetriever;
+import org.eclipse.che.api.workspace.server.model.impl.EnvironmentImpl;
+import org.eclipse.che.api.workspace.server.model.impl.stack.StackImpl;
+import org.eclipse.che.api.workspace.server.spi.StackDao;
+import org.eclipse.che.commons.schedule.ScheduleRate;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerFileException;
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.params.PullParams;
+import org.eclipse.che.plugin.docker.client.parser.DockerImageIdentifier;
+import org.eclipse.che.plugin.docker.client.parser.DockerImageIdentifierParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.firstNonNull;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.util.Collections.reverseOrder;
+import static java.util.stream.Collectors.toList;
+import static org.eclipse.che.plugin.docker.machine.DockerInstance.LATEST_TAG;
+import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.DOCKER_FILE_TYPE;
+import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.DOCKER_IMAGE_TYPE;
+
+/**
+ * Periodically pulls the most popular machine images, so machines which use them don't wait for pulling.
+ *
+ * <p>Popularity of the image is number of machines started from it or built on top of it, it is halved
+ * on each refresh, so images which are not used anymore are forgotten.
+ * Images of the machines of stacks are pulled as well, so images are warm before the first usage.
+ * Warm images aren't pulled by {@link DockerInstanceProvider} at machine start, they are
+ * refreshed by the pool instead. Base images of Dockerfile recipes are pulled by docker build if needed,
+ * so they are only counted.
+ *
+ * <p>Images tagged {@code latest} (including untagged ones) are pulled by the pool, but they are never
+ * reported as warm: they may change at any time, so machine start still pulls them, though only
+ * the layers which changed since the last refresh are downloaded.
+ *
+ * <p>Pool doesn't create containers in advance because container of machine is bound to
+ * the workspace on creation: its name, volumes, environment variables and memory limits
+ * can't be changed after that.
+ *
+ * @author Alexander Garagatyi
+ */
+@Singleton
+public class WarmImagePool implements WarmImagePoolMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(WarmImagePool.class);
+
+    /** Maximum number of images which usages are counted, usages of the other images are ignored until the next refresh. */
+    static final int MAX_TRACKED_IMAGES = 1000;
+
+    private final DockerConnector         docker;
+    private final StackDao                stackDao;
+    private final RecipeRetriever         recipeRetriever;
+    private final int                     maxImages;
+    private final Map<String, AtomicLong> usages;
+    private final Set<String>             warmImages;
+    private final Statistic               pullStatistic;
+    private final Statistic               buildStatistic;
+
+    @Inject
+    public WarmImagePool(DockerConnector docker,
+                         StackDao stackDao,
+                         RecipeRetriever recipeRetriever,
+                         @Named("machine.docker.warm_pool.max_images") int maxImages) {
+        this.docker = docker;
+        this.stackDao = stackDao;
+        this.recipeRetriever = recipeRetriever;
+        this.maxImages = maxImages;
+        this.usages = new ConcurrentHashMap<>();
+        this.warmImages = ConcurrentHashMap.newKeySet();
+        this.pullStatistic = new Statistic();
+        this.buildStatistic = new Statistic();
+    }
+
+    /** Refreshes warm images. */
+    @ScheduleRate(periodParameterName = "machine.docker.warm_pool.refresh_period_min",
+                  initialDelayParameterName = "machine.docker.warm_pool.initial_delay_min",
+                  unit = TimeUnit.MINUTES)
+    public void refresh() {
+        if (maxImages <= 0) {
+            return;
+        }
+        final Set<String> pulled = new LinkedHashSet<>();
+        try {
+            final List<String> selected = selectImages();
+            forgetOldUsages();
+            for (String image : selected) {
+                if (pull(image)) {
+                    pulled.add(image);
+                    warmImages.add(image);
+                }
+            }
+        } catch (Exception e) {
+            LOG.error("Failed to refresh warm images", e);
+        }
+        // images which became unpopular or failed to pull are pulled on demand again
+        warmImages.retainAll(pulled);
+    }
+
+    /**
+     * Returns {@code true} if given image is pulled by the pool and doesn't need to be pulled at machine start,
+     * images tagged {@code latest} are never warm.
+     */
+    public boolean isWarm(String image) {
+        final String name = normalize(image);
+        return !name.endsWith(':' + LATEST_TAG) && warmImages.contains(name);
+    }
+
+    /**
+     * Records usage of the image pulled for machine.
+     *
+     * @param image
+     *         image of the machine
+     * @param warm
+     *         whether image was warm at machine start
+     * @param pullTime
+     *         time in milliseconds spent on pull of the image of machine
+     */
+    public void imagePulled(String image, boolean warm, long pullTime) {
+        countUsage(image);
+        pullStatistic.add(warm, pullTime);
+    }
+
+    /**
+     * Records usage of the base image of machine recipe.
+     *
+     * @param baseImage
+     *         base image of the recipe of machine
+     * @param warm
+     *         whether base image was warm at machine start
+     * @param buildTime
+     *         time in milliseconds spent on build of the image of machine
+     */
+    public void imageBuilt(String baseImage, boolean warm, long buildTime) {
+        countUsage(baseImage);
+        buildStatistic.add(warm, buildTime);
+    }
+
+    @Override
+    public List<String> getWarmImages() {
+        return new ArrayList<>(warmImages);
+    }
+
+    @Override
+    public long getHits() {
+        return pullStatistic.hits.get() + buildStatistic.hits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return pullStatistic.misses.get() + buildStatistic.misses.get();
+    }
+
+    @Override
+    public double getHitRate() {
+        final long hits = getHits();
+        final long total = hits + getMisses();
+        return total == 0 ? 0 : (double)hits / total;
+    }
+
+    @Override
+    public double getAveragePullTimeOnHit() {
+        return pullStatistic.getAverageTimeOnHit();
+    }
+
+    @Override
+    public double getAveragePullTimeOnMiss() {
+        return pullStatistic.getAverageTimeOnMiss();
+    }
+
+    @Override
+    public long getSavedPullTime() {
+        return pullStatistic.getSavedTime();
+    }
+
+    @Override
+    public double getAverageBuildTimeOnHit() {
+        return buildStatistic.getAverageTimeOnHit();
+    }
+
+    @Override
+    public double getAverageBuildTimeOnMiss() {
+        return buildStatistic.getAverageTimeOnMiss();
+    }
+
+    @Override
+    public long getSavedBuildTime() {
+        return buildStatistic.getSavedTime();
+    }
+
+    @PostConstruct
+    public void registerMBean() {
+        MBeanRegistrations.register(this, "WarmImagePool");
+    }
+
+    @PreDestroy
+    public void unregisterMBean() {
+        MBeanRegistrations.unregister("WarmImagePool");
+    }
+
+    /** Returns the most popular images, images of stacks which weren't used yet go after used ones. */
+    List<String> selectImages() throws ServerException {
+        final Map<String, Long> popularity = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : usages.entrySet()) {
+            popularity.put(entry.getKey(), entry.getValue().get());
+        }
+        for (StackImpl stack : stackDao.searchStacks(null, null, 0, 0)) {
+            for (String image : getImages(stack)) {
+                popularity.putIfAbsent(image, 0L);
+            }
+        }
+        return popularity.entrySet()
+                         .stream()
+                         .sorted(Map.Entry.comparingByValue(reverseOrder()))
+                         .limit(maxImages)
+                         .map(Map.Entry::getKey)
+                         .collect(toList());
+    }
+
+    /** Returns number of images which usages are counted. */
+    int getTrackedImages() {
+        return usages.size();
+    }
+
+    private void countUsage(String image) {
+        final String name = normalize(image);
+        AtomicLong counter = usages.get(name);
+        if (counter == null) {
+            if (usages.size() >= MAX_TRACKED_IMAGES) {
+                return;
+            }
+            counter = usages.computeIfAbsent(name, i -> new AtomicLong());
+        }
+        counter.incrementAndGet();
+    }
+
+    /** Halves usages of images, so images which were popular long ago give way to the recently used ones. */
+    private void forgetOldUsages() {
+        usages.entrySet().removeIf(entry -> entry.getValue().updateAndGet(count -> count / 2) == 0);
+    }
+
+    private Set<String> getImages(StackImpl stack) {
+        final Set<String> images = new LinkedHashSet<>();
+        if (stack.getWorkspaceConfig() == null) {
+            return images;
+        }
+        for (EnvironmentImpl environment : stack.getWorkspaceConfig().getEnvironments()) {
+            for (MachineConfig machineConfig : environment.getMachineConfigs()) {
+                final MachineSource source = machineConfig.getSource();
+                if (!"docker".equals(machineConfig.getType()) || source == null) {
+                    continue;
+                }
+                if (DOCKER_IMAGE_TYPE.equals(source.getType()) && !isNullOrEmpty(source.getLocation())) {
+                    images.add(normalize(source.getLocation()));
+                } else if (DOCKER_FILE_TYPE.equals(source.getType())) {
+                    try {
+                        images.add(normalize(DockerInstanceProvider.parseRecipe(recipeRetriever.getRecipe(machineConfig))
+                                                                   .getImages()
+                                                                   .get(0)
+                                                                   .getFrom()));
+                    } catch (MachineException e) {
+                        LOG.debug("Unable to get base image of machine {} of stack {}. {}",
+                                  machineConfig.getName(),
+                                  stack.getId(),
+                                  e.getMessage());
+                    }
+                }
+            }
+        }
+        return images;
+    }
+
+    private boolean pull(String image) {
+        try {
+            final DockerImageIdentifier identifier = DockerImageIdentifierParser.parse(image);
+            if (identifier.getDigest() != null) {
+                // image with digest never changes, but pull by digest isn't supported
+                return false;
+            }
+            docker.pull(PullParams.create(identifier.getRepository())
+                                  .withTag(firstNonNull(identifier.getTag(), LATEST_TAG))
+                                  .withRegistry(identifier.getRegistry()),
+                        ProgressMonitor.DEV_NULL);
+            return true;
+        } catch (IOException | DockerFileException e) {
+            LOG.warn("Unable to pull warm image {}. {}", image, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Returns name of the image in form {@code [registry/]repository:tag[@digest]}, so the same images have the same names. */
+    static String normalize(String image) {
+        final DockerImageIdentifier identifier;
+        try {
+            identifier = DockerImageIdentifierParser.parse(image);
+        } catch (DockerFileException e) {
+            return image;
+        }
+        final StringBuilder name = new StringBuilder();
+        if (identifier.getRegistry() != null) {
+            name.append(identifier.getRegistry()).append('/');
+        }
+        name.append(identifier.getRepository()).append(':').append(firstNonNull(identifier.getTag(), LATEST_TAG));
+        if (identifier.getDigest() != null) {
+            name.append('@').append(identifier.getDigest());
+        }
+        return name.toString();
+    }
+
+    /** Statistic of the machines which image is either pulled or built on top of the base image. */
+    private static class Statistic {
+        final AtomicLong hits     = new AtomicLong();
+        final AtomicLong misses   = new AtomicLong();
+        final AtomicLong hitTime  = new AtomicLong();
+        final AtomicLong missTime = new AtomicLong();
+
+        void add(boolean warm, long time) {
+            if (warm) {
+                hits.incrementAndGet();
+                hitTime.addAndGet(time);
+            } else {
+                misses.incrementAndGet();
+                missTime.addAndGet(time);
+            }
+        }
+
+        double getAverageTimeOnHit() {
+            final long count = hits.get();
+            return count == 0 ? 0 : (double)hitTime.get() / count;
+        }
+
+        double getAverageTimeOnMiss() {
+            final long count = misses.get();
+            return count == 0 ? 0 : (double)missTime.get() / count;
+        }
+
+        long getSavedTime() {
+            if (hits.get() == 0 || misses.get() == 0) {
+                return 0;
+            }
+            return Math.max(0, Math.round((getAverageTimeOnMiss() - getAverageTimeOnHit()) * hits.get()));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import java.util.List;
+
+/**
+ * Statistic of the {@link WarmImagePool} available through JMX.
+ *
+ * @author Alexander Garagatyi
+ */
+public interface WarmImagePoolMXBean {
+    /** Returns names of the images which are pulled in advance. */
+    List<String> getWarmImages();
+
+    /** Returns number of machines which image or base image was warm. */
+    long getHits();
+
+    /** Returns number of machines which image or base image had to be pulled. */
+    long getMisses();
+
+    /** Returns part of the machines which image or base image was warm, from 0 to 1. */
+    double getHitRate();
+
+    /** Returns average time in milliseconds of pull of image of machine when its image was warm. */
+    double getAveragePullTimeOnHit();
+
+    /** Returns average time in milliseconds of pull of image of machine when its image was not warm. */
+    double getAveragePullTimeOnMiss();
+
+    /** Returns estimated time in milliseconds saved on pull of images of machines because of warm images. */
+    long getSavedPullTime();
+
+    /** Returns average time in milliseconds of build of image of machine when its base image was warm. */
+    double getAverageBuildTimeOnHit();
+
+    /** Returns average time in milliseconds of build of image of machine when its base image was not warm. */
+    double getAverageBuildTimeOnMiss();
+
+    /** Returns estimated time in milliseconds saved on build of images of machines because of warm base images. */
+    long getSavedBuildTime();
+}
@@ -13,6 +13,7 @@ package org.eclipse.che.plugin.docker.machine.cleaner;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import org.eclipse.che.api.core.util.ExecutorRegistry;
 import org.eclipse.che.api.machine.server.MachineRegistry;
 import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
@@ -22,7 +23,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
@@ -39,17 +44,27 @@ public class DockerContainerCleaner implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(DockerContainerCleaner.class);
 
+    /** Name of the executor in {@link ExecutorRegistry}. */
+    public static final String EXECUTOR = "docker_container_cleanup";
+
+    // max number of containers which are cleaned up at the same time
+    private static final int MAX_PARALLEL_CLEANUPS = 5;
+
     private final MachineRegistry              machineRegistry;
     private final DockerConnector              dockerConnector;
     private final DockerContainerNameGenerator nameGenerator;
+    private final ExecutorService              executor;
 
     @Inject
     public DockerContainerCleaner(MachineRegistry machineRegistry,
                                   DockerConnector dockerConnector,
-                                  DockerContainerNameGenerator nameGenerator) {
+                                  DockerContainerNameGenerator nameGenerator,
+                                  ExecutorRegistry executorRegistry) {
         this.machineRegistry = machineRegistry;
         this.dockerConnector = dockerConnector;
         this.nameGenerator = nameGenerator;
+        // all the containers found by the job wait for their turn, number of them is limited by docker
+        this.executor = executorRegistry.getExecutor(EXECUTOR, MAX_PARALLEL_CLEANUPS, Integer.MAX_VALUE);
     }
 
     @ScheduleRate(periodParameterName = "machine.docker.unused_containers_cleanup_period_min",
@@ -58,14 +73,22 @@ public class DockerContainerCleaner implements Runnable {
     @Override
     public void run() {
         try {
+            final List<Callable<Void>> cleanUps = new ArrayList<>();
             for (ContainerListEntry container : dockerConnector.listContainers()) {
                 Optional<ContainerNameInfo> optional = nameGenerator.parse(container.getNames()[0]);
                 if (optional.isPresent() && !machineRegistry.isExist(optional.get().getMachineId())) {
-                    cleanUp(container);
+                    cleanUps.add(() -> {
+                        cleanUp(container);
+                        return null;
+                    });
                 }
             }
+            // containers are cleaned up in parallel, job ends when all of them are cleaned up
+            executor.invokeAll(cleanUps);
         } catch (IOException e) {
             LOG.error("Failed to get list docker containers", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             LOG.error("Failed to clean up inactive containers", e);
         }
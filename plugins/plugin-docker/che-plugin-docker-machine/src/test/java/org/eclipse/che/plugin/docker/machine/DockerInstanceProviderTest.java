@@ -17,6 +17,7 @@ import org.eclipse.che.api.core.model.machine.Machine;
 import org.eclipse.che.api.core.model.machine.MachineConfig;
 import org.eclipse.che.api.core.model.machine.MachineStatus;
 import org.eclipse.che.api.core.model.machine.ServerConf;
+import org.eclipse.che.api.core.util.ExecutorRegistry;
 import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.machine.server.exception.InvalidRecipeException;
 import org.eclipse.che.api.machine.server.exception.MachineException;
@@ -127,6 +128,7 @@ public class DockerInstanceProviderTest {
     @Mock
     private RecipeRetriever recipeRetriever;
 
+    private ExecutorRegistry       executorRegistry = new ExecutorRegistry();
     private DockerInstanceProvider dockerInstanceProvider;
 
     @BeforeMethod
@@ -134,6 +136,7 @@ public class DockerInstanceProviderTest {
         when(dockerConnectorConfiguration.getDockerHostIp()).thenReturn("123.123.123.123");
 
         dockerInstanceProvider = spy(new DockerInstanceProvider(dockerConnector,
+                                                                executorRegistry,
                                                                 dockerConnectorConfiguration,
                                                                 credentialsReader,
                                                                 dockerMachineFactory,
@@ -361,6 +364,7 @@ public class DockerInstanceProviderTest {
     @Test
     public void shouldCreateContainerWithPrivilegeMode() throws Exception {
         dockerInstanceProvider = spy(new DockerInstanceProvider(dockerConnector,
+                                                                executorRegistry,
                                                                 dockerConnectorConfiguration,
                                                                 credentialsReader,
                                                                 dockerMachineFactory,
@@ -550,6 +554,7 @@ public class DockerInstanceProviderTest {
     public void shouldBeAbleToSetCorrectSwapSize(double swapMultiplier, int memoryMB, long expectedSwapSize) throws Exception {
         // given
         dockerInstanceProvider = spy(new DockerInstanceProvider(dockerConnector,
+                                                                executorRegistry,
                                                                 dockerConnectorConfiguration,
                                                                 credentialsReader,
                                                                 dockerMachineFactory,
@@ -615,6 +620,7 @@ public class DockerInstanceProviderTest {
                                               .collect(Collectors.toList()));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -661,6 +667,7 @@ public class DockerInstanceProviderTest {
                                                  .collect(Collectors.toList()));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -713,6 +720,7 @@ public class DockerInstanceProviderTest {
                                               .collect(Collectors.toList()));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -759,6 +767,7 @@ public class DockerInstanceProviderTest {
                                                  .collect(Collectors.toList()));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -806,6 +815,7 @@ public class DockerInstanceProviderTest {
                                                    .collect(Collectors.toList()));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -856,6 +866,7 @@ public class DockerInstanceProviderTest {
                                                    .collect(Collectors.toList()));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -906,6 +917,7 @@ public class DockerInstanceProviderTest {
                                                    .collect(Collectors.toList()));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -956,6 +968,7 @@ public class DockerInstanceProviderTest {
                                                    .collect(Collectors.toList()));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1001,6 +1014,7 @@ public class DockerInstanceProviderTest {
         String[] expectedVolumes = new String[] {expectedHostPathOfProjects + ":/projects:Z"};
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1042,6 +1056,7 @@ public class DockerInstanceProviderTest {
         final String[] expectedVolumes = new String[] {expectedHostPathOfProjects + ":/projects:Z"};
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1082,6 +1097,7 @@ public class DockerInstanceProviderTest {
         String[] expectedVolumes = new String[0];
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1122,6 +1138,7 @@ public class DockerInstanceProviderTest {
         String[] expectedVolumes = new String[0];
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1169,6 +1186,7 @@ public class DockerInstanceProviderTest {
         expectedVolumes.add(expectedHostPathOfProjects + ":/projects:Z");
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1217,6 +1235,7 @@ public class DockerInstanceProviderTest {
         expectedVolumes.add(expectedHostPathOfProjects + ":/projects:Z");
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1264,6 +1283,7 @@ public class DockerInstanceProviderTest {
         expectedVolumes.addAll(commonVolumes);
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1309,6 +1329,7 @@ public class DockerInstanceProviderTest {
         Set<String> commonVolumes = new HashSet<>(asList("/some/thing/else:/home/some/thing/else", "/other/path:/home/other/path"));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1354,6 +1375,7 @@ public class DockerInstanceProviderTest {
         Set<String> commonVolumes = new HashSet<>(asList("/some/thing/else:/home/some/thing/else", "/other/path:/home/other/path"));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1399,6 +1421,7 @@ public class DockerInstanceProviderTest {
         Set<String> commonVolumes = new HashSet<>(asList("/some/thing/else:/home/some/thing/else", "/other/path:/home/other/path"));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1444,6 +1467,7 @@ public class DockerInstanceProviderTest {
         Set<String> commonVolumes = new HashSet<>(asList("/some/thing/else:/home/some/thing/else", "/other/path:/home/other/path"));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1491,6 +1515,7 @@ public class DockerInstanceProviderTest {
         expectedVolumes.addAll(commonVolumes);
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1607,6 +1632,7 @@ public class DockerInstanceProviderTest {
         expectedEnv.add(DockerInstanceRuntimeInfo.CHE_WORKSPACE_ID + "=" + WORKSPACE_ID);
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1644,6 +1670,7 @@ public class DockerInstanceProviderTest {
         Set<String> devEnv = new HashSet<>(asList("DEV_ENV_VAR1=345", "DEV_ENV_VAR2=456", "DEV_ENV_VAR3=567"));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1686,6 +1713,7 @@ public class DockerInstanceProviderTest {
         expectedEnv.add(DockerInstanceRuntimeInfo.CHE_WORKSPACE_ID + "=" + WORKSPACE_ID);
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1723,6 +1751,7 @@ public class DockerInstanceProviderTest {
         Set<String> devEnv = new HashSet<>(asList("DEV_ENV_VAR1=345", "DEV_ENV_VAR2=456", "DEV_ENV_VAR3=567"));
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1762,6 +1791,7 @@ public class DockerInstanceProviderTest {
         envVarsFromConfig.put("ENV_VAR2", "234");
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1812,6 +1842,7 @@ public class DockerInstanceProviderTest {
         envVarsFromConfig.put("ENV_VAR2", "234");
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1862,6 +1893,7 @@ public class DockerInstanceProviderTest {
         envVarsFromConfig.put("ENV_VAR2", "234");
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -1912,6 +1944,7 @@ public class DockerInstanceProviderTest {
         envVarsFromConfig.put("ENV_VAR2", "234");
 
         dockerInstanceProvider = new DockerInstanceProvider(dockerConnector,
+                                                            executorRegistry,
                                                             dockerConnectorConfiguration,
                                                             credentialsReader,
                                                             dockerMachineFactory,
@@ -2036,6 +2069,7 @@ public class DockerInstanceProviderTest {
 
     private DockerInstanceProvider getDockerInstanceProvider(boolean snapshotUseRegistry) throws Exception {
         return spy(new DockerInstanceProvider(dockerConnector,
+                                              executorRegistry,
                                               dockerConnectorConfiguration,
                                               credentialsReader,
                                               dockerMachineFactory,
@@ -21,31 +21,45 @@ import org.eclipse.che.api.machine.server.model.impl.MachineConfigImpl;
 import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
 import org.eclipse.che.api.machine.server.model.impl.MachineSourceImpl;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerStateCache;
 import org.eclipse.che.plugin.docker.client.Exec;
 import org.eclipse.che.plugin.docker.client.LogMessage;
 import org.eclipse.che.plugin.docker.client.MessageProcessor;
 import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.json.ExposedPort;
+import org.eclipse.che.plugin.docker.client.json.ImageConfig;
+import org.eclipse.che.plugin.docker.client.json.ImageHistoryEntry;
+import org.eclipse.che.plugin.docker.client.json.ImageInfo;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.ExportContainerParams;
+import org.eclipse.che.plugin.docker.client.params.ImportImageParams;
 import org.eclipse.che.plugin.docker.client.params.PushParams;
 import org.eclipse.che.plugin.docker.client.params.StartExecParams;
 import org.eclipse.che.plugin.docker.machine.node.DockerNode;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static java.lang.String.format;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 
@@ -155,7 +169,7 @@ public class DockerInstanceTest {
 
         assertTrue(result instanceof DockerMachineSource);
         DockerMachineSource dockerMachineSource = (DockerMachineSource) result;
-        assertEquals(dockerMachineSource.getTag(), TAG);
+        assertNotNull(dockerMachineSource.getTag());
         assertNotNull(dockerMachineSource.getRepository());
         assertEquals(dockerMachineSource.getRegistry(), null);
     }
@@ -177,11 +191,96 @@ public class DockerInstanceTest {
 
         assertTrue(result instanceof DockerMachineSource);
         DockerMachineSource dockerMachineSource = (DockerMachineSource) result;
-        assertEquals(dockerMachineSource.getTag(), TAG);
+        assertNotNull(dockerMachineSource.getTag());
         assertEquals(dockerMachineSource.getDigest(), digest);
         assertEquals(dockerMachineSource.getRegistry(), REGISTRY);
     }
 
+    @Test
+    public void shouldSaveSnapshotIntoRepositoryOfRecoveredSnapshot() throws Exception {
+        final String repository = USERNAME + "/machine_snapshot_abc";
+        final MachineConfig config = getMachineConfig(new MachineSourceImpl("image").setLocation(repository + ":tag1"));
+        dockerInstance = getDockerInstance(getMachine(config, OWNER, MACHINE_ID, WORKSPACE_ID, STATUS), REGISTRY, CONTAINER, IMAGE, false);
+
+        final DockerMachineSource result = (DockerMachineSource)dockerInstance.saveToSnapshot(OWNER);
+
+        assertEquals(result.getRepository(), repository);
+        assertNotEquals(result.getTag(), "tag1");
+        final ArgumentCaptor<CommitParams> commitCaptor = ArgumentCaptor.forClass(CommitParams.class);
+        verify(dockerConnectorMock).commit(commitCaptor.capture());
+        assertEquals(commitCaptor.getValue().getRepository(), repository);
+        assertEquals(commitCaptor.getValue().getTag(), result.getTag());
+    }
+
+    @Test
+    public void shouldFlattenSnapshotIntoNewRepositoryWhenLineageOfRecoveredSnapshotIsTooDeep() throws Exception {
+        final String repository = USERNAME + "/machine_snapshot_abc";
+        final MachineConfig config = getMachineConfig(new MachineSourceImpl("image").setLocation(repository + ":tag1"));
+        dockerInstance = getDockerInstance(getMachine(config, OWNER, MACHINE_ID, WORKSPACE_ID, STATUS), REGISTRY, CONTAINER, IMAGE, false);
+        when(dockerConnectorMock.getImageHistory(IMAGE))
+                .thenReturn(Collections.nCopies(DockerInstance.MAX_SNAPSHOT_LINEAGE_DEPTH, new ImageHistoryEntry()));
+        final ImageConfig imageConfig = new ImageConfig();
+        imageConfig.setCmd(new String[] {"tail", "-f", "/dev/null"});
+        final ImageInfo imageInfo = new ImageInfo();
+        imageInfo.setConfig(imageConfig);
+        when(dockerConnectorMock.inspectImage(IMAGE)).thenReturn(imageInfo);
+        when(dockerConnectorMock.exportContainer(ExportContainerParams.create(CONTAINER))).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+        final DockerMachineSource result = (DockerMachineSource)dockerInstance.saveToSnapshot(OWNER);
+
+        assertNotEquals(result.getRepository(), repository);
+        verify(dockerConnectorMock, never()).commit(any(CommitParams.class));
+        final ArgumentCaptor<ImportImageParams> importCaptor = ArgumentCaptor.forClass(ImportImageParams.class);
+        verify(dockerConnectorMock).importImage(importCaptor.capture(), any(ProgressMonitor.class));
+        assertEquals(importCaptor.getValue().getRepository(), result.getRepository());
+        assertEquals(importCaptor.getValue().getTag(), result.getTag());
+        assertEquals(importCaptor.getValue().getChanges(), Collections.singletonList("CMD [\"tail\",\"-f\",\"/dev/null\"]"));
+    }
+
+    @Test
+    public void shouldCommitSnapshotWhenLineageOfRecoveredSnapshotIsNotTooDeep() throws Exception {
+        final String repository = USERNAME + "/machine_snapshot_abc";
+        final MachineConfig config = getMachineConfig(new MachineSourceImpl("image").setLocation(repository + ":tag1"));
+        dockerInstance = getDockerInstance(getMachine(config, OWNER, MACHINE_ID, WORKSPACE_ID, STATUS), REGISTRY, CONTAINER, IMAGE, false);
+        when(dockerConnectorMock.getImageHistory(IMAGE))
+                .thenReturn(Collections.nCopies(DockerInstance.MAX_SNAPSHOT_LINEAGE_DEPTH - 1, new ImageHistoryEntry()));
+
+        final DockerMachineSource result = (DockerMachineSource)dockerInstance.saveToSnapshot(OWNER);
+
+        assertEquals(result.getRepository(), repository);
+        verify(dockerConnectorMock).commit(any(CommitParams.class));
+        verify(dockerConnectorMock, never()).importImage(any(ImportImageParams.class), any(ProgressMonitor.class));
+    }
+
+    @Test
+    public void shouldConvertImageConfigToDockerfileInstructions() throws Exception {
+        final ImageConfig imageConfig = new ImageConfig();
+        imageConfig.setEnv(new String[] {"PATH=/usr/bin:/bin", "GREETING=say \"hi\""});
+        imageConfig.setExposedPorts(Collections.singletonMap("8080/tcp", new ExposedPort()));
+        imageConfig.setWorkingDir("/projects");
+        imageConfig.setEntrypoint(new String[] {"/bin/sh", "-c"});
+
+        final List<String> instructions = DockerInstance.toDockerfileInstructions(imageConfig);
+
+        assertEquals(instructions, Arrays.asList("ENV PATH=\"/usr/bin:/bin\"",
+                                                 "ENV GREETING=\"say \\\"hi\\\"\"",
+                                                 "EXPOSE 8080/tcp",
+                                                 "WORKDIR /projects",
+                                                 "ENTRYPOINT [\"/bin/sh\",\"-c\"]"));
+    }
+
+    @Test
+    public void shouldSaveSnapshotIntoNewRepositoryWhenRecoveredSnapshotIsStoredInOtherRegistry() throws Exception {
+        final String repository = USERNAME + "/machine_snapshot_abc";
+        final MachineConfig config = getMachineConfig(new MachineSourceImpl("image").setLocation("other.registry:5000/" + repository + ":tag1"));
+        dockerInstance = getDockerInstance(getMachine(config, OWNER, MACHINE_ID, WORKSPACE_ID, STATUS), REGISTRY, CONTAINER, IMAGE, true);
+
+        final DockerMachineSource result = (DockerMachineSource)dockerInstance.saveToSnapshot(OWNER);
+
+        assertNotEquals(result.getRepository(), repository);
+        assertEquals(result.getRegistry(), REGISTRY);
+    }
+
     @Test(expectedExceptions = MachineException.class)
     public void shouldThrowMachineExceptionWhenDockerCommitFailed() throws Exception{
         when(dockerConnectorMock.commit(any(CommitParams.class))).thenThrow(new IOException("err"));
@@ -218,6 +317,7 @@ public class DockerInstanceTest {
                                   outputConsumer,
                                   dockerInstanceStopDetectorMock,
                                   mock(DockerInstanceProcessesCleaner.class),
+                                  mock(DockerStateCache.class),
                                   snapshotUseRegistry);
     }
 
@@ -244,6 +344,16 @@ public class DockerInstanceTest {
         return getMachineConfig(true, NAME, TYPE);
     }
 
+    private MachineConfig getMachineConfig(MachineSource source) {
+        return MachineConfigImpl.builder()
+                                .setDev(true)
+                                .setName(NAME)
+                                .setType(TYPE)
+                                .setSource(source)
+                                .setLimits(new LimitsImpl(64))
+                                .build();
+    }
+
     private MachineConfig getMachineConfig(boolean isDev, String name, String type) {
         return MachineConfigImpl.builder()
                                 .setDev(isDev)
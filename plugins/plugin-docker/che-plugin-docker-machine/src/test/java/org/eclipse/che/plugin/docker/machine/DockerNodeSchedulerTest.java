@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.machine.shared.dto.event.MachineStatusEvent;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
+import org.eclipse.che.plugin.docker.client.json.Node;
+import org.eclipse.che.plugin.docker.client.json.SystemInfo;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link DockerNodeScheduler}.
+ *
+ * @author Alexander Garagatyi
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerNodeSchedulerTest {
+    private static final long   GB    = 1024L * 1024 * 1024;
+    private static final String IMAGE = "codenvy/ubuntu_jdk8";
+
+    @Mock
+    private DockerConnector docker;
+    @Mock
+    private EventService    eventService;
+
+    private SystemInfo          systemInfo;
+    private DockerNodeScheduler scheduler;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        systemInfo = new SystemInfo();
+        when(docker.getSystemInfo()).thenReturn(systemInfo);
+
+        scheduler = new DockerNodeScheduler(docker, eventService);
+    }
+
+    @Test
+    public void shouldLeavePlacementToDockerWhenDockerIsNotSwarm() throws Exception {
+        assertNull(scheduler.selectNode("machine1", IMAGE, GB));
+        assertTrue(scheduler.getNodes().isEmpty());
+    }
+
+    @Test
+    public void shouldPlaceMachineOnNodeWithMoreFreeMemory() throws Exception {
+        swarm(node("node1", "3 GiB / 4 GiB"),
+              node("node2", "1 GiB / 4 GiB"),
+              node("node3", "2 GiB / 4 GiB"));
+
+        assertEquals(scheduler.selectNode("machine1", IMAGE, GB), "node2");
+        assertEquals(scheduler.getPlacedMachines(), 1);
+    }
+
+    @Test
+    public void shouldSpreadMachinesOverNodes() throws Exception {
+        swarm(node("node1", "0 B / 8 GiB"),
+              node("node2", "0 B / 4 GiB"));
+
+        assertEquals(scheduler.selectNode("machine1", IMAGE, GB), "node1");
+        assertEquals(scheduler.selectNode("machine2", "codenvy/node", GB), "node2");
+    }
+
+    @Test
+    public void shouldPreferNodeWhichHasImageOfMachine() throws Exception {
+        swarm(node("node1", "0 B / 8 GiB"),
+              node("node2", "0 B / 4 GiB"));
+        scheduler.selectNode("machine1", IMAGE, GB);
+        scheduler.selectNode("machine2", "codenvy/node", GB);
+
+        assertEquals(scheduler.selectNode("machine3", "codenvy/node", GB), "node2");
+        assertEquals(scheduler.getImageLocalPlacements(), 1);
+    }
+
+    @Test
+    public void shouldCountMemoryOfMachinesPlacedSinceRefreshOfNodes() throws Exception {
+        swarm(node("node1", "1 GiB / 4 GiB"),
+              node("node2", "0 B / 2 GiB"));
+
+        assertEquals(scheduler.selectNode("machine1", IMAGE, 2 * GB), "node1");
+        assertNull(scheduler.selectNode("machine2", IMAGE, 3 * GB));
+        assertEquals(scheduler.getUnplacedMachines(), 1);
+
+        final NodeUtilization node1 = scheduler.getNodes().get(0);
+        assertEquals(node1.getName(), "node1");
+        assertEquals(node1.getMachines(), 1);
+        assertEquals(node1.getReservedMemory(), 3 * GB);
+        assertEquals(node1.getTotalMemory(), 4 * GB);
+    }
+
+    @Test
+    public void shouldSkipUnhealthyNodes() throws Exception {
+        systemInfo.setSystemStatus(new String[][] {{"Nodes", "2"},
+                                                   {" node1", "10.0.0.1:2375"},
+                                                   {"  \u2514 Status", "Unhealthy"},
+                                                   {"  \u2514 Reserved Memory", "0 B / 8 GiB"},
+                                                   {" node2", "10.0.0.2:2375"},
+                                                   {"  \u2514 Status", "Healthy"},
+                                                   {"  \u2514 Reserved Memory", "1 GiB / 2 GiB"}});
+
+        assertEquals(scheduler.selectNode("machine1", IMAGE, GB), "node2");
+    }
+
+    @Test
+    public void shouldReleaseMachineWhenItIsDestroyed() throws Exception {
+        swarm(node("node1", "0 B / 8 GiB"));
+        scheduler.selectNode("machine1", IMAGE, GB);
+        final MachineStatusEvent event = mock(MachineStatusEvent.class);
+        when(event.getEventType()).thenReturn(MachineStatusEvent.EventType.DESTROYED);
+        when(event.getMachineId()).thenReturn("machine1");
+
+        scheduler.onEvent(event);
+
+        assertEquals(scheduler.getNodes().get(0).getMachines(), 0);
+    }
+
+    @Test
+    public void shouldRecordNodeWhereSwarmCreatedContainer() throws Exception {
+        swarm(node("node1", "0 B / 8 GiB"),
+              node("node2", "0 B / 8 GiB"));
+        scheduler.selectNode("machine1", IMAGE, GB);
+        final ContainerInfo containerInfo = new ContainerInfo();
+        final Node node = new Node();
+        node.setName("node2");
+        containerInfo.setNode(node);
+        when(docker.inspectContainer("container1")).thenReturn(containerInfo);
+
+        scheduler.machineCreated("machine1", "container1", IMAGE, GB);
+
+        final List<NodeUtilization> nodes = scheduler.getNodes();
+        assertEquals(nodes.get(0).getMachines(), 0);
+        assertEquals(nodes.get(1).getMachines(), 1);
+    }
+
+    @Test
+    public void shouldParseSizes() throws Exception {
+        assertEquals(DockerNodeScheduler.parseSize("0 B"), 0);
+        assertEquals(DockerNodeScheduler.parseSize("512 MiB"), 512L * 1024 * 1024);
+        assertEquals(DockerNodeScheduler.parseSize("1.5 KiB"), 1536);
+        assertEquals(DockerNodeScheduler.parseSize("2 GB"), 2_000_000_000L);
+    }
+
+    private void swarm(String[]... nodes) {
+        final String[][] status = new String[nodes.length * 2 + 1][];
+        status[0] = new String[] {"Nodes", String.valueOf(nodes.length)};
+        for (int i = 0; i < nodes.length; i++) {
+            status[i * 2 + 1] = new String[] {' ' + nodes[i][0], "10.0.0." + (i + 1) + ":2375"};
+            status[i * 2 + 2] = new String[] {"  \u2514 Reserved Memory", nodes[i][1]};
+        }
+        systemInfo.setSystemStatus(status);
+    }
+
+    private static String[] node(String name, String reservedMemory) {
+        return new String[] {name, reservedMemory};
+    }
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.api.core.model.machine.Command;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.Exec;
+import org.eclipse.che.plugin.docker.client.LogMessage;
+import org.eclipse.che.plugin.docker.client.MessageProcessor;
+import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.StartExecParams;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Alexander Garagatyi
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerProcessTest {
+    private static final String CONTAINER     = "container";
+    private static final String PID_FILE_PATH = "/tmp/docker-exec-1.pid";
+
+    @Mock
+    private DockerConnector docker;
+    @Mock
+    private Command         command;
+    @Mock
+    private Exec            exec;
+
+    private DockerProcess process;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(command.getCommandLine()).thenReturn("tail -f /dev/null");
+        when(docker.createExec(any(CreateExecParams.class))).thenReturn(exec);
+        when(exec.getId()).thenReturn("exec");
+
+        process = new DockerProcess(docker, command, CONTAINER, null, PID_FILE_PATH, 1);
+        process.start();
+    }
+
+    @Test
+    public void shouldNotCheckProcessAgainRightAfterItWasFoundAlive() throws Exception {
+        assertTrue(process.isAlive());
+        assertTrue(process.isAlive());
+
+        // one exec to start the process and one to check it
+        verify(docker, times(2)).createExec(any(CreateExecParams.class));
+    }
+
+    @Test
+    public void shouldNotCheckProcessWhichWasFoundAliveByProcessesListing() throws Exception {
+        process.confirmAlive();
+
+        assertTrue(process.isAlive());
+
+        verify(docker).createExec(any(CreateExecParams.class));
+    }
+
+    @Test
+    public void shouldCheckProcessAgainAfterItWasKilled() throws Exception {
+        process.confirmAlive();
+
+        process.kill();
+        reportProcessNotFoundOnCheck();
+
+        assertFalse(process.isAlive());
+        // start, kill and check
+        verify(docker, times(3)).createExec(any(CreateExecParams.class));
+    }
+
+    @Test
+    public void shouldIgnoreConfirmationOfLivenessWhichCameAfterKill() throws Exception {
+        process.kill();
+        process.confirmAlive();
+        reportProcessNotFoundOnCheck();
+
+        assertFalse(process.isAlive());
+        // start, kill and check
+        verify(docker, times(3)).createExec(any(CreateExecParams.class));
+    }
+
+    /** Makes liveness check print the message of 'kill -0' for the process which doesn't exist. */
+    @SuppressWarnings("unchecked")
+    private void reportProcessNotFoundOnCheck() throws Exception {
+        final LogMessage notFound = mock(LogMessage.class);
+        when(notFound.getType()).thenReturn(LogMessage.Type.STDERR);
+        when(notFound.getContent()).thenReturn("kill: (42) - No such process");
+        doAnswer(invocation -> {
+            ((MessageProcessor<LogMessage>)invocation.getArguments()[1]).process(notFound);
+            return null;
+        }).when(docker).startExec(any(StartExecParams.class), any());
+    }
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerfileParser;
+import org.eclipse.che.plugin.docker.client.exception.ImageNotFoundException;
+import org.eclipse.che.plugin.docker.client.json.ImageInfo;
+import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
+import org.eclipse.che.plugin.docker.client.params.TagParams;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import static org.eclipse.che.plugin.docker.machine.DockerfileBuildCache.CACHE_REPOSITORY;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link DockerfileBuildCache}.
+ *
+ * @author Alexander Garagatyi
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerfileBuildCacheTest {
+    private static final long MB = 1024 * 1024;
+
+    @Mock
+    private DockerConnector docker;
+
+    private DockerfileBuildCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        cache = new DockerfileBuildCache(docker, 2, 100);
+        mockImage("codenvy/ubuntu_jdk8", "base1", 0);
+    }
+
+    @Test
+    public void shouldCalculateTheSameKeyForDockerfilesWhichDifferInFormattingOnly() throws Exception {
+        final String key = cache.getKey(DockerfileParser.parse("FROM codenvy/ubuntu_jdk8\nRUN echo hello"));
+
+        assertEquals(cache.getKey(DockerfileParser.parse("# comment\nFROM codenvy/ubuntu_jdk8\n\n  RUN echo hello  \n")), key);
+        assertNotEquals(cache.getKey(DockerfileParser.parse("FROM codenvy/ubuntu_jdk8\nRUN echo bye")), key);
+    }
+
+    @Test
+    public void shouldCalculateDifferentKeyWhenBaseImageIsUpdated() throws Exception {
+        final String key = cache.getKey(DockerfileParser.parse("FROM codenvy/ubuntu_jdk8\nRUN echo hello"));
+
+        mockImage("codenvy/ubuntu_jdk8", "base2", 0);
+
+        assertNotEquals(cache.getKey(DockerfileParser.parse("FROM codenvy/ubuntu_jdk8\nRUN echo hello")), key);
+    }
+
+    @Test
+    public void shouldNotCalculateKeyWhenBaseImageIsNotPulledYet() throws Exception {
+        when(docker.inspectImage("codenvy/node")).thenThrow(new ImageNotFoundException("not found"));
+
+        assertNull(cache.getKey(DockerfileParser.parse("FROM codenvy/node")));
+    }
+
+    @Test
+    public void shouldReuseCachedImage() throws Exception {
+        mockImage("built", "built", 10 * MB);
+        cache.put("key", "built");
+
+        assertTrue(cache.reuse("key", "eclipse-che/machine"));
+        assertFalse(cache.reuse("other", "eclipse-che/machine"));
+
+        verify(docker).tag(TagParams.create("built", CACHE_REPOSITORY).withTag("key").withForce(true));
+        verify(docker).tag(TagParams.create(CACHE_REPOSITORY + ":key", "eclipse-che/machine").withForce(true));
+        assertEquals(cache.getHits(), 1);
+        assertEquals(cache.getMisses(), 1);
+        assertEquals(cache.getSizeMb(), 10);
+    }
+
+    @Test
+    public void shouldForgetImageWhichWasRemovedFromDocker() throws Exception {
+        mockImage("built", "built", 10 * MB);
+        cache.put("key", "built");
+        doThrow(new ImageNotFoundException("not found")).when(docker).tag(TagParams.create(CACHE_REPOSITORY + ":key", "machine")
+                                                                                   .withForce(true));
+
+        assertFalse(cache.reuse("key", "machine"));
+
+        assertEquals(cache.getImages(), 0);
+        assertEquals(cache.getSizeMb(), 0);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedImageWhenNumberOfImagesExceedsLimit() throws Exception {
+        mockImage("built1", "built1", MB);
+        mockImage("built2", "built2", MB);
+        mockImage("built3", "built3", MB);
+        cache.put("key1", "built1");
+        cache.put("key2", "built2");
+        cache.reuse("key1", "machine");
+
+        cache.put("key3", "built3");
+
+        verify(docker).removeImage(RemoveImageParams.create(CACHE_REPOSITORY + ":key2").withForce(false));
+        assertTrue(cache.reuse("key1", "machine"));
+        assertEquals(cache.getImages(), 2);
+        assertEquals(cache.getEvictions(), 1);
+    }
+
+    @Test
+    public void shouldEvictImagesWhenSizeExceedsLimit() throws Exception {
+        mockImage("built1", "built1", 60 * MB);
+        mockImage("built2", "built2", 60 * MB);
+        cache.put("key1", "built1");
+
+        cache.put("key2", "built2");
+
+        verify(docker).removeImage(RemoveImageParams.create(CACHE_REPOSITORY + ":key1").withForce(false));
+        assertEquals(cache.getImages(), 1);
+        assertEquals(cache.getSizeMb(), 60);
+    }
+
+    @Test
+    public void shouldBeDisabledWhenLimitIsZero() throws Exception {
+        cache = new DockerfileBuildCache(docker, 0, 100);
+        cache.init();
+        cache.unregisterMBean();
+
+        assertFalse(cache.isEnabled());
+        verify(docker, never()).listImages();
+    }
+
+    private void mockImage(String image, String id, long size) throws Exception {
+        final ImageInfo info = mock(ImageInfo.class);
+        when(info.getId()).thenReturn(id);
+        when(info.getSize()).thenReturn(size);
+        when(docker.inspectImage(image)).thenReturn(info);
+    }
+}
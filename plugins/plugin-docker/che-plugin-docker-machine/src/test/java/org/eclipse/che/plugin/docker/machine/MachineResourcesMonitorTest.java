@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.machine.server.spi.MachineResourcesSample;
+import org.eclipse.che.api.machine.shared.dto.event.MachineStatusEvent;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link MachineResourcesMonitor}.
+ *
+ * @author Alexander Garagatyi
+ */
+@Listeners(MockitoTestNGListener.class)
+public class MachineResourcesMonitorTest {
+    private static final String CONTAINER = "container";
+    private static final String MACHINE   = "machine";
+
+    @Mock
+    private EventService eventService;
+
+    private Map<String, List<String>> cgroupFiles;
+    private MachineResourcesMonitor   monitor;
+
+    @BeforeMethod
+    public void setUp() {
+        cgroupFiles = new HashMap<>();
+        cgroupFiles.put("memory/memory.usage_in_bytes", singletonList("1048576"));
+        cgroupFiles.put("memory/memory.limit_in_bytes", singletonList("2097152"));
+        cgroupFiles.put("cpuacct/cpuacct.usage", singletonList("1000"));
+        cgroupFiles.put("blkio/blkio.throttle.io_service_bytes", asList("8:0 Read 100",
+                                                                        "8:0 Write 20",
+                                                                        "8:0 Sync 120",
+                                                                        "8:16 Read 5",
+                                                                        "Total 125"));
+        monitor = new MachineResourcesMonitor(eventService, 2) {
+            @Override
+            List<String> readCgroupFile(String subsystem, String container, String file) throws IOException {
+                assertEquals(container, CONTAINER);
+                final List<String> lines = cgroupFiles.get(subsystem + '/' + file);
+                if (lines == null) {
+                    throw new IOException("No such file " + file);
+                }
+                return lines;
+            }
+        };
+        monitor.startMonitoring(CONTAINER, MACHINE);
+    }
+
+    @Test
+    public void shouldCollectUsageOfResourcesByMachine() throws Exception {
+        monitor.collect();
+
+        final List<MachineResourcesSample> samples = monitor.getSamples(MACHINE);
+        assertEquals(samples.size(), 1);
+        final MachineResourcesSample sample = samples.get(0);
+        assertEquals(sample.getMemoryUsage(), 1048576);
+        assertEquals(sample.getMemoryLimit(), 2097152);
+        assertEquals(sample.getBlockIoRead(), 105);
+        assertEquals(sample.getBlockIoWrite(), 20);
+        assertEquals(sample.getCpuUsage(), 0D);
+    }
+
+    @Test
+    public void shouldCalculateCpuUsageSincePreviousSample() throws Exception {
+        monitor.collect();
+        cgroupFiles.put("cpuacct/cpuacct.usage", singletonList(String.valueOf(Long.MAX_VALUE / 2)));
+        monitor.collect();
+
+        assertTrue(monitor.getSamples(MACHINE).get(1).getCpuUsage() > 0);
+    }
+
+    @Test
+    public void shouldKeepOnlyLastSamples() throws Exception {
+        monitor.collect();
+        cgroupFiles.put("memory/memory.usage_in_bytes", singletonList("1"));
+        monitor.collect();
+        cgroupFiles.put("memory/memory.usage_in_bytes", singletonList("2"));
+        monitor.collect();
+
+        final List<MachineResourcesSample> samples = monitor.getSamples(MACHINE);
+        assertEquals(samples.size(), 2);
+        assertEquals(samples.get(0).getMemoryUsage(), 1);
+        assertEquals(samples.get(1).getMemoryUsage(), 2);
+    }
+
+    @Test
+    public void shouldSkipMachineWhichCgroupIsNotAccessible() throws Exception {
+        cgroupFiles.remove("cpuacct/cpuacct.usage");
+
+        monitor.collect();
+
+        assertTrue(monitor.getSamples(MACHINE).isEmpty());
+        assertEquals(monitor.getMonitoredMachines(), singleton(MACHINE));
+    }
+
+    @Test
+    public void shouldStopMonitoringOfDestroyedMachine() throws Exception {
+        monitor.collect();
+
+        final MachineStatusEvent event = mock(MachineStatusEvent.class);
+        when(event.getMachineId()).thenReturn(MACHINE);
+        when(event.getEventType()).thenReturn(MachineStatusEvent.EventType.DESTROYED);
+
+        monitor.onEvent(event);
+
+        assertTrue(monitor.getMonitoredMachines().isEmpty());
+        assertTrue(monitor.getSamples(MACHINE).isEmpty());
+    }
+}
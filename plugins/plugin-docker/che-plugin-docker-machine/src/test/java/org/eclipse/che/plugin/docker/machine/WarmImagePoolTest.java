@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.api.machine.server.model.impl.LimitsImpl;
+import org.eclipse.che.api.machine.server.model.impl.MachineConfigImpl;
+import org.eclipse.che.api.machine.server.model.impl.MachineSourceImpl;
+import org.eclipse.che.api.machine.server.util.RecipeRetriever;
+import org.eclipse.che.api.workspace.server.model.impl.EnvironmentImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceConfigImpl;
+import org.eclipse.che.api.workspace.server.model.impl.stack.StackImpl;
+import org.eclipse.che.api.workspace.server.spi.StackDao;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.params.PullParams;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link WarmImagePool}.
+ *
+ * @author Alexander Garagatyi
+ */
+@Listeners(MockitoTestNGListener.class)
+public class WarmImagePoolTest {
+    @Mock
+    private DockerConnector docker;
+    @Mock
+    private StackDao        stackDao;
+    @Mock
+    private RecipeRetriever recipeRetriever;
+
+    private WarmImagePool pool;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        pool = new WarmImagePool(docker, stackDao, recipeRetriever, 2);
+        when(stackDao.searchStacks(any(), any(), anyInt(), anyInt())).thenReturn(asList(createStack("codenvy/ubuntu_jdk8:1.8"),
+                                                                                        createStack("codenvy/node:4")));
+    }
+
+    @Test
+    public void shouldNormalizeImageNames() throws Exception {
+        assertEquals(WarmImagePool.normalize("codenvy/ubuntu_jdk8"), "codenvy/ubuntu_jdk8:latest");
+        assertEquals(WarmImagePool.normalize("codenvy/ubuntu_jdk8:latest"), "codenvy/ubuntu_jdk8:latest");
+        assertEquals(WarmImagePool.normalize("localhost:5000/codenvy/node:4"), "localhost:5000/codenvy/node:4");
+    }
+
+    @Test
+    public void shouldPullImagesOfStacks() throws Exception {
+        pool.refresh();
+
+        verify(docker).pull(eq(PullParams.create("codenvy/ubuntu_jdk8").withTag("1.8")), any(ProgressMonitor.class));
+        verify(docker).pull(eq(PullParams.create("codenvy/node").withTag("4")), any(ProgressMonitor.class));
+        assertTrue(pool.isWarm("codenvy/ubuntu_jdk8:1.8"));
+        assertTrue(pool.isWarm("codenvy/node:4"));
+    }
+
+    @Test
+    public void shouldPullButNotReportAsWarmImagesTaggedLatest() throws Exception {
+        when(stackDao.searchStacks(any(), any(), anyInt(), anyInt())).thenReturn(asList(createStack("codenvy/ubuntu_jdk8"),
+                                                                                        createStack("codenvy/node:latest")));
+
+        pool.refresh();
+
+        verify(docker).pull(eq(PullParams.create("codenvy/ubuntu_jdk8").withTag("latest")), any(ProgressMonitor.class));
+        verify(docker).pull(eq(PullParams.create("codenvy/node").withTag("latest")), any(ProgressMonitor.class));
+        assertFalse(pool.isWarm("codenvy/ubuntu_jdk8"));
+        assertFalse(pool.isWarm("codenvy/node:latest"));
+    }
+
+    @Test
+    public void shouldPreferTheMostUsedImages() throws Exception {
+        pool.imagePulled("codenvy/php", false, 1000);
+        pool.imageBuilt("codenvy/php", false, 1000);
+        pool.imagePulled("codenvy/node:4", false, 1000);
+
+        assertEquals(pool.selectImages(), asList("codenvy/php:latest", "codenvy/node:4"));
+    }
+
+    @Test
+    public void shouldForgetImagesWhichAreNotUsedAnymore() throws Exception {
+        pool.imagePulled("codenvy/php", false, 1000);
+        pool.imagePulled("codenvy/php", false, 1000);
+
+        pool.refresh();
+        assertEquals(pool.getTrackedImages(), 1);
+        pool.refresh();
+
+        assertEquals(pool.getTrackedImages(), 0);
+        assertEquals(pool.selectImages(), asList("codenvy/ubuntu_jdk8:1.8", "codenvy/node:4"));
+    }
+
+    @Test
+    public void shouldLimitNumberOfImagesWhichUsagesAreCounted() throws Exception {
+        for (int i = 0; i < WarmImagePool.MAX_TRACKED_IMAGES + 10; i++) {
+            pool.imagePulled("codenvy/image" + i, false, 1000);
+        }
+
+        assertEquals(pool.getTrackedImages(), WarmImagePool.MAX_TRACKED_IMAGES);
+    }
+
+    @Test
+    public void shouldNotKeepImageWarmWhenItsPullFailed() throws Exception {
+        doThrow(new IOException("pull failed")).when(docker).pull(eq(PullParams.create("codenvy/node").withTag("4")),
+                                                                  any(ProgressMonitor.class));
+
+        pool.refresh();
+
+        assertTrue(pool.isWarm("codenvy/ubuntu_jdk8:1.8"));
+        assertFalse(pool.isWarm("codenvy/node:4"));
+    }
+
+    @Test
+    public void shouldNotPullImagesWhenPoolIsDisabled() throws Exception {
+        pool = new WarmImagePool(docker, stackDao, recipeRetriever, 0);
+
+        pool.refresh();
+
+        verify(docker, never()).pull(any(PullParams.class), any(ProgressMonitor.class));
+    }
+
+    @Test
+    public void shouldCalculateHitRateAndSavedTimeOfPullsAndBuildsSeparately() throws Exception {
+        pool.imagePulled("codenvy/node:4", true, 100);
+        pool.imagePulled("codenvy/node:4", false, 1100);
+        pool.imageBuilt("codenvy/node:4", true, 5000);
+        pool.imageBuilt("codenvy/node:4", false, 5500);
+        pool.imageBuilt("codenvy/node:4", false, 5500);
+
+        assertEquals(pool.getHitRate(), 0.4);
+        assertEquals(pool.getSavedPullTime(), 1000);
+        assertEquals(pool.getAverageBuildTimeOnMiss(), 5500.0);
+        assertEquals(pool.getSavedBuildTime(), 500);
+    }
+
+    private static StackImpl createStack(String image) {
+        final MachineConfigImpl machineConfig = MachineConfigImpl.builder()
+                                                                 .setDev(true)
+                                                                 .setName("dev-machine")
+                                                                 .setType("docker")
+                                                                 .setSource(new MachineSourceImpl("image").setLocation(image))
+                                                                 .setLimits(new LimitsImpl(1024))
+                                                                 .build();
+        return StackImpl.builder()
+                        .setId(image)
+                        .setName(image)
+                        .setWorkspaceConfig(WorkspaceConfigImpl.builder()
+                                                               .setName("ws")
+                                                               .setDefaultEnv("env")
+                                                               .setEnvironments(singletonList(new EnvironmentImpl("env",
+                                                                                                                  null,
+                                                                                                                  singletonList(machineConfig))))
+                                                               .build())
+                        .build();
+    }
+}
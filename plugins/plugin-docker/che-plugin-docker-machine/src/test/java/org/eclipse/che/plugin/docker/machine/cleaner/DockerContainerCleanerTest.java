@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.machine.cleaner;
 
+import org.eclipse.che.api.core.util.ExecutorRegistry;
 import org.eclipse.che.api.machine.server.MachineRegistry;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
@@ -17,10 +18,10 @@ import org.eclipse.che.plugin.docker.client.DockerConnector;
 import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.machine.DockerContainerNameGenerator;
-import org.mockito.InjectMocks;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
@@ -89,11 +90,14 @@ public class DockerContainerCleanerTest {
     @Mock
     private ContainerNameInfo containerNameInfo3;
 
-    @InjectMocks
+    private ExecutorRegistry       executorRegistry;
     private DockerContainerCleaner cleaner;
 
     @BeforeMethod
     public void setUp() throws MachineException, IOException {
+        executorRegistry = new ExecutorRegistry();
+        cleaner = new DockerContainerCleaner(machineRegistry, dockerConnector, nameGenerator, executorRegistry);
+
         when(machineRegistry.isExist(machineId1)).thenReturn(true);
         when(machineImpl1.getId()).thenReturn(machineId1);
         when(machineImpl1.getWorkspaceId()).thenReturn(workspaceId1);
@@ -123,6 +127,11 @@ public class DockerContainerCleanerTest {
         when(containerNameInfo2.getWorkspaceId()).thenReturn(workspaceId2);
     }
 
+    @AfterMethod
+    public void tearDown() {
+        executorRegistry.shutdown();
+    }
+
     @Test
     public void cleanerShouldKillAndRemoveContainerIfThisContainerIsRunningAndContainerNameInfoIsNotEmptyAndContainerIsNotExistInTheAPI()
             throws MachineException, IOException {
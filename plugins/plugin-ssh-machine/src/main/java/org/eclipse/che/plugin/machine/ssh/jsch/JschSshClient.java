@@ -18,6 +18,7 @@ import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
 import com.jcraft.jsch.SftpException;
 
+import org.eclipse.che.api.core.util.ExecutorRegistry;
 import org.eclipse.che.api.core.util.ListLineConsumer;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.commons.lang.IoUtil;
@@ -37,18 +38,41 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import static java.lang.String.format;
 
 /**
  * Client for communication with ssh machine using ssh protocol.
  *
+ * <p>All the commands and copying share one ssh connection. Connection is checked with
+ * keep-alive messages and transparently reestablished on the next usage if it was lost.
+ * SFTP channels are kept open between copying, directory trees are copied over
+ * several SFTP channels in parallel by the threads of executor shared by all the clients.
+ *
  * @author Alexander Garagatyi
  */
 // todo think about replacement JSch with Apace SSHD
 // todo tests for ssh library that ensures that it works as expected
 public class JschSshClient implements SshClient {
+    /** Name of the executor in {@link ExecutorRegistry}. */
+    public static final String COPY_EXECUTOR = "ssh_machine_copy";
+
+    private static final int MAX_SFTP_CHANNELS      = 4;
+    private static final int MAX_COPY_THREADS       = 20;
+    private static final int KEEP_ALIVE_INTERVAL_MS = 30_000;
+    private static final int KEEP_ALIVE_COUNT_MAX   = 3;
+
     private final JSch                jsch;
     private final JschUserInfoImpl    user;
     private final String              host;
@@ -56,14 +80,18 @@ public class JschSshClient implements SshClient {
     private final String              username;
     private final Map<String, String> envVars;
     private final int                 connectionTimeout;
+    private final Deque<ChannelSftp>  idleSftpChannels;
+    private final ExecutorService     copyExecutor;
 
     private Session session;
+    private boolean stopped;
 
     @Inject
     public JschSshClient(@Assisted SshMachineRecipe sshMachineRecipe,
                          @Assisted Map<String, String> envVars,
                          JSch jsch,
-                         @Named("machine.ssh.connection_timeout_ms") int connectionTimeoutMs) {
+                         @Named("machine.ssh.connection_timeout_ms") int connectionTimeoutMs,
+                         ExecutorRegistry executorRegistry) {
         this.envVars = envVars;
         this.connectionTimeout = connectionTimeoutMs;
         this.user = JschUserInfoImpl.builder()
@@ -77,6 +105,9 @@ public class JschSshClient implements SshClient {
         this.host = sshMachineRecipe.getHost();
         this.port = sshMachineRecipe.getPort();
         this.username = sshMachineRecipe.getUsername();
+        this.idleSftpChannels = new ArrayDeque<>();
+        // copying isn't queued, when all the threads are busy files are copied over fewer channels
+        this.copyExecutor = executorRegistry.getExecutor(COPY_EXECUTOR, MAX_COPY_THREADS, 0);
     }
 
     @Override
@@ -85,14 +116,11 @@ public class JschSshClient implements SshClient {
     }
 
     @Override
-    public void start() throws MachineException {
+    public synchronized void start() throws MachineException {
+        stopped = false;
         try {
-            session = jsch.getSession(username, host, port);
-            session.setUserInfo(user);
             // todo remember parent pid of shell to be able to kill all processes on client stop
-            if (!session.isConnected()) {
-                session.connect(connectionTimeout);
-            }
+            connect();
         } catch (JSchException e) {
             throw new MachineException("Ssh machine creation failed because ssh of machine is inaccessible. Error: " +
                                        e.getLocalizedMessage());
@@ -109,14 +137,18 @@ public class JschSshClient implements SshClient {
 //     todo process output
 
     @Override
-    public void stop() throws MachineException {
-        session.disconnect();
+    public synchronized void stop() throws MachineException {
+        stopped = true;
+        closeIdleSftpChannels();
+        if (session != null) {
+            session.disconnect();
+        }
     }
 
     @Override
     public JschSshProcess createProcess(String commandLine) throws MachineException {
         try {
-            ChannelExec exec = (ChannelExec)session.openChannel("exec");
+            ChannelExec exec = (ChannelExec)getSession().openChannel("exec");
             exec.setCommand(commandLine);
             envVars.entrySet()
                    .stream()
@@ -142,6 +174,62 @@ public class JschSshClient implements SshClient {
         }
     }
 
+    private void connect() throws JSchException {
+        session = jsch.getSession(username, host, port);
+        session.setUserInfo(user);
+        // lost connection is detected by keep-alive messages and reestablished on the next usage
+        session.setServerAliveInterval(KEEP_ALIVE_INTERVAL_MS);
+        session.setServerAliveCountMax(KEEP_ALIVE_COUNT_MAX);
+        session.connect(connectionTimeout);
+    }
+
+    /** Returns connected session, reconnects if connection was lost. */
+    private synchronized Session getSession() throws JSchException {
+        if (stopped || session == null) {
+            throw new JSchException("Ssh client is not started");
+        }
+        if (!session.isConnected()) {
+            // channels of the lost connection are not usable anymore
+            closeIdleSftpChannels();
+            connect();
+        }
+        return session;
+    }
+
+    /** Returns idle SFTP channel or opens new one. Channel should be returned with {@link #releaseSftpChannel(ChannelSftp)}. */
+    private ChannelSftp acquireSftpChannel() throws JSchException {
+        final Session current = getSession();
+        synchronized (this) {
+            ChannelSftp sftp;
+            while ((sftp = idleSftpChannels.pollFirst()) != null) {
+                if (sftp.isConnected()) {
+                    return sftp;
+                }
+                sftp.disconnect();
+            }
+        }
+        final ChannelSftp sftp = (ChannelSftp)current.openChannel("sftp");
+        sftp.connect(connectionTimeout);
+        return sftp;
+    }
+
+    private void releaseSftpChannel(ChannelSftp sftp) {
+        synchronized (this) {
+            if (!stopped && sftp.isConnected() && idleSftpChannels.size() < MAX_SFTP_CHANNELS) {
+                idleSftpChannels.addFirst(sftp);
+                return;
+            }
+        }
+        sftp.disconnect();
+    }
+
+    private synchronized void closeIdleSftpChannels() {
+        ChannelSftp sftp;
+        while ((sftp = idleSftpChannels.pollFirst()) != null) {
+            sftp.disconnect();
+        }
+    }
+
     private void copyRecursively(String sourceFolder, String targetFolder) throws MachineException {
         // create target dir
         try {
@@ -157,25 +245,36 @@ public class JschSshClient implements SshClient {
         // not normalized paths don't work
         final String targetAbsolutePath = getAbsolutePath(targetFolder);
 
-        // copy files
+        // create folders, files are copied afterwards in parallel
+        final Path source = Paths.get(sourceFolder);
+        final List<Path> files = new ArrayList<>();
         ChannelSftp sftp = null;
         try {
-            sftp = (ChannelSftp)session.openChannel("sftp");
-            sftp.connect(connectionTimeout);
+            sftp = acquireSftpChannel();
 
             final ChannelSftp finalSftp = sftp;
-            Files.walkFileTree(Paths.get(sourceFolder), new SimpleFileVisitor<Path>() {
+            Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
                 @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                    try {
-                        if (!attrs.isDirectory()) {
-                            copyFile(file.toString(),
-                                     Paths.get(targetAbsolutePath, file.getFileName().toString()).toString(), finalSftp);
-                        } else {
-                            finalSftp.mkdir(file.normalize().toString());
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if (!dir.equals(source)) {
+                        final String targetDir = getTargetPath(source, dir, targetAbsolutePath);
+                        try {
+                            finalSftp.mkdir(targetDir);
+                        } catch (SftpException e) {
+                            if (!isDirectory(finalSftp, targetDir)) {
+                                throw new IOException(format("Sftp creation of folder %s failed. Error: %s",
+                                                             targetDir,
+                                                             e.getLocalizedMessage()));
+                            }
                         }
-                    } catch (MachineException | SftpException e) {
-                        throw new IOException(format("Sftp copying of file %s failed. Error: %s", file, e.getLocalizedMessage()));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (!attrs.isDirectory()) {
+                        files.add(file);
                     }
                     return FileVisitResult.CONTINUE;
                 }
@@ -184,23 +283,87 @@ public class JschSshClient implements SshClient {
             throw new MachineException("Copying failed. Error: " + e.getLocalizedMessage());
         } finally {
             if (sftp != null) {
-                sftp.disconnect();
+                releaseSftpChannel(sftp);
+            }
+        }
+
+        copyFiles(source, files, targetAbsolutePath);
+    }
+
+    /** Copies files over several SFTP channels in parallel, calling thread copies files too. */
+    private void copyFiles(Path source, List<Path> files, String targetAbsolutePath) throws MachineException {
+        final int channels = Math.min(MAX_SFTP_CHANNELS, files.size());
+        if (channels == 0) {
+            return;
+        }
+        final Queue<Path> queue = new ConcurrentLinkedQueue<>(files);
+        final List<Future<Void>> copiers = new ArrayList<>(channels - 1);
+        try {
+            for (int i = 1; i < channels; i++) {
+                copiers.add(copyExecutor.submit(() -> {
+                    copyFiles(source, queue, targetAbsolutePath);
+                    return null;
+                }));
+            }
+        } catch (RejectedExecutionException ignored) {
+            // all the threads are busy, files are copied over fewer channels
+        }
+        try {
+            copyFiles(source, queue, targetAbsolutePath);
+            for (Future<Void> copier : copiers) {
+                copier.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MachineException("Copying was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MachineException) {
+                throw (MachineException)e.getCause();
+            }
+            throw new MachineException("Copying failed. Error: " + e.getCause().getLocalizedMessage());
+        } finally {
+            // stop other copiers if copying failed
+            queue.clear();
+            for (Future<Void> copier : copiers) {
+                copier.cancel(true);
             }
         }
     }
 
+    /** Copies files from the queue over one SFTP channel until queue is empty. */
+    private void copyFiles(Path source, Queue<Path> queue, String targetAbsolutePath) throws MachineException {
+        final ChannelSftp sftp;
+        try {
+            sftp = acquireSftpChannel();
+        } catch (JSchException e) {
+            queue.clear();
+            throw new MachineException("Sftp copying failed. Error: " + e.getLocalizedMessage());
+        }
+        try {
+            Path file;
+            while ((file = queue.poll()) != null) {
+                copyFile(file.toString(), getTargetPath(source, file, targetAbsolutePath), sftp);
+            }
+        } catch (MachineException e) {
+            // stop other copiers
+            queue.clear();
+            throw e;
+        } finally {
+            releaseSftpChannel(sftp);
+        }
+    }
+
     private void copyFile(String sourcePath, String targetPath) throws MachineException {
         ChannelSftp sftp = null;
         try {
-            sftp = (ChannelSftp)session.openChannel("sftp");
-            sftp.connect(connectionTimeout);
+            sftp = acquireSftpChannel();
             String absoluteTargetPath = getAbsolutePath(targetPath);
             copyFile(sourcePath, absoluteTargetPath, sftp);
         } catch (JSchException e) {
             throw new MachineException("Sftp copying failed. Error: " + e.getLocalizedMessage());
         } finally {
             if (sftp != null) {
-                sftp.disconnect();
+                releaseSftpChannel(sftp);
             }
         }
     }
@@ -229,6 +392,19 @@ public class JschSshClient implements SshClient {
         }
     }
 
+    /** Returns path on ssh machine of the file from copied local folder. */
+    private static String getTargetPath(Path sourceFolder, Path file, String targetAbsolutePath) {
+        return targetAbsolutePath + '/' + sourceFolder.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    private static boolean isDirectory(ChannelSftp sftp, String path) {
+        try {
+            return sftp.stat(path).isDir();
+        } catch (SftpException e) {
+            return false;
+        }
+    }
+
     private String getAbsolutePath(String path) throws MachineException {
         try {
             return execAndGetOutput("cd " + path + "; pwd");
@@ -238,7 +414,7 @@ public class JschSshClient implements SshClient {
     }
 
     private int execAndGetCode(String command) throws JSchException, IOException {
-        ChannelExec exec = (ChannelExec)session.openChannel("exec");
+        ChannelExec exec = (ChannelExec)getSession().openChannel("exec");
         exec.setCommand(command);
 
         try (InputStream inStream = exec.getInputStream();
@@ -257,7 +433,7 @@ public class JschSshClient implements SshClient {
     }
 
     private String execAndGetOutput(String command) throws JSchException, MachineException, IOException {
-        ChannelExec exec = (ChannelExec)session.openChannel("exec");
+        ChannelExec exec = (ChannelExec)getSession().openChannel("exec");
         exec.setCommand(command);
 
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(exec.getInputStream()));
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.machine.ssh.jsch;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.Session;
+
+import org.eclipse.che.api.core.util.ExecutorRegistry;
+import org.eclipse.che.plugin.machine.ssh.SshMachineRecipe;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link JschSshClient}.
+ *
+ * @author Alexander Garagatyi
+ */
+@Listeners(MockitoTestNGListener.class)
+public class JschSshClientTest {
+    private static final String HOST        = "host";
+    private static final int    PORT        = 22;
+    private static final String USER        = "user";
+    private static final String TARGET_PATH = "/home/user/target";
+
+    @Mock
+    private JSch        jsch;
+    @Mock
+    private Session     session;
+    @Mock
+    private ChannelSftp sftp;
+
+    private ExecutorRegistry executorRegistry;
+    private JschSshClient    client;
+    private Path             source;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(jsch.getSession(USER, HOST, PORT)).thenReturn(session);
+        when(session.isConnected()).thenReturn(true);
+        when(session.openChannel("sftp")).thenReturn(sftp);
+        when(session.openChannel("exec")).thenAnswer(invocation -> {
+            final ChannelExec exec = mock(ChannelExec.class);
+            when(exec.getInputStream()).thenReturn(new ByteArrayInputStream((TARGET_PATH + '\n').getBytes(UTF_8)));
+            when(exec.getErrStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+            return exec;
+        });
+        when(sftp.isConnected()).thenReturn(true);
+
+        source = Files.createTempDirectory("ssh-copy");
+        executorRegistry = new ExecutorRegistry();
+        client = createClient();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executorRegistry.shutdown();
+        deleteRecursive(source.toFile());
+    }
+
+    @Test
+    public void shouldReuseSftpChannelForSubsequentCopying() throws Exception {
+        final Path file = Files.write(source.resolve("file"), "content".getBytes(UTF_8));
+
+        client.copy(file.toString(), "target");
+        client.copy(file.toString(), "target");
+
+        verify(session).openChannel("sftp");
+        verify(sftp).connect(anyInt());
+        verify(sftp, times(2)).put(file.toString(), TARGET_PATH);
+    }
+
+    @Test
+    public void shouldReconnectWhenConnectionIsLost() throws Exception {
+        final Path file = Files.write(source.resolve("file"), "content".getBytes(UTF_8));
+        when(session.isConnected()).thenReturn(false, true);
+
+        client.copy(file.toString(), "target");
+
+        verify(jsch, times(2)).getSession(USER, HOST, PORT);
+        verify(session, times(2)).connect(anyInt());
+    }
+
+    @Test
+    public void shouldNotUseSftpChannelsOfLostConnection() throws Exception {
+        final Path file = Files.write(source.resolve("file"), "content".getBytes(UTF_8));
+        client.copy(file.toString(), "target");
+        when(session.isConnected()).thenReturn(false, true);
+
+        client.copy(file.toString(), "target");
+
+        verify(sftp).disconnect();
+        verify(session, times(2)).openChannel("sftp");
+    }
+
+    @Test
+    public void shouldPreserveStructureOfCopiedFolder() throws Exception {
+        Files.createDirectories(source.resolve("a/b"));
+        Files.write(source.resolve("a/b/file1"), "content".getBytes(UTF_8));
+        Files.write(source.resolve("a/file2"), "content".getBytes(UTF_8));
+        Files.write(source.resolve("file3"), "content".getBytes(UTF_8));
+
+        client.copy(source.toString(), "target");
+
+        verify(sftp).mkdir(TARGET_PATH + "/a");
+        verify(sftp).mkdir(TARGET_PATH + "/a/b");
+        verify(sftp).put(source.resolve("a/b/file1").toString(), TARGET_PATH + "/a/b/file1");
+        verify(sftp).put(source.resolve("a/file2").toString(), TARGET_PATH + "/a/file2");
+        verify(sftp).put(source.resolve("file3").toString(), TARGET_PATH + "/file3");
+        verify(sftp).chmod(anyInt(), eq(TARGET_PATH + "/file3"));
+    }
+
+    @Test
+    public void shouldCopyFolderWhenAllCopyThreadsAreBusy() throws Exception {
+        executorRegistry.shutdown();
+        executorRegistry = new ExecutorRegistry();
+        executorRegistry.setConfiguration(JschSshClient.COPY_EXECUTOR + "=1:0");
+        client = createClient();
+        final CountDownLatch release = new CountDownLatch(1);
+        executorRegistry.getExecutor(JschSshClient.COPY_EXECUTOR, 1, 0).submit(() -> {
+            release.await();
+            return null;
+        });
+        Files.write(source.resolve("file1"), "content".getBytes(UTF_8));
+        Files.write(source.resolve("file2"), "content".getBytes(UTF_8));
+
+        try {
+            client.copy(source.toString(), "target");
+        } finally {
+            release.countDown();
+        }
+
+        verify(sftp).put(source.resolve("file1").toString(), TARGET_PATH + "/file1");
+        verify(sftp).put(source.resolve("file2").toString(), TARGET_PATH + "/file2");
+    }
+
+    @Test
+    public void shouldCloseIdleSftpChannelsOnStop() throws Exception {
+        final Path file = Files.write(source.resolve("file"), "content".getBytes(UTF_8));
+        client.copy(file.toString(), "target");
+
+        client.stop();
+
+        verify(sftp).disconnect();
+        verify(session).disconnect();
+    }
+
+    private JschSshClient createClient() throws Exception {
+        final JschSshClient client = new JschSshClient(new SshMachineRecipe(HOST, PORT, USER, "password"),
+                                                       Collections.emptyMap(),
+                                                       jsch,
+                                                       1000,
+                                                       executorRegistry);
+        client.start();
+        return client;
+    }
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che;
+
+import org.eclipse.che.api.core.ApiException;
+import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
+import org.eclipse.che.api.core.rest.HttpJsonResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.ws.rs.HttpMethod;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * Notifies API about start of the WS agent, so API doesn't need to wait for the next ping of the agent.
+ * <p>
+ * Agent is ready only when its HTTP connector accepts requests, that happens after the web application is
+ * initialized, so notifier pings the agent through the loopback interface in background and notifies API
+ * after the first successful ping. If notification fails API still finds out about start of the agent
+ * with its own pings.
+ *
+ * @author Alexander Garagatyi
+ */
+@Singleton
+public class WsAgentStartNotifier {
+    private static final Logger LOG = LoggerFactory.getLogger(WsAgentStartNotifier.class);
+
+    /** Endpoint of the agent on the loopback interface, see connector configuration in server.xml of the agent. */
+    public static final String LOCAL_ENDPOINT = "http://localhost:4401/wsagent/ext/";
+
+    private static final long LOCAL_PING_DELAY_MS   = 100;
+    private static final int  LOCAL_PING_TIMEOUT_MS = 1000;
+    private static final long MAX_WAIT_TIME_MS      = 180_000;
+
+    private final String                 apiEndpoint;
+    private final String                 workspaceId;
+    private final HttpJsonRequestFactory httpJsonRequestFactory;
+
+    @Inject
+    public WsAgentStartNotifier(@Named("api.endpoint") String apiEndpoint,
+                                @Named("env.CHE_WORKSPACE_ID") String workspaceId,
+                                HttpJsonRequestFactory httpJsonRequestFactory) {
+        this.apiEndpoint = apiEndpoint.endsWith("/") ? apiEndpoint : apiEndpoint + "/";
+        this.workspaceId = workspaceId;
+        this.httpJsonRequestFactory = httpJsonRequestFactory;
+    }
+
+    @PostConstruct
+    public void start() {
+        final Thread notifier = new Thread(this::notifyWhenStarted, "WsAgentStartNotifier");
+        notifier.setDaemon(true);
+        notifier.start();
+    }
+
+    private void notifyWhenStarted() {
+        final long deadline = System.currentTimeMillis() + MAX_WAIT_TIME_MS;
+        try {
+            while (!pingLocally()) {
+                if (System.currentTimeMillis() > deadline) {
+                    LOG.warn("Agent doesn't respond on {}, API isn't notified about its start", LOCAL_ENDPOINT);
+                    return;
+                }
+                Thread.sleep(LOCAL_PING_DELAY_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            httpJsonRequestFactory.fromUrl(apiEndpoint + "ws-agent/" + workspaceId + "/started")
+                                  .usePostMethod()
+                                  .request();
+        } catch (ApiException | IOException e) {
+            LOG.warn("Unable to notify API about start of the agent. " + e.getLocalizedMessage());
+        }
+    }
+
+    private boolean pingLocally() {
+        try {
+            final HttpJsonResponse response = httpJsonRequestFactory.fromUrl(LOCAL_ENDPOINT)
+                                                                    .setMethod(HttpMethod.GET)
+                                                                    .setTimeout(LOCAL_PING_TIMEOUT_MS)
+                                                                    .request();
+            return response.getResponseCode() == HttpURLConnection.HTTP_OK;
+        } catch (ApiException | IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Usage of resources by machine at some moment.
+ *
+ * @author Alexander Garagatyi
+ */
+@DTO
+public interface MachineResourcesSampleDto {
+    /** Time in milliseconds when sample was taken. */
+    long getTimestamp();
+
+    void setTimestamp(long timestamp);
+
+    MachineResourcesSampleDto withTimestamp(long timestamp);
+
+    /** CPU usage in percents of one core since the previous sample. */
+    double getCpuUsage();
+
+    void setCpuUsage(double cpuUsage);
+
+    MachineResourcesSampleDto withCpuUsage(double cpuUsage);
+
+    /** Memory used by machine in bytes. */
+    long getMemoryUsage();
+
+    void setMemoryUsage(long memoryUsage);
+
+    MachineResourcesSampleDto withMemoryUsage(long memoryUsage);
+
+    /** Memory limit of machine in bytes. */
+    long getMemoryLimit();
+
+    void setMemoryLimit(long memoryLimit);
+
+    MachineResourcesSampleDto withMemoryLimit(long memoryLimit);
+
+    /** Number of bytes read from block devices since machine start. */
+    long getBlockIoRead();
+
+    void setBlockIoRead(long blockIoRead);
+
+    MachineResourcesSampleDto withBlockIoRead(long blockIoRead);
+
+    /** Number of bytes written to block devices since machine start. */
+    long getBlockIoWrite();
+
+    void setBlockIoWrite(long blockIoWrite);
+
+    MachineResourcesSampleDto withBlockIoWrite(long blockIoWrite);
+}
@@ -19,10 +19,12 @@ import org.eclipse.che.api.core.model.machine.MachineSource;
 import org.eclipse.che.api.core.model.machine.Server;
 import org.eclipse.che.api.core.model.machine.ServerConf;
 import org.eclipse.che.api.core.model.machine.Snapshot;
+import org.eclipse.che.api.machine.server.spi.MachineResourcesSample;
 import org.eclipse.che.api.machine.shared.dto.LimitsDto;
 import org.eclipse.che.api.machine.shared.dto.MachineConfigDto;
 import org.eclipse.che.api.machine.shared.dto.MachineDto;
 import org.eclipse.che.api.machine.shared.dto.MachineProcessDto;
+import org.eclipse.che.api.machine.shared.dto.MachineResourcesSampleDto;
 import org.eclipse.che.api.machine.shared.dto.MachineRuntimeInfoDto;
 import org.eclipse.che.api.machine.shared.dto.MachineSourceDto;
 import org.eclipse.che.api.machine.shared.dto.ServerConfDto;
@@ -149,6 +151,18 @@ public final class DtoConverter {
                                               .withLinks(null);
     }
 
+    /**
+     * Converts {@link MachineResourcesSample} to {@link MachineResourcesSampleDto}.
+     */
+    public static MachineResourcesSampleDto asDto(MachineResourcesSample sample) {
+        return newDto(MachineResourcesSampleDto.class).withTimestamp(sample.getTimestamp())
+                                                      .withCpuUsage(sample.getCpuUsage())
+                                                      .withMemoryUsage(sample.getMemoryUsage())
+                                                      .withMemoryLimit(sample.getMemoryLimit())
+                                                      .withBlockIoRead(sample.getBlockIoRead())
+                                                      .withBlockIoWrite(sample.getBlockIoWrite());
+    }
+
     private DtoConverter() {
     }
 }
@@ -27,7 +27,9 @@ import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.core.util.CompositeLineConsumer;
 import org.eclipse.che.api.core.util.FileLineConsumer;
+import org.eclipse.che.api.core.util.FileLineReaders;
 import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.api.core.util.RateLimitedLineConsumer;
 import org.eclipse.che.api.core.util.WebsocketLineConsumer;
 import org.eclipse.che.api.machine.server.dao.SnapshotDao;
 import org.eclipse.che.api.machine.server.event.InstanceStateEvent;
@@ -72,7 +74,6 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 import static org.eclipse.che.api.machine.server.event.InstanceStateEvent.Type.DIE;
@@ -92,6 +93,9 @@ public class MachineManager {
     /* machine name must contain only {a-zA-Z0-9_-} characters and it's needed for validation machine names */
     private static final Pattern MACHINE_DISPLAY_NAME_PATTERN = Pattern.compile("^/?[a-zA-Z0-9_-]+$");
 
+    private static final int    WEBSOCKET_LOG_LINES_PER_SECOND = 500;
+    private static final String WEBSOCKET_LOG_SKIPPED_MESSAGE  = "[... %d lines skipped, full output is available in machine logs ...]";
+
     private final SnapshotDao              snapshotDao;
     private final File                     machineLogsDir;
     private final MachineInstanceProviders machineInstanceProviders;
@@ -302,8 +306,8 @@ public class MachineManager {
             throw new BadRequestException("Invalid machine name " + machineConfig.getName());
         }
 
-        for (MachineImpl machine : machineRegistry.getMachines()) {
-            if (machine.getWorkspaceId().equals(workspaceId) && machine.getConfig().getName().equals(machineConfig.getName())) {
+        for (MachineImpl machine : machineRegistry.getMachines(workspaceId)) {
+            if (machine.getConfig().getName().equals(machineConfig.getName())) {
                 throw new ConflictException("Machine with name " + machineConfig.getName() + " already exists");
             }
         }
@@ -457,10 +461,7 @@ public class MachineManager {
      * @return list of machines or empty list
      */
     public List<MachineImpl> getMachines(String workspaceId) throws MachineException, BadRequestException {
-        return machineRegistry.getMachines()
-                              .stream()
-                              .filter(machine -> machine.getWorkspaceId().equals(workspaceId))
-                              .collect(Collectors.toList());
+        return new ArrayList<>(machineRegistry.getMachines(workspaceId));
     }
 
     /**
@@ -777,10 +778,30 @@ public class MachineManager {
      *         if other error occur
      */
     public Reader getMachineLogReader(String machineId) throws NotFoundException, MachineException {
+        return getMachineLogReader(machineId, 0, 0);
+    }
+
+    /**
+     * Gets reader for the part of the machine logs, file of logs is not read from the beginning
+     * if offset or tail is specified.
+     *
+     * @param machineId
+     *         machine id whose logs reader will be returned
+     * @param offset
+     *         position (in bytes) in the logs to read from
+     * @param tail
+     *         if greater than 0 then only this number of last lines is returned
+     * @return reader for logs on specified machine
+     * @throws NotFoundException
+     *         if machine with specified id not found
+     * @throws MachineException
+     *         if other error occur
+     */
+    public Reader getMachineLogReader(String machineId, long offset, int tail) throws NotFoundException, MachineException {
         final File machineLogsFile = getMachineLogsFile(machineId);
         if (machineLogsFile.isFile()) {
             try {
-                return Files.newBufferedReader(machineLogsFile.toPath(), Charset.defaultCharset());
+                return FileLineReaders.newReader(machineLogsFile, offset, tail);
             } catch (IOException e) {
                 throw new MachineException(String.format("Unable read log file for machine '%s'. %s", machineId, e.getMessage()));
             }
@@ -941,7 +962,10 @@ public class MachineManager {
 
     private LineConsumer getLogger(LineConsumer fileLogger, String outputChannel) throws MachineException {
         if (outputChannel != null) {
-            return new CompositeLineConsumer(fileLogger, new WebsocketLineConsumer(outputChannel));
+            // full output is always available in the file, so websocket clients get limited output to avoid flooding
+            return new CompositeLineConsumer(fileLogger, new RateLimitedLineConsumer(new WebsocketLineConsumer(outputChannel),
+                                                                                     WEBSOCKET_LOG_LINES_PER_SECOND,
+                                                                                     WEBSOCKET_LOG_SKIPPED_MESSAGE));
         }
         return fileLogger;
     }
@@ -19,39 +19,59 @@ import org.eclipse.che.api.machine.server.spi.Instance;
 import javax.inject.Singleton;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Holds active machines
+ * Holds active machines.
+ *
+ * <p>Reads are lock-free: machines are kept in concurrent maps indexed by machine id,
+ * by workspace id and dev-machines by workspace id, lists of machines are served from
+ * immutable snapshots which are rebuilt on each modification. Modifications are rare
+ * (machine start and stop) so they are serialized.
  *
  * @author Alexander Garagatyi
  */
 @Singleton
 public class MachineRegistry {
-    // TODO add locks per workspace or machine
-    private final HashMap<String, Instance>    instances;
-    private final HashMap<String, MachineImpl> machines;
+    private static final List<Registration> EMPTY = Collections.emptyList();
+
+    private final ConcurrentMap<String, Registration>       registrations;
+    private final ConcurrentMap<String, List<Registration>> workspaceRegistrations;
+    private final ConcurrentMap<String, Instance>           devMachines;
+    private final Object                                    writeLock;
+
+    private volatile List<Registration> snapshot;
 
     public MachineRegistry() {
-        instances = new HashMap<>();
-        machines = new HashMap<>();
+        registrations = new ConcurrentHashMap<>();
+        workspaceRegistrations = new ConcurrentHashMap<>();
+        devMachines = new ConcurrentHashMap<>();
+        writeLock = new Object();
+        snapshot = EMPTY;
     }
 
-    //TODO return unmodifiable lists
-
     /**
      * Get all active machines
      *
      * @throws MachineException
      *         if any error occurs
      */
-    public synchronized List<MachineImpl> getMachines() throws MachineException {
-        final List<MachineImpl> list = new ArrayList<>(machines.size() + instances.size());
-        list.addAll(machines.values());
-        list.addAll(instances.values().stream().map(this::toMachine).collect(Collectors.toList()));
-        return Collections.unmodifiableList(list);
+    public List<MachineImpl> getMachines() throws MachineException {
+        return toMachines(snapshot);
+    }
+
+    /**
+     * Get all active machines of the workspace
+     *
+     * @param workspaceId
+     *         id of workspace
+     * @throws MachineException
+     *         if any error occurs
+     */
+    public List<MachineImpl> getMachines(String workspaceId) throws MachineException {
+        return toMachines(workspaceRegistrations.getOrDefault(workspaceId, EMPTY));
     }
 
     /**
@@ -64,17 +84,12 @@ public class MachineRegistry {
      * @throws MachineException
      *         if other error occurs
      */
-    public synchronized MachineImpl getMachine(String machineId) throws NotFoundException, MachineException {
-        MachineImpl machine = machines.get(machineId);
-        if (machine == null) {
-            final Instance instance = instances.get(machineId);
-            if (instance == null) {
-                throw new NotFoundException("Machine " + machineId + " is not found");
-            }
-            machine = toMachine(instance);
+    public MachineImpl getMachine(String machineId) throws NotFoundException, MachineException {
+        final Registration registration = registrations.get(machineId);
+        if (registration == null) {
+            throw new NotFoundException("Machine " + machineId + " is not found");
         }
-
-        return machine;
+        return registration.toMachine();
     }
 
     /**
@@ -83,8 +98,8 @@ public class MachineRegistry {
      * @param machineId
      *         unique machine identifier
      */
-    public synchronized boolean isExist(String machineId) {
-        return machines.containsKey(machineId) || instances.containsKey(machineId);
+    public boolean isExist(String machineId) {
+        return registrations.containsKey(machineId);
     }
 
     /**
@@ -97,14 +112,12 @@ public class MachineRegistry {
      * @throws MachineException
      *         if other error occurs
      */
-    public synchronized MachineImpl getDevMachine(String workspaceId) throws NotFoundException, MachineException {
-        for (Instance instance : instances.values()) {
-            if (instance.getWorkspaceId().equals(workspaceId) && instance.getConfig().isDev()) {
-                return toMachine(instance);
-            }
+    public MachineImpl getDevMachine(String workspaceId) throws NotFoundException, MachineException {
+        final Instance instance = devMachines.get(workspaceId);
+        if (instance == null) {
+            throw new NotFoundException("Dev machine of workspace " + workspaceId + " is not running.");
         }
-
-        throw new NotFoundException("Dev machine of workspace " + workspaceId + " is not running.");
+        return toMachine(instance);
     }
 
     /**
@@ -118,13 +131,12 @@ public class MachineRegistry {
      * @throws MachineException
      *         if other error occurs
      */
-    public synchronized Instance getInstance(String machineId) throws NotFoundException, MachineException {
-        final Instance instance = instances.get(machineId);
-        if (instance == null) {
+    public Instance getInstance(String machineId) throws NotFoundException, MachineException {
+        final Registration registration = registrations.get(machineId);
+        if (registration == null || registration.instance == null) {
             throw new NotFoundException("Machine " + machineId + " is not found");
-        } else {
-            return instance;
         }
+        return registration.instance;
     }
 
     /**
@@ -137,11 +149,13 @@ public class MachineRegistry {
      * @throws MachineException
      *         if any other error occurs
      */
-    public synchronized void addMachine(MachineImpl machine) throws MachineException, ConflictException {
-        if (machines.containsKey(machine.getId())) {
-            throw new ConflictException("Machine with id " + machine.getId() + " is already exist");
+    public void addMachine(MachineImpl machine) throws MachineException, ConflictException {
+        synchronized (writeLock) {
+            if (registrations.containsKey(machine.getId())) {
+                throw new ConflictException("Machine with id " + machine.getId() + " is already exist");
+            }
+            put(new Registration(machine, null));
         }
-        machines.put(machine.getId(), machine);
     }
 
     /**
@@ -154,12 +168,12 @@ public class MachineRegistry {
      * @throws MachineException
      *         if any other error occurs
      */
-    public synchronized void update(Instance instance) throws NotFoundException, MachineException {
-        if (!instances.containsKey(instance.getId()) && !machines.containsKey(instance.getId())) {
-            throw new NotFoundException("Machine " + instance.getId() + " not found");
-        } else {
-            instances.put(instance.getId(), instance);
-            machines.remove(instance.getId());
+    public void update(Instance instance) throws NotFoundException, MachineException {
+        synchronized (writeLock) {
+            if (!registrations.containsKey(instance.getId())) {
+                throw new NotFoundException("Machine " + instance.getId() + " not found");
+            }
+            put(new Registration(null, instance));
         }
     }
 
@@ -171,15 +185,59 @@ public class MachineRegistry {
      * @throws NotFoundException
      *         if machine with specified id not found
      */
-    public synchronized void remove(String machineId) throws NotFoundException {
-        final Instance instance = instances.remove(machineId);
-        final MachineImpl machine = machines.remove(machineId);
-        if (null == instance && null == machine) {
-            throw new NotFoundException("Machine " + machineId + " is not found");
+    public void remove(String machineId) throws NotFoundException {
+        synchronized (writeLock) {
+            final Registration registration = registrations.remove(machineId);
+            if (registration == null) {
+                throw new NotFoundException("Machine " + machineId + " is not found");
+            }
+            if (registration.instance != null) {
+                devMachines.remove(registration.workspaceId, registration.instance);
+            }
+            updateSnapshots(registration.workspaceId);
         }
     }
 
-    private MachineImpl toMachine(Instance instance) {
+    /** Must be called with write lock. */
+    private void put(Registration registration) {
+        final Registration previous = registrations.put(registration.id, registration);
+        if (previous != null && previous.instance != null) {
+            devMachines.remove(previous.workspaceId, previous.instance);
+        }
+        if (registration.instance != null && registration.isDev) {
+            devMachines.put(registration.workspaceId, registration.instance);
+        }
+        updateSnapshots(registration.workspaceId);
+        if (previous != null && !previous.workspaceId.equals(registration.workspaceId)) {
+            updateSnapshots(previous.workspaceId);
+        }
+    }
+
+    /** Must be called with write lock. */
+    private void updateSnapshots(String workspaceId) {
+        final List<Registration> workspaceSnapshot = new ArrayList<>();
+        for (Registration registration : registrations.values()) {
+            if (registration.workspaceId.equals(workspaceId)) {
+                workspaceSnapshot.add(registration);
+            }
+        }
+        if (workspaceSnapshot.isEmpty()) {
+            workspaceRegistrations.remove(workspaceId);
+        } else {
+            workspaceRegistrations.put(workspaceId, Collections.unmodifiableList(workspaceSnapshot));
+        }
+        snapshot = Collections.unmodifiableList(new ArrayList<>(registrations.values()));
+    }
+
+    private static List<MachineImpl> toMachines(List<Registration> registrations) {
+        final List<MachineImpl> machines = new ArrayList<>(registrations.size());
+        for (Registration registration : registrations) {
+            machines.add(registration.toMachine());
+        }
+        return Collections.unmodifiableList(machines);
+    }
+
+    private static MachineImpl toMachine(Instance instance) {
         return new MachineImpl(instance.getConfig(),
                                instance.getId(),
                                instance.getWorkspaceId(),
@@ -188,4 +246,32 @@ public class MachineRegistry {
                                instance.getStatus(),
                                instance.getRuntime());
     }
+
+    /** Either not yet running machine or instance of running machine. */
+    private static class Registration {
+        final String      id;
+        final String      workspaceId;
+        final boolean     isDev;
+        final MachineImpl machine;
+        final Instance    instance;
+
+        Registration(MachineImpl machine, Instance instance) {
+            this.machine = machine;
+            this.instance = instance;
+            if (instance != null) {
+                id = instance.getId();
+                workspaceId = instance.getWorkspaceId();
+                isDev = instance.getConfig().isDev();
+            } else {
+                id = machine.getId();
+                workspaceId = machine.getWorkspaceId();
+                isDev = machine.getConfig().isDev();
+            }
+        }
+
+        /** Returns machine, instance status may be changed so it is converted on each call. */
+        MachineImpl toMachine() {
+            return instance != null ? MachineRegistry.toMachine(instance) : machine;
+        }
+    }
 }
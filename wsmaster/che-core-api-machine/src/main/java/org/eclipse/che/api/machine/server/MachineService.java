@@ -27,9 +27,11 @@ import org.eclipse.che.api.core.rest.Service;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.model.impl.SnapshotImpl;
 import org.eclipse.che.api.machine.server.spi.Instance;
+import org.eclipse.che.api.machine.server.spi.InstanceResourcesMonitor;
 import org.eclipse.che.api.machine.shared.dto.CommandDto;
 import org.eclipse.che.api.machine.shared.dto.MachineDto;
 import org.eclipse.che.api.machine.shared.dto.MachineProcessDto;
+import org.eclipse.che.api.machine.shared.dto.MachineResourcesSampleDto;
 import org.eclipse.che.api.machine.shared.dto.NewSnapshotDescriptor;
 import org.eclipse.che.api.machine.shared.dto.SnapshotDto;
 import org.eclipse.che.commons.env.EnvironmentContext;
@@ -49,6 +51,7 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -65,12 +68,20 @@ public class MachineService extends Service {
 
     private final MachineServiceLinksInjector linksInjector;
 
+    private InstanceResourcesMonitor resourcesMonitor;
+
     @Inject
     public MachineService(MachineManager machineManager, MachineServiceLinksInjector linksInjector) {
         this.machineManager = machineManager;
         this.linksInjector = linksInjector;
     }
 
+    /** Sets monitor of usage of resources, it is available only for implementations of machines which support it. */
+    @com.google.inject.Inject(optional = true)
+    public void setResourcesMonitor(InstanceResourcesMonitor resourcesMonitor) {
+        this.resourcesMonitor = resourcesMonitor;
+    }
+
     @GET
     @Path("/{machineId}")
     @Produces(MediaType.APPLICATION_JSON)
@@ -251,6 +262,33 @@ public class MachineService extends Service {
                              .collect(Collectors.toList());
     }
 
+    @GET
+    @Path("/{machineId}/resources")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get the last samples of usage of resources by machine",
+                  notes = "Samples are ordered from the oldest to the newest. " +
+                          "List is empty if usage of resources isn't collected for the machine",
+                  response = MachineResourcesSampleDto.class,
+                  responseContainer = "List")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains samples of usage of resources"),
+                   @ApiResponse(code = 404, message = "Machine with specified ID does not exist"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public List<MachineResourcesSampleDto> getResourcesUsage(@ApiParam(value = "Machine ID")
+                                                             @PathParam("machineId")
+                                                             String machineId)
+            throws NotFoundException,
+                   ServerException {
+        // checks that machine exists
+        machineManager.getMachine(machineId);
+        if (resourcesMonitor == null) {
+            return Collections.emptyList();
+        }
+        return resourcesMonitor.getSamples(machineId)
+                               .stream()
+                               .map(DtoConverter::asDto)
+                               .collect(Collectors.toList());
+    }
+
     @DELETE
     @Path("/{machineId}/process/{processId}")
     @ApiOperation(value = "Stop process in machine")
@@ -275,19 +313,31 @@ public class MachineService extends Service {
     @Produces(MediaType.TEXT_PLAIN)
     @ApiOperation(value = "Get logs of machine")
     @ApiResponses({@ApiResponse(code = 200, message = "The response contains logs"),
+                   @ApiResponse(code = 400, message = "Offset is negative"),
                    @ApiResponse(code = 404, message = "Machine with specified ID does not exist"),
                    @ApiResponse(code = 500, message = "Internal server error occurred")})
     public void getMachineLogs(@ApiParam(value = "Machine ID")
                                @PathParam("machineId")
                                String machineId,
+                               @ApiParam(value = "Position (in bytes) in the logs to read from")
+                               @QueryParam("offset")
+                               @DefaultValue("0")
+                               Long offset,
+                               @ApiParam(value = "Number of last lines to read, all lines are read if it is 0")
+                               @QueryParam("tail")
+                               @DefaultValue("0")
+                               Integer tail,
                                @Context
                                HttpServletResponse httpServletResponse)
             throws NotFoundException,
                    ForbiddenException,
                    ServerException,
-                   IOException {
-
-        addLogsToResponse(machineManager.getMachineLogReader(machineId), httpServletResponse);
+                   IOException,
+                   BadRequestException {
+        if (offset < 0) {
+            throw new BadRequestException("Offset must not be negative");
+        }
+        addLogsToResponse(machineManager.getMachineLogReader(machineId, offset, tail), httpServletResponse);
     }
 
     @GET
@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.server.spi;
+
+import java.util.List;
+
+/**
+ * Collects usage of resources by machines, implementation is provided by the machine implementation
+ * which is able to measure it.
+ *
+ * @author Alexander Garagatyi
+ */
+public interface InstanceResourcesMonitor {
+    /** Returns the last samples of usage of resources by machine, the oldest first, or empty list if machine is not monitored. */
+    List<MachineResourcesSample> getSamples(String machineId);
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.server.spi;
+
+/**
+ * Usage of resources by container of machine at some moment.
+ *
+ * @author Alexander Garagatyi
+ */
+public class MachineResourcesSample {
+    private final long   timestamp;
+    private final double cpuUsage;
+    private final long   memoryUsage;
+    private final long   memoryLimit;
+    private final long   blockIoRead;
+    private final long   blockIoWrite;
+
+    public MachineResourcesSample(long timestamp,
+                                  double cpuUsage,
+                                  long memoryUsage,
+                                  long memoryLimit,
+                                  long blockIoRead,
+                                  long blockIoWrite) {
+        this.timestamp = timestamp;
+        this.cpuUsage = cpuUsage;
+        this.memoryUsage = memoryUsage;
+        this.memoryLimit = memoryLimit;
+        this.blockIoRead = blockIoRead;
+        this.blockIoWrite = blockIoWrite;
+    }
+
+    /** Returns time in milliseconds when sample was taken. */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /** Returns CPU usage in percents of one core since the previous sample, it may be more than 100 on multi-core hosts. */
+    public double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    /** Returns memory used by container in bytes. */
+    public long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /** Returns memory limit of container in bytes. */
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /** Returns number of bytes read from block devices since container start. */
+    public long getBlockIoRead() {
+        return blockIoRead;
+    }
+
+    /** Returns number of bytes written to block devices since container start. */
+    public long getBlockIoWrite() {
+        return blockIoWrite;
+    }
+
+    @Override
+    public String toString() {
+        return "MachineResourcesSample{" +
+               "timestamp=" + timestamp +
+               ", cpuUsage=" + cpuUsage +
+               ", memoryUsage=" + memoryUsage +
+               ", memoryLimit=" + memoryLimit +
+               ", blockIoRead=" + blockIoRead +
+               ", blockIoWrite=" + blockIoWrite +
+               '}';
+    }
+}
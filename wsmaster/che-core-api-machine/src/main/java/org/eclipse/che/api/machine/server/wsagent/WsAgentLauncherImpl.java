@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.api.machine.server.wsagent;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -24,6 +26,7 @@ import org.eclipse.che.api.machine.shared.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
@@ -31,9 +34,22 @@ import javax.inject.Singleton;
 import javax.ws.rs.HttpMethod;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
- * Starts ws agent in the machine and waits until ws agent sends notification about its start
+ * Starts ws agent in the machine and waits until ws agent sends notification about its start.
+ *
+ * <p>Ws agent notifies master with {@link WsAgentService} when it accepts requests, the notification makes
+ * master ping ws agent right away, start is finished only by the successful ping. Ws agent is also pinged
+ * every {@code machine.ws_agent.ping_delay_ms} in case the notification is lost. Pings are scheduled
+ * with shared executor, so no thread besides the one which starts ws agent is held while it is waited for.
  *
  * @author Alexander Garagatyi
  */
@@ -45,18 +61,22 @@ public class WsAgentLauncherImpl implements WsAgentLauncher {
     protected static final Logger LOG = LoggerFactory.getLogger(WsAgentLauncherImpl.class);
 
     private static final String WS_AGENT_PROCESS_OUTPUT_CHANNEL = "workspace:%s:ext-server:output";
+    private static final int    PING_THREADS                    = 4;
 
     private final Provider<MachineManager> machineManagerProvider;
     private final HttpJsonRequestFactory   httpJsonRequestFactory;
+    private final WsAgentReadiness         readiness;
     private final String                   wsAgentStartCommandLine;
     private final long                     wsAgentMaxStartTimeMs;
     private final long                     wsAgentPingDelayMs;
     private final int                      wsAgentPingConnectionTimeoutMs;
     private final String                   pingTimedOutErrorMessage;
+    private final ScheduledExecutorService pingExecutor;
 
     @Inject
     public WsAgentLauncherImpl(Provider<MachineManager> machineManagerProvider,
                                HttpJsonRequestFactory httpJsonRequestFactory,
+                               WsAgentReadiness readiness,
                                @Named(WS_AGENT_PROCESS_START_COMMAND) String wsAgentStartCommandLine,
                                @Named("machine.ws_agent.max_start_time_ms") long wsAgentMaxStartTimeMs,
                                @Named("machine.ws_agent.ping_delay_ms") long wsAgentPingDelayMs,
@@ -64,11 +84,18 @@ public class WsAgentLauncherImpl implements WsAgentLauncher {
                                @Named("machine.ws_agent.ping_timed_out_error_msg") String pingTimedOutErrorMessage) {
         this.machineManagerProvider = machineManagerProvider;
         this.httpJsonRequestFactory = httpJsonRequestFactory;
+        this.readiness = readiness;
         this.wsAgentStartCommandLine = wsAgentStartCommandLine;
         this.wsAgentMaxStartTimeMs = wsAgentMaxStartTimeMs;
         this.wsAgentPingDelayMs = wsAgentPingDelayMs;
         this.wsAgentPingConnectionTimeoutMs = wsAgentPingConnectionTimeoutMs;
         this.pingTimedOutErrorMessage = pingTimedOutErrorMessage;
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(PING_THREADS,
+                                                                                     new ThreadFactoryBuilder().setNameFormat("WsAgentPinger-%d")
+                                                                                                               .setDaemon(true)
+                                                                                                               .build());
+        executor.setRemoveOnCancelPolicy(true);
+        this.pingExecutor = executor;
     }
 
     public static String getWsAgentProcessOutputChannel(String workspaceId) {
@@ -77,31 +104,57 @@ public class WsAgentLauncherImpl implements WsAgentLauncher {
 
     @Override
     public void startWsAgent(String workspaceId) throws NotFoundException, MachineException, InterruptedException {
+        final CompletableFuture<Void> started = startWsAgentAsync(workspaceId);
+        try {
+            started.get();
+        } catch (InterruptedException e) {
+            started.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MachineException) {
+                throw (MachineException)e.getCause();
+            }
+            throw new MachineException(e.getCause().getLocalizedMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Starts ws agent in the dev machine of the workspace without waiting for its start.
+     *
+     * @return future which is completed when ws agent is started or
+     * completed exceptionally with {@link MachineException} if ws agent doesn't start in time
+     */
+    CompletableFuture<Void> startWsAgentAsync(String workspaceId) throws NotFoundException, MachineException {
         final Machine devMachine = getMachineManager().getDevMachine(workspaceId);
         final HttpJsonRequest wsAgentPingRequest = createPingRequest(devMachine);
-        final String wsAgentPingUrl = wsAgentPingRequest.getUrl();
+        final CompletableFuture<Void> started = new CompletableFuture<>();
+        final AtomicBoolean checking = new AtomicBoolean();
+        readiness.expect(workspaceId, started, () -> checkOnNotification(wsAgentPingRequest, started, checking));
         try {
             getMachineManager().exec(devMachine.getId(),
                                      new CommandImpl(WS_AGENT_PROCESS_NAME, wsAgentStartCommandLine, "Arbitrary"),
                                      getWsAgentProcessOutputChannel(workspaceId));
-            final long pingStartTimestamp = System.currentTimeMillis();
-            LOG.debug("Starts pinging ws agent. Workspace ID:{}. Url:{}. Timestamp:{}",
-                      workspaceId,
-                      wsAgentPingUrl,
-                      pingStartTimestamp);
-
-            while (System.currentTimeMillis() - pingStartTimestamp < wsAgentMaxStartTimeMs) {
-                if (pingWsAgent(wsAgentPingRequest)) {
-                    return;
-                } else {
-                    Thread.sleep(wsAgentPingDelayMs);
-                }
-            }
         } catch (BadRequestException wsAgentLaunchingExc) {
+            readiness.forget(workspaceId, started);
             throw new MachineException(wsAgentLaunchingExc.getLocalizedMessage(), wsAgentLaunchingExc);
+        } catch (NotFoundException | MachineException | RuntimeException e) {
+            readiness.forget(workspaceId, started);
+            throw e;
         }
-        LOG.error("Fail pinging ws agent. Workspace ID:{}. Url:{}. Timestamp:{}", workspaceId, wsAgentPingUrl);
-        throw new MachineException(pingTimedOutErrorMessage);
+        started.whenComplete((ignored, error) -> readiness.forget(workspaceId, started));
+
+        final long pingStartTimestamp = System.currentTimeMillis();
+        LOG.debug("Starts pinging ws agent. Workspace ID:{}. Url:{}. Timestamp:{}",
+                  workspaceId,
+                  wsAgentPingRequest.getUrl(),
+                  pingStartTimestamp);
+        schedulePing(workspaceId, wsAgentPingRequest, started, pingStartTimestamp + wsAgentMaxStartTimeMs, 0);
+        return started;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pingExecutor.shutdownNow();
     }
 
     // forms the ping request based on information about the machine.
@@ -120,7 +173,55 @@ public class WsAgentLauncherImpl implements WsAgentLauncher {
                                      .setTimeout(wsAgentPingConnectionTimeoutMs);
     }
 
-    private boolean pingWsAgent(HttpJsonRequest wsAgentPingRequest) throws MachineException {
+    /** Pings ws agent after the delay until it responds, {@code started} is completed or deadline is reached. */
+    private void schedulePing(String workspaceId,
+                              HttpJsonRequest wsAgentPingRequest,
+                              CompletableFuture<Void> started,
+                              long deadline,
+                              long delayMs) {
+        try {
+            pingExecutor.schedule(() -> {
+                if (started.isDone()) {
+                    return;
+                }
+                if (pingWsAgent(wsAgentPingRequest)) {
+                    started.complete(null);
+                } else if (System.currentTimeMillis() >= deadline) {
+                    LOG.error("Fail pinging ws agent. Workspace ID:{}. Url:{}. Timestamp:{}",
+                              workspaceId,
+                              wsAgentPingRequest.getUrl(),
+                              System.currentTimeMillis());
+                    started.completeExceptionally(new MachineException(pingTimedOutErrorMessage));
+                } else {
+                    schedulePing(workspaceId, wsAgentPingRequest, started, deadline, wsAgentPingDelayMs);
+                }
+            }, delayMs, MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            started.completeExceptionally(new MachineException("Ws agent launcher is stopped"));
+        }
+    }
+
+    /** Pings ws agent once, at most one such ping is performed at a time regardless of the number of notifications. */
+    private void checkOnNotification(HttpJsonRequest wsAgentPingRequest, CompletableFuture<Void> started, AtomicBoolean checking) {
+        if (!checking.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            pingExecutor.execute(() -> {
+                try {
+                    if (!started.isDone() && pingWsAgent(wsAgentPingRequest)) {
+                        started.complete(null);
+                    }
+                } finally {
+                    checking.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            checking.set(false);
+        }
+    }
+
+    private boolean pingWsAgent(HttpJsonRequest wsAgentPingRequest) {
         try {
             final HttpJsonResponse pingResponse = wsAgentPingRequest.request();
             if (pingResponse.getResponseCode() == HttpURLConnection.HTTP_OK) {
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.server.wsagent;
+
+import javax.inject.Singleton;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps futures of the ws agents which are being started. Notification of the ws agent received
+ * with {@link WsAgentService} is not trusted as is, it only triggers the check of the ws agent
+ * which completes the future if the ws agent responds, so the start of the ws agent can't be
+ * finished by anyone who knows the workspace id.
+ *
+ * @author Alexander Garagatyi
+ */
+@Singleton
+public class WsAgentReadiness {
+    private final ConcurrentMap<String, Expectation> expected = new ConcurrentHashMap<>();
+
+    /**
+     * Expects notification from the ws agent of the workspace, the previous expectation
+     * of the ws agent of the same workspace is cancelled.
+     *
+     * @param workspaceId
+     *         id of the workspace
+     * @param started
+     *         future which is completed when ws agent is started
+     * @param check
+     *         asynchronous check of the ws agent which is performed on the notification
+     */
+    public void expect(String workspaceId, CompletableFuture<Void> started, Runnable check) {
+        final Expectation previous = expected.put(workspaceId, new Expectation(started, check));
+        if (previous != null) {
+            previous.started.cancel(false);
+        }
+    }
+
+    /** Stops waiting for the notification from the ws agent of the workspace. */
+    public void forget(String workspaceId, CompletableFuture<Void> started) {
+        final Expectation expectation = expected.get(workspaceId);
+        if (expectation != null && expectation.started == started) {
+            expected.remove(workspaceId, expectation);
+        }
+    }
+
+    /**
+     * Checks ws agent of the workspace which notifies about its start.
+     *
+     * @return {@code true} if ws agent of the workspace is expected, {@code false} otherwise
+     */
+    public boolean started(String workspaceId) {
+        final Expectation expectation = expected.get(workspaceId);
+        if (expectation == null || expectation.started.isDone()) {
+            return false;
+        }
+        expectation.check.run();
+        return true;
+    }
+
+    private static class Expectation {
+        final CompletableFuture<Void> started;
+        final Runnable                check;
+
+        Expectation(CompletableFuture<Void> started, Runnable check) {
+            this.started = started;
+            this.check = check;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.server.wsagent;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.rest.Service;
+
+import javax.inject.Inject;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+
+/**
+ * Receives notifications from ws agents, so master doesn't need to wait for the next ping of the ws agent.
+ * Notification only makes master ping the ws agent, see {@link WsAgentReadiness}.
+ *
+ * @author Alexander Garagatyi
+ */
+@Api(value = "/ws-agent", description = "Workspace agent notifications REST API")
+@Path("/ws-agent")
+public class WsAgentService extends Service {
+    private final WsAgentReadiness readiness;
+
+    @Inject
+    public WsAgentService(WsAgentReadiness readiness) {
+        this.readiness = readiness;
+    }
+
+    @POST
+    @Path("/{ws-id}/started")
+    @ApiOperation(value = "Notify that ws agent of the workspace is started and accepts requests, " +
+                                   "ws agent is pinged before its start is finished")
+    @ApiResponses({@ApiResponse(code = 204, message = "Notification accepted"),
+                   @ApiResponse(code = 404, message = "Ws agent of the workspace is not being started")})
+    public void started(@ApiParam(value = "Workspace ID")
+                        @PathParam("ws-id")
+                        String workspaceId) throws NotFoundException {
+        if (!readiness.started(workspaceId)) {
+            throw new NotFoundException("Ws agent of workspace " + workspaceId + " is not being started");
+        }
+    }
+}
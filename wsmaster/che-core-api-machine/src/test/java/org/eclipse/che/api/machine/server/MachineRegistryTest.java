@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.server;
+
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.model.machine.MachineStatus;
+import org.eclipse.che.api.machine.server.model.impl.LimitsImpl;
+import org.eclipse.che.api.machine.server.model.impl.MachineConfigImpl;
+import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
+import org.eclipse.che.api.machine.server.model.impl.MachineSourceImpl;
+import org.eclipse.che.api.machine.server.spi.Instance;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Alexander Garagatyi
+ */
+public class MachineRegistryTest {
+    private static final String WORKSPACE_ID = "workspace123";
+
+    private MachineRegistry registry;
+
+    @BeforeMethod
+    public void setUp() {
+        registry = new MachineRegistry();
+    }
+
+    @Test
+    public void shouldReturnDevMachineOfWorkspaceAfterItIsRunning() throws Exception {
+        final MachineImpl machine = createMachine("machine1", WORKSPACE_ID, true);
+        registry.addMachine(machine);
+        registry.update(createInstance(machine));
+
+        assertEquals(registry.getDevMachine(WORKSPACE_ID).getId(), "machine1");
+        assertEquals(registry.getDevMachine(WORKSPACE_ID).getStatus(), MachineStatus.RUNNING);
+        assertEquals(registry.getInstance("machine1").getId(), "machine1");
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void shouldNotReturnDevMachineWhichIsNotRunning() throws Exception {
+        registry.addMachine(createMachine("machine1", WORKSPACE_ID, true));
+
+        registry.getDevMachine(WORKSPACE_ID);
+    }
+
+    @Test
+    public void shouldReturnMachinesOfWorkspace() throws Exception {
+        registry.addMachine(createMachine("machine1", WORKSPACE_ID, true));
+        registry.addMachine(createMachine("machine2", WORKSPACE_ID, false));
+        registry.addMachine(createMachine("machine3", "workspace456", true));
+
+        assertEquals(registry.getMachines().size(), 3);
+        assertEquals(registry.getMachines(WORKSPACE_ID).size(), 2);
+        assertEquals(registry.getMachines("workspace456").get(0).getId(), "machine3");
+        assertTrue(registry.getMachines("unknown").isEmpty());
+    }
+
+    @Test
+    public void shouldRemoveMachineFromAllIndexes() throws Exception {
+        final MachineImpl machine = createMachine("machine1", WORKSPACE_ID, true);
+        registry.addMachine(machine);
+        registry.update(createInstance(machine));
+
+        registry.remove("machine1");
+
+        assertFalse(registry.isExist("machine1"));
+        assertTrue(registry.getMachines().isEmpty());
+        assertTrue(registry.getMachines(WORKSPACE_ID).isEmpty());
+        try {
+            registry.getDevMachine(WORKSPACE_ID);
+            throw new AssertionError("dev machine should be removed");
+        } catch (NotFoundException ignored) {
+        }
+    }
+
+    @Test
+    public void snapshotShouldNotBeAffectedByModifications() throws Exception {
+        registry.addMachine(createMachine("machine1", WORKSPACE_ID, true));
+        final int size = registry.getMachines().size();
+
+        registry.addMachine(createMachine("machine2", WORKSPACE_ID, false));
+
+        assertEquals(size, 1);
+        assertEquals(registry.getMachines().size(), 2);
+    }
+
+    @Test(expectedExceptions = ConflictException.class)
+    public void shouldNotAddMachineWithTheSameId() throws Exception {
+        registry.addMachine(createMachine("machine1", WORKSPACE_ID, true));
+        registry.addMachine(createMachine("machine1", WORKSPACE_ID, true));
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void shouldNotUpdateUnknownMachine() throws Exception {
+        registry.update(createInstance(createMachine("machine1", WORKSPACE_ID, true)));
+    }
+
+    private static MachineImpl createMachine(String id, String workspaceId, boolean isDev) {
+        return MachineImpl.builder()
+                          .setId(id)
+                          .setWorkspaceId(workspaceId)
+                          .setEnvName("env")
+                          .setOwner("owner")
+                          .setStatus(MachineStatus.CREATING)
+                          .setConfig(MachineConfigImpl.builder()
+                                                      .setDev(isDev)
+                                                      .setName(id)
+                                                      .setType("docker")
+                                                      .setLimits(new LimitsImpl(1024))
+                                                      .setSource(new MachineSourceImpl("git").setLocation("location"))
+                                                      .build())
+                          .build();
+    }
+
+    private static Instance createInstance(MachineImpl machine) {
+        final Instance instance = mock(Instance.class);
+        when(instance.getId()).thenReturn(machine.getId());
+        when(instance.getWorkspaceId()).thenReturn(machine.getWorkspaceId());
+        when(instance.getEnvName()).thenReturn(machine.getEnvName());
+        when(instance.getOwner()).thenReturn(machine.getOwner());
+        when(instance.getConfig()).thenReturn(machine.getConfig());
+        when(instance.getStatus()).thenReturn(MachineStatus.RUNNING);
+        return instance;
+    }
+}
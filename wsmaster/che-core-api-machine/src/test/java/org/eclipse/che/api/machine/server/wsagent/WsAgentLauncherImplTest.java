@@ -37,15 +37,23 @@ import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 @Listeners(MockitoTestNGListener.class)
 public class WsAgentLauncherImplTest {
@@ -77,12 +85,15 @@ public class WsAgentLauncherImplTest {
     private MachineRuntimeInfoImpl machineRuntime;
 
     private HttpJsonRequest     pingRequest;
+    private WsAgentReadiness    readiness;
     private WsAgentLauncherImpl wsAgentLauncher;
 
     @BeforeMethod
     public void setUp() throws Exception {
+        readiness = new WsAgentReadiness();
         wsAgentLauncher = new WsAgentLauncherImpl(() -> machineManager,
                                                   requestFactory,
+                                                  readiness,
                                                   WS_AGENT_START_CMD_LINE,
                                                   WS_AGENT_MAX_START_TIME_MS,
                                                   WS_AGENT_PING_DELAY_MS,
@@ -219,4 +230,59 @@ public class WsAgentLauncherImplTest {
 
         wsAgentLauncher.startWsAgent(WS_ID);
     }
+
+    @Test
+    public void shouldPingWsAgentRightAwayWhenWsAgentNotifiesAboutItsStart() throws Exception {
+        wsAgentLauncher = new WsAgentLauncherImpl(() -> machineManager,
+                                                  requestFactory,
+                                                  readiness,
+                                                  WS_AGENT_START_CMD_LINE,
+                                                  60_000,
+                                                  60_000,
+                                                  WS_AGENT_PING_CONN_TIMEOUT_MS,
+                                                  WS_AGENT_TIMED_OUT_MESSAGE);
+        when(pingResponse.getResponseCode()).thenReturn(HttpURLConnection.HTTP_UNAVAILABLE, HttpURLConnection.HTTP_OK);
+        final CompletableFuture<Void> started = wsAgentLauncher.startWsAgentAsync(WS_ID);
+        verify(pingRequest, timeout(1000)).request();
+
+        assertTrue(readiness.started(WS_ID));
+
+        started.get(1, TimeUnit.SECONDS);
+        verify(pingRequest, times(2)).request();
+    }
+
+    @Test
+    public void shouldNotFinishStartOfWsAgentOnNotificationIfWsAgentDoesNotRespond() throws Exception {
+        when(pingRequest.request()).thenThrow(new ServerException(""));
+        final CompletableFuture<Void> started = wsAgentLauncher.startWsAgentAsync(WS_ID);
+
+        assertTrue(readiness.started(WS_ID));
+
+        try {
+            started.get();
+            fail("Start of ws agent must fail");
+        } catch (ExecutionException e) {
+            assertEquals(e.getCause().getMessage(), WS_AGENT_TIMED_OUT_MESSAGE);
+        }
+    }
+
+    @Test
+    public void shouldNotExpectNotificationFromWsAgentAfterItsStart() throws Exception {
+        wsAgentLauncher.startWsAgent(WS_ID);
+
+        assertFalse(readiness.started(WS_ID));
+    }
+
+    @Test
+    public void shouldNotExpectNotificationFromWsAgentIfExecFails() throws Exception {
+        when(machineManager.exec(anyString(), any(Command.class), anyString())).thenThrow(new MachineException("Test exception"));
+
+        try {
+            wsAgentLauncher.startWsAgentAsync(WS_ID);
+            fail("MachineException expected");
+        } catch (MachineException ignored) {
+        }
+
+        assertFalse(readiness.started(WS_ID));
+    }
 }
@@ -22,7 +22,7 @@ import org.eclipse.che.dto.shared.DTO;
 @DTO
 public interface WorkspaceStatusEvent {
     enum EventType {
-        STARTING, RUNNING, STOPPING, STOPPED, ERROR, SNAPSHOT_CREATING, SNAPSHOT_CREATED, SNAPSHOT_CREATION_ERROR
+        QUEUED, STARTING, RUNNING, STOPPING, STOPPED, ERROR, SNAPSHOT_CREATING, SNAPSHOT_CREATED, SNAPSHOT_CREATION_ERROR
     }
 
     EventType getEventType();
@@ -42,4 +42,14 @@ public interface WorkspaceStatusEvent {
     void setError(String error);
 
     WorkspaceStatusEvent withError(String error);
+
+    /**
+     * Returns position of the workspace in the queue of workspaces which wait for start,
+     * the first position is 1. Set only for {@link EventType#QUEUED} events.
+     */
+    Integer getQueuePosition();
+
+    void setQueuePosition(Integer queuePosition);
+
+    WorkspaceStatusEvent withQueuePosition(Integer queuePosition);
 }
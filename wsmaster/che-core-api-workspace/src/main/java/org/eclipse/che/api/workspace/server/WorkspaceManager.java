@@ -11,7 +11,6 @@
 package org.eclipse.che.api.workspace.server;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 
 import org.eclipse.che.api.core.ApiException;
@@ -23,6 +22,7 @@ import org.eclipse.che.api.core.model.workspace.Workspace;
 import org.eclipse.che.api.core.model.workspace.WorkspaceConfig;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.util.ExecutorRegistry;
 import org.eclipse.che.api.machine.server.MachineManager;
 import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
 import org.eclipse.che.api.machine.server.model.impl.SnapshotImpl;
@@ -48,7 +48,7 @@ import javax.inject.Singleton;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static java.lang.Boolean.parseBoolean;
@@ -83,13 +83,21 @@ public class WorkspaceManager {
     /** This attribute describes time when workspace was last update or started/stopped/recovered. */
     public static final String UPDATED_ATTRIBUTE_NAME = "updated";
 
-    private final WorkspaceDao      workspaceDao;
-    private final WorkspaceRuntimes runtimes;
-    private final EventService      eventService;
-    private final ExecutorService   executor;
-    private final MachineManager    machineManager;
-    private final boolean           defaultAutoSnapshot;
-    private final boolean           defaultAutoRestore;
+    // default sizes of executors, may be changed with ExecutorRegistry configuration
+    private static final int STOP_THREADS            = 30;
+    private static final int STOP_QUEUE_CAPACITY     = 500;
+    private static final int SNAPSHOT_THREADS        = 10;
+    private static final int SNAPSHOT_QUEUE_CAPACITY = 200;
+
+    private final WorkspaceDao            workspaceDao;
+    private final WorkspaceRuntimes       runtimes;
+    private final EventService            eventService;
+    private final WorkspaceStartScheduler startScheduler;
+    private final ExecutorService         stopExecutor;
+    private final ExecutorService         snapshotExecutor;
+    private final MachineManager          machineManager;
+    private final boolean                 defaultAutoSnapshot;
+    private final boolean                 defaultAutoRestore;
 
     private WorkspaceHooks hooks = new NoopWorkspaceHooks();
 
@@ -98,6 +106,8 @@ public class WorkspaceManager {
                             WorkspaceRuntimes workspaceRegistry,
                             EventService eventService,
                             MachineManager machineManager,
+                            ExecutorRegistry executors,
+                            WorkspaceStartScheduler startScheduler,
                             @Named("workspace.runtime.auto_snapshot") boolean defaultAutoSnapshot,
                             @Named("workspace.runtime.auto_restore") boolean defaultAutoRestore) {
         this.workspaceDao = workspaceDao;
@@ -106,10 +116,10 @@ public class WorkspaceManager {
         this.machineManager = machineManager;
         this.defaultAutoSnapshot = defaultAutoSnapshot;
         this.defaultAutoRestore = defaultAutoRestore;
+        this.startScheduler = startScheduler;
 
-        executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("WorkspaceManager-%d")
-                                                                           .setDaemon(true)
-                                                                           .build());
+        this.stopExecutor = executors.getExecutor(ExecutorRegistry.WORKSPACE_STOP, STOP_THREADS, STOP_QUEUE_CAPACITY);
+        this.snapshotExecutor = executors.getExecutor(ExecutorRegistry.WORKSPACE_SNAPSHOT, SNAPSHOT_THREADS, SNAPSHOT_QUEUE_CAPACITY);
     }
 
     @Inject(optional = true)
@@ -444,6 +454,7 @@ public class WorkspaceManager {
 
     /**
      * Asynchronously stops the workspace.
+     * If the workspace waits for start in queue its start is cancelled.
      *
      * @param workspaceId
      *         the id of the workspace to stop
@@ -456,7 +467,21 @@ public class WorkspaceManager {
      */
     public void stopWorkspace(String workspaceId) throws ServerException, NotFoundException, ConflictException {
         requireNonNull(workspaceId, "Required non-null workspace id");
-        performAsyncStop(normalizeState(workspaceDao.get(workspaceId)));
+        final WorkspaceImpl workspace = workspaceDao.get(workspaceId);
+        if (startScheduler.cancel(workspaceId)) {
+            LOG.info("Start of workspace '{}:{}' with id '{}' is cancelled by user '{}'",
+                     workspace.getNamespace(),
+                     workspace.getConfig().getName(),
+                     workspaceId,
+                     sessionUserNameOr("undefined"));
+            if (workspace.isTemporary()) {
+                removeWorkspace(workspaceId);
+            }
+            eventService.publish(newDto(WorkspaceStatusEvent.class).withEventType(EventType.STOPPED)
+                                                                   .withWorkspaceId(workspaceId));
+            return;
+        }
+        performAsyncStop(normalizeState(workspace));
     }
 
     /**
@@ -488,9 +513,7 @@ public class WorkspaceManager {
         requireNonNull(workspaceId, "Required non-null workspace id");
         final WorkspaceImpl workspace = normalizeState(workspaceDao.get(workspaceId));
         checkWorkspaceIsRunning(workspace, "create a snapshot of");
-        executor.execute(ThreadLocalPropagateContext.wrap(() -> {
-            createSnapshotSync(workspace.getRuntime(), workspace.getNamespace(), workspaceId);
-        }));
+        execute(snapshotExecutor, () -> createSnapshotSync(workspace.getRuntime(), workspace.getNamespace(), workspaceId));
     }
 
     /**
@@ -544,7 +567,7 @@ public class WorkspaceManager {
         workspace.getAttributes().put(UPDATED_ATTRIBUTE_NAME, Long.toString(currentTimeMillis()));
         workspaceDao.update(workspace);
 
-        executor.execute(ThreadLocalPropagateContext.wrap(() -> {
+        startScheduler.schedule(workspace.getId(), workspace.getNamespace(), () -> {
             try {
                 final String env = firstNonNull(envName, workspace.getConfig().getDefaultEnv());
                 hooks.beforeStart(workspace, env, accountId);
@@ -566,7 +589,7 @@ public class WorkspaceManager {
                 }
                 LOG.error(ex.getLocalizedMessage(), ex);
             }
-        }));
+        });
         return normalizeState(workspace);
     }
 
@@ -575,11 +598,11 @@ public class WorkspaceManager {
      * attribute set to true) and then stops the workspace(even if snapshot creation failed).
      */
     @VisibleForTesting
-    void performAsyncStop(WorkspaceImpl workspace) throws ConflictException {
+    void performAsyncStop(WorkspaceImpl workspace) throws ConflictException, ServerException {
         checkWorkspaceIsRunning(workspace, "stop");
         final String autoSnapshotAttr = workspace.getAttributes().get(AUTO_CREATE_SNAPSHOT);
         final boolean createSnapshot = autoSnapshotAttr == null ? defaultAutoSnapshot : parseBoolean(autoSnapshotAttr);
-        executor.execute(ThreadLocalPropagateContext.wrap(() -> {
+        execute(stopExecutor, () -> {
             final String stoppedBy = sessionUserNameOr(workspace.getAttributes().get(WORKSPACE_STOPPED_BY));
             LOG.info("Workspace '{}:{}' with id '{}' is being stopped by user '{}'",
                      workspace.getNamespace(),
@@ -608,7 +631,16 @@ public class WorkspaceManager {
             } catch (RuntimeException | ConflictException | NotFoundException | ServerException ex) {
                 LOG.error(ex.getLocalizedMessage(), ex);
             }
-        }));
+        });
+    }
+
+    /** Executes task with the executor, fails when executor is overloaded. */
+    private static void execute(ExecutorService executor, Runnable task) throws ServerException {
+        try {
+            executor.execute(ThreadLocalPropagateContext.wrap(task));
+        } catch (RejectedExecutionException e) {
+            throw new ServerException("Server is overloaded, please try again later. " + e.getLocalizedMessage(), e);
+        }
     }
 
     /**
@@ -24,6 +24,7 @@ import org.eclipse.che.api.core.model.workspace.WorkspaceRuntime;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.core.util.ExecutorRegistry;
 import org.eclipse.che.api.machine.server.MachineManager;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.model.impl.MachineConfigImpl;
@@ -34,6 +35,7 @@ import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceRuntimeImpl;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,12 +44,19 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.function.Predicate;
 
@@ -80,6 +89,11 @@ public class WorkspaceRuntimes {
     private static final Logger                 LOG     = LoggerFactory.getLogger(WorkspaceRuntimes.class);
     // 16 - experimental value for stripes count, it comes from default hash map size
     private static final Striped<ReadWriteLock> STRIPED = Striped.readWriteLock(16);
+    // default sizes of executors of machine starts and stops, may be changed with ExecutorRegistry configuration
+    private static final int                    MACHINE_START_THREADS        = 10;
+    private static final int                    MACHINE_START_QUEUE_CAPACITY = 1000;
+    private static final int                    MACHINE_STOP_THREADS         = 10;
+    private static final int                    MACHINE_STOP_QUEUE_CAPACITY  = 1000;
 
     @VisibleForTesting
     final Map<String, RuntimeDescriptor>        descriptors;
@@ -90,17 +104,21 @@ public class WorkspaceRuntimes {
     private final EventService                        eventService;
     private final EventSubscriber<MachineStatusEvent> addMachineEventSubscriber;
     private final EventSubscriber<MachineStatusEvent> removeMachineEventSubscriber;
+    private final ExecutorService                     startExecutor;
+    private final ExecutorService                     stopExecutor;
 
     private volatile boolean isPreDestroyInvoked;
 
     @Inject
-    public WorkspaceRuntimes(MachineManager machineManager, EventService eventService) {
+    public WorkspaceRuntimes(MachineManager machineManager, EventService eventService, ExecutorRegistry executors) {
         this.machineManager = machineManager;
         this.eventService = eventService;
         this.descriptors = new HashMap<>();
         this.startQueues = new HashMap<>();
         this.addMachineEventSubscriber = new AddMachineEventSubscriber();
         this.removeMachineEventSubscriber = new RemoveMachineEventSubscriber();
+        this.startExecutor = executors.getExecutor(ExecutorRegistry.MACHINE_START, MACHINE_START_THREADS, MACHINE_START_QUEUE_CAPACITY);
+        this.stopExecutor = executors.getExecutor(ExecutorRegistry.MACHINE_STOP, MACHINE_STOP_THREADS, MACHINE_STOP_QUEUE_CAPACITY);
     }
 
     /**
@@ -136,14 +154,17 @@ public class WorkspaceRuntimes {
      * Starts all machines from specified workspace environment,
      * creates workspace runtime instance based on that environment.
      *
-     * <p>Dev-machine always starts before the other machines.
-     * If dev-machine start failed then method will throw appropriate
-     * {@link ServerException}. During the start of the workspace its
-     * runtime is visible with {@link WorkspaceStatus#STARTING} status.
+     * <p>Dev-machine and non-dev machines are started at the same time,
+     * non-dev machines are started on the bounded thread pool. Non-dev machines are added to the runtime
+     * only after dev-machine is started, if dev-machine start failed then all the started
+     * machines are destroyed and method will throw appropriate {@link ServerException}.
+     * During the start of the workspace its runtime is visible with
+     * {@link WorkspaceStatus#STARTING} status. Method returns when all the machines tried to start.
      *
      * <p>If {@link #stop} method executed after dev machine is started but
      * another machines haven't been started yet then {@link ConflictException}
-     * will be thrown and start process will be interrupted.
+     * will be thrown and start process will be interrupted, the machines which are not
+     * started yet won't be started and the machines which are starting will be destroyed.
      *
      * <p>Note that it doesn't provide any events for
      * machines start, Machine API is responsible for it.
@@ -184,6 +205,9 @@ public class WorkspaceRuntimes {
         // in this way machine configs also copied from incoming values
         // which means that original values won't affect the values in starting queue
         final EnvironmentImpl environmentCopy = new EnvironmentImpl(environmentOpt.get());
+        final List<MachineConfigImpl> configs = environmentCopy.getMachineConfigs();
+        final MachineConfigImpl devCfg = removeFirstMatching(configs, MachineConfig::isDev);
+        configs.add(0, devCfg);
 
         // This check allows to exit with an appropriate exception before blocking on lock.
         // The double check is required as it is still possible to get unlucky timing
@@ -205,10 +229,7 @@ public class WorkspaceRuntimes {
             descriptors.put(workspace.getId(), descriptor);
 
             // Create a new start queue with a dev machine in the queue head
-            final List<MachineConfigImpl> startConfigs = environmentCopy.getMachineConfigs();
-            final MachineConfigImpl devCfg = removeFirstMatching(startConfigs, MachineConfig::isDev);
-            startConfigs.add(0, devCfg);
-            startQueues.put(workspace.getId(), new ArrayDeque<>(startConfigs));
+            startQueues.put(workspace.getId(), new ArrayDeque<>(configs));
         } finally {
             releaseWriteLock(workspace.getId());
         }
@@ -402,21 +423,9 @@ public class WorkspaceRuntimes {
         final List<MachineImpl> machines = workspace.getMachines();
         final MachineImpl devMachine = removeFirstMatching(machines, m -> m.getConfig().isDev());
 
-        // Synchronously destroying all non-dev machines
-        for (MachineImpl machine : machines) {
-            try {
-                machineManager.destroy(machine.getId(), false);
-            } catch (NotFoundException ignore) {
-                // This may happen, if machine is stopped by direct call to the Machine API
-                // MachineManager cleanups all the machines due to application server shutdown
-                // As non-dev machines don't affect runtime status, this exception is ignored
-            } catch (RuntimeException | MachineException ex) {
-                LOG.error(format("Could not destroy machine '%s' of workspace '%s'",
-                                 machine.getId(),
-                                 machine.getWorkspaceId()),
-                          ex);
-            }
-        }
+        // Destroying all non-dev machines in parallel, as non-dev machines
+        // don't affect runtime status, failures of their destroying are only logged
+        destroyAllQuietly(machines);
 
         // Synchronously destroying dev-machine
         try {
@@ -442,127 +451,252 @@ public class WorkspaceRuntimes {
                                                     ConflictException {
         publishEvent(EventType.STARTING, workspaceId, null);
 
-        // Starting all the machines one by one by getting configs
-        // from the corresponding starting queue.
-        // Config will be null only if there are no machines left in the queue
-        MachineConfigImpl config = queuePeekOrFail(workspaceId);
-        while (config != null) {
-
-            // According to WorkspaceStatus specification the workspace start
-            // is failed when dev-machine start is failed, so if any error
-            // occurs during machine creation and the machine is dev-machine
-            // then start fail is reported and start resources such as queue
-            // and descriptor must be cleaned up
-            MachineImpl machine = null;
-            try {
-                machine = startMachine(config, workspaceId, envName, recover);
-            } catch (RuntimeException | ServerException | ConflictException | NotFoundException x) {
-                if (config.isDev()) {
-                    publishEvent(EventType.ERROR, workspaceId, x.getLocalizedMessage());
-                    cleanupStartResources(workspaceId);
-                    throw x;
-                }
-                LOG.error(format("Error while creating non-dev machine '%s' in workspace '%s', environment '%s'",
-                                 config.getName(),
-                                 workspaceId,
-                                 envName),
-                          x);
+        // The queue instance identifies this start, if it is removed from the start queues
+        // or replaced with another one then workspace was stopped and this start is interrupted
+        final Queue<MachineConfigImpl> queue;
+        final List<MachineConfigImpl> configs;
+        acquireReadLock(workspaceId);
+        try {
+            ensurePreDestroyIsNotExecuted();
+            queue = startQueues.get(workspaceId);
+            if (queue == null) {
+                throw new ConflictException(
+                        format("Workspace '%s' start interrupted. Workspace was stopped before all its machines were started",
+                               workspaceId));
             }
+            configs = new ArrayList<>(queue);
+        } finally {
+            releaseReadLock(workspaceId);
+        }
 
-            // Machine destroying is an expensive operation which must be
-            // performed outside of the lock, this section checks if
-            // the workspace wasn't stopped while it is starting and sets
-            // polled flag to true if the workspace wasn't stopped plus
-            // polls the proceeded machine configuration from the queue
-            boolean queuePolled = false;
-            acquireWriteLock(workspaceId);
-            try {
-                ensurePreDestroyIsNotExecuted();
-                final Queue<MachineConfigImpl> queue = startQueues.get(workspaceId);
-                if (queue != null) {
-                    queue.poll();
-                    queuePolled = true;
-                    if (machine != null) {
-                        final RuntimeDescriptor descriptor = descriptors.get(workspaceId);
-                        if (config.isDev()) {
-                            descriptor.getRuntime().setDevMachine(machine);
-                            descriptor.setRuntimeStatus(WorkspaceStatus.RUNNING);
-                        }
-                        descriptor.getRuntime().getMachines().add(machine);
-                    }
-                }
-            } finally {
-                releaseWriteLock(workspaceId);
-            }
+        // Non-dev machines are started at the same time with dev-machine, the machines
+        // which are started before dev-machine wait in this list (guarded by workspace lock)
+        // until the workspace is running, as they can't be added to the starting workspace
+        final MachineConfigImpl devCfg = configs.remove(0);
+        final List<MachineImpl> startedBeforeDev = new ArrayList<>();
+        final List<CompletableFuture<Void>> nonDevStarts = startNonDevMachines(workspaceId,
+                                                                                envName,
+                                                                                recover,
+                                                                                queue,
+                                                                                configs,
+                                                                                startedBeforeDev);
+
+        // According to WorkspaceStatus specification the workspace start
+        // is failed when dev-machine start is failed, so if any error
+        // occurs during machine creation and the machine is dev-machine
+        // then start fail is reported and start resources such as queue
+        // and descriptor must be cleaned up
+        final MachineImpl devMachine;
+        final long devStartTime = System.currentTimeMillis();
+        try {
+            devMachine = startMachine(devCfg, workspaceId, envName, recover);
+        } catch (RuntimeException | ServerException | ConflictException | NotFoundException x) {
+            publishEvent(EventType.ERROR, workspaceId, x.getLocalizedMessage());
+            cleanupStartResources(workspaceId);
+            awaitAll(nonDevStarts);
+            destroyStartedBeforeDev(workspaceId, startedBeforeDev);
+            throw x;
+        }
 
-            // Event publication should be performed outside of the lock
-            // as it may take some time to notify subscribers
-            if (machine != null && config.isDev()) {
-                publishEvent(EventType.RUNNING, workspaceId, null);
+        boolean interrupted = true;
+        acquireWriteLock(workspaceId);
+        try {
+            ensurePreDestroyIsNotExecuted();
+            if (startQueues.get(workspaceId) == queue) {
+                queue.remove(devCfg);
+                if (devMachine != null) {
+                    final RuntimeDescriptor descriptor = descriptors.get(workspaceId);
+                    descriptor.getRuntime().setDevMachine(devMachine);
+                    descriptor.getRuntime().getMachines().add(devMachine);
+                    descriptor.getRuntime().getMachines().addAll(startedBeforeDev);
+                    descriptor.setRuntimeStatus(WorkspaceStatus.RUNNING);
+                    machineStarted(descriptor, devCfg, workspaceId, devStartTime);
+                    startedBeforeDev.clear();
+                }
+                interrupted = false;
             }
+        } finally {
+            releaseWriteLock(workspaceId);
+        }
 
-            // If machine config is not polled from the queue
-            // then workspace was stopped and newly created machine
-            // must be destroyed(if such exists)
-            if (!queuePolled) {
-                if (machine != null) {
-                    machineManager.destroy(machine.getId(), false);
-                }
-                throw new ConflictException(format("Workspace '%s' start interrupted. Workspace stopped before all its machines started",
-                                                   workspaceId));
+        if (interrupted) {
+            // Machine destroying is an expensive operation which must be performed outside of the lock
+            if (devMachine != null) {
+                machineManager.destroy(devMachine.getId(), false);
             }
+            awaitAll(nonDevStarts);
+            destroyStartedBeforeDev(workspaceId, startedBeforeDev);
+            throw new ConflictException(format("Workspace '%s' start interrupted. Workspace stopped before all its machines started",
+                                               workspaceId));
+        }
 
-            config = queuePeekOrFail(workspaceId);
+        // Event publication should be performed outside of the lock
+        // as it may take some time to notify subscribers
+        if (devMachine != null) {
+            publishEvent(EventType.RUNNING, workspaceId, null);
         }
 
+        awaitAll(nonDevStarts);
+
         // All the machines tried to start which means that queue
         // should be empty and can be normally removed, but in the case of
         // some unlucky timing, the workspace may be stopped and started again
         // so the queue, which is guarded by the same lock as workspace descriptor
         // may be initialized again with a new batch of machines to start,
-        // that's why queue should be removed only if it is not empty.
+        // that's why queue should be removed only if it is the queue of this start.
         // On the other hand queue may not exist because workspace has been stopped
-        // just before queue utilization, which considered as a normal behaviour
+        // while non-dev machines were starting, which interrupts the start
         acquireWriteLock(workspaceId);
         try {
-            final Queue<MachineConfigImpl> queue = startQueues.get(workspaceId);
-            if (queue != null && queue.isEmpty()) {
-                startQueues.remove(workspaceId);
+            ensurePreDestroyIsNotExecuted();
+            if (startQueues.get(workspaceId) != queue) {
+                throw new ConflictException(format("Workspace '%s' start interrupted. Workspace stopped before all its machines started",
+                                                   workspaceId));
             }
+            startQueues.remove(workspaceId);
         } finally {
             releaseWriteLock(workspaceId);
         }
     }
 
     /**
-     * Gets head config from the queue associated with the given {@code workspaceId}.
-     *
-     * <p>Note that this method won't actually poll the queue.
-     *
-     * <p>Fails if workspace start was interrupted by stop(queue doesn't exist).
-     *
-     * @return machine config which is in the queue head, or null
-     * if there are no machine configs left
-     * @throws ConflictException
-     *         when queue doesn't exist which means that {@link #stop(String)} executed
-     *         before all the machines started
-     * @throws ServerException
-     *         only if pre destroy has been invoked before peek config retrieved
+     * Schedules start of the non-dev machines on the {@link #startExecutor},
+     * all of them are started at the same time.
      */
-    private MachineConfigImpl queuePeekOrFail(String workspaceId) throws ConflictException, ServerException {
+    private List<CompletableFuture<Void>> startNonDevMachines(String workspaceId,
+                                                              String envName,
+                                                              boolean recover,
+                                                              Queue<MachineConfigImpl> queue,
+                                                              List<MachineConfigImpl> configs,
+                                                              List<MachineImpl> startedBeforeDev) {
+        final List<CompletableFuture<Void>> starts = new ArrayList<>(configs.size());
+        for (MachineConfigImpl config : configs) {
+            CompletableFuture<Void> future;
+            try {
+                // machine manager needs the subject of the user who starts the workspace
+                future = CompletableFuture.runAsync(ThreadLocalPropagateContext.wrap(
+                        () -> startNonDevMachine(config, workspaceId, envName, recover, queue, startedBeforeDev)), startExecutor);
+            } catch (RejectedExecutionException x) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(x);
+            }
+            starts.add(future);
+        }
+        return starts;
+    }
+
+    private void startNonDevMachine(MachineConfigImpl config,
+                                    String workspaceId,
+                                    String envName,
+                                    boolean recover,
+                                    Queue<MachineConfigImpl> queue,
+                                    List<MachineImpl> startedBeforeDev) {
         acquireReadLock(workspaceId);
         try {
-            ensurePreDestroyIsNotExecuted();
-            final Queue<MachineConfigImpl> queue = startQueues.get(workspaceId);
-            if (queue == null) {
-                throw new ConflictException(
-                        format("Workspace '%s' start interrupted. Workspace was stopped before all its machines were started",
-                               workspaceId));
+            // workspace was stopped before machine start
+            if (isPreDestroyInvoked || startQueues.get(workspaceId) != queue) {
+                return;
             }
-            return queue.peek();
         } finally {
             releaseReadLock(workspaceId);
         }
+
+        final long startTime = System.currentTimeMillis();
+        MachineImpl machine = null;
+        try {
+            machine = startMachine(config, workspaceId, envName, recover);
+        } catch (RuntimeException | ServerException | ConflictException | NotFoundException x) {
+            LOG.error(format("Error while creating non-dev machine '%s' in workspace '%s', environment '%s'",
+                             config.getName(),
+                             workspaceId,
+                             envName),
+                      x);
+        }
+
+        acquireWriteLock(workspaceId);
+        try {
+            if (isPreDestroyInvoked) {
+                // machines are destroyed by MachineManager in this case
+                return;
+            }
+            if (startQueues.get(workspaceId) == queue) {
+                queue.remove(config);
+                if (machine != null) {
+                    final RuntimeDescriptor descriptor = descriptors.get(workspaceId);
+                    if (descriptor.getRuntimeStatus() == WorkspaceStatus.RUNNING) {
+                        descriptor.getRuntime().getMachines().add(machine);
+                    } else {
+                        startedBeforeDev.add(machine);
+                    }
+                    machineStarted(descriptor, config, workspaceId, startTime);
+                }
+                return;
+            }
+        } finally {
+            releaseWriteLock(workspaceId);
+        }
+
+        // If the queue was removed then workspace was stopped
+        // and newly created machine must be destroyed(if such exists)
+        if (machine != null) {
+            destroyQuietly(machine);
+        }
+    }
+
+    private void destroyStartedBeforeDev(String workspaceId, List<MachineImpl> startedBeforeDev) {
+        final List<MachineImpl> machines;
+        acquireWriteLock(workspaceId);
+        try {
+            if (isPreDestroyInvoked) {
+                return;
+            }
+            machines = new ArrayList<>(startedBeforeDev);
+            startedBeforeDev.clear();
+        } finally {
+            releaseWriteLock(workspaceId);
+        }
+        destroyAllQuietly(machines);
+    }
+
+    /** Destroys machines in parallel on the {@link #stopExecutor} and waits until all of them are destroyed. */
+    private void destroyAllQuietly(List<MachineImpl> machines) {
+        final List<CompletableFuture<Void>> destroys = new ArrayList<>(machines.size());
+        for (MachineImpl machine : machines) {
+            try {
+                destroys.add(CompletableFuture.runAsync(ThreadLocalPropagateContext.wrap(() -> destroyQuietly(machine)), stopExecutor));
+            } catch (RejectedExecutionException x) {
+                // executor is shut down when server is stopping
+                destroyQuietly(machine);
+            }
+        }
+        awaitAll(destroys);
+    }
+
+    private void destroyQuietly(MachineImpl machine) {
+        try {
+            machineManager.destroy(machine.getId(), false);
+        } catch (NotFoundException ignore) {
+            // machine is already destroyed
+        } catch (RuntimeException | MachineException x) {
+            LOG.error(format("Could not destroy machine '%s' of workspace '%s'", machine.getId(), machine.getWorkspaceId()), x);
+        }
+    }
+
+    /** Must be called with workspace write lock. */
+    private static void machineStarted(RuntimeDescriptor descriptor, MachineConfigImpl config, String workspaceId, long startTime) {
+        final long time = System.currentTimeMillis() - startTime;
+        descriptor.machineStartTimes.put(config.getName(), time);
+        LOG.info("Machine '{}' of workspace '{}' started in {} ms", config.getName(), workspaceId, time);
+    }
+
+    private static void awaitAll(List<CompletableFuture<Void>> futures) {
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException | CancellationException x) {
+                LOG.error(x.getLocalizedMessage(), x);
+            }
+        }
     }
 
     /**
@@ -624,14 +758,22 @@ public class WorkspaceRuntimes {
 
         private WorkspaceRuntimeImpl runtime;
         private WorkspaceStatus      status;
+        private Map<String, Long>    machineStartTimes;
 
         private RuntimeDescriptor(WorkspaceRuntimeImpl runtime) {
             this.runtime = runtime;
+            this.machineStartTimes = new HashMap<>();
         }
 
         private RuntimeDescriptor(RuntimeDescriptor descriptor) {
             this(new WorkspaceRuntimeImpl(descriptor.runtime));
             this.status = descriptor.status;
+            this.machineStartTimes.putAll(descriptor.machineStartTimes);
+        }
+
+        /** Returns start time in milliseconds of each started machine of the runtime, mapped by machine name. */
+        public Map<String, Long> getMachineStartTimes() {
+            return Collections.unmodifiableMap(new HashMap<>(machineStartTimes));
         }
 
         /** Returns the instance of {@code WorkspaceRuntime} described by this descriptor. */
@@ -710,6 +852,15 @@ public class WorkspaceRuntimes {
                 return false;
             }
 
+            // Non-dev machines are started at the same time with dev-machine,
+            // if machine is started by WorkspaceRuntimes then it will be added
+            // to the corresponding WorkspaceRuntime after dev-machine starts
+            if (descriptor.getRuntimeStatus() == WorkspaceStatus.STARTING
+                && startQueues.containsKey(workspaceId)
+                && startQueues.get(workspaceId).stream().anyMatch(m -> m.equals(machine.getConfig()))) {
+                return true;
+            }
+
             // When workspace is not running then started machine must be immediately destroyed
             // Example: status == STARTING & machine is non-dev
             if (descriptor.getRuntimeStatus() != WorkspaceStatus.RUNNING) {
@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server;
+
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.util.ExecutorRegistry;
+import org.eclipse.che.api.core.util.MBeanRegistrations;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+
+/**
+ * Limits number of workspaces which are started at the same time.
+ *
+ * <p>Start requests which don't fit into the limit wait in queue. Queue is fair across namespaces:
+ * starts are taken from namespaces in round-robin order, so namespace which requested
+ * many starts at once doesn't delay starts of the other namespaces. Each time position
+ * of the workspace in the queue changes {@link EventType#QUEUED} event is published.
+ * When queue is full start requests are rejected.
+ *
+ * <p>Start of the single workspace may be scheduled only once until it is finished,
+ * queued starts may be {@link #cancel(String) cancelled}.
+ *
+ * @author Yevhenii Voevodin
+ */
+@Singleton
+public class WorkspaceStartScheduler implements WorkspaceStartSchedulerMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(WorkspaceStartScheduler.class);
+
+    public static final String MAX_CONCURRENT_STARTS = "workspace.start.max_concurrent";
+    public static final String MAX_QUEUED_STARTS     = "workspace.start.max_queued";
+
+    /** Number of the last starts used for calculation of start time percentiles. */
+    private static final int START_TIME_SAMPLES = 1024;
+
+    private final ExecutorService                         executor;
+    private final EventService                            eventService;
+    private final int                                     maxConcurrentStarts;
+    private final int                                     maxQueuedStarts;
+    private final LinkedHashMap<String, Deque<StartTask>> queues;
+    private final Map<String, StartTask>                  tasks;
+    private final long[]                                  startTimes;
+    private final AtomicLong                              rejected;
+
+    private int  running;
+    private int  queued;
+    private long finished;
+
+    @Inject
+    public WorkspaceStartScheduler(ExecutorRegistry executors,
+                                   EventService eventService,
+                                   @Named(MAX_CONCURRENT_STARTS) int maxConcurrentStarts,
+                                   @Named(MAX_QUEUED_STARTS) int maxQueuedStarts) {
+        if (maxConcurrentStarts < 1) {
+            throw new IllegalArgumentException(format("Invalid max number of concurrent starts: %d", maxConcurrentStarts));
+        }
+        if (maxQueuedStarts < 0) {
+            throw new IllegalArgumentException(format("Invalid max number of queued starts: %d", maxQueuedStarts));
+        }
+        this.eventService = eventService;
+        this.maxConcurrentStarts = maxConcurrentStarts;
+        this.maxQueuedStarts = maxQueuedStarts;
+        // next start is submitted before thread of the finished start returns to the pool,
+        // so executor must be able to keep as many tasks in queue as it has threads
+        this.executor = executors.getExecutor(ExecutorRegistry.WORKSPACE_START, maxConcurrentStarts, maxConcurrentStarts);
+        // namespace -> queued starts, iteration order defines which namespace is served next
+        this.queues = new LinkedHashMap<>();
+        // workspace id -> queued or running start
+        this.tasks = new HashMap<>();
+        this.startTimes = new long[START_TIME_SAMPLES];
+        this.rejected = new AtomicLong();
+    }
+
+    /**
+     * Schedules start of the workspace. Start is performed asynchronously as soon as
+     * there is a free slot and all the starts queued before it are taken.
+     *
+     * @param workspaceId
+     *         id of the workspace
+     * @param namespace
+     *         namespace of the workspace, starts of the different namespaces are queued fairly
+     * @param start
+     *         performs start of the workspace
+     * @throws ConflictException
+     *         when start of the workspace is already scheduled and isn't finished yet
+     * @throws ServerException
+     *         when too many workspaces wait for start
+     */
+    public void schedule(String workspaceId, String namespace, Runnable start) throws ConflictException, ServerException {
+        final List<WorkspaceStatusEvent> events;
+        synchronized (this) {
+            if (tasks.containsKey(workspaceId)) {
+                throw new ConflictException(format("Start of workspace '%s' is already scheduled", workspaceId));
+            }
+            if (running >= maxConcurrentStarts && queued >= maxQueuedStarts) {
+                rejected.incrementAndGet();
+                throw new ServerException("Server is overloaded, too many workspaces are waiting for start. Please try again later");
+            }
+            final StartTask task = new StartTask(workspaceId, namespace, ThreadLocalPropagateContext.wrap(start));
+            tasks.put(workspaceId, task);
+            queues.computeIfAbsent(namespace, ns -> new ArrayDeque<>()).add(task);
+            queued++;
+            events = dispatch();
+        }
+        publish(events);
+    }
+
+    /**
+     * Removes start of the workspace from the queue.
+     *
+     * @return {@code true} if start was cancelled, {@code false} if start wasn't scheduled or is already running
+     */
+    public boolean cancel(String workspaceId) {
+        final List<WorkspaceStatusEvent> events;
+        synchronized (this) {
+            final StartTask task = tasks.get(workspaceId);
+            if (task == null || task.queuePosition == 0) {
+                return false;
+            }
+            final Deque<StartTask> queue = queues.get(task.namespace);
+            queue.remove(task);
+            if (queue.isEmpty()) {
+                queues.remove(task.namespace);
+            }
+            tasks.remove(workspaceId);
+            queued--;
+            events = updateQueuePositions(new ArrayList<>());
+        }
+        publish(events);
+        return true;
+    }
+
+    /** Returns position of the workspace in the queue or 0 if workspace doesn't wait for start. */
+    public synchronized int getQueuePosition(String workspaceId) {
+        final StartTask task = tasks.get(workspaceId);
+        return task == null ? 0 : task.queuePosition;
+    }
+
+    /**
+     * Returns time in milliseconds from start request to the end of start, including time in queue,
+     * which is not exceeded by the given percent of the last starts.
+     *
+     * @param percentile
+     *         percentile from 0 to 100
+     */
+    public synchronized long getStartTimePercentile(double percentile) {
+        final int size = (int)Math.min(finished, startTimes.length);
+        if (size == 0) {
+            return 0;
+        }
+        final long[] sorted = Arrays.copyOf(startTimes, size);
+        Arrays.sort(sorted);
+        final int rank = (int)Math.ceil(percentile / 100 * size);
+        return sorted[Math.min(Math.max(rank, 1), size) - 1];
+    }
+
+    @Override
+    public int getMaxConcurrentStarts() {
+        return maxConcurrentStarts;
+    }
+
+    @Override
+    public int getMaxQueuedStarts() {
+        return maxQueuedStarts;
+    }
+
+    @Override
+    public synchronized int getRunningStarts() {
+        return running;
+    }
+
+    @Override
+    public synchronized int getQueuedStarts() {
+        return queued;
+    }
+
+    @Override
+    public long getRejectedStarts() {
+        return rejected.get();
+    }
+
+    @Override
+    public long getMedianStartTime() {
+        return getStartTimePercentile(50);
+    }
+
+    @Override
+    public long get90thPercentileStartTime() {
+        return getStartTimePercentile(90);
+    }
+
+    @Override
+    public long get99thPercentileStartTime() {
+        return getStartTimePercentile(99);
+    }
+
+    @PostConstruct
+    public void registerMBean() {
+        MBeanRegistrations.register(this, "WorkspaceStartScheduler");
+    }
+
+    @PreDestroy
+    public void unregisterMBean() {
+        MBeanRegistrations.unregister("WorkspaceStartScheduler");
+    }
+
+    /** Must be called with lock of the scheduler. */
+    private List<WorkspaceStatusEvent> dispatch() {
+        final List<WorkspaceStatusEvent> events = new ArrayList<>();
+        while (running < maxConcurrentStarts && queued > 0) {
+            final Iterator<Map.Entry<String, Deque<StartTask>>> it = queues.entrySet().iterator();
+            final Map.Entry<String, Deque<StartTask>> next = it.next();
+            final StartTask task = next.getValue().poll();
+            it.remove();
+            if (!next.getValue().isEmpty()) {
+                // namespace is served again only after all the other waiting namespaces
+                queues.put(next.getKey(), next.getValue());
+            }
+            queued--;
+            running++;
+            task.queuePosition = 0;
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                running--;
+                tasks.remove(task.workspaceId);
+                LOG.error(format("Unable to start workspace '%s'. %s", task.workspaceId, e.getMessage()), e);
+                events.add(newDto(WorkspaceStatusEvent.class).withEventType(EventType.ERROR)
+                                                             .withWorkspaceId(task.workspaceId)
+                                                             .withError("Server is overloaded, please try again later"));
+            }
+        }
+        return updateQueuePositions(events);
+    }
+
+    /**
+     * Calculates positions of the queued starts according to round-robin order of namespaces
+     * and adds events for starts which position was changed. Must be called with lock of the scheduler.
+     */
+    private List<WorkspaceStatusEvent> updateQueuePositions(List<WorkspaceStatusEvent> events) {
+        final List<Deque<StartTask>> order = new ArrayList<>(queues.values());
+        for (int r = 0; r < order.size(); r++) {
+            int index = 0;
+            for (StartTask task : order.get(r)) {
+                // namespaces before this one give one more start for each start before this task
+                int position = index + 1;
+                for (int p = 0; p < order.size(); p++) {
+                    if (p != r) {
+                        position += Math.min(order.get(p).size(), p < r ? index + 1 : index);
+                    }
+                }
+                if (task.queuePosition != position) {
+                    task.queuePosition = position;
+                    events.add(newDto(WorkspaceStatusEvent.class).withEventType(EventType.QUEUED)
+                                                                 .withWorkspaceId(task.workspaceId)
+                                                                 .withQueuePosition(position));
+                }
+                index++;
+            }
+        }
+        return events;
+    }
+
+    private void finished(StartTask task) {
+        final List<WorkspaceStatusEvent> events;
+        synchronized (this) {
+            running--;
+            tasks.remove(task.workspaceId);
+            startTimes[(int)(finished++ % startTimes.length)] = currentTimeMillis() - task.created;
+            events = dispatch();
+        }
+        publish(events);
+    }
+
+    private void publish(List<WorkspaceStatusEvent> events) {
+        for (WorkspaceStatusEvent event : events) {
+            eventService.publish(event);
+        }
+    }
+
+    private class StartTask implements Runnable {
+        final String   workspaceId;
+        final String   namespace;
+        final Runnable start;
+        final long     created;
+
+        /** Position in queue, 0 when start is taken from the queue. */
+        int queuePosition;
+
+        StartTask(String workspaceId, String namespace, Runnable start) {
+            this.workspaceId = workspaceId;
+            this.namespace = namespace;
+            this.start = start;
+            this.created = currentTimeMillis();
+            this.queuePosition = -1;
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.run();
+            } catch (RuntimeException e) {
+                LOG.error(e.getLocalizedMessage(), e);
+            } finally {
+                finished(this);
+            }
+        }
+    }
+}
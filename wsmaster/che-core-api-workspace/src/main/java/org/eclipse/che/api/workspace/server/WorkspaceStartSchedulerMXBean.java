@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server;
+
+/**
+ * Statistic of the {@link WorkspaceStartScheduler} available through JMX.
+ *
+ * @author Yevhenii Voevodin
+ */
+public interface WorkspaceStartSchedulerMXBean {
+    /** Returns maximum number of workspaces which may be started at the same time. */
+    int getMaxConcurrentStarts();
+
+    /** Returns maximum number of workspaces which may wait for start, next start requests are rejected. */
+    int getMaxQueuedStarts();
+
+    /** Returns number of workspaces which are being started now. */
+    int getRunningStarts();
+
+    /** Returns number of workspaces which wait for start. */
+    int getQueuedStarts();
+
+    /** Returns number of start requests rejected because queue is full. */
+    long getRejectedStarts();
+
+    /** Returns median time in milliseconds from start request to the end of start, including time in queue. */
+    long getMedianStartTime();
+
+    /** Returns 90th percentile of time in milliseconds from start request to the end of start. */
+    long get90thPercentileStartTime();
+
+    /** Returns 99th percentile of time in milliseconds from start request to the end of start. */
+    long get99thPercentileStartTime();
+}
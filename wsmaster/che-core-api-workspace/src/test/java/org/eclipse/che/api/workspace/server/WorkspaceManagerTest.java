@@ -15,6 +15,7 @@ import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceConfig;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.util.ExecutorRegistry;
 import org.eclipse.che.api.machine.server.MachineManager;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.model.impl.MachineConfigImpl;
@@ -106,6 +107,8 @@ public class WorkspaceManagerTest {
                                                     runtimes,
                                                     eventService,
                                                     machineManager,
+                                                    new ExecutorRegistry(),
+                                                    new WorkspaceStartScheduler(new ExecutorRegistry(), eventService, 10, 100),
                                                     false,
                                                     false));
         workspaceManager.setHooks(workspaceHooks);
@@ -568,6 +571,8 @@ public class WorkspaceManagerTest {
                                                     runtimes,
                                                     eventService,
                                                     machineManager,
+                                                    new ExecutorRegistry(),
+                                                    new WorkspaceStartScheduler(new ExecutorRegistry(), eventService, 10, 100),
                                                     true,
                                                     false));
         final WorkspaceImpl workspace = workspaceManager.createWorkspace(createConfig(), "user123", "account");
@@ -587,6 +592,8 @@ public class WorkspaceManagerTest {
                                                     runtimes,
                                                     eventService,
                                                     machineManager,
+                                                    new ExecutorRegistry(),
+                                                    new WorkspaceStartScheduler(new ExecutorRegistry(), eventService, 10, 100),
                                                     false,
                                                     true));
         final WorkspaceImpl workspace = workspaceManager.createWorkspace(createConfig(), "user123", "account");
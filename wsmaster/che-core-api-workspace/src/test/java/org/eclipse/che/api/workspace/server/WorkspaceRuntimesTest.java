@@ -17,6 +17,7 @@ import org.eclipse.che.api.core.model.machine.MachineConfig;
 import org.eclipse.che.api.core.model.machine.MachineStatus;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.util.ExecutorRegistry;
 import org.eclipse.che.api.machine.server.MachineManager;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.model.impl.LimitsImpl;
@@ -31,7 +32,10 @@ import org.eclipse.che.api.workspace.server.model.impl.WorkspaceConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceRuntimeImpl;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType;
+import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.NameGenerator;
+import org.eclipse.che.commons.subject.Subject;
+import org.eclipse.che.commons.subject.SubjectImpl;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -43,6 +47,11 @@ import org.testng.annotations.Test;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -92,7 +101,7 @@ public class WorkspaceRuntimesTest {
     public void setUp() throws Exception {
         when(machineManager.createMachineSync(any(), any(), any()))
                 .thenAnswer(invocation -> createMachine((MachineConfig)invocation.getArguments()[0]));
-        runtimes = new WorkspaceRuntimes(machineManager, eventService);
+        runtimes = new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry());
     }
 
     @Test(expectedExceptions = NotFoundException.class,
@@ -113,7 +122,7 @@ public class WorkspaceRuntimesTest {
     @Test
     public void workspaceShouldBeInStartingStatusUntilDevMachineIsNotStarted() throws Exception {
         final MachineManager machineManagerMock = mock(MachineManager.class);
-        final WorkspaceRuntimes runtimes = new WorkspaceRuntimes(machineManagerMock, eventService);
+        final WorkspaceRuntimes runtimes = new WorkspaceRuntimes(machineManagerMock, eventService, new ExecutorRegistry());
         final WorkspaceImpl workspace = createWorkspace();
 
         // check if workspace in starting status before dev machine is started
@@ -135,7 +144,7 @@ public class WorkspaceRuntimesTest {
     @Test
     public void workspaceShouldNotHaveRuntimeIfDevMachineCreationFailed() throws Exception {
         final MachineManager machineManagerMock = mock(MachineManager.class);
-        final WorkspaceRuntimes runtimes = new WorkspaceRuntimes(machineManagerMock, eventService);
+        final WorkspaceRuntimes runtimes = new WorkspaceRuntimes(machineManagerMock, eventService, new ExecutorRegistry());
         final WorkspaceImpl workspaceMock = createWorkspace();
         when(machineManagerMock.createMachineSync(any(), any(), any()))
                 .thenThrow(new MachineException("Creation error"));
@@ -172,7 +181,7 @@ public class WorkspaceRuntimesTest {
                                             "Workspace can be stopped only if it is 'RUNNING'")
     public void shouldNotStopWorkspaceIfItIsStarting() throws Exception {
         final MachineManager machineManagerMock = mock(MachineManager.class);
-        final WorkspaceRuntimes registry = new WorkspaceRuntimes(machineManagerMock, eventService);
+        final WorkspaceRuntimes registry = new WorkspaceRuntimes(machineManagerMock, eventService, new ExecutorRegistry());
         final WorkspaceImpl workspace = createWorkspace();
 
         when(machineManagerMock.createMachineSync(any(), any(), any())).thenAnswer(invocationOnMock -> {
@@ -190,6 +199,9 @@ public class WorkspaceRuntimesTest {
         doAnswer(invocation -> {
             final MachineConfig machineCfg = (MachineConfig)invocation.getArguments()[0];
             if (!machineCfg.isDev()) {
+                // non-dev machine is started at the same time with dev-machine,
+                // workspace may be stopped only when dev-machine is started
+                awaitStatus(workspace.getId(), RUNNING);
                 runtimes.stop(workspace.getId());
             }
             return createMachine((MachineConfig)invocation.getArguments()[0]);
@@ -214,6 +226,31 @@ public class WorkspaceRuntimesTest {
         assertFalse(runtimes.hasRuntime(workspace.getId()));
     }
 
+    @Test
+    public void nonDevMachineShouldBeStartedWithSubjectOfUserWhoStartsWorkspace() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        final Subject subject = new SubjectImpl("user", "user123", "token", false);
+        final EnvironmentContext context = new EnvironmentContext();
+        context.setSubject(subject);
+        EnvironmentContext.setCurrent(context);
+        final List<Subject> nonDevMachineSubjects = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            final MachineConfig machineCfg = (MachineConfig)invocation.getArguments()[0];
+            if (!machineCfg.isDev()) {
+                nonDevMachineSubjects.add(EnvironmentContext.getCurrent().getSubject());
+            }
+            return createMachine(machineCfg);
+        }).when(machineManager).createMachineSync(any(), anyString(), anyString());
+
+        try {
+            runtimes.start(workspace, workspace.getConfig().getDefaultEnv());
+        } finally {
+            EnvironmentContext.reset();
+        }
+
+        assertEquals(nonDevMachineSubjects, singletonList(subject));
+    }
+
     @Test
     public void startShouldIgnoreFailedToStartNonDevMachine() throws Exception {
         final WorkspaceImpl workspace = createWorkspace();
@@ -290,6 +327,33 @@ public class WorkspaceRuntimesTest {
         verify(machineManager, times(2)).destroy(anyString(), anyBoolean());
     }
 
+    @Test
+    public void runtimeStopShouldDestroyNonDevMachinesInParallel() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace("db", "cache");
+        final CountDownLatch nonDevDestroys = new CountDownLatch(2);
+
+        doAnswer(invocation -> {
+            if (!runtimes.get(workspace.getId())
+                         .getRuntime()
+                         .getDevMachine()
+                         .getId()
+                         .equals(invocation.getArguments()[0])) {
+                // non-dev machine is destroyed only if the other one is being destroyed at the same time
+                nonDevDestroys.countDown();
+                if (!nonDevDestroys.await(5, TimeUnit.SECONDS)) {
+                    throw new MachineException("Machines are destroyed one by one");
+                }
+            }
+            return null;
+        }).when(machineManager).destroy(any(), anyBoolean());
+
+        runtimes.start(workspace, workspace.getConfig().getDefaultEnv());
+        runtimes.stop(workspace.getId());
+
+        assertEquals(nonDevDestroys.getCount(), 0);
+        verify(machineManager, times(3)).destroy(anyString(), anyBoolean());
+    }
+
     @Test
     public void shouldStopRunningWorkspace() throws Exception {
         final WorkspaceImpl workspace = createWorkspace();
@@ -317,7 +381,7 @@ public class WorkspaceRuntimesTest {
     @Test
     public void startingEventShouldBePublishedBeforeStart() throws Exception {
         final WorkspaceImpl workspace = createWorkspace();
-        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService));
+        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry()));
         doNothing().when(runtimes).publishEvent(any(), any(), any());
 
         doAnswer(invocation -> {
@@ -331,24 +395,26 @@ public class WorkspaceRuntimesTest {
     @Test
     public void runningEventShouldBePublishedAfterDevMachineStarted() throws Exception {
         final WorkspaceImpl workspace = createWorkspace();
-        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService));
+        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry()));
         doNothing().when(runtimes).publishEvent(any(), any(), any());
 
         doAnswer(invocation -> {
             final MachineConfig cfg = (MachineConfig)invocation.getArguments()[0];
-            if (!cfg.isDev()) {
-                verify(runtimes).publishEvent(EventType.RUNNING, workspace.getId(), null);
+            if (cfg.isDev()) {
+                verify(runtimes, never()).publishEvent(EventType.RUNNING, workspace.getId(), null);
             }
             return createMachine(cfg);
         }).when(machineManager).createMachineSync(any(), any(), any());
 
         runtimes.start(workspace, workspace.getConfig().getDefaultEnv());
+
+        verify(runtimes).publishEvent(EventType.RUNNING, workspace.getId(), null);
     }
 
     @Test
     public void errorEventShouldBePublishedIfDevMachineFailedToStart() throws Exception {
         final WorkspaceImpl workspace = createWorkspace();
-        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService));
+        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry()));
         doNothing().when(runtimes).publishEvent(any(), any(), any());
         doNothing().when(runtimes).cleanupStartResources(any());
 
@@ -370,7 +436,7 @@ public class WorkspaceRuntimesTest {
     @Test
     public void stoppingEventShouldBePublishedBeforeStop() throws Exception {
         final WorkspaceImpl workspace = createWorkspace();
-        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService));
+        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry()));
         doNothing().when(runtimes).publishEvent(any(), any(), any());
 
         doAnswer(invocation -> {
@@ -391,7 +457,7 @@ public class WorkspaceRuntimesTest {
     @Test
     public void stoppedEventShouldBePublishedAfterDevMachineStopped() throws Exception {
         final WorkspaceImpl workspace = createWorkspace();
-        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService));
+        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry()));
         doNothing().when(runtimes).publishEvent(any(), any(), any());
 
         runtimes.start(workspace, workspace.getConfig().getDefaultEnv());
@@ -403,7 +469,7 @@ public class WorkspaceRuntimesTest {
     @Test
     public void errorEventShouldBePublishedIfDevMachineFailedToStop() throws Exception {
         final WorkspaceImpl workspace = createWorkspace();
-        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService));
+        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry()));
         doNothing().when(runtimes).publishEvent(any(), any(), any());
 
         doAnswer(invocation -> {
@@ -508,7 +574,7 @@ public class WorkspaceRuntimesTest {
     @Test
     public void shouldDestroyMachineIfItIsNotAddedWhenEventReceived() throws Exception {
         // prepare runtimes
-        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService));
+        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry()));
         doReturn(false).when(runtimes).addMachine(any());
         // prepare machine
         final MachineImpl machine = createMachine(true);
@@ -529,7 +595,7 @@ public class WorkspaceRuntimesTest {
     public void eventTypesExceptOfRunningShouldBeIgnoredByAddMachineSubscriber(MachineStatusEvent.EventType type)
             throws Exception {
         // prepare runtimes
-        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService));
+        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry()));
         doReturn(false).when(runtimes).addMachine(any());
         // prepare machine
         final MachineImpl machine = createMachine(true);
@@ -607,7 +673,7 @@ public class WorkspaceRuntimesTest {
     public void eventTypesExceptOfDestroyedShouldBeIgnoredByRemoveMachineSubscriber(MachineStatusEvent.EventType type)
             throws Exception {
         // prepare runtimes
-        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService));
+        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry()));
         doNothing().when(runtimes).removeMachine(anyString(), anyString(), anyString());
         // prepare event
         final MachineImpl machine = createMachine(true);
@@ -625,7 +691,7 @@ public class WorkspaceRuntimesTest {
     @Test
     public void removeMachineSubscriberShouldRemoveMachineIfItIsDevAndEventIsDestroyed() throws Exception {
         // prepare runtimes
-        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService));
+        runtimes = spy(new WorkspaceRuntimes(machineManager, eventService, new ExecutorRegistry()));
         doNothing().when(runtimes).removeMachine(anyString(), anyString(), anyString());
         // prepare event
         final MachineImpl machine = createMachine(true);
@@ -662,6 +728,48 @@ public class WorkspaceRuntimesTest {
         verify(machineManager).getMachines();
     }
 
+    @Test
+    public void shouldStartNonDevMachinesWhileDevMachineIsStarting() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace("db", "cache");
+        final CountDownLatch nonDevStarted = new CountDownLatch(2);
+
+        doAnswer(invocation -> {
+            final MachineConfig cfg = (MachineConfig)invocation.getArguments()[0];
+            if (cfg.isDev()) {
+                assertTrue(nonDevStarted.await(5, TimeUnit.SECONDS), "non-dev machines should be started with dev-machine");
+            } else {
+                nonDevStarted.countDown();
+            }
+            return createMachine(cfg);
+        }).when(machineManager).createMachineSync(any(), anyString(), anyString());
+
+        final RuntimeDescriptor descriptor = runtimes.start(workspace, workspace.getConfig().getDefaultEnv());
+
+        assertEquals(descriptor.getRuntimeStatus(), RUNNING);
+        assertEquals(descriptor.getRuntime().getMachines().size(), 3);
+        assertEquals(descriptor.getMachineStartTimes().keySet(), new HashSet<>(asList("dev-machine", "db", "cache")));
+        assertFalse(runtimes.startQueues.containsKey(workspace.getId()));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void shouldNotExposeMachineStartTimesForModification() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        final RuntimeDescriptor descriptor = runtimes.start(workspace, workspace.getConfig().getDefaultEnv());
+
+        descriptor.getMachineStartTimes().clear();
+    }
+
+    @Test
+    public void shouldPromiseToAddNonDevMachineIfStatusIsStartingAndStartQueueContainsMachine() throws Exception {
+        when(descriptor.getRuntimeStatus()).thenReturn(STARTING);
+        final ArrayDeque<MachineConfigImpl> queue = new ArrayDeque<>();
+        queue.add(createConfig(false));
+        runtimes.descriptors.put(WORKSPACE_ID, descriptor);
+        runtimes.startQueues.put(WORKSPACE_ID, queue);
+
+        assertTrue(runtimes.addMachine(createMachine(false)), "should be added later");
+    }
+
     @DataProvider(name = "workspaceStatusesExceptOfRunning")
     private Object[][] workspaceStatusesExceptOfRunning() {
         final EnumSet<WorkspaceStatus> events = EnumSet.allOf(WorkspaceStatus.class);
@@ -724,16 +832,32 @@ public class WorkspaceRuntimesTest {
                                 .build();
     }
 
+    private void awaitStatus(String workspaceId, WorkspaceStatus status) throws Exception {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (runtimes.get(workspaceId).getRuntimeStatus() != status) {
+            assertTrue(System.currentTimeMillis() < deadline, "Workspace status is not " + status);
+            Thread.sleep(10);
+        }
+    }
+
     private static WorkspaceImpl createWorkspace() {
+        return createWorkspace("non-dev");
+    }
+
+    private static WorkspaceImpl createWorkspace(String... nonDevMachines) {
         final MachineConfigImpl devCfg = createConfig(true);
-        final MachineConfigImpl nonDevCfg = MachineConfigImpl.builder()
-                                                             .fromConfig(devCfg)
-                                                             .setName("non-dev")
-                                                             .setDev(false)
-                                                             .build();
+        final List<MachineConfigImpl> machineConfigs = new ArrayList<>();
+        for (String name : nonDevMachines) {
+            machineConfigs.add(MachineConfigImpl.builder()
+                                                .fromConfig(devCfg)
+                                                .setName(name)
+                                                .setDev(false)
+                                                .build());
+        }
+        machineConfigs.add(devCfg);
         final EnvironmentImpl environment = new EnvironmentImpl(ENV_NAME,
                                                                 new RecipeImpl(),
-                                                                asList(nonDevCfg, devCfg));
+                                                                machineConfigs);
         final WorkspaceConfigImpl wsConfig = WorkspaceConfigImpl.builder()
                                                                 .setName("test workspace")
                                                                 .setEnvironments(singletonList(environment))
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.server;
+
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.util.ExecutorRegistry;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType.QUEUED;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests {@link WorkspaceStartScheduler}.
+ *
+ * @author Yevhenii Voevodin
+ */
+@Listeners(MockitoTestNGListener.class)
+public class WorkspaceStartSchedulerTest {
+
+    @Mock
+    private EventService                         eventService;
+    @Captor
+    private ArgumentCaptor<WorkspaceStatusEvent> eventCaptor;
+
+    private ExecutorRegistry executors;
+    private CountDownLatch   release;
+    private List<String>     started;
+
+    @BeforeMethod
+    public void setUp() {
+        executors = new ExecutorRegistry();
+        release = new CountDownLatch(1);
+        started = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        release.countDown();
+        executors.shutdown();
+    }
+
+    @Test
+    public void shouldNotStartMoreWorkspacesThanLimit() throws Exception {
+        final WorkspaceStartScheduler scheduler = new WorkspaceStartScheduler(executors, eventService, 2, 10);
+
+        scheduler.schedule("ws1", "ns", blockingStart("ws1"));
+        scheduler.schedule("ws2", "ns", blockingStart("ws2"));
+        scheduler.schedule("ws3", "ns", blockingStart("ws3"));
+
+        assertEquals(scheduler.getRunningStarts(), 2);
+        assertEquals(scheduler.getQueuedStarts(), 1);
+        assertEquals(scheduler.getQueuePosition("ws3"), 1);
+
+        release.countDown();
+        awaitFinished(scheduler);
+        assertEquals(started.size(), 3);
+    }
+
+    @Test
+    public void shouldTakeStartsFromNamespacesInRoundRobinOrder() throws Exception {
+        final WorkspaceStartScheduler scheduler = new WorkspaceStartScheduler(executors, eventService, 1, 10);
+
+        scheduler.schedule("a1", "a", blockingStart("a1"));
+        scheduler.schedule("a2", "a", blockingStart("a2"));
+        scheduler.schedule("a3", "a", blockingStart("a3"));
+        scheduler.schedule("a4", "a", blockingStart("a4"));
+        scheduler.schedule("b1", "b", blockingStart("b1"));
+
+        assertEquals(scheduler.getQueuePosition("a2"), 1);
+        assertEquals(scheduler.getQueuePosition("b1"), 2);
+        assertEquals(scheduler.getQueuePosition("a3"), 3);
+        assertEquals(scheduler.getQueuePosition("a4"), 4);
+
+        release.countDown();
+        awaitFinished(scheduler);
+        assertEquals(started, asList("a1", "a2", "b1", "a3", "a4"));
+    }
+
+    @Test
+    public void shouldPublishQueuePositionOfWorkspace() throws Exception {
+        final WorkspaceStartScheduler scheduler = new WorkspaceStartScheduler(executors, eventService, 1, 10);
+
+        scheduler.schedule("ws1", "ns", blockingStart("ws1"));
+        scheduler.schedule("ws2", "ns", blockingStart("ws2"));
+
+        verify(eventService, atLeastOnce()).publish(eventCaptor.capture());
+        final WorkspaceStatusEvent event = eventCaptor.getValue();
+        assertEquals(event.getEventType(), QUEUED);
+        assertEquals(event.getWorkspaceId(), "ws2");
+        assertEquals(event.getQueuePosition(), (Integer)1);
+    }
+
+    @Test(expectedExceptions = ServerException.class)
+    public void shouldRejectStartWhenQueueIsFull() throws Exception {
+        final WorkspaceStartScheduler scheduler = new WorkspaceStartScheduler(executors, eventService, 1, 1);
+
+        scheduler.schedule("ws1", "ns", blockingStart("ws1"));
+        scheduler.schedule("ws2", "ns", blockingStart("ws2"));
+        try {
+            scheduler.schedule("ws3", "ns", blockingStart("ws3"));
+        } finally {
+            assertEquals(scheduler.getRejectedStarts(), 1);
+        }
+    }
+
+    @Test(expectedExceptions = ConflictException.class)
+    public void shouldNotScheduleStartOfTheSameWorkspaceTwice() throws Exception {
+        final WorkspaceStartScheduler scheduler = new WorkspaceStartScheduler(executors, eventService, 1, 10);
+
+        scheduler.schedule("ws1", "ns", blockingStart("ws1"));
+        scheduler.schedule("ws1", "ns", blockingStart("ws1"));
+    }
+
+    @Test
+    public void shouldCancelQueuedStart() throws Exception {
+        final WorkspaceStartScheduler scheduler = new WorkspaceStartScheduler(executors, eventService, 1, 10);
+        scheduler.schedule("ws1", "ns", blockingStart("ws1"));
+        scheduler.schedule("ws2", "ns", blockingStart("ws2"));
+        scheduler.schedule("ws3", "ns", blockingStart("ws3"));
+
+        assertFalse(scheduler.cancel("ws1"));
+        assertTrue(scheduler.cancel("ws2"));
+
+        assertEquals(scheduler.getQueuePosition("ws3"), 1);
+        release.countDown();
+        awaitFinished(scheduler);
+        assertEquals(started, asList("ws1", "ws3"));
+    }
+
+    @Test
+    public void shouldCalculateStartTimePercentiles() throws Exception {
+        final WorkspaceStartScheduler scheduler = new WorkspaceStartScheduler(executors, eventService, 1, 10);
+        assertEquals(scheduler.getMedianStartTime(), 0);
+
+        scheduler.schedule("ws1", "ns", blockingStart("ws1"));
+        Thread.sleep(100);
+        release.countDown();
+        awaitFinished(scheduler);
+
+        assertTrue(scheduler.getMedianStartTime() >= 100);
+        assertEquals(scheduler.get99thPercentileStartTime(), scheduler.getMedianStartTime());
+    }
+
+    private Runnable blockingStart(String workspaceId) {
+        return () -> {
+            started.add(workspaceId);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private static void awaitFinished(WorkspaceStartScheduler scheduler) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while ((scheduler.getRunningStarts() > 0 || scheduler.getQueuedStarts() > 0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -20,98 +20,206 @@ import org.eclipse.che.api.machine.server.dao.SnapshotDao;
 import org.eclipse.che.api.machine.server.exception.SnapshotException;
 import org.eclipse.che.api.machine.server.model.impl.SnapshotImpl;
 import org.eclipse.che.api.machine.server.model.impl.adapter.MachineSourceAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static java.lang.String.format;
 import static java.util.Collections.singletonMap;
-import static java.util.stream.Collectors.toList;
 
 /**
  * In-memory implementation of {@link SnapshotDao}.
  *
+ * <p>Snapshots are indexed by workspace and machine, changes are journaled
+ * with {@link LocalStorage} so they are recovered by {@link #loadSnapshots()} after crash.
+ *
  * @author Yevhenii Voevodin
  */
 @Singleton
 public class LocalSnapshotDaoImpl implements SnapshotDao {
 
-    private final Map<String, SnapshotImpl> snapshots;
-    private final LocalStorage              snapshotStorage;
+    private static final Logger LOG = LoggerFactory.getLogger(LocalSnapshotDaoImpl.class);
+
+    /** Number of journal records after which snapshots are stored and journal is cleared. */
+    static final int COMPACTION_THRESHOLD = 1000;
+
+    private final Map<String, SnapshotImpl>              snapshots;
+    private final Map<String, SnapshotImpl>              machineSnapshots;
+    private final Map<String, Map<String, SnapshotImpl>> workspaceSnapshots;
+    private final LocalStorage                           snapshotStorage;
+    private final ReadWriteLock                          lock;
 
     @Inject
     public LocalSnapshotDaoImpl(LocalStorageFactory storageFactory) throws IOException {
         snapshots = new HashMap<>();
+        machineSnapshots = new HashMap<>();
+        workspaceSnapshots = new HashMap<>();
         snapshotStorage = storageFactory.create("snapshots.json", singletonMap(MachineSource.class, new MachineSourceAdapter()));
+        lock = new ReentrantReadWriteLock();
     }
 
     @Override
-    public synchronized SnapshotImpl getSnapshot(String workspaceId, String envName, String machineName) throws NotFoundException,
-                                                                                                                SnapshotException {
-        final Optional<SnapshotImpl> snapshotOpt = doGetSnapshot(workspaceId, envName, machineName);
-        if (!snapshotOpt.isPresent()) {
-            throw new NotFoundException(format("Snapshot with workspace id '%s', environment name '%s', machine name %s doesn't exist",
-                                               workspaceId, envName, machineName));
+    public SnapshotImpl getSnapshot(String workspaceId, String envName, String machineName) throws NotFoundException,
+                                                                                                 SnapshotException {
+        lock.readLock().lock();
+        try {
+            final SnapshotImpl snapshot = machineSnapshots.get(machineKey(workspaceId, envName, machineName));
+            if (snapshot == null) {
+                throw new NotFoundException(format("Snapshot with workspace id '%s', environment name '%s', machine name %s doesn't exist",
+                                                   workspaceId, envName, machineName));
+            }
+            return snapshot;
+        } finally {
+            lock.readLock().unlock();
         }
-        return snapshotOpt.get();
     }
 
     @Override
-    public synchronized SnapshotImpl getSnapshot(String snapshotId) throws NotFoundException, SnapshotException {
-        final SnapshotImpl snapshot = snapshots.get(snapshotId);
-        if (snapshot == null) {
-            throw new NotFoundException("Snapshot with id '" + snapshotId + "' doesn't exist");
+    public SnapshotImpl getSnapshot(String snapshotId) throws NotFoundException, SnapshotException {
+        lock.readLock().lock();
+        try {
+            final SnapshotImpl snapshot = snapshots.get(snapshotId);
+            if (snapshot == null) {
+                throw new NotFoundException("Snapshot with id '" + snapshotId + "' doesn't exist");
+            }
+            return snapshot;
+        } finally {
+            lock.readLock().unlock();
         }
-        return snapshot;
     }
 
     @Override
-    public synchronized void saveSnapshot(SnapshotImpl snapshot) throws SnapshotException {
+    public void saveSnapshot(SnapshotImpl snapshot) throws SnapshotException {
         Objects.requireNonNull(snapshot, "Required non-null snapshot");
-        final Optional<SnapshotImpl> opt = doGetSnapshot(snapshot.getWorkspaceId(), snapshot.getEnvName(), snapshot.getMachineName());
-        if (opt.isPresent()) {
-            snapshots.remove(opt.get().getId());
+        lock.writeLock().lock();
+        try {
+            final SnapshotImpl existing = machineSnapshots.get(machineKey(snapshot.getWorkspaceId(),
+                                                                          snapshot.getEnvName(),
+                                                                          snapshot.getMachineName()));
+            try {
+                if (existing != null) {
+                    snapshotStorage.appendRemove(existing.getId());
+                }
+                snapshotStorage.appendPut(snapshot.getId(), snapshot);
+            } catch (IOException e) {
+                throw new SnapshotException(e.getLocalizedMessage(), e);
+            }
+            if (existing != null) {
+                unindex(existing);
+            }
+            index(snapshot);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
         }
-        snapshots.put(snapshot.getId(), snapshot);
     }
 
     @Override
-    public synchronized List<SnapshotImpl> findSnapshots(String namespace, String workspaceId) throws SnapshotException {
-        return snapshots.values()
-                        .stream()
-                        .filter(snapshot -> snapshot.getNamespace().equals(namespace) && snapshot.getWorkspaceId().equals(workspaceId))
-                        .collect(toList());
+    public List<SnapshotImpl> findSnapshots(String namespace, String workspaceId) throws SnapshotException {
+        lock.readLock().lock();
+        try {
+            final List<SnapshotImpl> result = new ArrayList<>();
+            final Map<String, SnapshotImpl> byId = workspaceSnapshots.get(workspaceId);
+            if (byId != null) {
+                for (SnapshotImpl snapshot : byId.values()) {
+                    if (snapshot.getNamespace().equals(namespace)) {
+                        result.add(snapshot);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
-    public synchronized void removeSnapshot(String snapshotId) throws NotFoundException, SnapshotException {
-        snapshots.remove(snapshotId);
+    public void removeSnapshot(String snapshotId) throws NotFoundException, SnapshotException {
+        lock.writeLock().lock();
+        try {
+            final SnapshotImpl existing = snapshots.get(snapshotId);
+            if (existing != null) {
+                try {
+                    snapshotStorage.appendRemove(snapshotId);
+                } catch (IOException e) {
+                    throw new SnapshotException(e.getLocalizedMessage(), e);
+                }
+                unindex(existing);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @PostConstruct
-    public synchronized void loadSnapshots() {
-        snapshots.putAll(snapshotStorage.loadMap(new TypeToken<Map<String, SnapshotImpl>>() {}));
+    public void loadSnapshots() {
+        lock.writeLock().lock();
+        try {
+            for (SnapshotImpl snapshot : snapshotStorage.loadMap(new TypeToken<Map<String, SnapshotImpl>>() {}, SnapshotImpl.class)
+                                                        .values()) {
+                index(snapshot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @PreDestroy
-    public synchronized void saveSnapshots() throws IOException {
-        snapshotStorage.store(snapshots);
+    public void saveSnapshots() throws IOException {
+        lock.writeLock().lock();
+        try {
+            snapshotStorage.compact(snapshots);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Must be called with write lock. */
+    private void index(SnapshotImpl snapshot) {
+        snapshots.put(snapshot.getId(), snapshot);
+        machineSnapshots.put(machineKey(snapshot.getWorkspaceId(), snapshot.getEnvName(), snapshot.getMachineName()), snapshot);
+        workspaceSnapshots.computeIfAbsent(snapshot.getWorkspaceId(), id -> new HashMap<>()).put(snapshot.getId(), snapshot);
+    }
+
+    /** Must be called with write lock. */
+    private void unindex(SnapshotImpl snapshot) {
+        snapshots.remove(snapshot.getId());
+        machineSnapshots.remove(machineKey(snapshot.getWorkspaceId(), snapshot.getEnvName(), snapshot.getMachineName()), snapshot);
+        final Map<String, SnapshotImpl> byId = workspaceSnapshots.get(snapshot.getWorkspaceId());
+        if (byId != null) {
+            byId.remove(snapshot.getId());
+            if (byId.isEmpty()) {
+                workspaceSnapshots.remove(snapshot.getWorkspaceId());
+            }
+        }
+    }
+
+    /** Must be called with write lock. */
+    private void compactIfNeeded() {
+        if (snapshotStorage.getJournalSize() >= COMPACTION_THRESHOLD) {
+            try {
+                snapshotStorage.compact(snapshots);
+            } catch (IOException e) {
+                // changes are still in the journal, so try next time
+                LOG.error("Unable to compact snapshots storage. " + e.getLocalizedMessage(), e);
+            }
+        }
     }
 
-    private Optional<SnapshotImpl> doGetSnapshot(String workspaceId, String envName, String machineName) {
-        return snapshots.values()
-                        .stream()
-                        .filter(snapshot -> snapshot.getWorkspaceId().equals(workspaceId)
-                                            && snapshot.getEnvName().equals(envName)
-                                            && snapshot.getMachineName().equals(machineName))
-                        .findFirst();
+    private static String machineKey(String workspaceId, String envName, String machineName) {
+        return workspaceId + '/' + envName + '/' + machineName;
     }
 }
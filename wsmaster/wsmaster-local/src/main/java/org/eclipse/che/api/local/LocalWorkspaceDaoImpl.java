@@ -24,6 +24,8 @@ import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.machine.server.recipe.adapters.RecipeTypeAdapter;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -34,18 +36,23 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static java.lang.String.format;
-import static java.util.stream.Collectors.toList;
 
 /**
  * In memory based implementation of {@link WorkspaceDao}.
  *
  * <p>{@link #loadWorkspaces() Loads} & {@link #saveWorkspaces() stores} in memory workspaces
- * to/from filesystem, when component starts/stops.
+ * to/from filesystem, when component starts/stops. Each change is also appended to the journal
+ * of the local storage, so it is recovered by {@link #loadWorkspaces()} after crash, journal is
+ * compacted to the stored file when it has {@link #COMPACTION_THRESHOLD} records.
  *
- * @implNote it is thread-safe, guarded by <i>this</i> instance
+ * <p>Workspaces are indexed by namespace and name, so lookups by name and namespace
+ * don't scan all the workspaces.
+ *
+ * @implNote it is thread-safe, guarded by read-write lock
  *
  * @author Eugene Voevodin
  * @author Dmitry Shnurenko
@@ -54,8 +61,15 @@ import static java.util.stream.Collectors.toList;
 @Singleton
 public class LocalWorkspaceDaoImpl implements WorkspaceDao {
 
-    private final Map<String, WorkspaceImpl> workspaces;
-    private final LocalStorage               localStorage;
+    private static final Logger LOG = LoggerFactory.getLogger(LocalWorkspaceDaoImpl.class);
+
+    /** Number of journal records after which workspaces are stored and journal is cleared. */
+    static final int COMPACTION_THRESHOLD = 1000;
+
+    private final Map<String, WorkspaceImpl>              workspaces;
+    private final Map<String, Map<String, WorkspaceImpl>> namespaces;
+    private final LocalStorage                            localStorage;
+    private final ReadWriteLock                           lock;
 
     @Inject
     public LocalWorkspaceDaoImpl(LocalStorageFactory factory) throws IOException {
@@ -63,90 +77,205 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
                                                                ProjectConfig.class, new ProjectConfigAdapter());
         this.localStorage = factory.create("workspaces.json", adapters);
         this.workspaces = new HashMap<>();
+        this.namespaces = new HashMap<>();
+        this.lock = new ReentrantReadWriteLock();
     }
 
     @PostConstruct
-    public synchronized void loadWorkspaces() {
-        workspaces.putAll(localStorage.loadMap(new TypeToken<Map<String, WorkspaceImpl>>() {}));
-        for (WorkspaceImpl workspace : workspaces.values()) {
-            workspace.setRuntime(null);
+    public void loadWorkspaces() {
+        lock.writeLock().lock();
+        try {
+            final Map<String, WorkspaceImpl> loaded = localStorage.loadMap(new TypeToken<Map<String, WorkspaceImpl>>() {},
+                                                                           WorkspaceImpl.class);
+            for (WorkspaceImpl workspace : loaded.values()) {
+                workspace.setRuntime(null);
+                index(workspace);
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
     @PreDestroy
-    public synchronized void saveWorkspaces() throws IOException {
-        localStorage.store(workspaces);
+    public void saveWorkspaces() throws IOException {
+        lock.writeLock().lock();
+        try {
+            localStorage.compact(workspaces);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized WorkspaceImpl create(WorkspaceImpl workspace) throws ConflictException, ServerException {
-        if (workspaces.containsKey(workspace.getId())) {
-            throw new ConflictException("Workspace with id " + workspace.getId() + " already exists");
-        }
-        if (find(workspace.getConfig().getName(), workspace.getNamespace()).isPresent()) {
-            throw new ConflictException(format("Workspace with name %s and owner %s already exists",
-                                               workspace.getConfig().getName(),
-                                               workspace.getNamespace()));
+    public WorkspaceImpl create(WorkspaceImpl workspace) throws ConflictException, ServerException {
+        lock.writeLock().lock();
+        try {
+            if (workspaces.containsKey(workspace.getId())) {
+                throw new ConflictException("Workspace with id " + workspace.getId() + " already exists");
+            }
+            if (find(workspace.getConfig().getName(), workspace.getNamespace()) != null) {
+                throw new ConflictException(format("Workspace with name %s and owner %s already exists",
+                                                   workspace.getConfig().getName(),
+                                                   workspace.getNamespace()));
+            }
+            workspace.setRuntime(null);
+            workspace.setStatus(WorkspaceStatus.STOPPED);
+            final WorkspaceImpl stored = new WorkspaceImpl(workspace);
+            journalPut(stored);
+            index(stored);
+            compactIfNeeded();
+            return workspace;
+        } finally {
+            lock.writeLock().unlock();
         }
-        workspace.setRuntime(null);
-        workspace.setStatus(WorkspaceStatus.STOPPED);
-        workspaces.put(workspace.getId(), new WorkspaceImpl(workspace));
-        return workspace;
     }
 
     @Override
-    public synchronized WorkspaceImpl update(WorkspaceImpl workspace)
+    public WorkspaceImpl update(WorkspaceImpl workspace)
             throws NotFoundException, ConflictException, ServerException {
-        if (!workspaces.containsKey(workspace.getId())) {
-            throw new NotFoundException("Workspace with id " + workspace.getId() + " was not found");
+        lock.writeLock().lock();
+        try {
+            final WorkspaceImpl existing = workspaces.get(workspace.getId());
+            if (existing == null) {
+                throw new NotFoundException("Workspace with id " + workspace.getId() + " was not found");
+            }
+            final WorkspaceImpl sameName = find(workspace.getConfig().getName(), workspace.getNamespace());
+            if (sameName != null && !sameName.getId().equals(workspace.getId())) {
+                throw new ConflictException(format("Workspace with name %s and owner %s already exists",
+                                                   workspace.getConfig().getName(),
+                                                   workspace.getNamespace()));
+            }
+            workspace.setStatus(null);
+            workspace.setRuntime(null);
+            final WorkspaceImpl stored = new WorkspaceImpl(workspace);
+            journalPut(stored);
+            unindex(existing);
+            index(stored);
+            compactIfNeeded();
+            return workspace;
+        } finally {
+            lock.writeLock().unlock();
         }
-        workspace.setStatus(null);
-        workspace.setRuntime(null);
-        workspaces.put(workspace.getId(), new WorkspaceImpl(workspace));
-        return workspace;
     }
 
     @Override
-    public synchronized void remove(String id) throws ConflictException, ServerException {
-        workspaces.remove(id);
+    public void remove(String id) throws ConflictException, ServerException {
+        lock.writeLock().lock();
+        try {
+            final WorkspaceImpl existing = workspaces.get(id);
+            if (existing != null) {
+                try {
+                    localStorage.appendRemove(id);
+                } catch (IOException e) {
+                    throw new ServerException(e.getLocalizedMessage(), e);
+                }
+                unindex(existing);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized WorkspaceImpl get(String id) throws NotFoundException, ServerException {
-        final WorkspaceImpl workspace = workspaces.get(id);
-        if (workspace == null) {
-            throw new NotFoundException("Workspace with id " + id + " was not found");
+    public WorkspaceImpl get(String id) throws NotFoundException, ServerException {
+        lock.readLock().lock();
+        try {
+            final WorkspaceImpl workspace = workspaces.get(id);
+            if (workspace == null) {
+                throw new NotFoundException("Workspace with id " + id + " was not found");
+            }
+            return new WorkspaceImpl(workspace);
+        } finally {
+            lock.readLock().unlock();
         }
-        return new WorkspaceImpl(workspace);
     }
 
     @Override
-    public synchronized WorkspaceImpl get(String name, String namespace) throws NotFoundException, ServerException {
-        final Optional<WorkspaceImpl> wsOpt = find(name, namespace);
-        if (!wsOpt.isPresent()) {
-            throw new NotFoundException(format("Workspace with name %s and owner %s was not found", name, namespace));
+    public WorkspaceImpl get(String name, String namespace) throws NotFoundException, ServerException {
+        lock.readLock().lock();
+        try {
+            final WorkspaceImpl workspace = find(name, namespace);
+            if (workspace == null) {
+                throw new NotFoundException(format("Workspace with name %s and owner %s was not found", name, namespace));
+            }
+            return new WorkspaceImpl(workspace);
+        } finally {
+            lock.readLock().unlock();
         }
-        return new WorkspaceImpl(wsOpt.get());
     }
 
     @Override
-    public synchronized List<WorkspaceImpl> getByNamespace(String namespace) throws ServerException {
-        return workspaces.values()
-                         .stream()
-                         .filter(ws -> ws.getNamespace().equals(namespace))
-                         .map(WorkspaceImpl::new)
-                         .collect(toList());
+    public List<WorkspaceImpl> getByNamespace(String namespace) throws ServerException {
+        lock.readLock().lock();
+        try {
+            final Map<String, WorkspaceImpl> byName = namespaces.get(namespace);
+            if (byName == null) {
+                return new ArrayList<>();
+            }
+            final List<WorkspaceImpl> result = new ArrayList<>(byName.size());
+            for (WorkspaceImpl workspace : byName.values()) {
+                result.add(new WorkspaceImpl(workspace));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public List<WorkspaceImpl> getWorkspaces(String userId) throws ServerException {
-        return new ArrayList<>(workspaces.values());
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(workspaces.values());
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
-    private Optional<WorkspaceImpl> find(String name, String owner) {
-        return workspaces.values()
-                         .stream()
-                         .filter(ws -> ws.getConfig().getName().equals(name) && ws.getNamespace().equals(owner))
-                         .findFirst();
+    /** Must be called with read lock. */
+    private WorkspaceImpl find(String name, String namespace) {
+        final Map<String, WorkspaceImpl> byName = namespaces.get(namespace);
+        return byName == null ? null : byName.get(name);
+    }
+
+    /** Must be called with write lock. */
+    private void index(WorkspaceImpl workspace) {
+        workspaces.put(workspace.getId(), workspace);
+        namespaces.computeIfAbsent(workspace.getNamespace(), ns -> new HashMap<>())
+                  .put(workspace.getConfig().getName(), workspace);
+    }
+
+    /** Must be called with write lock. */
+    private void unindex(WorkspaceImpl workspace) {
+        workspaces.remove(workspace.getId());
+        final Map<String, WorkspaceImpl> byName = namespaces.get(workspace.getNamespace());
+        if (byName != null) {
+            byName.remove(workspace.getConfig().getName(), workspace);
+            if (byName.isEmpty()) {
+                namespaces.remove(workspace.getNamespace());
+            }
+        }
+    }
+
+    /** Must be called with write lock. */
+    private void journalPut(WorkspaceImpl workspace) throws ServerException {
+        try {
+            localStorage.appendPut(workspace.getId(), workspace);
+        } catch (IOException e) {
+            throw new ServerException(e.getLocalizedMessage(), e);
+        }
+    }
+
+    /** Must be called with write lock. */
+    private void compactIfNeeded() {
+        if (localStorage.getJournalSize() >= COMPACTION_THRESHOLD) {
+            try {
+                localStorage.compact(workspaces);
+            } catch (IOException e) {
+                // changes are still in the journal, so try next time
+                LOG.error("Unable to compact workspaces storage. " + e.getLocalizedMessage(), e);
+            }
+        }
     }
 }
@@ -15,34 +15,56 @@ import com.google.common.io.Files;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Implementation of file system storage for model objects.
  *
+ * <p>Storage of the map may be journaled: each change of the map is appended to the journal file
+ * with {@link #appendPut(String, Object)} or {@link #appendRemove(String)} so changes are not lost
+ * if the process crashes before the map is {@link #store(Object) stored}. {@link #loadMap(TypeToken, Class)}
+ * replays the journal over the stored map and {@link #compact(Object)} stores the map and clears the journal.
+ *
  * @author Anton Korneta
  */
 public class LocalStorage {
 
     private static final Logger LOG = LoggerFactory.getLogger(LocalStorage.class);
 
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String OP_PUT         = "put";
+    private static final String OP_REMOVE      = "remove";
+
     /**
      * json file to store and load
      */
     private File storedFile;
+    private File journalFile;
     private Gson gson;
+    private Gson journalGson;
+    private int  journalSize;
 
     public LocalStorage(String rootDirPath, String fileName) throws IOException {
         this(rootDirPath, fileName, Collections.emptyMap());
@@ -54,17 +76,135 @@ public class LocalStorage {
             throw new IOException("Impossible to create root folder for local storage");
         }
         storedFile = new File(rootDir, fileName);
+        journalFile = new File(rootDir, fileName + JOURNAL_SUFFIX);
         GsonBuilder builder = new GsonBuilder();
         for (Map.Entry<Class<?>, Object> adapter : typeAdapters.entrySet()) {
             builder.registerTypeAdapter(adapter.getKey(), adapter.getValue());
         }
+        // journal record must be a single line
+        journalGson = builder.create();
         gson = builder.setPrettyPrinting().create();
     }
 
+    /**
+     * Stores object to the file. Object is written to the temporary file which then replaces
+     * the stored file, so stored file is never left partially written.
+     */
     public void store(Object storedObj) throws IOException {
-        try (Writer writer = Files.newWriter(storedFile, Charset.forName("UTF-8"))) {
+        final File tmp = new File(storedFile.getParentFile(), storedFile.getName() + ".tmp");
+        try (Writer writer = Files.newWriter(tmp, Charset.forName("UTF-8"))) {
             gson.toJson(storedObj, writer);
         }
+        try {
+            java.nio.file.Files.move(tmp.toPath(), storedFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            java.nio.file.Files.move(tmp.toPath(), storedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Stores the map and clears the journal, as all the journaled changes are in the stored map.
+     * Caller must guarantee that map is not changed concurrently.
+     */
+    public synchronized void compact(Object storedMap) throws IOException {
+        store(storedMap);
+        java.nio.file.Files.write(journalFile.toPath(), new byte[0]);
+        journalSize = 0;
+    }
+
+    /** Appends putting of the value to the journal. */
+    public void appendPut(String key, Object value) throws IOException {
+        final JsonObject record = new JsonObject();
+        record.addProperty("op", OP_PUT);
+        record.addProperty("key", key);
+        record.add("value", journalGson.toJsonTree(value));
+        append(record);
+    }
+
+    /** Appends removal of the value to the journal. */
+    public void appendRemove(String key) throws IOException {
+        final JsonObject record = new JsonObject();
+        record.addProperty("op", OP_REMOVE);
+        record.addProperty("key", key);
+        append(record);
+    }
+
+    /** Returns number of records in the journal, it may be used to decide when the map should be {@link #compact(Object) compacted}. */
+    public synchronized int getJournalSize() {
+        return journalSize;
+    }
+
+    private synchronized void append(JsonObject record) throws IOException {
+        final byte[] line = (journalGson.toJson(record) + '\n').getBytes(StandardCharsets.UTF_8);
+        java.nio.file.Files.write(journalFile.toPath(), line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        journalSize++;
+    }
+
+    /**
+     * Loads the stored map and applies the journaled changes to it.
+     * Partially written last record of the journal is cut off, so the next record
+     * is not appended to it.
+     *
+     * @param mapToken
+     *         map type holder
+     * @param valueType
+     *         type of the map values
+     * @return map objects from json file with changes from journal, never null
+     */
+    public synchronized <V> Map<String, V> loadMap(TypeToken<Map<String, V>> mapToken, Class<V> valueType) {
+        final Map<String, V> result = new HashMap<>(loadMap(mapToken));
+        journalSize = 0;
+        try (BufferedReader reader = Files.newReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                journalSize++;
+                try {
+                    final JsonObject record = journalGson.fromJson(line, JsonObject.class);
+                    final String key = record.get("key").getAsString();
+                    if (OP_REMOVE.equals(record.get("op").getAsString())) {
+                        result.remove(key);
+                    } else {
+                        result.put(key, journalGson.fromJson(record.get("value"), valueType));
+                    }
+                } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+                    // the last record may be partially written if process crashed
+                    LOG.warn("Skipped invalid record of journal {}", journalFile.getName());
+                }
+            }
+        } catch (FileNotFoundException e) {
+            LOG.debug("Journal {} doesn't exist", journalFile.getName());
+            return result;
+        } catch (IOException e) {
+            LOG.error("Impossible to read journal " + journalFile.getName(), e);
+        }
+        try {
+            truncateIncompleteRecord();
+        } catch (IOException e) {
+            LOG.error("Impossible to truncate journal " + journalFile.getName(), e);
+        }
+        return result;
+    }
+
+    /** Cuts off everything after the last line separator of the journal, i.e. the record which was not written completely. */
+    private void truncateIncompleteRecord() throws IOException {
+        try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(1);
+            long end = channel.size();
+            while (end > 0) {
+                buffer.clear();
+                if (channel.read(buffer, end - 1) == 1 && buffer.get(0) == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < channel.size()) {
+                LOG.warn("Cut off incomplete record of journal {}", journalFile.getName());
+                channel.truncate(end);
+            }
+        }
     }
 
     /**
@@ -25,6 +25,7 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static java.nio.file.Files.deleteIfExists;
 import static java.nio.file.Files.readAllBytes;
 import static java.nio.file.Files.write;
 import static java.util.Collections.singletonMap;
@@ -55,6 +56,7 @@ public class LocalSnapshotDaoTest {
         final Path targetDir = Paths.get(url.toURI()).getParent();
         final Path storageRoot = targetDir.resolve("snapshots");
         snapshotsPath = storageRoot.resolve("snapshots.json");
+        deleteIfExists(storageRoot.resolve("snapshots.json.journal"));
         snapshotDao = new LocalSnapshotDaoImpl(new LocalStorageFactory(storageRoot.toString()));
     }
 
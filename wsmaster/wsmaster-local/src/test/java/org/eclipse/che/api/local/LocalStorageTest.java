@@ -22,8 +22,10 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -174,6 +176,33 @@ public class LocalStorageTest {
         assertTrue(map.isEmpty());
     }
 
+    @Test
+    public void journalRecordWrittenAfterRecoveryFromIncompleteRecordIsNotLostTest() throws IOException {
+        final File storedFile = new File(storageDir, "journaled.json");
+        final File journalFile = new File(storageDir, "journaled.json.journal");
+        storedFile.delete();
+        journalFile.delete();
+        storage = new LocalStorage(storageDir, storedFile.getName());
+        storage.appendPut("first", "value1");
+        // process crashed while the record was written
+        java.nio.file.Files.write(journalFile.toPath(),
+                                  "{\"op\":\"put\",\"key\":\"sec".getBytes(StandardCharsets.UTF_8),
+                                  StandardOpenOption.APPEND);
+
+        storage = new LocalStorage(storageDir, storedFile.getName());
+        final Map<String, String> recovered = storage.loadMap(new TypeToken<Map<String, String>>() {}, String.class);
+        storage.appendPut("third", "value3");
+        storage = new LocalStorage(storageDir, storedFile.getName());
+        final Map<String, String> recoveredAgain = storage.loadMap(new TypeToken<Map<String, String>>() {}, String.class);
+
+        assertEquals(recovered, Collections.singletonMap("first", "value1"));
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("first", "value1");
+        expected.put("third", "value3");
+        assertEquals(recoveredAgain, expected);
+        assertEquals(storage.getJournalSize(), 2);
+    }
+
 
     private Path targetDir() throws URISyntaxException {
         final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
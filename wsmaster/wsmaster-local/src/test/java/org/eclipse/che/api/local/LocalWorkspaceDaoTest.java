@@ -13,6 +13,8 @@ package org.eclipse.che.api.local;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.machine.server.model.impl.CommandImpl;
 import org.eclipse.che.api.machine.server.model.impl.LimitsImpl;
@@ -30,6 +32,7 @@ import org.testng.annotations.Test;
 
 import java.net.URL;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -38,6 +41,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.file.Files.deleteIfExists;
 import static java.nio.file.Files.readAllBytes;
 import static java.nio.file.Files.write;
 import static java.util.Arrays.asList;
@@ -46,6 +50,7 @@ import static java.util.Collections.singletonMap;
 import static org.eclipse.che.commons.lang.NameGenerator.generate;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.fail;
 
 /**
  * @author Eugene Voevodin
@@ -56,6 +61,8 @@ public class LocalWorkspaceDaoTest {
 
     LocalWorkspaceDaoImpl workspaceDao;
     Path                  workspacesPath;
+    Path                  journalPath;
+    LocalStorageFactory   storageFactory;
 
     @BeforeMethod
     public void setUp() throws Exception {
@@ -64,7 +71,11 @@ public class LocalWorkspaceDaoTest {
         final Path targetDir = Paths.get(url.toURI()).getParent();
         final Path storageRoot = targetDir.resolve("workspaces");
         workspacesPath = storageRoot.resolve("workspaces.json");
-        workspaceDao = new LocalWorkspaceDaoImpl(new LocalStorageFactory(storageRoot.toString()));
+        journalPath = storageRoot.resolve("workspaces.json.journal");
+        deleteIfExists(workspacesPath);
+        deleteIfExists(journalPath);
+        storageFactory = new LocalStorageFactory(storageRoot.toString());
+        workspaceDao = new LocalWorkspaceDaoImpl(storageFactory);
     }
 
     @Test
@@ -88,6 +99,89 @@ public class LocalWorkspaceDaoTest {
         assertEquals(result, workspace);
     }
 
+    @Test
+    public void shouldRecoverChangesFromJournalWhenWorkspacesWereNotSaved() throws Exception {
+        final WorkspaceImpl workspace1 = createWorkspace();
+        final WorkspaceImpl workspace2 = createWorkspace();
+        workspace2.getConfig().setName("test-workspace-name-2");
+        workspaceDao.create(workspace1);
+        workspaceDao.create(workspace2);
+        workspace1.getConfig().setDescription("updated");
+        workspaceDao.update(workspace1);
+        workspaceDao.remove(workspace2.getId());
+
+        final LocalWorkspaceDaoImpl recovered = new LocalWorkspaceDaoImpl(storageFactory);
+        recovered.loadWorkspaces();
+
+        assertEquals(recovered.get(workspace1.getId()).getConfig(), workspace1.getConfig());
+        assertEquals(recovered.get(workspace1.getConfig().getName(), workspace1.getNamespace()).getId(), workspace1.getId());
+        assertEquals(recovered.getByNamespace(workspace1.getNamespace()).size(), 1);
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void shouldNotRecoverRemovedWorkspace() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        workspaceDao.create(workspace);
+        workspaceDao.saveWorkspaces();
+        workspaceDao.remove(workspace.getId());
+
+        final LocalWorkspaceDaoImpl recovered = new LocalWorkspaceDaoImpl(storageFactory);
+        recovered.loadWorkspaces();
+
+        recovered.get(workspace.getId());
+    }
+
+    @Test
+    public void shouldSkipPartiallyWrittenJournalRecord() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        workspaceDao.create(workspace);
+        write(journalPath, "{\"op\":\"put\",\"key\":\"ws".getBytes(), StandardOpenOption.APPEND);
+
+        final LocalWorkspaceDaoImpl recovered = new LocalWorkspaceDaoImpl(storageFactory);
+        recovered.loadWorkspaces();
+
+        assertEquals(recovered.get(workspace.getId()), workspace);
+        assertEquals(recovered.getWorkspaces("user123").size(), 1);
+    }
+
+    @Test
+    public void shouldFindWorkspaceByNewNameAfterRename() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        workspaceDao.create(workspace);
+        final String oldName = workspace.getConfig().getName();
+        workspace.getConfig().setName("renamed");
+
+        workspaceDao.update(workspace);
+
+        assertEquals(workspaceDao.get("renamed", workspace.getNamespace()).getId(), workspace.getId());
+        try {
+            workspaceDao.get(oldName, workspace.getNamespace());
+            fail("Workspace must not be found by old name");
+        } catch (NotFoundException ignored) {
+        }
+    }
+
+    @Test
+    public void shouldNotRenameWorkspaceToNameOfAnotherWorkspaceOfTheSameNamespace() throws Exception {
+        final WorkspaceImpl workspace1 = createWorkspace();
+        workspace1.getConfig().setName("first");
+        workspaceDao.create(workspace1);
+        final WorkspaceImpl workspace2 = createWorkspace();
+        workspace2.getConfig().setName("second");
+        workspaceDao.create(workspace2);
+        workspace2.getConfig().setName("first");
+
+        try {
+            workspaceDao.update(workspace2);
+            fail("ConflictException expected");
+        } catch (ConflictException ignored) {
+        }
+
+        assertEquals(workspaceDao.get("first", "user123").getId(), workspace1.getId());
+        assertEquals(workspaceDao.get("second", "user123").getId(), workspace2.getId());
+        assertEquals(workspaceDao.getByNamespace("user123").size(), 2);
+    }
+
     private static WorkspaceImpl createWorkspace() {
         // environments
         final RecipeImpl recipe = new RecipeImpl();